@@ -1,11 +1,43 @@
 package building;
 
+import building.dispatch.ArrivalTable;
+import building.dispatch.Assignment;
+import building.dispatch.DispatchContext;
+import building.dispatch.DispatchStrategy;
+import building.dispatch.FifoDispatchStrategy;
+import building.dispatch.ParkingPolicy;
+import building.enums.Direction;
+import building.enums.ElevatorEngine;
 import building.enums.ElevatorSystemStatus;
 import elevator.Elevator;
+import elevator.ElevatorActor;
+import elevator.ElevatorActors;
+import elevator.ElevatorBank;
 import elevator.ElevatorInterface;
 import elevator.ElevatorReport;
+import elevator.ElevatorState;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import journal.EventJournal;
+import journal.JournalEvent;
 import scanerzus.Request;
 
 
@@ -13,13 +45,67 @@ import scanerzus.Request;
  * This class represents a building.
  */
 public class Building implements BuildingInterface {
+  /**
+   * The default number of elevators from which the elevators are stepped in parallel.
+   */
+  public static final int DEFAULT_PARALLEL_THRESHOLD = 1024;
+  /**
+   * The number of submitted requests that may wait for the next step.
+   */
+  public static final int SUBMITTED_REQUESTS_CAPACITY = 1 << 16;
+
+  // "ELEV" followed by the version of the checkpoint layout.
+  private static final int CHECKPOINT_MAGIC = 0x454C4556;
+  private static final int CHECKPOINT_VERSION = 8;
+  private static final int CHECKPOINT_PREFIX = 2 * Integer.BYTES + Long.BYTES;
+
   private final int numberOfFloors;
   private final int numberOfElevators;
   private final int elevatorCapacity;
   private final ElevatorInterface[] elevators;
-  private final List<Request> upRequests = new ArrayList<>();
+  private final ElevatorEngine engine;
+  private final boolean tallTower;
+  private boolean lookMode = false;
+  // the bank behind the elevators when the bank engine is used, null otherwise.
+  private final ElevatorBank bank;
+  // the group of the elevator actors when the actor engine is used, null otherwise.
+  private final ElevatorActors actors;
+  // the tick at which every elevator next changes state, -1 when it is not known.
+  private final long[] nextEventTicks;
+  private boolean nextEventTicksInUse = false;
+  // the arrival tables of the elevators for estimates, null when they have to be built again.
+  private final ArrivalTable[] arrivalTables;
+  // requests submitted from other threads, handed in at the start of every step.
+  private final RequestRing submittedRequests = new RequestRing(SUBMITTED_REQUESTS_CAPACITY);
+  private final Consumer<Request> addRequest = this::handleAddRequest;
   private ElevatorSystemStatus elevatorsStatus;
-  private final List<Request> downRequests = new ArrayList<>();
+  // the zones of the building, with the waiting requests of every zone in its context.
+  private final Zone[] zones;
+  private final ZoneRoutes routes;
+  private final Dispatch[] dispatches;
+  private final List<Request> upRequests;
+  private final List<Request> downRequests;
+  // the rest of the trips of riders who change elevators, by the leg they wait for.
+  private final Map<Request, Integer> waitingTransfers = new IdentityHashMap<>();
+  // the parties handed to every elevator, until they get out or are left behind.
+  private final List<List<Rider>> riders;
+  private int riderCount = 0;
+  // the number of people in every elevator.
+  private final int[] loads;
+  private DispatchStrategy dispatchStrategy = new FifoDispatchStrategy();
+  private ParkingPolicy parkingPolicy;
+  private long currentTick = 0;
+  private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+  private ForkJoinPool stepPool = ForkJoinPool.commonPool();
+  private long requestsAccepted = 0;
+  private long requestsDispatched = 0;
+  private long ridersDelivered = 0;
+  private long ridersLeftBehind = 0;
+  // the ticks a person takes to get in or out, and a reopened door stays open longer.
+  private int transferTime = 0;
+  private int reopenExtension = 0;
+  // records the events of the building in a journal, null when nothing is recorded.
+  private StepRecorder recorder = null;
 
   /**
    * The constructor for the building.
@@ -34,23 +120,162 @@ public class Building implements BuildingInterface {
 
   public Building(int numberOfFloors, int numberOfElevators, int elevatorCapacity)
       throws IllegalArgumentException {
+    this(numberOfFloors, numberOfElevators, elevatorCapacity, ElevatorEngine.OBJECT);
+  }
+
+  /**
+   * The constructor for the building with a choice of elevator engine.
+   * The object engine creates one Elevator per car, the bank engine keeps all cars in
+   * one ElevatorBank, and the actor engine runs every Elevator as an ElevatorActor that the
+   * building only sends messages to. The object and actor engines behave the same. The bank
+   * engine moves its cars the same way but has no LOOK mode, zones, parking, picking up on the
+   * way or reopen extension.
+   *
+   * @param numberOfFloors    the number of floors in the building.
+   * @param numberOfElevators the number of elevators in the building.
+   * @param elevatorCapacity  the capacity of the elevators in the building.
+   * @param engine            how the elevators are kept in memory.
+   * @throws IllegalArgumentException if the number of floors is less than 2, the number of
+   *                                  elevators is less than 1, or the elevator capacity is less
+   *                                  than 1.
+   */
+  public Building(int numberOfFloors, int numberOfElevators, int elevatorCapacity,
+                  ElevatorEngine engine) throws IllegalArgumentException {
+    this(numberOfFloors, numberOfElevators, elevatorCapacity, engine, false);
+  }
+
+  /**
+   * The constructor for the building with a choice of elevator engine and tall-tower mode.
+   * A tall tower may have up to Elevator.TALL_TOWER_MAX_FLOORS floors and elevators that
+   * carry up to Elevator.TALL_TOWER_MAX_OCCUPANCY people.
+   * The elevators of every building are numbered from 0 whatever the engine.
+   *
+   * @param numberOfFloors    the number of floors in the building.
+   * @param numberOfElevators the number of elevators in the building.
+   * @param elevatorCapacity  the capacity of the elevators in the building.
+   * @param engine            how the elevators are kept in memory.
+   * @param tallTower         true to allow the tall-tower limits of the elevators.
+   * @throws IllegalArgumentException if the number of floors is less than 2, the number of
+   *                                  elevators is less than 1, or the elevator capacity is less
+   *                                  than 1.
+   */
+  public Building(int numberOfFloors, int numberOfElevators, int elevatorCapacity,
+                  ElevatorEngine engine, boolean tallTower) throws IllegalArgumentException {
+    this(numberOfFloors, wholeBuilding(numberOfFloors, numberOfElevators), elevatorCapacity,
+        engine, tallTower);
+  }
+
+  /**
+   * The constructor for a zoned building.
+   * The elevators are numbered zone by zone in the order of the zones, and only serve the
+   * floors of their zone. A request that no zone serves on its own is routed through the
+   * floors where the zones meet, one leg after the other: the next leg starts waiting when
+   * the elevator of the last one opens its door on the floor the leg ends on.
+   * Zones need the object or actor engine.
+   *
+   * @param numberOfFloors   the number of floors in the building.
+   * @param zones            the zones of the building, together serving every floor.
+   * @param elevatorCapacity the capacity of the elevators in the building.
+   * @param engine           how the elevators are kept in memory.
+   * @param tallTower        true to allow the tall-tower limits of the elevators.
+   * @throws IllegalArgumentException if the number of floors is less than 2, there are no
+   *                                  zones, the elevator capacity is less than 1, a floor
+   *                                  cannot be reached from the ground floor, or the bank
+   *                                  engine is used with zones.
+   */
+  public Building(int numberOfFloors, List<Zone> zones, int elevatorCapacity,
+                  ElevatorEngine engine, boolean tallTower) throws IllegalArgumentException {
     if (numberOfFloors < 2) {
       throw new IllegalArgumentException("Number of floors should be larger or equals to 2");
-    } else if (numberOfElevators < 1) {
+    } else if (zones.isEmpty()) {
       throw new IllegalArgumentException("At least one elevator is required.");
     } else if (elevatorCapacity < 1) {
       throw new IllegalArgumentException("Capacity of elevator should be larger or equals to 1.");
     } else {
       this.numberOfFloors = numberOfFloors;
+      this.zones = zones.toArray(new Zone[0]);
+      this.routes = new ZoneRoutes(numberOfFloors, this.zones);
+      this.engine = Objects.requireNonNull(engine, "Engine could not be null.");
+      if (!this.routes.isSingle() && engine == ElevatorEngine.BANK) {
+        throw new IllegalArgumentException("Zones need the object or actor engine.");
+      }
+      int numberOfElevators = 0;
+      for (Zone zone : this.zones) {
+        numberOfElevators += zone.getNumberOfElevators();
+      }
       this.numberOfElevators = numberOfElevators;
       this.elevatorCapacity = elevatorCapacity;
-      this.elevators = new Elevator[numberOfElevators];     // a list of elevators
+      this.elevators = new ElevatorInterface[numberOfElevators];     // a list of elevators
+      this.tallTower = tallTower;
+      this.nextEventTicks = new long[numberOfElevators];
+      Arrays.fill(this.nextEventTicks, -1);
+      this.arrivalTables = new ArrivalTable[numberOfElevators];
+      this.loads = new int[numberOfElevators];
       this.elevatorsStatus = ElevatorSystemStatus.outOfService;
 
+      if (engine == ElevatorEngine.BANK) {
+        this.bank = new ElevatorBank(numberOfElevators, 0, numberOfFloors, elevatorCapacity,
+            tallTower);
+        this.actors = null;
+        for (int i = 0; i < numberOfElevators; i++) {
+          this.elevators[i] = this.bank.getElevator(i);
+        }
+      } else if (engine == ElevatorEngine.ACTOR) {
+        this.bank = null;
+        this.actors = new ElevatorActors(this.stepPool);
+        for (int i = 0; i < numberOfElevators; i++) {
+          this.elevators[i] = new ElevatorActor(
+              new Elevator(i, numberOfFloors, this.elevatorCapacity, tallTower), this.actors);
+        }
+      } else {
+        this.bank = null;
+        this.actors = null;
+        for (int i = 0; i < numberOfElevators; i++) {
+          this.elevators[i] = new Elevator(i, numberOfFloors, this.elevatorCapacity, tallTower);
+        }
+      }
+
+      this.dispatches = new Dispatch[this.zones.length];
+      this.riders = new ArrayList<>(numberOfElevators);
+      int first = 0;
+      for (int z = 0; z < this.zones.length; z++) {
+        Zone zone = this.zones[z];
+        this.dispatches[z] = new Dispatch(zone, first);
+        for (int i = first; i < first + zone.getNumberOfElevators(); i++) {
+          this.elevators[i].setServedFloors(zone.getLowestFloor(), zone.getHighestFloor());
+        }
+        first += zone.getNumberOfElevators();
+      }
       for (int i = 0; i < numberOfElevators; i++) {
-        this.elevators[i] = new Elevator(numberOfFloors, this.elevatorCapacity);
+        this.riders.add(new ArrayList<>());
       }
+      if (this.dispatches.length == 1) {
+        this.upRequests = this.dispatches[0].up.asList();
+        this.downRequests = this.dispatches[0].down.asList();
+      } else {
+        this.upRequests = new ZoneRequests(Direction.UP);
+        this.downRequests = new ZoneRequests(Direction.DOWN);
+      }
+    }
+  }
+
+  /**
+   * Make the zone of a building whose elevators all serve every floor.
+   *
+   * @param numberOfFloors    the number of floors in the building.
+   * @param numberOfElevators the number of elevators in the building.
+   * @return the zone.
+   * @throws IllegalArgumentException if the number of floors is less than 2 or the number of
+   *                                  elevators is less than 1.
+   */
+  private static List<Zone> wholeBuilding(int numberOfFloors, int numberOfElevators)
+      throws IllegalArgumentException {
+    if (numberOfFloors < 2) {
+      throw new IllegalArgumentException("Number of floors should be larger or equals to 2");
+    } else if (numberOfElevators < 1) {
+      throw new IllegalArgumentException("At least one elevator is required.");
     }
+    return List.of(new Zone(0, numberOfFloors - 1, numberOfElevators, false));
   }
 
   @Override
@@ -68,8 +293,150 @@ public class Building implements BuildingInterface {
     return this.elevatorCapacity;
   }
 
+  /**
+   * Get how the elevators of the building are kept in memory.
+   *
+   * @return the elevator engine.
+   */
+  public ElevatorEngine getEngine() {
+    return this.engine;
+  }
+
+  /**
+   * Turn LOOK mode on or off for every elevator.
+   * In LOOK mode an elevator turns at its last stop instead of at the end of the shaft and
+   * waits for requests wherever it runs out of stops. Like the dispatch strategy this is a
+   * setting of a run and is not saved in checkpoints.
+   *
+   * @param look true for LOOK mode, false to run to the end of the shaft.
+   * @throws IllegalStateException if the elevators are kept in a bank.
+   */
+  public void setLookMode(boolean look) throws IllegalStateException {
+    if (look && this.engine == ElevatorEngine.BANK) {
+      throw new IllegalStateException("LOOK mode needs the object or actor engine.");
+    }
+    for (ElevatorInterface elevator : this.elevators) {
+      elevator.setLook(look);
+    }
+    this.lookMode = look;
+    this.forgetNextEvents();
+  }
+
+  /**
+   * Check if the elevators run in LOOK mode.
+   *
+   * @return true in LOOK mode, false otherwise.
+   */
+  public boolean isLookMode() {
+    return this.lookMode;
+  }
+
+  /**
+   * Set how long the doors stay open with the riders getting in and out.
+   * A door stays open for the door time of the elevator plus the transfer time for every
+   * person who gets in or out at the stop, plus the reopen extension if it opens again on
+   * the floor where it last closed. Like LOOK mode this is a setting of a run and is not
+   * saved in checkpoints. The default of 0 and 0 opens every door for the door time.
+   *
+   * @param transferTime    the number of ticks a person takes to get in or out.
+   * @param reopenExtension the number of ticks a reopened door stays open longer.
+   * @throws IllegalArgumentException if a time is negative.
+   * @throws IllegalStateException    if the elevators are kept in a bank and the reopen
+   *                                  extension is not 0.
+   */
+  public void setDoorDwell(int transferTime, int reopenExtension)
+      throws IllegalArgumentException, IllegalStateException {
+    if (transferTime < 0 || reopenExtension < 0) {
+      throw new IllegalArgumentException("Door times should not be negative.");
+    }
+    if (reopenExtension > 0 && this.engine == ElevatorEngine.BANK) {
+      throw new IllegalStateException("A reopen extension needs the object or actor engine.");
+    }
+    for (ElevatorInterface elevator : this.elevators) {
+      elevator.setReopenExtension(reopenExtension);
+    }
+    this.transferTime = transferTime;
+    this.reopenExtension = reopenExtension;
+    this.forgetNextEvents();
+  }
+
+  /**
+   * Get the number of ticks a person takes to get in or out of an elevator.
+   *
+   * @return the transfer time.
+   */
+  public int getTransferTime() {
+    return this.transferTime;
+  }
+
+  /**
+   * Get the number of ticks a door that opens again on the floor where it closed stays open
+   * longer.
+   *
+   * @return the reopen extension.
+   */
+  public int getReopenExtension() {
+    return this.reopenExtension;
+  }
+
+  /**
+   * Set the strategy that decides which waiting requests go to which elevator.
+   * The FifoDispatchStrategy, handing out requests in the order they arrive, is the default.
+   *
+   * @param dispatchStrategy the dispatch strategy.
+   */
+  public void setDispatchStrategy(DispatchStrategy dispatchStrategy) {
+    this.dispatchStrategy = Objects.requireNonNull(dispatchStrategy,
+        "Dispatch strategy could not be null.");
+  }
+
+  /**
+   * Get the strategy that decides which waiting requests go to which elevator.
+   *
+   * @return the dispatch strategy.
+   */
+  public DispatchStrategy getDispatchStrategy() {
+    return this.dispatchStrategy;
+  }
+
+  /**
+   * Set the policy that decides where idle elevators wait for requests.
+   * Only elevators in LOOK mode wait away from the ends of the shaft, so parking needs LOOK
+   * mode. Like the dispatch strategy this is a setting of a run and is not saved in
+   * checkpoints, and neither is what the policy learned.
+   *
+   * @param parkingPolicy the parking policy, null to leave idle elevators where they stop.
+   * @throws IllegalStateException if the elevators are not in LOOK mode.
+   */
+  public void setParkingPolicy(ParkingPolicy parkingPolicy) throws IllegalStateException {
+    if (parkingPolicy != null && !this.lookMode) {
+      throw new IllegalStateException("Parking needs LOOK mode.");
+    }
+    this.parkingPolicy = parkingPolicy;
+  }
+
+  /**
+   * Get the policy that decides where idle elevators wait for requests.
+   *
+   * @return the parking policy, null if idle elevators are left where they stop.
+   */
+  public ParkingPolicy getParkingPolicy() {
+    return this.parkingPolicy;
+  }
+
+  /**
+   * Check if the building uses the tall-tower limits of the elevators.
+   *
+   * @return true if the building is a tall tower, false otherwise.
+   */
+  public boolean isTallTower() {
+    return this.tallTower;
+  }
+
   /**
    * Get the elevators in the building.
+   * The building keeps track of when every elevator next changes state, so the
+   * elevators should only be changed through the building.
    *
    * @return the elevators in the building.
    */
@@ -78,7 +445,145 @@ public class Building implements BuildingInterface {
   }
 
   /**
-   * Get the up requests in the building.
+   * Set the number of elevators from which the elevators are stepped in parallel.
+   * Below the threshold every elevator is stepped in order on the calling thread.
+   * The building ends up in the same state either way.
+   *
+   * @param parallelThreshold the smallest fleet that is stepped in parallel.
+   * @throws IllegalArgumentException if the threshold is less than 1.
+   */
+  public void setParallelThreshold(int parallelThreshold) throws IllegalArgumentException {
+    if (parallelThreshold < 1) {
+      throw new IllegalArgumentException("Parallel threshold should be larger or equals to 1.");
+    }
+    this.parallelThreshold = parallelThreshold;
+  }
+
+  /**
+   * Get the number of elevators from which the elevators are stepped in parallel.
+   *
+   * @return the smallest fleet that is stepped in parallel.
+   */
+  public int getParallelThreshold() {
+    return this.parallelThreshold;
+  }
+
+  /**
+   * Set the pool that the elevators are stepped on when the fleet is large.
+   * The elevator actors of the actor engine always run on this pool.
+   * The common pool is used by default.
+   *
+   * @param stepPool the pool to step the elevators on.
+   */
+  public void setStepPool(ForkJoinPool stepPool) {
+    this.stepPool = Objects.requireNonNull(stepPool, "Pool could not be null.");
+    if (this.actors != null) {
+      this.actors.setExecutor(stepPool);
+    }
+  }
+
+  /**
+   * Record the requests and the elevator events of the building in a journal.
+   * Accepted, rejected and assigned requests are recorded with the floors of the request,
+   * opened doors, reached floors and reversed directions with the elevator and its floor.
+   * Recording steps the elevators one by one, so the bank engine is no faster than the
+   * object engine while a journal is set.
+   *
+   * @param journal the journal to record to, null to stop recording.
+   */
+  public void setJournal(EventJournal journal) {
+    this.recorder = journal == null ? null : new StepRecorder(journal, this.numberOfElevators);
+  }
+
+  /**
+   * Get the journal the building records to.
+   *
+   * @return the journal, null if nothing is recorded.
+   */
+  public EventJournal getJournal() {
+    return this.recorder == null ? null : this.recorder.getJournal();
+  }
+
+  /**
+   * Record an event that involves a request.
+   *
+   * @param event    the kind of event.
+   * @param elevator the id of the elevator, -1 if no elevator is involved.
+   * @param request  the request, may be null.
+   */
+  private void record(JournalEvent event, int elevator, Request request) {
+    if (this.recorder != null) {
+      this.recorder.getJournal().record(this.currentTick, event, elevator,
+          request == null ? -1 : request.getStartFloor(),
+          request == null ? -1 : request.getEndFloor());
+    }
+  }
+
+  /**
+   * Get the number of times the elevator system has been stepped.
+   *
+   * @return the current tick of the building.
+   */
+  public long getCurrentTick() {
+    return this.currentTick;
+  }
+
+  /**
+   * Get the number of requests accepted by handleAddRequest since the building was created.
+   *
+   * @return the number of accepted requests.
+   */
+  public long getRequestsAccepted() {
+    return this.requestsAccepted;
+  }
+
+  /**
+   * Get the number of requests handed to an elevator since the building was created.
+   *
+   * @return the number of dispatched requests.
+   */
+  public long getRequestsDispatched() {
+    return this.requestsDispatched;
+  }
+
+  /**
+   * Get the number of people who got to the end floor of their trip since the building was
+   * created.
+   *
+   * @return the number of people delivered.
+   */
+  public long getRidersDelivered() {
+    return this.ridersDelivered;
+  }
+
+  /**
+   * Get the number of people left behind by a full elevator since the building was created.
+   * A party left behind waits again and is counted every time it does not fit.
+   *
+   * @return the number of people left behind.
+   */
+  public long getRidersLeftBehind() {
+    return this.ridersLeftBehind;
+  }
+
+  /**
+   * Get the number of people in an elevator.
+   *
+   * @param elevator the index of the elevator.
+   * @return the number of people who got on and did not get off yet.
+   * @throws IllegalArgumentException if there is no such elevator.
+   */
+  public int getLoad(int elevator) throws IllegalArgumentException {
+    if (elevator < 0 || elevator >= this.numberOfElevators) {
+      throw new IllegalArgumentException("There is no elevator " + elevator + ".");
+    }
+    return this.loads[elevator];
+  }
+
+  /**
+   * Get the up requests in the building, oldest first.
+   * The list cannot be changed and follows the waiting requests as they change. In a zoned
+   * building these are the legs waiting, zone by zone.
    *
    * @return the up requests in the building.
    */
@@ -87,7 +592,9 @@ public class Building implements BuildingInterface {
   }
 
   /**
-   * Get the down requests in the building.
+   * Get the down requests in the building, oldest first.
+   * The list cannot be changed and follows the waiting requests as they change. In a zoned
+   * building these are the legs waiting, zone by zone.
    *
    * @return the down requests in the building.
    */
@@ -95,6 +602,26 @@ public class Building implements BuildingInterface {
     return this.downRequests;
   }
 
+  /**
+   * Get the number of requests waiting at a floor to go in a direction.
+   *
+   * @param floor     the start floor of the requests.
+   * @param direction the direction of the requests, UP or DOWN.
+   * @return the number of requests waiting.
+   * @throws IllegalArgumentException if the floor is not in the building or the direction is
+   *                                  STOPPED.
+   */
+  public int getWaitingCount(int floor, Direction direction) throws IllegalArgumentException {
+    if (floor < 0 || floor >= this.numberOfFloors) {
+      throw new IllegalArgumentException("Floor " + floor + " is not in the building.");
+    }
+    int count = 0;
+    for (Dispatch dispatch : this.dispatches) {
+      count += dispatch.queue(direction).size(floor);
+    }
+    return count;
+  }
+
   @Override
   public BuildingReport getElevatorSystemStatus() {
     ElevatorReport[] elevatorReports = new ElevatorReport[this.elevators.length];
@@ -104,7 +631,7 @@ public class Building implements BuildingInterface {
     }
 
     return new BuildingReport(this.numberOfFloors, this.numberOfElevators,
-        this.elevatorCapacity, elevatorReports, this.upRequests, this.downRequests,
+        this.elevatorCapacity, elevatorReports, this.getUpRequests(), this.getDownRequests(),
         this.elevatorsStatus);
   }
 
@@ -115,12 +642,22 @@ public class Building implements BuildingInterface {
       for (ElevatorInterface elevator : this.elevators) {
         // All elevator are notified of a stop request.takeOutOfService()is called
         elevator.takeOutOfService();
-        // All requests are purged
-        this.upRequests.clear();
-        this.downRequests.clear();
 
         this.elevatorsStatus = ElevatorSystemStatus.stopping;
       }
+      this.forgetNextEvents();
+      // the cars dropped their stops, so nobody is on board or waiting for them any more.
+      for (List<Rider> riders : this.riders) {
+        riders.clear();
+      }
+      this.riderCount = 0;
+      Arrays.fill(this.loads, 0);
+      // All requests are purged
+      for (Dispatch dispatch : this.dispatches) {
+        dispatch.up.clear();
+        dispatch.down.clear();
+      }
+      this.waitingTransfers.clear();
     }
   }
 
@@ -131,140 +668,1403 @@ public class Building implements BuildingInterface {
    * @return true if the request is valid, false otherwise.
    */
   private boolean isValidRequest(Request request) {
+    String problem = this.checkRequest(request);
+    if (problem != null) {
+      System.out.println(problem);
+    }
+    return problem == null;
+  }
+
+  /**
+   * Check the request without printing what is wrong with it.
+   *
+   * @param request the request to check.
+   * @return what is wrong with the request, null if it is valid.
+   */
+  private String checkRequest(Request request) {
     // Check if the request is null
     if (request == null) {
-      System.out.println("Request cannot be null");
-      return false;
+      return "Request cannot be null";
     }
 
     // Check if the start floor is valid
-    if (request.getStartFloor() < 0 || request.getStartFloor() > this.numberOfFloors) {
-      System.out.println("Start floor is not valid");
-      return false;
+    if (request.getStartFloor() < 0 || request.getStartFloor() >= this.numberOfFloors) {
+      return "Start floor is not valid";
     }
 
     // Check if the end floor is valid
-    if (request.getEndFloor() < 0 || request.getEndFloor() > this.numberOfFloors) {
-      System.out.println("End floor is not valid");
-      return false;
+    if (request.getEndFloor() < 0 || request.getEndFloor() >= this.numberOfFloors) {
+      return "End floor is not valid";
     }
 
     // Check if the start floor is the same as the end floor
     if (request.getStartFloor() == request.getEndFloor()) {
-      System.out.println("Start floor cannot be the same as the end floor");
-      return false;
+      return "Start floor cannot be the same as the end floor";
     }
 
-    return true;
+    // A party has to fit in an empty elevator.
+    if (request.getPartySize() < 1 || request.getPartySize() > this.elevatorCapacity) {
+      return "Party size is not valid";
+    }
+
+    return null;
   }
 
   @Override
   public boolean handleAddRequest(Request request) {
     // Check if the request is valid
     if (!this.isValidRequest(request)) {
+      this.record(JournalEvent.REQUEST_REJECTED, -1, request);
       return false;
     }
 
     // When the building status is ElevatorSystemStatus.running then all requests are accepted.
     if (this.elevatorsStatus == ElevatorSystemStatus.running) {
-      if (request.getStartFloor() < request.getEndFloor()) {
-        this.upRequests.add(request);
-      } else {
-        this.downRequests.add(request);
-      }
+      this.requestsAccepted++;
+      this.record(JournalEvent.REQUEST_ACCEPTED, -1, request);
+      this.addLeg(request.getStartFloor(), request.getEndFloor(), request.getPartySize(),
+          request, -1);
     } else {
+      this.record(JournalEvent.REQUEST_REJECTED, -1, request);
       return false;
     }
     return true;
   }
 
-  @Override
-  public boolean startElevatorSystem() {
-    // If ElevatorSystemStatus.stopping it cannot be started.
-    if (this.elevatorsStatus == ElevatorSystemStatus.stopping) {
-      System.out.println("Elevator cannot be started when the system is stopping");
-      return false;
-    } else if (this.elevatorsStatus == ElevatorSystemStatus.outOfService) {
-      // If ElevatorSystemStatus.outOfService then the building is started.
-      for (ElevatorInterface elevator : this.elevators) {
-        elevator.start();
-      }
-      this.elevatorsStatus = ElevatorSystemStatus.running;
-      System.out.println("Continuing the operations of the building.\n");
-      return true;
+  /**
+   * Start the next leg of a trip waiting in the zone that serves it.
+   *
+   * @param start   the floor the rider waits on.
+   * @param end     the end floor of the trip.
+   * @param party   the number of people on the trip.
+   * @param request the request of the trip, used as the leg if the trip has one leg left.
+   * @param arrival the tick a party put back called from the start floor, -1 for a new call.
+   */
+  private void addLeg(int start, int end, int party, Request request, long arrival) {
+    int[] leg = this.routes.firstLeg(start, end);
+    Request waiting = request;
+    if (leg[1] != end) {
+      waiting = new Request(start, leg[1], party);
+      this.waitingTransfers.put(waiting, end);
+    } else if (waiting == null) {
+      waiting = new Request(start, end, party);
+    }
+    if (arrival < 0) {
+      this.queueLeg(leg[0], waiting);
     } else {
-      // If the building is already running then the building is not started.
-      System.out.println("Elevator system is already running");
-      return true;
+      this.requeueLeg(leg[0], waiting, arrival);
     }
   }
 
   /**
-   * Distribute the requests to the elevators.
+   * Put a new call at the back of the queue of its zone.
+   *
+   * @param zone the index of the zone that serves the leg.
+   * @param leg  the leg.
    */
-  private void distributeRequests() {
-    // No requests are needed to be distributed if there are no requests.
-    if (!this.upRequests.isEmpty() || !this.downRequests.isEmpty()) {
-      for (ElevatorInterface elevator : this.elevators) {
-        if (elevator.isTakingRequests()) {
-          List<Request> waitingRequest = new ArrayList<>();
-          // On the ground floor, the elevator can only process up requests.
-          if (elevator.getCurrentFloor() == 0) {
-            while (waitingRequest.size() < this.elevatorCapacity && !this.upRequests.isEmpty()) {
-              waitingRequest.add(this.upRequests.remove(0));
-            }
-            // Process the requests to the elevator.
-            elevator.processRequests(waitingRequest);
-          }
-          // On the top floor, the elevator can only process down requests.
-          if (elevator.getCurrentFloor() == this.numberOfFloors - 1) {
-            while (waitingRequest.size() < this.elevatorCapacity
-                && !this.downRequests.isEmpty()) {
-              waitingRequest.add(this.downRequests.remove(0));
-            }
-            // Process the requests to the elevator.
-            elevator.processRequests(waitingRequest);
-          }
-        }
-      }
+  private void queueLeg(int zone, Request leg) {
+    this.requeueLeg(zone, leg, this.currentTick);
+    if (this.parkingPolicy != null) {
+      this.parkingPolicy.requestAccepted(leg, this.currentTick);
     }
   }
 
-  @Override
-  public void stepElevatorSystem() {
-    // If the elevator system is out of service then system does not accept requests.
-    if (this.elevatorsStatus == ElevatorSystemStatus.outOfService) {
-      System.out.println("Elevator system not accepting requests."
-          + "No further requests will be generated."
-          + "Press 'c' will resume the operations of the building.\n");
-      return;
-    }
-
-    // If the elevator system is running then the requests are distributed.
-    if (this.elevatorsStatus == ElevatorSystemStatus.running) {
-      this.distributeRequests();
+  /**
+   * Put a party back in the queue of its zone at the place of its call, so it keeps its age.
+   * The parking policy learned of the call when it was made, so it is not told again.
+   *
+   * @param zone    the index of the zone that serves the leg.
+   * @param leg     the leg.
+   * @param arrival the tick the party called.
+   */
+  private void requeueLeg(int zone, Request leg, long arrival) {
+    Dispatch dispatch = this.dispatches[zone];
+    if (leg.getStartFloor() < leg.getEndFloor()) {
+      dispatch.up.add(leg, arrival);
+    } else {
+      dispatch.down.add(leg, arrival);
+    }
+  }
+
+  /**
+   * Check if any request is waiting for an elevator.
+   *
+   * @return true if a request is waiting, false otherwise.
+   */
+  private boolean isWaiting() {
+    for (Dispatch dispatch : this.dispatches) {
+      if (!dispatch.up.isEmpty() || !dispatch.down.isEmpty()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public boolean submitRequest(Request request) {
+    return this.submittedRequests.offer(request);
+  }
+
+  @Override
+  public RequestEstimate estimateRequest(Request request) {
+    if (this.elevatorsStatus != ElevatorSystemStatus.running
+        || this.checkRequest(request) != null) {
+      return null;
+    }
+    int start = request.getStartFloor();
+    int end = request.getEndFloor();
+    Direction direction = start < end ? Direction.UP : Direction.DOWN;
+    int zone = -1;
+    for (int z = 0; z < this.dispatches.length && zone < 0; z++) {
+      if (this.dispatches[z].queue(direction).contains(request)) {
+        zone = z;
+      }
+    }
+    int legEnd = end;
+    if (zone >= 0) {
+      end = this.waitingTransfers.getOrDefault(request, end);
+    } else {
+      int[] leg = this.routes.firstLeg(start, end);
+      zone = leg[0];
+      legEnd = leg[1];
+    }
+
+    // the elevators next step in the next tick.
+    int party = request.getPartySize();
+    long[] ticks = this.estimateLeg(this.dispatches[zone], request, new Request(start, legEnd,
+        party), this.currentTick + 1);
+    long pickup = ticks == null ? -1 : ticks[0];
+    // a rider who changes elevators waits for the next leg from the tick after the last one.
+    while (ticks != null && legEnd != end) {
+      int[] leg = this.routes.firstLeg(legEnd, end);
+      ticks = this.estimateLeg(this.dispatches[leg[0]], null,
+          new Request(legEnd, leg[1], party), ticks[1] + 1);
+      legEnd = leg[1];
+    }
+    return ticks == null ? null : new RequestEstimate(pickup, ticks[1]);
+  }
+
+  /**
+   * Estimate when a leg of a trip is picked up and when it arrives.
+   * The calls waiting ahead of the rider to go the same way are picked up first, in the order
+   * they arrived, each by the elevator of the zone that gets to it first: on its way if the
+   * dispatch strategy picks up riders on the way and the elevator has room, or once it can be
+   * handed requests. An elevator that has no room left for the next call takes it on its next
+   * trip. The arrival tables are kept until an elevator is handed requests or leaves the path
+   * they predict, so with no call ahead an estimate mostly costs a lookup for every elevator of
+   * every leg.
+   *
+   * @param dispatch the context of the zone of the leg.
+   * @param waiting  the request of the rider on its first leg, null on a later one. The calls
+   *                 waiting ahead of it are picked up first, all of them if it is not waiting
+   *                 yet. A later leg is taken to start once those calls are gone.
+   * @param leg      the leg.
+   * @param after    the earliest tick the rider can be picked up.
+   * @return the pickup and the arrival tick, null if no elevator of the zone serves the leg.
+   */
+  private long[] estimateLeg(Dispatch dispatch, Request waiting, Request leg, long after) {
+    int start = leg.getStartFloor();
+    Direction direction = start < leg.getEndFloor() ? Direction.UP : Direction.DOWN;
+    boolean pickUps = this.dispatchStrategy.picksUpOnTheWay();
+    long tick = this.currentTick + 1;
+    Trips[] trips = new Trips[dispatch.count];
+    for (int i = 0; i < dispatch.count; i++) {
+      ElevatorInterface elevator = this.elevators[dispatch.first + i];
+      ArrivalTable table = this.arrivalTables[dispatch.first + i];
+      if (table == null || !table.isCurrent(elevator, tick)) {
+        table = new ArrivalTable(elevator, tick);
+        this.arrivalTables[dispatch.first + i] = table;
+      }
+      int room = !pickUps ? 0
+          : elevator.isTakingRequests() ? this.elevatorCapacity : elevator.getPickUpCapacity();
+      trips[i] = new Trips(table, this.elevatorCapacity, room, direction);
+    }
+    if (waiting != null) {
+      for (Request request : dispatch.getWaiting(direction)) {
+        if (request == waiting) {
+          break;
+        }
+        Trips first = firstPickup(trips, request, tick);
+        if (first != null) {
+          first.take(request, tick);
+        }
+      }
+    }
+    Trips best = firstPickup(trips, leg, after);
+    return best == null ? null : best.ride(leg, after);
+  }
+
+  /**
+   * Find the elevator that picks up a request first.
+   *
+   * @param trips   the trips of the elevators.
+   * @param request the request.
+   * @param after   the earliest tick the request can be picked up.
+   * @return the trips of the elevator, null if none picks up the request.
+   */
+  private static Trips firstPickup(Trips[] trips, Request request, long after) {
+    Trips best = null;
+    long bestPickup = Long.MAX_VALUE;
+    for (Trips trip : trips) {
+      long pickup = trip.getPickupTick(request, after);
+      if (pickup >= 0 && pickup < bestPickup) {
+        best = trip;
+        bestPickup = pickup;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Hand the submitted requests to handleAddRequest in the order they were submitted.
+   */
+  private void addSubmittedRequests() {
+    this.submittedRequests.drain(this.addRequest);
+  }
+
+  @Override
+  public boolean startElevatorSystem() {
+    // If ElevatorSystemStatus.stopping it cannot be started.
+    if (this.elevatorsStatus == ElevatorSystemStatus.stopping) {
+      System.out.println("Elevator cannot be started when the system is stopping");
+      return false;
+    } else if (this.elevatorsStatus == ElevatorSystemStatus.outOfService) {
+      // If ElevatorSystemStatus.outOfService then the building is started.
+      for (ElevatorInterface elevator : this.elevators) {
+        elevator.start();
+      }
+      this.forgetNextEvents();
+      this.elevatorsStatus = ElevatorSystemStatus.running;
+      System.out.println("Continuing the operations of the building.\n");
+      return true;
+    } else {
+      // If the building is already running then the building is not started.
+      System.out.println("Elevator system is already running");
+      return true;
+    }
+  }
+
+  /**
+   * Distribute the requests to the elevators with the dispatch strategy.
+   *
+   * @throws IllegalStateException if the strategy breaks its contract.
+   */
+  private void distributeRequests() throws IllegalStateException {
+    for (Dispatch dispatch : this.dispatches) {
+      // No requests are needed to be distributed if there are no requests.
+      if (!dispatch.up.isEmpty() || !dispatch.down.isEmpty()) {
+        this.distributeRequests(dispatch);
+      }
+    }
+  }
+
+  /**
+   * Distribute the requests of a zone to its elevators with the dispatch strategy.
+   *
+   * @param dispatch the context of the zone.
+   * @throws IllegalStateException if the strategy breaks its contract.
+   */
+  private void distributeRequests(Dispatch dispatch) throws IllegalStateException {
+    dispatch.taken = 0;
+    dispatch.takenTicks.clear();
+    List<Assignment> assignments = this.dispatchStrategy.assign(dispatch);
+    int assigned = 0;
+    for (Assignment assignment : assignments) {
+      if (assignment.getElevator() >= dispatch.count) {
+        throw new IllegalStateException("There is no elevator " + assignment.getElevator()
+            + ".");
+      }
+      int i = dispatch.first + assignment.getElevator();
+      List<Request> requests = assignment.getRequests();
+      ElevatorInterface elevator = this.elevators[i];
+      int people = 0;
+      for (Request request : requests) {
+        people += request.getPartySize();
+      }
+      if (people > this.elevatorCapacity) {
+        throw new IllegalStateException("Elevator " + i + " cannot take " + requests + ".");
+      }
+      if (elevator.isTakingRequests()) {
+        // On the ground floor, the elevator can only process up requests.
+        // On the top floor, the elevator can only process down requests.
+        for (Request request : requests) {
+          Direction direction = request.getStartFloor() < request.getEndFloor()
+              ? Direction.UP : Direction.DOWN;
+          if (!elevator.canTakeRequests(direction)) {
+            throw new IllegalStateException("Elevator " + i + " cannot take " + request + ".");
+          }
+        }
+        // Process the requests to the elevator.
+        elevator.processRequests(requests);
+        // it drops the stops it had, so whoever is still counted in it is let out.
+        this.riderCount -= this.riders.get(i).size();
+        this.riders.get(i).clear();
+        this.loads[i] = 0;
+      } else {
+        // A moving elevator picks riders up on its way if it has room for them.
+        if (people > elevator.getPickUpCapacity()) {
+          throw new IllegalStateException("Elevator " + i + " has no room for " + requests + ".");
+        }
+        for (Request request : requests) {
+          if (!elevator.canPickUp(request)) {
+            throw new IllegalStateException("Elevator " + i + " cannot pick up " + request + ".");
+          }
+        }
+        elevator.pickUp(requests);
+      }
+      this.recordAssigned(elevator, requests);
+      this.requestsDispatched += requests.size();
+      this.nextEventTicks[i] = -1;
+      this.arrivalTables[i] = null;
+      assigned += requests.size();
+      for (Request request : requests) {
+        Integer end = this.waitingTransfers.isEmpty() ? null
+            : this.waitingTransfers.remove(request);
+        Long arrival = dispatch.takenTicks.get(request);
+        this.riders.get(i).add(new Rider(request, end == null ? request.getEndFloor() : end,
+            arrival == null ? this.currentTick : arrival));
+      }
+      this.riderCount += requests.size();
+    }
+    if (assigned != dispatch.taken) {
+      throw new IllegalStateException(this.dispatchStrategy + " took "
+          + dispatch.taken + " requests but assigned " + assigned + ".");
+    }
+  }
+
+  /**
+   * Let the riders in and out of the elevators that opened their door.
+   * A party gets off where the door next opens on the end floor of its leg, and starts its
+   * next leg there if it changes elevators. Then the parties waiting on the floor get on in
+   * the order they were handed to the elevator, each if all of it fits. A party that does
+   * not fit is left behind and waits again at the back of the queue. The elevator still
+   * counts it and stops where it was going, it is not told who got on. The door is held open
+   * for the transfer time of everyone who got in or out. The riders of an elevator that ran
+   * out of stops carry on as requeueRiders() tells.
+   */
+  private void moveRiders() {
+    for (int i = 0; i < this.elevators.length && this.riderCount > 0; i++) {
+      List<Rider> riders = this.riders.get(i);
+      if (riders.isEmpty()) {
+        continue;
+      }
+      if (this.elevators[i].isDoorClosed()) {
+        if (this.elevators[i].isTakingRequests()) {
+          this.requeueRiders(i);
+        }
+        continue;
+      }
+      int floor = this.elevators[i].getCurrentFloor();
+      int moved = 0;
+      for (Iterator<Rider> it = riders.iterator(); it.hasNext(); ) {
+        Rider rider = it.next();
+        if (rider.boarded && rider.leg.getEndFloor() == floor) {
+          it.remove();
+          this.riderCount--;
+          this.loads[i] -= rider.leg.getPartySize();
+          moved += rider.leg.getPartySize();
+          if (rider.end == floor) {
+            this.ridersDelivered += rider.leg.getPartySize();
+          } else {
+            this.addLeg(floor, rider.end, rider.leg.getPartySize(), null, -1);
+          }
+        }
+      }
+      for (Iterator<Rider> it = riders.iterator(); it.hasNext(); ) {
+        Rider rider = it.next();
+        if (rider.boarded || rider.leg.getStartFloor() != floor) {
+          continue;
+        }
+        if (this.loads[i] + rider.leg.getPartySize() <= this.elevatorCapacity) {
+          rider.boarded = true;
+          this.loads[i] += rider.leg.getPartySize();
+          moved += rider.leg.getPartySize();
+          continue;
+        }
+        it.remove();
+        this.riderCount--;
+        this.ridersLeftBehind += rider.leg.getPartySize();
+        this.record(JournalEvent.RIDER_LEFT_BEHIND, this.elevators[i].getElevatorId(),
+            rider.leg);
+        if (rider.end != rider.leg.getEndFloor()) {
+          this.waitingTransfers.put(rider.leg, rider.end);
+        }
+        this.requeueLeg(this.zoneOf(i), rider.leg, rider.arrival);
+      }
+      if (moved > 0 && this.transferTime > 0) {
+        this.elevators[i].holdDoor(moved * this.transferTime);
+        this.nextEventTicks[i] = -1;
+        this.arrivalTables[i] = null;
+      }
+      if (this.elevators[i].isTakingRequests()) {
+        this.requeueRiders(i);
+      }
+    }
+  }
+
+  /**
+   * Let the riders of an elevator that ran out of stops carry on.
+   * A LOOK elevator may open its door on the end floor of a party before the party got on,
+   * and then has no stop left for it. The parties on board that go the way of the first one
+   * press the button of their floor again, the others get off and call again from where the
+   * elevator stopped. The parties that did not get on call again from their start floor.
+   *
+   * @param elevator the index of the elevator.
+   */
+  private void requeueRiders(int elevator) {
+    ElevatorInterface car = this.elevators[elevator];
+    int floor = car.getCurrentFloor();
+    List<Rider> riders = this.riders.get(elevator);
+    List<Rider> staying = new ArrayList<>();
+    List<Request> legs = new ArrayList<>();
+    Direction direction = null;
+    for (Rider rider : riders) {
+      int party = rider.leg.getPartySize();
+      if (!rider.boarded) {
+        if (rider.end != rider.leg.getEndFloor()) {
+          this.waitingTransfers.put(rider.leg, rider.end);
+        }
+        this.requeueLeg(this.zoneOf(elevator), rider.leg, rider.arrival);
+        continue;
+      }
+      int end = rider.leg.getEndFloor();
+      Direction way = floor < end ? Direction.UP : Direction.DOWN;
+      if (direction == null && end != floor && car.canTakeRequests(way)) {
+        direction = way;
+      }
+      if (end != floor && way == direction) {
+        Rider stays = new Rider(new Request(floor, end, party), rider.end, rider.arrival);
+        stays.boarded = true;
+        staying.add(stays);
+        legs.add(stays.leg);
+      } else if (rider.end == floor) {
+        this.ridersDelivered += party;
+      } else {
+        this.addLeg(floor, rider.end, party, null, rider.arrival);
+      }
+    }
+    this.riderCount += staying.size() - riders.size();
+    riders.clear();
+    riders.addAll(staying);
+    this.loads[elevator] = 0;
+    for (Rider rider : staying) {
+      this.loads[elevator] += rider.leg.getPartySize();
+    }
+    if (!legs.isEmpty()) {
+      car.processRequests(legs);
+      this.nextEventTicks[elevator] = -1;
+      this.arrivalTables[elevator] = null;
+    }
+  }
+
+  /**
+   * Get the zone of an elevator.
+   *
+   * @param elevator the index of the elevator.
+   * @return the index of its zone.
+   */
+  private int zoneOf(int elevator) {
+    int zone = 0;
+    while (elevator >= this.dispatches[zone].first + this.dispatches[zone].count) {
+      zone++;
+    }
+    return zone;
+  }
+
+  /**
+   * Record the requests handed to an elevator.
+   *
+   * @param elevator the elevator.
+   * @param requests the requests handed to it.
+   */
+  private void recordAssigned(ElevatorInterface elevator, List<Request> requests) {
+    if (this.recorder != null) {
+      for (Request request : requests) {
+        this.record(JournalEvent.REQUEST_ASSIGNED, elevator.getElevatorId(), request);
+      }
+    }
+  }
+
+  @Override
+  public void stepElevatorSystem() {
+    this.currentTick++;
+    this.addSubmittedRequests();
+
+    // If the elevator system is out of service then system does not accept requests.
+    if (this.elevatorsStatus == ElevatorSystemStatus.outOfService) {
+      System.out.println("Elevator system not accepting requests."
+          + "No further requests will be generated."
+          + "Press 'c' will resume the operations of the building.\n");
+      this.forgetNextEvents();
+      return;
+    }
+
+    // If the elevator system is running then the requests are distributed.
+    if (this.elevatorsStatus == ElevatorSystemStatus.running) {
+      this.distributeRequests();
     }
 
     // If the elevator system is not out of service then the elevators are stepped.
-    for (ElevatorInterface elevator : this.elevators) {
-      elevator.step();
+    this.stepElevators(0);
+    if (this.riderCount > 0) {
+      this.moveRiders();
     }
 
     // Check if all elevators are on the ground floor when the elevator system is stopping.
-    if (this.elevatorsStatus == ElevatorSystemStatus.stopping) {
-      boolean allOnGroundFloor = true;
+    // If all elevators are on the ground floor then the elevator system is out of service.
+    if (this.elevatorsStatus == ElevatorSystemStatus.stopping && this.allOnGroundFloor()) {
+      this.elevatorsStatus = ElevatorSystemStatus.outOfService;
+    }
+
+    // Elevators left with nothing to do are sent where the next requests are likely.
+    if (this.elevatorsStatus == ElevatorSystemStatus.running && this.parkingPolicy != null
+        && !this.isWaiting()) {
+      for (Dispatch dispatch : this.dispatches) {
+        this.parkElevators(dispatch);
+      }
+    }
+  }
+
+  /**
+   * Send the idle elevators of a zone to the floors chosen by the parking policy.
+   *
+   * @param dispatch the context of the zone.
+   * @throws IllegalStateException if the policy breaks its contract.
+   */
+  private void parkElevators(Dispatch dispatch) throws IllegalStateException {
+    int[] floors = this.parkingPolicy.park(dispatch);
+    if (floors.length != dispatch.count) {
+      throw new IllegalStateException(this.parkingPolicy + " parked " + floors.length
+          + " elevators of " + dispatch.count + ".");
+    }
+    for (int f = 0; f < floors.length; f++) {
+      int floor = floors[f];
+      if (floor < 0) {
+        continue;
+      }
+      int i = dispatch.first + f;
+      ElevatorInterface elevator = this.elevators[i];
+      if (!dispatch.zone.stopsAt(floor) || !elevator.isIdle() && elevator.getParkingFloor() < 0) {
+        throw new IllegalStateException("Elevator " + i + " cannot park on floor " + floor + ".");
+      }
+      if (floor == elevator.getParkingFloor()
+          || elevator.isIdle() && floor == elevator.getCurrentFloor()) {
+        continue;
+      }
+      elevator.park(floor);
+      this.nextEventTicks[i] = -1;
+      this.arrivalTables[i] = null;
+    }
+  }
+
+  @Override
+  public long advanceElevatorSystem(long maxTicks) throws IllegalArgumentException {
+    if (maxTicks < 1) {
+      throw new IllegalArgumentException("At least one tick should be advanced.");
+    }
+
+    // Nothing happens while the system is out of service, but submitted requests are refused.
+    if (this.elevatorsStatus == ElevatorSystemStatus.outOfService
+        && this.submittedRequests.isEmpty()) {
+      this.currentTick += maxTicks;
+      this.forgetNextEvents();
+      return maxTicks;
+    }
 
+    long quietTicks = this.getTicksToNextEvent(maxTicks - 1);
+    if (quietTicks > 0) {
+      this.stepElevators((int) quietTicks);
+      this.currentTick += quietTicks;
+    }
+
+    this.stepElevatorSystem();
+    return quietTicks + 1;
+  }
+
+  /**
+   * Step every elevator, in parallel when the fleet is at least the parallel threshold.
+   *
+   * @param quietSteps the number of quiet steps to advance, 0 to do a full step.
+   */
+  private void stepElevators(int quietSteps) {
+    long stepTick = this.currentTick - 1;
+    int count = this.elevators.length;
+    // when nothing is known about the next events there is nothing to forget either.
+    long[] nextEvents = this.nextEventTicksInUse ? this.nextEventTicks : null;
+    if (this.recorder != null) {
+      // quiet steps come before the tick is moved on, a full step after.
+      this.recorder.setFirstTick(quietSteps > 0 ? this.currentTick + 1 : this.currentTick);
+    }
+    if (this.actors != null) {
+      // the steps are only sent here, the actors run them on the pool in the meantime.
+      ElevatorStepTask.stepRange(this.elevators, null, nextEvents, this.recorder, stepTick,
+          quietSteps, 0, count);
+      this.actors.awaitIdle();
+      return;
+    }
+    if (count < this.parallelThreshold || this.stepPool.getParallelism() < 2) {
+      ElevatorStepTask.stepRange(this.elevators, this.bank, nextEvents, this.recorder,
+          stepTick, quietSteps, 0, count);
+      return;
+    }
+    // a few ranges per worker so that idle workers can steal from busy ones.
+    int grain = Math.max(64, count / (this.stepPool.getParallelism() * 4));
+    this.stepPool.invoke(new ElevatorStepTask(this.elevators, this.bank, nextEvents,
+        this.recorder, stepTick, quietSteps, 0, count, grain));
+  }
+
+  /**
+   * Get the number of ticks until something other than a timer or a move changes.
+   *
+   * @param limit the largest number of ticks that are of interest.
+   * @return the number of quiet ticks, at most limit.
+   */
+  private long getTicksToNextEvent(long limit) {
+    // Submitted requests are handed in on the next step.
+    if (!this.submittedRequests.isEmpty()) {
+      return 0;
+    }
+
+    // Requests are handed out every tick while an elevator can take them or pick them up.
+    if (this.elevatorsStatus == ElevatorSystemStatus.running && this.isWaiting()) {
       for (ElevatorInterface elevator : this.elevators) {
-        if (elevator.getCurrentFloor() != 0 || elevator.isDoorClosed()) {
-          allOnGroundFloor = false;
-          break;
+        if (elevator.isTakingRequests() || this.dispatchStrategy.picksUpOnTheWay()
+            && elevator.getPickUpCapacity() > 0) {
+          return 0;
         }
       }
+    }
 
-      // If all elevators are on the ground floor then the elevator system is out of service.
-      if (allOnGroundFloor) {
-        this.elevatorsStatus = ElevatorSystemStatus.outOfService;
+    // A stopping system goes out of service on the next step.
+    if (this.elevatorsStatus == ElevatorSystemStatus.stopping && this.allOnGroundFloor()) {
+      return 0;
+    }
+
+    long quietTicks = limit;
+    this.nextEventTicksInUse = true;
+    for (int i = 0; i < this.elevators.length; i++) {
+      if (this.nextEventTicks[i] < 0) {
+        int steps = this.elevators[i].getStepsToNextEvent();
+        this.nextEventTicks[i] = steps == Integer.MAX_VALUE
+            ? Long.MAX_VALUE : this.currentTick + steps;
       }
+      quietTicks = Math.min(quietTicks, this.nextEventTicks[i] - this.currentTick);
+    }
+    return quietTicks;
+  }
+
+  /**
+   * Forget the next event of every elevator.
+   */
+  private void forgetNextEvents() {
+    if (this.nextEventTicksInUse) {
+      Arrays.fill(this.nextEventTicks, -1);
+      this.nextEventTicksInUse = false;
+    }
+    Arrays.fill(this.arrivalTables, null);
+  }
+
+  /* ***********************************************************************
+   * Checkpoints.
+   * A checkpoint is the magic number, the version and the length of the body, then a body
+   * holding the configuration, the system status, the zones, the counters, the up and down
+   * requests, the state of every elevator and the riders. Only the current version is read.
+   * It is written and read in one buffer so saving and loading cost a few copies of memory
+   * rather than a call per field.
+   * **********************************************************************/
+
+  /**
+   * Save the state of the building to a file, replacing the file if it exists.
+   *
+   * @param file the file to write the checkpoint to.
+   * @throws IOException if the file could not be written.
+   */
+  public void save(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      this.save(channel);
+    }
+  }
+
+  /**
+   * Save the state of the building to a channel.
+   * The building can be loaded again with any engine, the parallel threshold and step pool
+   * are settings of a run and are not saved. Submitted requests that were not handed in by
+   * a step yet are not saved either. Given the same settings of the run again, a loaded
+   * building carries on step for step like the one that was saved.
+   *
+   * @param channel the channel to write the checkpoint to, it is not closed.
+   * @throws IOException if the channel could not be written.
+   */
+  public void save(WritableByteChannel channel) throws IOException {
+    int bodySize = 3 * Integer.BYTES + 3 + 5 * Long.BYTES
+        + 2 * Integer.BYTES
+        + (3 * Integer.BYTES + Long.BYTES) * (this.upRequests.size() + this.downRequests.size())
+        + Integer.BYTES + this.zones.length * (3 * Integer.BYTES + 1)
+        + Integer.BYTES + this.waitingTransfers.size() * 2 * Integer.BYTES
+        + Integer.BYTES + this.riderCount * (5 * Integer.BYTES + 1 + Long.BYTES);
+    for (ElevatorInterface elevator : this.elevators) {
+      bodySize += elevator.getStateSize();
+    }
+
+    ByteBuffer buffer = ByteBuffer.allocateDirect(CHECKPOINT_PREFIX + bodySize);
+    buffer.putInt(CHECKPOINT_MAGIC);
+    buffer.putInt(CHECKPOINT_VERSION);
+    buffer.putLong(bodySize);
+    buffer.putInt(this.numberOfFloors);
+    buffer.putInt(this.numberOfElevators);
+    buffer.putInt(this.elevatorCapacity);
+    buffer.put((byte) this.engine.ordinal());
+    buffer.put((byte) (this.tallTower ? 1 : 0));
+    buffer.put((byte) this.elevatorsStatus.ordinal());
+    buffer.putInt(this.zones.length);
+    for (Zone zone : this.zones) {
+      buffer.putInt(zone.getLowestFloor());
+      buffer.putInt(zone.getHighestFloor());
+      buffer.putInt(zone.getNumberOfElevators());
+      buffer.put((byte) (zone.isExpress() ? 1 : 0));
+    }
+    buffer.putLong(this.currentTick);
+    buffer.putLong(this.requestsAccepted);
+    buffer.putLong(this.requestsDispatched);
+    buffer.putLong(this.ridersDelivered);
+    buffer.putLong(this.ridersLeftBehind);
+    this.writeRequests(Direction.UP, buffer);
+    this.writeRequests(Direction.DOWN, buffer);
+    for (ElevatorInterface elevator : this.elevators) {
+      elevator.writeState(buffer);
+    }
+    this.writeRiders(buffer);
+
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  /**
+   * Load a building from a checkpoint file.
+   *
+   * @param file the file to read the checkpoint from.
+   * @return the building as it was saved.
+   * @throws IOException              if the file could not be read.
+   * @throws IllegalArgumentException if the file is not a valid checkpoint.
+   */
+  public static Building load(Path file) throws IOException, IllegalArgumentException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      return load(channel);
+    }
+  }
+
+  /**
+   * Load a building from a checkpoint read from a channel.
+   *
+   * @param channel the channel to read the checkpoint from, it is not closed.
+   * @return the building as it was saved, with the elevators of the saved engine.
+   * @throws IOException              if the channel could not be read.
+   * @throws IllegalArgumentException if the channel does not hold a valid checkpoint.
+   */
+  public static Building load(ReadableByteChannel channel)
+      throws IOException, IllegalArgumentException {
+    ByteBuffer prefix = readFully(channel, ByteBuffer.allocate(CHECKPOINT_PREFIX));
+    if (prefix.getInt() != CHECKPOINT_MAGIC) {
+      throw new IllegalArgumentException("Not a building checkpoint.");
+    }
+    int version = prefix.getInt();
+    if (version != CHECKPOINT_VERSION) {
+      throw new IllegalArgumentException("Unknown checkpoint version " + version + ".");
+    }
+    long bodySize = prefix.getLong();
+    if (bodySize < 0 || bodySize > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("The checkpoint length is not valid.");
+    }
+    ByteBuffer body = readFully(channel, ByteBuffer.allocateDirect((int) bodySize));
+
+    try {
+      int floors = body.getInt();
+      int elevators = body.getInt();
+      int capacity = body.getInt();
+      ElevatorEngine engine = ElevatorEngine.values()[body.get()];
+      boolean tallTower = body.get() != 0;
+      ElevatorSystemStatus status = ElevatorSystemStatus.values()[body.get()];
+
+      List<Zone> zones = readZones(body);
+      Building building = new Building(floors, zones, capacity, engine, tallTower);
+      if (building.numberOfElevators != elevators) {
+        throw new IllegalArgumentException("The zones do not hold every elevator.");
+      }
+      building.elevatorsStatus = status;
+      building.currentTick = body.getLong();
+      building.requestsAccepted = body.getLong();
+      building.requestsDispatched = body.getLong();
+      building.ridersDelivered = body.getLong();
+      building.ridersLeftBehind = body.getLong();
+      building.readRequests(body, true);
+      building.readRequests(body, false);
+      for (ElevatorInterface elevator : building.elevators) {
+        elevator.readState(body);
+      }
+      building.readRiders(body);
+      if (body.hasRemaining()) {
+        throw new IllegalArgumentException("The checkpoint has trailing data.");
+      }
+      return building;
+    } catch (ArrayIndexOutOfBoundsException | BufferUnderflowException e) {
+      throw new IllegalArgumentException("The checkpoint is corrupted.", e);
+    }
+  }
+
+  /**
+   * Write the requests waiting to go in a direction as their number and the start floor, end
+   * floor, party size and arrival tick of every request, zone by zone.
+   *
+   * @param direction UP or DOWN.
+   * @param buffer    the buffer to write to.
+   */
+  private void writeRequests(Direction direction, ByteBuffer buffer) {
+    buffer.putInt(direction == Direction.UP ? this.upRequests.size()
+        : this.downRequests.size());
+    for (Dispatch dispatch : this.dispatches) {
+      HallCallQueue queue = dispatch.queue(direction);
+      long[] ticks = queue.getArrivalTicks();
+      int i = 0;
+      for (Request request : queue.asList()) {
+        buffer.putInt(request.getStartFloor());
+        buffer.putInt(request.getEndFloor());
+        buffer.putInt(request.getPartySize());
+        buffer.putLong(ticks[i++]);
+      }
+    }
+  }
+
+  /**
+   * Read a list of requests written by writeRequests, each into the zone that serves it.
+   *
+   * @param buffer the buffer to read from.
+   * @param up     true if the requests should go up, false if they should go down.
+   * @throws IllegalArgumentException if a request is not valid for this building.
+   */
+  private void readRequests(ByteBuffer buffer, boolean up) throws IllegalArgumentException {
+    int count = buffer.getInt();
+    if (count < 0 || count > buffer.remaining() / (3 * Integer.BYTES + Long.BYTES)) {
+      throw new IllegalArgumentException("The number of requests is not valid.");
+    }
+    for (int i = 0; i < count; i++) {
+      int start = buffer.getInt();
+      int end = buffer.getInt();
+      int party = buffer.getInt();
+      long tick = buffer.getLong();
+      if (start < 0 || start >= this.numberOfFloors || end < 0 || end >= this.numberOfFloors
+          || (start < end) != up || start == end || tick < 0 || tick > this.currentTick
+          || party < 1 || party > this.elevatorCapacity) {
+        throw new IllegalArgumentException("A saved request is not valid.");
+      }
+      int[] leg = this.routes.firstLeg(start, end);
+      if (leg[1] != end) {
+        throw new IllegalArgumentException("A saved request is not served by one zone.");
+      }
+      this.dispatches[leg[0]].queue(up ? Direction.UP : Direction.DOWN)
+          .add(new Request(start, end, party), tick);
+    }
+  }
+
+  /**
+   * Read the zones of a building as their count and the floors, elevators and kind of each.
+   *
+   * @param buffer the buffer to read from.
+   * @return the zones.
+   * @throws IllegalArgumentException if a zone is not valid.
+   */
+  private static List<Zone> readZones(ByteBuffer buffer) throws IllegalArgumentException {
+    int count = buffer.getInt();
+    if (count < 1 || count > buffer.remaining() / (3 * Integer.BYTES + 1)) {
+      throw new IllegalArgumentException("The number of zones is not valid.");
+    }
+    List<Zone> zones = new ArrayList<>(count);
+    for (int z = 0; z < count; z++) {
+      zones.add(new Zone(buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.get() != 0));
+    }
+    return zones;
+  }
+
+  /**
+   * Write the riders. The ones waiting to change zones are the index of their leg among the
+   * up then down requests and the end floor of their trip. The ones handed to an elevator are
+   * their elevator, the start and end floor of their leg, the end floor of their trip, the
+   * size of their party, if they got on and the tick they called for the leg.
+   *
+   * @param buffer the buffer to write to.
+   */
+  private void writeRiders(ByteBuffer buffer) {
+    buffer.putInt(this.waitingTransfers.size());
+    int index = 0;
+    for (List<Request> requests : List.of(this.upRequests, this.downRequests)) {
+      for (Request request : requests) {
+        Integer end = this.waitingTransfers.get(request);
+        if (end != null) {
+          buffer.putInt(index);
+          buffer.putInt(end);
+        }
+        index++;
+      }
+    }
+    buffer.putInt(this.riderCount);
+    for (int i = 0; i < this.elevators.length; i++) {
+      for (Rider rider : this.riders.get(i)) {
+        buffer.putInt(i);
+        buffer.putInt(rider.leg.getStartFloor());
+        buffer.putInt(rider.leg.getEndFloor());
+        buffer.putInt(rider.end);
+        buffer.putInt(rider.leg.getPartySize());
+        buffer.put((byte) (rider.boarded ? 1 : 0));
+        buffer.putLong(rider.arrival);
+      }
+    }
+  }
+
+  /**
+   * Read the riders written by writeRiders.
+   *
+   * @param buffer the buffer to read from.
+   * @throws IllegalArgumentException if a rider is not valid for this building.
+   */
+  private void readRiders(ByteBuffer buffer) throws IllegalArgumentException {
+    int waiting = this.upRequests.size() + this.downRequests.size();
+    int count = buffer.getInt();
+    if (count < 0 || count > waiting) {
+      throw new IllegalArgumentException("The number of riders changing zones is not valid.");
+    }
+    for (int i = 0; i < count; i++) {
+      int index = buffer.getInt();
+      int end = buffer.getInt();
+      if (index < 0 || index >= waiting || end < 0 || end >= this.numberOfFloors) {
+        throw new IllegalArgumentException("A saved rider is not valid.");
+      }
+      int up = this.upRequests.size();
+      this.waitingTransfers.put(index < up ? this.upRequests.get(index)
+          : this.downRequests.get(index - up), end);
+    }
+    count = buffer.getInt();
+    if (count < 0 || count > buffer.remaining() / (5 * Integer.BYTES + 1 + Long.BYTES)) {
+      throw new IllegalArgumentException("The number of riders is not valid.");
+    }
+    for (int i = 0; i < count; i++) {
+      int elevator = buffer.getInt();
+      int start = buffer.getInt();
+      int legEnd = buffer.getInt();
+      int end = buffer.getInt();
+      int party = buffer.getInt();
+      boolean boarded = buffer.get() != 0;
+      long arrival = buffer.getLong();
+      if (elevator < 0 || elevator >= this.elevators.length || start < 0 || legEnd < 0
+          || end < 0 || Math.max(start, Math.max(legEnd, end)) >= this.numberOfFloors
+          || party < 1 || party > this.elevatorCapacity || arrival < 0
+          || arrival > this.currentTick) {
+        throw new IllegalArgumentException("A saved rider is not valid.");
+      }
+      Rider rider = new Rider(new Request(start, legEnd, party), end, arrival);
+      rider.boarded = boarded;
+      this.riders.get(elevator).add(rider);
+      this.riderCount++;
+      if (boarded) {
+        this.loads[elevator] += party;
+      }
+    }
+  }
+
+  /**
+   * Read from a channel until a buffer is full.
+   *
+   * @param channel the channel to read from.
+   * @param buffer  the buffer to fill.
+   * @return the buffer, flipped for reading.
+   * @throws IOException if the channel ends before the buffer is full.
+   */
+  private static ByteBuffer readFully(ReadableByteChannel channel, ByteBuffer buffer)
+      throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer) < 0) {
+        throw new EOFException("The checkpoint ends early.");
+      }
+    }
+    return buffer.flip();
+  }
+
+  /**
+   * Check if all elevators are on the ground floor with their doors open.
+   *
+   * @return true if all elevators are on the ground floor, false otherwise.
+   */
+  private boolean allOnGroundFloor() {
+    for (ElevatorInterface elevator : this.elevators) {
+      if (elevator.getCurrentFloor() != 0 || elevator.isDoorClosed()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * The trips an elevator is estimated to make for the calls going one way, filled in the
+   * order the calls are handed to it. The elevator picks up calls on its way while it has room
+   * for them, then takes them on the trip it is handed them on until it is full, and on the
+   * trips after that.
+   */
+  private static final class Trips {
+    private final int capacity;
+    private final Direction direction;
+    // the table of the trip the calls are handed for, and of the trip after it once known.
+    private ArrivalTable table;
+    private ArrivalTable next;
+    private final List<Request> handed = new ArrayList<>();
+    private int room;
+    // the room left to pick up riders on the way, only on the trip the elevator is making.
+    private int passRoom;
+
+    /**
+     * The constructor for the trips of an elevator.
+     *
+     * @param table     the arrival table of the elevator.
+     * @param capacity  the number of riders the elevator takes.
+     * @param passRoom  the room left to pick up riders on the way.
+     * @param direction the direction of the calls.
+     */
+    private Trips(ArrivalTable table, int capacity, int passRoom, Direction direction) {
+      this.table = table;
+      this.capacity = capacity;
+      this.room = capacity;
+      this.passRoom = passRoom;
+      this.direction = direction;
+    }
+
+    /**
+     * Get the tick the elevator picks up a call on its way.
+     *
+     * @param request the call.
+     * @param after   the earliest tick the call can be picked up.
+     * @return the tick, -1 if the elevator does not pick it up on its way.
+     */
+    private long getPassTick(Request request, long after) {
+      if (request.getPartySize() > this.passRoom) {
+        return -1;
+      }
+      long pass = this.table.getPassTick(request.getStartFloor(), this.direction);
+      return pass >= after ? pass : -1;
+    }
+
+    /**
+     * Get the table of the trip a call is handed for.
+     *
+     * @param request the call.
+     * @param after   the earliest tick the call can be handed.
+     * @return the table, null if the elevator cannot be handed the call.
+     */
+    private ArrivalTable tripFor(Request request, long after) {
+      if (request.getPartySize() <= this.room) {
+        return this.table;
+      }
+      if (this.next == null) {
+        this.next = this.table.afterHanding(this.direction, this.handed, after);
+      }
+      return this.next;
+    }
+
+    /**
+     * Get the tick the elevator picks up a call.
+     *
+     * @param request the call.
+     * @param after   the earliest tick the call can be picked up.
+     * @return the tick, -1 if the elevator does not pick it up.
+     */
+    private long getPickupTick(Request request, long after) {
+      ArrivalTable trip = this.tripFor(request, after);
+      long pickup = trip == null ? -1
+          : trip.getFreeArrivalTick(request.getStartFloor(), this.direction, after);
+      long pass = this.getPassTick(request, after);
+      return pass >= 0 && (pickup < 0 || pass < pickup) ? pass : pickup;
+    }
+
+    /**
+     * Hand a call to the elevator, on its way or on the trip it has room for it on.
+     *
+     * @param request the call.
+     * @param after   the earliest tick the call can be picked up.
+     * @return the table of the trip the call is handed for, null if picked up on the way.
+     */
+    private ArrivalTable take(Request request, long after) {
+      long pass = this.getPassTick(request, after);
+      ArrivalTable trip = this.tripFor(request, after);
+      long pickup = trip == null ? -1
+          : trip.getFreeArrivalTick(request.getStartFloor(), this.direction, after);
+      if (pass >= 0 && (pickup < 0 || pass < pickup)) {
+        this.passRoom -= request.getPartySize();
+        return null;
+      }
+      if (trip != this.table) {
+        this.table = trip;
+        this.handed.clear();
+        this.room = this.capacity;
+        this.passRoom = 0;
+      }
+      this.handed.add(request);
+      this.room -= request.getPartySize();
+      this.next = null;
+      return trip;
+    }
+
+    /**
+     * Hand the rider to the elevator and estimate the ride.
+     *
+     * @param leg   the leg of the rider.
+     * @param after the earliest tick the rider can be picked up.
+     * @return the pickup and the arrival tick.
+     */
+    private long[] ride(Request leg, long after) {
+      int start = leg.getStartFloor();
+      int end = leg.getEndFloor();
+      ArrivalTable trip = this.take(leg, after);
+      if (trip == null) {
+        long pass = this.table.getPassTick(start, this.direction);
+        return new long[] {pass, this.table.getRideArrivalTick(start, end, pass)};
+      }
+      ArrivalTable ride = trip.afterHanding(this.direction, this.handed, after);
+      long pickup = ride.getStopTick(start, 0);
+      long arrival = ride.getStopTick(end, pickup + 1);
+      // a LOOK elevator handed the calls on their end floor opens there first, and is handed
+      // the riders again once it stops with them.
+      return new long[] {pickup,
+          arrival >= 0 ? arrival : ride.getRideArrivalTick(start, end, pickup)};
+    }
+  }
+
+  /**
+   * What the dispatch strategy sees of one zone of the building, counting the requests it
+   * takes. The elevators of the zone are numbered from 0.
+   */
+  private final class Dispatch implements DispatchContext {
+    private final Zone zone;
+    // the index of the first elevator of the zone in the building.
+    private final int first;
+    private final int count;
+    // a valid request may start or end one floor above the top floor.
+    private final HallCallQueue up = new HallCallQueue(Building.this.numberOfFloors + 1);
+    private final HallCallQueue down = new HallCallQueue(Building.this.numberOfFloors + 1);
+    private List<ElevatorState> elevatorStates;
+    private int taken = 0;
+    // the tick every request taken in this tick arrived at.
+    private final Map<Request, Long> takenTicks = new IdentityHashMap<>();
+
+    /**
+     * The constructor for the context of a zone.
+     *
+     * @param zone  the zone.
+     * @param first the index of the first elevator of the zone.
+     */
+    private Dispatch(Zone zone, int first) {
+      this.zone = zone;
+      this.first = first;
+      this.count = zone.getNumberOfElevators();
+    }
+
+    @Override
+    public int getNumberOfFloors() {
+      return Building.this.numberOfFloors;
+    }
+
+    @Override
+    public int getElevatorCapacity() {
+      return Building.this.elevatorCapacity;
+    }
+
+    @Override
+    public long getCurrentTick() {
+      return Building.this.currentTick;
+    }
+
+    @Override
+    public boolean stopsAt(int floor) {
+      return Building.this.routes.isSingle() ? floor >= 0 && floor < Building.this.numberOfFloors
+          : this.zone.stopsAt(floor);
+    }
+
+    @Override
+    public List<ElevatorState> getElevators() {
+      if (this.elevatorStates == null) {
+        List<ElevatorState> elevators = Arrays.asList(Building.this.elevators);
+        this.elevatorStates = Collections.unmodifiableList(
+            elevators.subList(this.first, this.first + this.count));
+      }
+      return this.elevatorStates;
+    }
+
+    @Override
+    public int getWaitingCount(Direction direction) {
+      return this.queue(direction).size();
+    }
+
+    @Override
+    public int getWaitingCount(int floor, Direction direction) {
+      return this.queue(direction).size(this.checkFloor(floor));
+    }
+
+    @Override
+    public List<Request> getWaiting(Direction direction) {
+      return this.queue(direction).asList();
+    }
+
+    @Override
+    public long getArrivalTick(Request request) {
+      if (request.getStartFloor() < 0 || request.getStartFloor() > Building.this.numberOfFloors
+          || request.getStartFloor() == request.getEndFloor()) {
+        return -1;
+      }
+      return this.queue(request.getStartFloor() < request.getEndFloor() ? Direction.UP
+          : Direction.DOWN).getArrivalTick(request);
+    }
+
+    @Override
+    public Request peek(Direction direction) {
+      List<Request> waiting = this.queue(direction).asList();
+      return waiting.isEmpty() ? null : waiting.get(0);
+    }
+
+    @Override
+    public Request peek(int floor, Direction direction) {
+      return this.queue(direction).peek(this.checkFloor(floor));
+    }
+
+    @Override
+    public Request take(Direction direction) {
+      HallCallQueue queue = this.queue(direction);
+      return this.count(queue.poll(), queue);
+    }
+
+    @Override
+    public Request take(int floor, Direction direction) {
+      HallCallQueue queue = this.queue(direction);
+      return this.count(queue.poll(this.checkFloor(floor)), queue);
+    }
+
+    @Override
+    public boolean take(Request request) {
+      Direction direction = request.getStartFloor() < request.getEndFloor()
+          ? Direction.UP : Direction.DOWN;
+      if (request.getStartFloor() < 0 || request.getStartFloor() > Building.this.numberOfFloors
+          || !this.queue(direction).remove(request)) {
+        return false;
+      }
+      this.count(request, this.queue(direction));
+      return true;
+    }
+
+    /**
+     * Get the queue of a direction.
+     *
+     * @param direction UP or DOWN.
+     * @return the queue.
+     * @throws IllegalArgumentException if the direction is STOPPED.
+     */
+    private HallCallQueue queue(Direction direction) {
+      if (direction == Direction.UP) {
+        return this.up;
+      } else if (direction == Direction.DOWN) {
+        return this.down;
+      }
+      throw new IllegalArgumentException("Requests only wait to go up or down.");
+    }
+
+    /**
+     * Check that a request may start at a floor.
+     *
+     * @param floor the floor.
+     * @return the floor.
+     * @throws IllegalArgumentException if no request can start at the floor.
+     */
+    private int checkFloor(int floor) {
+      // a valid request may start one floor above the top floor.
+      if (floor < 0 || floor > Building.this.numberOfFloors) {
+        throw new IllegalArgumentException("Floor " + floor + " is not in the building.");
+      }
+      return floor;
+    }
+
+    /**
+     * Count a request taken by the strategy and note when it arrived.
+     *
+     * @param request the request, null if there was none.
+     * @param queue   the queue the request was taken from.
+     * @return the request.
+     */
+    private Request count(Request request, HallCallQueue queue) {
+      if (request != null) {
+        this.taken++;
+        this.takenTicks.put(request, queue.getTakenTick());
+      }
+      return request;
+    }
+  }
+
+  /**
+   * The requests of every zone waiting to go in a direction, zone by zone.
+   */
+  private final class ZoneRequests extends AbstractList<Request> {
+    private final Direction direction;
+
+    /**
+     * The constructor for the requests.
+     *
+     * @param direction UP or DOWN.
+     */
+    private ZoneRequests(Direction direction) {
+      this.direction = direction;
+    }
+
+    @Override
+    public Request get(int index) {
+      if (index >= 0) {
+        for (Dispatch dispatch : Building.this.dispatches) {
+          HallCallQueue queue = dispatch.queue(this.direction);
+          if (index < queue.size()) {
+            return queue.asList().get(index);
+          }
+          index -= queue.size();
+        }
+      }
+      throw new IndexOutOfBoundsException("Index: " + index);
+    }
+
+    @Override
+    public int size() {
+      int size = 0;
+      for (Dispatch dispatch : Building.this.dispatches) {
+        size += dispatch.queue(this.direction).size();
+      }
+      return size;
+    }
+  }
+
+  /**
+   * A party handed to an elevator for one leg of its trip.
+   */
+  private static final class Rider {
+    private final Request leg;
+    // the end floor of the trip, past the leg for a party changing zones.
+    private final int end;
+    // the tick the party called for the leg, kept if it has to call again.
+    private final long arrival;
+    private boolean boarded;
+
+    /**
+     * The constructor for the rider.
+     *
+     * @param leg     the leg the party is on.
+     * @param end     the end floor of the trip.
+     * @param arrival the tick the party called for the leg.
+     */
+    private Rider(Request leg, int end, long arrival) {
+      this.leg = leg;
+      this.end = end;
+      this.arrival = arrival;
     }
   }
 }
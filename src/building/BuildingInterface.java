@@ -48,6 +48,26 @@ public interface BuildingInterface {
    */
   boolean handleAddRequest(Request request);
 
+  /**
+   * Submit a request to the building from any thread.
+   * The request is handed to handleAddRequest at the start of the next step, so it may still
+   * be rejected then. Submitting never blocks the thread that steps the building.
+   *
+   * @param request the request to submit.
+   * @return true if the request was taken for the next step, false if too many are waiting.
+   */
+  boolean submitRequest(Request request);
+
+  /**
+   * Estimate when a request is picked up and when it arrives.
+   * The estimate is read from where the elevators are going with the requests they were
+   * handed, without stepping the building, so it does not know of requests handed out later.
+   *
+   * @param request a request waiting for an elevator, or one that is not added yet.
+   * @return the estimate, null if no elevator would serve the request now.
+   */
+  RequestEstimate estimateRequest(Request request);
+
   /**
    * Start the elevator system.
    *
@@ -61,4 +81,17 @@ public interface BuildingInterface {
    */
   void stepElevatorSystem();
 
+  /**
+   * Advance the elevator system to its next event.
+   * Ticks in which no elevator changes state are skipped at once, then the tick with
+   * the event is stepped. The building ends up in the same state as if
+   * stepElevatorSystem() had been called once for every tick advanced.
+   *
+   * @param maxTicks the largest number of ticks to advance, for example up to the
+   *                 arrival of the next request.
+   * @return the number of ticks advanced, between 1 and maxTicks.
+   * @throws IllegalArgumentException if maxTicks is less than 1.
+   */
+  long advanceElevatorSystem(long maxTicks) throws IllegalArgumentException;
+
 }
@@ -0,0 +1,124 @@
+package building;
+
+import elevator.ElevatorBank;
+import elevator.ElevatorInterface;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class steps a range of elevators on a fork join pool.
+ * The range is split in half until it is no larger than the grain, then each part is
+ * stepped in order. Every elevator only touches its own state when it is stepped, so
+ * the result does not depend on how the range is split. When the elevators are the views of
+ * an elevator bank the bank steps the range itself, unless the steps are recorded in a
+ * journal.
+ */
+class ElevatorStepTask extends RecursiveAction {
+  private static final long serialVersionUID = 1L;
+
+  private final ElevatorInterface[] elevators;
+  private final ElevatorBank bank;
+  private final long[] nextEventTicks;
+  private final StepRecorder recorder;
+  private final long stepTick;
+  private final int quietSteps;
+  private final int from;
+  private final int to;
+  private final int grain;
+
+  /**
+   * The constructor for the task.
+   *
+   * @param elevators      the elevators of the building.
+   * @param bank           the bank behind the elevators, null if they are objects.
+   * @param nextEventTicks the tick at which every elevator next changes state, null if unknown.
+   * @param recorder       records the events of the steps, null if they are not recorded.
+   * @param stepTick       the tick that is stepped.
+   * @param quietSteps     the number of quiet steps to advance, 0 to do a full step.
+   * @param from           the first elevator to step.
+   * @param to             one past the last elevator to step.
+   * @param grain          the largest range that is stepped without splitting.
+   */
+  ElevatorStepTask(ElevatorInterface[] elevators, ElevatorBank bank, long[] nextEventTicks,
+                   StepRecorder recorder, long stepTick, int quietSteps, int from, int to,
+                   int grain) {
+    this.elevators = elevators;
+    this.bank = bank;
+    this.nextEventTicks = nextEventTicks;
+    this.recorder = recorder;
+    this.stepTick = stepTick;
+    this.quietSteps = quietSteps;
+    this.from = from;
+    this.to = to;
+    this.grain = grain;
+  }
+
+  @Override
+  protected void compute() {
+    if (this.to - this.from <= this.grain) {
+      stepRange(this.elevators, this.bank, this.nextEventTicks, this.recorder, this.stepTick,
+          this.quietSteps, this.from, this.to);
+      return;
+    }
+    int middle = (this.from + this.to) >>> 1;
+    invokeAll(
+        new ElevatorStepTask(this.elevators, this.bank, this.nextEventTicks, this.recorder,
+            this.stepTick, this.quietSteps, this.from, middle, this.grain),
+        new ElevatorStepTask(this.elevators, this.bank, this.nextEventTicks, this.recorder,
+            this.stepTick, this.quietSteps, middle, this.to, this.grain));
+  }
+
+  /**
+   * Step a range of elevators on the calling thread.
+   * An elevator whose event happens in a full step has to work out its next one again.
+   *
+   * @param elevators      the elevators of the building.
+   * @param bank           the bank behind the elevators, null if they are objects.
+   * @param nextEventTicks the tick at which every elevator next changes state, null if unknown.
+   * @param recorder       records the events of the steps, null if they are not recorded.
+   * @param stepTick       the tick that is stepped.
+   * @param quietSteps     the number of quiet steps to advance, 0 to do a full step.
+   * @param from           the first elevator to step.
+   * @param to             one past the last elevator to step.
+   */
+  static void stepRange(ElevatorInterface[] elevators, ElevatorBank bank, long[] nextEventTicks,
+                        StepRecorder recorder, long stepTick, int quietSteps, int from,
+                        int to) {
+    if (quietSteps > 0) {
+      if (recorder != null) {
+        for (int i = from; i < to; i++) {
+          recorder.step(elevators[i], i, quietSteps);
+        }
+        return;
+      }
+      if (bank != null) {
+        bank.advance(from, to, quietSteps);
+        return;
+      }
+      for (int i = from; i < to; i++) {
+        elevators[i].advance(quietSteps);
+      }
+      return;
+    }
+
+    if (nextEventTicks != null) {
+      for (int i = from; i < to; i++) {
+        if (nextEventTicks[i] <= stepTick) {
+          nextEventTicks[i] = -1;
+        }
+      }
+    }
+    if (recorder != null) {
+      for (int i = from; i < to; i++) {
+        recorder.step(elevators[i], i, 0);
+      }
+      return;
+    }
+    if (bank != null) {
+      bank.step(from, to);
+      return;
+    }
+    for (int i = from; i < to; i++) {
+      elevators[i].step();
+    }
+  }
+}
@@ -0,0 +1,331 @@
+package building;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import scanerzus.Request;
+
+/**
+ * The waiting requests of one direction, in the order they arrived.
+ * Every request sits in one node that is linked twice: once in the queue of all requests and
+ * once in the queue of its start floor. Adding a request, taking the oldest request of the
+ * building and taking the oldest request of a floor all cost the same however many requests
+ * are waiting, and the number of requests waiting at every floor is kept as they come and go.
+ * Every request keeps the tick it arrived at, and the queue is in order of arrival.
+ */
+final class HallCallQueue {
+  private final Node[] floorHeads;
+  private final Node[] floorTails;
+  private final int[] floorSizes;
+  private final List<Request> view = new View();
+  private Node head;
+  private Node tail;
+  private int size = 0;
+  // the tick the request taken last arrived at.
+  private long takenTick = -1;
+
+  /**
+   * The constructor for an empty queue.
+   *
+   * @param numberOfFloors the number of start floors a request may have.
+   */
+  HallCallQueue(int numberOfFloors) {
+    this.floorHeads = new Node[numberOfFloors];
+    this.floorTails = new Node[numberOfFloors];
+    this.floorSizes = new int[numberOfFloors];
+  }
+
+  /**
+   * Add a request among the others in the order of arrival, behind those that arrived at the
+   * same tick. A request that arrived last is added at once, one put back walks back from the
+   * newest request to its place.
+   *
+   * @param request the request.
+   * @param tick    the tick the request arrived at.
+   */
+  void add(Request request, long tick) {
+    Node node = new Node(request, tick);
+    int floor = request.getStartFloor();
+    Node before = this.tail;
+    while (before != null && before.tick > tick) {
+      before = before.previous;
+    }
+    node.previous = before;
+    node.next = before == null ? this.head : before.next;
+    if (before == null) {
+      this.head = node;
+    } else {
+      before.next = node;
+    }
+    if (node.next == null) {
+      this.tail = node;
+    } else {
+      node.next.previous = node;
+    }
+    before = this.floorTails[floor];
+    while (before != null && before.tick > tick) {
+      before = before.previousOnFloor;
+    }
+    node.previousOnFloor = before;
+    node.nextOnFloor = before == null ? this.floorHeads[floor] : before.nextOnFloor;
+    if (before == null) {
+      this.floorHeads[floor] = node;
+    } else {
+      before.nextOnFloor = node;
+    }
+    if (node.nextOnFloor == null) {
+      this.floorTails[floor] = node;
+    } else {
+      node.nextOnFloor.previousOnFloor = node;
+    }
+    this.floorSizes[floor]++;
+    this.size++;
+  }
+
+  /**
+   * Take the oldest request.
+   *
+   * @return the request, null if none is waiting.
+   */
+  Request poll() {
+    return this.head == null ? null : this.unlink(this.head);
+  }
+
+  /**
+   * Take the oldest request that starts at a floor.
+   *
+   * @param floor the start floor.
+   * @return the request, null if none is waiting at the floor.
+   */
+  Request poll(int floor) {
+    Node node = this.floorHeads[floor];
+    return node == null ? null : this.unlink(node);
+  }
+
+  /**
+   * Take a given request, looking for it among the requests of its start floor.
+   *
+   * @param request the request.
+   * @return true if the request was waiting, false otherwise.
+   */
+  boolean remove(Request request) {
+    for (Node node = this.floorHeads[request.getStartFloor()]; node != null;
+         node = node.nextOnFloor) {
+      if (node.request == request) {
+        this.unlink(node);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Check if a given request is waiting, looking for it among the requests of its start floor.
+   *
+   * @param request the request.
+   * @return true if the request is waiting, false otherwise.
+   */
+  boolean contains(Request request) {
+    return this.getArrivalTick(request) >= 0;
+  }
+
+  /**
+   * Get the tick a given request arrived at, looking for it among the requests of its start
+   * floor.
+   *
+   * @param request the request.
+   * @return the tick, -1 if the request is not waiting.
+   */
+  long getArrivalTick(Request request) {
+    for (Node node = this.floorHeads[request.getStartFloor()]; node != null;
+         node = node.nextOnFloor) {
+      if (node.request == request) {
+        return node.tick;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Get the ticks the waiting requests arrived at, oldest first.
+   *
+   * @return the ticks, in the order of asList().
+   */
+  long[] getArrivalTicks() {
+    long[] ticks = new long[this.size];
+    int i = 0;
+    for (Node node = this.head; node != null; node = node.next) {
+      ticks[i++] = node.tick;
+    }
+    return ticks;
+  }
+
+  /**
+   * Get the tick the request taken last arrived at.
+   *
+   * @return the tick, -1 if no request was taken.
+   */
+  long getTakenTick() {
+    return this.takenTick;
+  }
+
+  /**
+   * Get the oldest request that starts at a floor without removing it.
+   *
+   * @param floor the start floor.
+   * @return the request, null if none is waiting there.
+   */
+  Request peek(int floor) {
+    Node node = this.floorHeads[floor];
+    return node == null ? null : node.request;
+  }
+
+  /**
+   * Get the number of waiting requests.
+   *
+   * @return the number of requests.
+   */
+  int size() {
+    return this.size;
+  }
+
+  /**
+   * Get the number of waiting requests that start at a floor.
+   *
+   * @param floor the start floor.
+   * @return the number of requests at the floor.
+   */
+  int size(int floor) {
+    return this.floorSizes[floor];
+  }
+
+  /**
+   * Check if no request is waiting.
+   *
+   * @return true if the queue is empty, false otherwise.
+   */
+  boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  /**
+   * Drop every waiting request.
+   */
+  void clear() {
+    Arrays.fill(this.floorHeads, null);
+    Arrays.fill(this.floorTails, null);
+    Arrays.fill(this.floorSizes, 0);
+    this.head = null;
+    this.tail = null;
+    this.size = 0;
+  }
+
+  /**
+   * Get a list of the waiting requests, oldest first.
+   * The list cannot be changed and follows the queue as it changes.
+   *
+   * @return the requests.
+   */
+  List<Request> asList() {
+    return this.view;
+  }
+
+  /**
+   * Take a node out of both of its queues.
+   *
+   * @param node the node.
+   * @return the request of the node.
+   */
+  private Request unlink(Node node) {
+    if (node.previous == null) {
+      this.head = node.next;
+    } else {
+      node.previous.next = node.next;
+    }
+    if (node.next == null) {
+      this.tail = node.previous;
+    } else {
+      node.next.previous = node.previous;
+    }
+    int floor = node.request.getStartFloor();
+    if (node.previousOnFloor == null) {
+      this.floorHeads[floor] = node.nextOnFloor;
+    } else {
+      node.previousOnFloor.nextOnFloor = node.nextOnFloor;
+    }
+    if (node.nextOnFloor == null) {
+      this.floorTails[floor] = node.previousOnFloor;
+    } else {
+      node.nextOnFloor.previousOnFloor = node.previousOnFloor;
+    }
+    this.floorSizes[floor]--;
+    this.size--;
+    this.takenTick = node.tick;
+    return node.request;
+  }
+
+  /**
+   * A waiting request with its links in both queues.
+   */
+  private static final class Node {
+    private final Request request;
+    private final long tick;
+    private Node previous;
+    private Node next;
+    private Node previousOnFloor;
+    private Node nextOnFloor;
+
+    private Node(Request request, long tick) {
+      this.request = request;
+      this.tick = tick;
+    }
+  }
+
+  /**
+   * The list of the waiting requests.
+   * Walking the list costs one step per request, looking up by index walks from the start.
+   */
+  private final class View extends AbstractList<Request> {
+    @Override
+    public Request get(int index) {
+      if (index < 0 || index >= HallCallQueue.this.size) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: "
+            + HallCallQueue.this.size);
+      }
+      Node node = HallCallQueue.this.head;
+      for (int i = 0; i < index; i++) {
+        node = node.next;
+      }
+      return node.request;
+    }
+
+    @Override
+    public int size() {
+      return HallCallQueue.this.size;
+    }
+
+    @Override
+    public Iterator<Request> iterator() {
+      return new Iterator<Request>() {
+        private Node next = HallCallQueue.this.head;
+
+        @Override
+        public boolean hasNext() {
+          return this.next != null;
+        }
+
+        @Override
+        public Request next() {
+          if (this.next == null) {
+            throw new NoSuchElementException();
+          }
+          Request request = this.next.request;
+          this.next = this.next.next;
+          return request;
+        }
+      };
+    }
+  }
+}
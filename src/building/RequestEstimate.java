@@ -0,0 +1,64 @@
+package building;
+
+/**
+ * This class holds when a rider is estimated to be picked up and to arrive.
+ * The ticks are those of the building: the door is estimated to open for the rider in the
+ * step that brings getCurrentTick() to the pickup tick, and on the end floor in the step that
+ * brings it to the arrival tick.
+ */
+public final class RequestEstimate {
+  private final long pickupTick;
+  private final long arrivalTick;
+
+  /**
+   * The constructor for the estimate.
+   *
+   * @param pickupTick  the tick the rider is picked up.
+   * @param arrivalTick the tick the rider arrives, after the pickup tick.
+   * @throws IllegalArgumentException if the rider would arrive before being picked up.
+   */
+  public RequestEstimate(long pickupTick, long arrivalTick) throws IllegalArgumentException {
+    if (arrivalTick <= pickupTick) {
+      throw new IllegalArgumentException("A rider arrives after being picked up.");
+    }
+    this.pickupTick = pickupTick;
+    this.arrivalTick = arrivalTick;
+  }
+
+  /**
+   * Get the tick the door opens for the rider on the start floor.
+   *
+   * @return the pickup tick.
+   */
+  public long getPickupTick() {
+    return this.pickupTick;
+  }
+
+  /**
+   * Get the tick the door opens for the rider on the end floor.
+   *
+   * @return the arrival tick.
+   */
+  public long getArrivalTick() {
+    return this.arrivalTick;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (!(o instanceof RequestEstimate)) {
+      return false;
+    }
+    RequestEstimate estimate = (RequestEstimate) o;
+    return this.pickupTick == estimate.pickupTick && this.arrivalTick == estimate.arrivalTick;
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(this.pickupTick) * 31 + Long.hashCode(this.arrivalTick);
+  }
+
+  @Override
+  public String toString() {
+    return "pickup " + this.pickupTick + ", arrival " + this.arrivalTick;
+  }
+}
@@ -0,0 +1,110 @@
+package building;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import scanerzus.Request;
+
+/**
+ * A bounded ring of requests that many threads offer to and one thread drains.
+ * Every slot carries a sequence number that tells whose turn it is: a producer claims the
+ * next position with one compare and set and publishes the request by moving the sequence
+ * on, the consumer takes it by moving the sequence on by one lap. No thread ever waits for
+ * another, a producer that finds the ring full is told so at once.
+ */
+final class RequestRing {
+  private final Request[] slots;
+  private final AtomicLongArray sequences;
+  private final int mask;
+  // the next position a producer claims.
+  private final AtomicLong tail = new AtomicLong();
+  // the next position the consumer takes, only touched by the consumer.
+  private long head = 0;
+
+  /**
+   * The constructor for the ring.
+   *
+   * @param capacity the number of requests the ring holds, a power of two.
+   * @throws IllegalArgumentException if the capacity is not a positive power of two.
+   */
+  RequestRing(int capacity) throws IllegalArgumentException {
+    if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Capacity should be a power of two.");
+    }
+    this.slots = new Request[capacity];
+    this.sequences = new AtomicLongArray(capacity);
+    for (int i = 0; i < capacity; i++) {
+      this.sequences.set(i, i);
+    }
+    this.mask = capacity - 1;
+  }
+
+  /**
+   * Get the number of requests the ring holds.
+   *
+   * @return the capacity of the ring.
+   */
+  int capacity() {
+    return this.slots.length;
+  }
+
+  /**
+   * Add a request to the ring, from any thread.
+   *
+   * @param request the request.
+   * @return true if the request was added, false if the ring is full.
+   */
+  boolean offer(Request request) {
+    long position = this.tail.get();
+    while (true) {
+      int index = (int) position & this.mask;
+      long difference = this.sequences.get(index) - position;
+      if (difference == 0) {
+        if (this.tail.compareAndSet(position, position + 1)) {
+          this.slots[index] = request;
+          this.sequences.set(index, position + 1);
+          return true;
+        }
+        position = this.tail.get();
+      } else if (difference < 0) {
+        // the slot still holds the request of the last lap.
+        return false;
+      } else {
+        position = this.tail.get();
+      }
+    }
+  }
+
+  /**
+   * Check if the ring has no request to take, on the consumer thread.
+   *
+   * @return true if the ring is empty, false otherwise.
+   */
+  boolean isEmpty() {
+    return this.sequences.get((int) this.head & this.mask) != this.head + 1;
+  }
+
+  /**
+   * Take the requests in the ring in the order they were claimed, on the consumer thread.
+   * At most one lap of the ring is taken, so producers cannot keep the consumer busy.
+   *
+   * @param consumer told about every request taken.
+   * @return the number of requests taken.
+   */
+  int drain(Consumer<Request> consumer) {
+    int taken = 0;
+    while (taken < this.slots.length) {
+      int index = (int) this.head & this.mask;
+      if (this.sequences.get(index) != this.head + 1) {
+        break;
+      }
+      Request request = this.slots[index];
+      this.slots[index] = null;
+      this.sequences.set(index, this.head + this.slots.length);
+      this.head++;
+      taken++;
+      consumer.accept(request);
+    }
+    return taken;
+  }
+}
@@ -0,0 +1,92 @@
+package building;
+
+import building.enums.Direction;
+import elevator.ElevatorInterface;
+import journal.EventJournal;
+import journal.JournalEvent;
+
+/**
+ * This class steps elevators one by one and records what changed in an event journal.
+ * The door, floor and direction of every elevator are compared before and after its step,
+ * so both elevator engines are recorded the same way without knowing about the journal.
+ * Elevators in different ranges can be stepped on different threads at once.
+ */
+final class StepRecorder {
+  private final EventJournal journal;
+  // the last direction every elevator moved in, to tell a reversal from a stop.
+  private final Direction[] headings;
+  // the tick of the first step that is recorded next.
+  private long firstTick;
+
+  /**
+   * The constructor for the recorder.
+   *
+   * @param journal           the journal to record to.
+   * @param numberOfElevators the number of elevators in the building.
+   */
+  StepRecorder(EventJournal journal, int numberOfElevators) {
+    this.journal = journal;
+    this.headings = new Direction[numberOfElevators];
+  }
+
+  /**
+   * Get the journal the recorder writes to.
+   *
+   * @return the journal.
+   */
+  EventJournal getJournal() {
+    return this.journal;
+  }
+
+  /**
+   * Set the tick of the first step of the next stepping of the elevators.
+   *
+   * @param firstTick the tick of the first step.
+   */
+  void setFirstTick(long firstTick) {
+    this.firstTick = firstTick;
+  }
+
+  /**
+   * Step or advance one elevator and record its events.
+   * Quiet steps only pass floors, so every floor passed is recorded at its own tick.
+   *
+   * @param elevator   the elevator.
+   * @param index      the index of the elevator in the building.
+   * @param quietSteps the number of quiet steps to advance, 0 to do a full step.
+   */
+  void step(ElevatorInterface elevator, int index, int quietSteps) {
+    int floor = elevator.getCurrentFloor();
+    boolean doorClosed = elevator.isDoorClosed();
+    if (quietSteps > 0) {
+      elevator.advance(quietSteps);
+    } else {
+      elevator.step();
+    }
+
+    int id = elevator.getElevatorId();
+    int newFloor = elevator.getCurrentFloor();
+    if (newFloor != floor) {
+      int increment = newFloor > floor ? 1 : -1;
+      long tick = this.firstTick;
+      for (int f = floor + increment; ; f += increment, tick++) {
+        this.journal.record(tick, JournalEvent.FLOOR_REACHED, id, f, -1);
+        if (f == newFloor) {
+          break;
+        }
+      }
+    }
+    long lastTick = this.firstTick + Math.max(quietSteps, 1) - 1;
+    if (doorClosed && !elevator.isDoorClosed()) {
+      this.journal.record(lastTick, JournalEvent.DOOR_OPENED, id, newFloor, -1);
+    }
+    Direction direction = elevator.getDirection();
+    if (direction != Direction.STOPPED) {
+      Direction heading = this.headings[index];
+      if (heading != null && heading != direction) {
+        this.journal.record(lastTick, JournalEvent.DIRECTION_REVERSED, id, newFloor, -1);
+      }
+      this.headings[index] = direction;
+    }
+  }
+}
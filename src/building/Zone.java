@@ -0,0 +1,109 @@
+package building;
+
+/**
+ * This class represents a group of elevators that serve a band of floors.
+ * A local zone stops on every floor from its lowest to its highest floor. An express zone
+ * only stops on its lowest and highest floor, like the shuttles between the ground floor
+ * and a sky lobby. A rider whose trip is not served by one zone changes elevators on the
+ * floors where the zones meet.
+ */
+public final class Zone {
+  private final int lowestFloor;
+  private final int highestFloor;
+  private final int numberOfElevators;
+  private final boolean express;
+
+  /**
+   * The constructor for the zone.
+   *
+   * @param lowestFloor       the lowest floor served.
+   * @param highestFloor      the highest floor served, above the lowest floor.
+   * @param numberOfElevators the number of elevators of the zone, at least 1.
+   * @param express           true to stop on the lowest and highest floor only.
+   * @throws IllegalArgumentException if the floors or the number of elevators are not valid.
+   */
+  public Zone(int lowestFloor, int highestFloor, int numberOfElevators, boolean express)
+      throws IllegalArgumentException {
+    if (lowestFloor < 0 || highestFloor <= lowestFloor) {
+      throw new IllegalArgumentException("A zone should serve at least two floors.");
+    }
+    if (numberOfElevators < 1) {
+      throw new IllegalArgumentException("At least one elevator is required.");
+    }
+    this.lowestFloor = lowestFloor;
+    this.highestFloor = highestFloor;
+    this.numberOfElevators = numberOfElevators;
+    this.express = express;
+  }
+
+  /**
+   * Get the lowest floor served.
+   *
+   * @return the lowest floor.
+   */
+  public int getLowestFloor() {
+    return this.lowestFloor;
+  }
+
+  /**
+   * Get the highest floor served.
+   *
+   * @return the highest floor.
+   */
+  public int getHighestFloor() {
+    return this.highestFloor;
+  }
+
+  /**
+   * Get the number of elevators of the zone.
+   *
+   * @return the number of elevators.
+   */
+  public int getNumberOfElevators() {
+    return this.numberOfElevators;
+  }
+
+  /**
+   * Check if the zone only stops on its lowest and highest floor.
+   *
+   * @return true for an express zone, false for a local one.
+   */
+  public boolean isExpress() {
+    return this.express;
+  }
+
+  /**
+   * Check if the elevators of the zone stop on a floor.
+   *
+   * @param floor the floor.
+   * @return true if the floor is served, false otherwise.
+   */
+  public boolean stopsAt(int floor) {
+    if (this.express) {
+      return floor == this.lowestFloor || floor == this.highestFloor;
+    }
+    return floor >= this.lowestFloor && floor <= this.highestFloor;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (!(o instanceof Zone)) {
+      return false;
+    }
+    Zone zone = (Zone) o;
+    return this.lowestFloor == zone.lowestFloor && this.highestFloor == zone.highestFloor
+        && this.numberOfElevators == zone.numberOfElevators && this.express == zone.express;
+  }
+
+  @Override
+  public int hashCode() {
+    return ((this.lowestFloor * 31 + this.highestFloor) * 31 + this.numberOfElevators) * 2
+        + (this.express ? 1 : 0);
+  }
+
+  @Override
+  public String toString() {
+    return (this.express ? "express " : "local ") + this.lowestFloor + "-" + this.highestFloor
+        + " x" + this.numberOfElevators;
+  }
+}
@@ -0,0 +1,107 @@
+package building;
+
+import java.util.Arrays;
+
+/**
+ * This class finds the legs of a trip through the zones of a building.
+ * A trip takes as few legs as it can, every leg on the elevators of one zone. Of two zones
+ * that serve a leg the first one is used, so the same trip is always routed the same way.
+ */
+final class ZoneRoutes {
+  private final int numberOfFloors;
+  private final Zone[] zones;
+  // true when one zone serves every floor and every trip is a single leg.
+  private final boolean single;
+
+  /**
+   * The constructor for the routes.
+   *
+   * @param numberOfFloors the number of floors in the building.
+   * @param zones          the zones of the building.
+   * @throws IllegalArgumentException if a zone is above the top floor or a floor cannot be
+   *                                  reached from the ground floor.
+   */
+  ZoneRoutes(int numberOfFloors, Zone[] zones) throws IllegalArgumentException {
+    this.numberOfFloors = numberOfFloors;
+    this.zones = zones;
+    for (Zone zone : zones) {
+      if (zone.getHighestFloor() >= numberOfFloors) {
+        throw new IllegalArgumentException("Zone " + zone + " is above the top floor.");
+      }
+    }
+    this.single = zones.length == 1 && !zones[0].isExpress()
+        && zones[0].getLowestFloor() == 0 && zones[0].getHighestFloor() == numberOfFloors - 1;
+    int[] previous = this.search(0);
+    for (int floor = 1; floor < numberOfFloors; floor++) {
+      if (previous[floor] < 0) {
+        throw new IllegalArgumentException("Floor " + floor + " cannot be reached.");
+      }
+    }
+  }
+
+  /**
+   * Check if one zone serves every floor.
+   *
+   * @return true if every trip is a single leg, false otherwise.
+   */
+  boolean isSingle() {
+    return this.single;
+  }
+
+  /**
+   * Get the first leg of a trip.
+   *
+   * @param from the start floor.
+   * @param to   the end floor.
+   * @return the zone and the end floor of the first leg.
+   */
+  int[] firstLeg(int from, int to) {
+    if (this.single) {
+      return new int[] {0, to};
+    }
+    // search back from the end floor, so the floor after the start floor is the first stop.
+    int[] next = this.search(to);
+    int floor = next[from];
+    for (int z = 0; z < this.zones.length; z++) {
+      if (this.zones[z].stopsAt(from) && this.zones[z].stopsAt(floor)) {
+        return new int[] {z, floor};
+      }
+    }
+    throw new IllegalStateException("No zone serves " + from + " to " + floor + ".");
+  }
+
+  /**
+   * Find the fewest legs from every floor to a floor.
+   *
+   * @param target the floor to reach.
+   * @return for every floor the floor of its next stop towards the target, -1 if the target
+   *         cannot be reached, the target itself for the target.
+   */
+  private int[] search(int target) {
+    int[] next = new int[this.numberOfFloors];
+    Arrays.fill(next, -1);
+    boolean[] used = new boolean[this.zones.length];
+    int[] queue = new int[this.numberOfFloors];
+    int head = 0;
+    int tail = 0;
+    next[target] = target;
+    queue[tail++] = target;
+    while (head < tail) {
+      int floor = queue[head++];
+      for (int z = 0; z < this.zones.length; z++) {
+        Zone zone = this.zones[z];
+        if (used[z] || !zone.stopsAt(floor)) {
+          continue;
+        }
+        used[z] = true;
+        for (int f = zone.getLowestFloor(); f <= zone.getHighestFloor(); f++) {
+          if (next[f] < 0 && zone.stopsAt(f)) {
+            next[f] = floor;
+            queue[tail++] = f;
+          }
+        }
+      }
+    }
+    return next;
+  }
+}
@@ -0,0 +1,450 @@
+package building.dispatch;
+
+import building.enums.Direction;
+import elevator.ElevatorReport;
+import elevator.ElevatorState;
+import java.util.Arrays;
+import java.util.List;
+import scanerzus.Request;
+
+/**
+ * This class holds when an elevator gets to every floor if it is handed no more requests.
+ * The table follows the elevator along its stops the way it steps: a floor every step, a step
+ * to open the door at a stop and as many as the door stays open, a step to turn in LOOK mode
+ * and the wait at the end of the shaft otherwise. It notes the tick the door opens on every
+ * stop, the tick the door could open on every floor the elevator passes, and when and where
+ * the elevator can next be handed requests.
+ *
+ * <p>The ticks are those of the building, the tick of a step being the tick the elevator
+ * makes it in, so a table stays right while the elevator goes on as it predicts. It has to
+ * be built again once the elevator is handed requests, and isCurrent tells when the
+ * elevator did something else than predicted.
+ */
+public final class ArrivalTable {
+  private final long tick;
+  private final int floor;
+  private final Direction direction;
+  private final boolean doorClosed;
+  private final boolean waiting;
+  private final int doorOpenTime;
+  private final int endWaitTime;
+  private final int low;
+  private final int high;
+  private final boolean look;
+  // the tick of the next event of the elevator, Long.MAX_VALUE if it has none.
+  private final long nextEvent;
+
+  // the tick the door could open on a floor on the way up or down, -1 if not passed.
+  private final long[] passUp;
+  private final long[] passDown;
+  // the stops left, in the order the door opens on them.
+  private int[] stopFloors = new int[0];
+  private long[] stopTicks = new long[0];
+  private int stopCount = 0;
+
+  // when and where the elevator can next be handed up and down requests, -1 if never.
+  private long upFreeTick = -1;
+  private int upFreeFloor = -1;
+  private long downFreeTick = -1;
+  private int downFreeFloor = -1;
+
+  /**
+   * Build the table of an elevator.
+   *
+   * @param elevator the elevator.
+   * @param tick     the tick the building is stepping, before the elevator steps.
+   */
+  public ArrivalTable(ElevatorState elevator, long tick) {
+    ElevatorReport report = elevator.getElevatorStatus();
+    this.tick = tick;
+    this.floor = elevator.getCurrentFloor();
+    this.direction = elevator.getDirection();
+    this.doorClosed = elevator.isDoorClosed();
+    this.waiting = report.getEndWaitTimer() > 0;
+    this.doorOpenTime = elevator.getDoorOpenTime();
+    this.endWaitTime = elevator.getEndWaitTime();
+    this.low = elevator.getLowestFloor();
+    this.high = elevator.getHighestFloor();
+    this.look = elevator.isLook();
+    int steps = elevator.getStepsToNextEvent();
+    this.nextEvent = steps == Integer.MAX_VALUE ? Long.MAX_VALUE : tick + steps;
+    this.passUp = new long[elevator.getMaxFloor()];
+    this.passDown = new long[elevator.getMaxFloor()];
+    Arrays.fill(this.passUp, -1);
+    Arrays.fill(this.passDown, -1);
+    if (!report.isOutOfService()) {
+      this.follow(report.getDoorOpenTimer(), report.getEndWaitTimer(),
+          elevator.isTakingRequests(), elevator.getParkingFloor(), elevator.getFloorRequests(),
+          List.of());
+    }
+  }
+
+  /**
+   * Build the table of an elevator handed requests at a tick it can take them.
+   *
+   * @param table     the table of the elevator before.
+   * @param tick      the tick the requests are handed.
+   * @param floor     the floor the elevator takes them on.
+   * @param direction the direction the elevator heads off in.
+   * @param stops     the stops of the requests, one flag per floor.
+   * @param requests  the requests.
+   */
+  private ArrivalTable(ArrivalTable table, long tick, int floor, Direction direction,
+                       boolean[] stops, List<Request> requests) {
+    this.tick = tick;
+    this.floor = floor;
+    this.direction = direction;
+    this.doorClosed = true;
+    this.waiting = false;
+    this.doorOpenTime = table.doorOpenTime;
+    this.endWaitTime = table.endWaitTime;
+    this.low = table.low;
+    this.high = table.high;
+    this.look = table.look;
+    // a table of requests not handed yet is never current.
+    this.nextEvent = tick - 1;
+    this.passUp = new long[table.passUp.length];
+    this.passDown = new long[table.passDown.length];
+    Arrays.fill(this.passUp, -1);
+    Arrays.fill(this.passDown, -1);
+    this.follow(0, 0, false, -1, stops, requests);
+  }
+
+  /**
+   * Step a copy of the state of the elevator until it can be handed requests.
+   *
+   * @param doorLeft the steps the door stays open.
+   * @param waitLeft the steps the elevator waits at the end of the shaft.
+   * @param taking   true if the elevator takes requests.
+   * @param parking  the floor the elevator parks on, -1 if it does not park.
+   * @param stops    the stops of the elevator, one flag per floor. The flags are cleared.
+   * @param requests the requests the elevator is handed with the stops, to hand its riders
+   *                 again if it stops in LOOK mode before their end floor.
+   */
+  private void follow(int doorLeft, int waitLeft, boolean taking, int parking,
+                      boolean[] stops, List<Request> requests) {
+    int low = this.low;
+    int high = this.high;
+    boolean look = this.look;
+    int doorOpenTime = this.doorOpenTime;
+    int endWaitTime = this.endWaitTime;
+    int floor = this.floor;
+    Direction direction = this.direction;
+    boolean doorClosed = this.doorClosed;
+    int stopsLeft = 0;
+    for (boolean stop : stops) {
+      stopsLeft += stop ? 1 : 0;
+    }
+    this.stopFloors = new int[stopsLeft];
+    this.stopTicks = new long[stopsLeft];
+    int lowestStop = stopsLeft == 0 ? -1 : nextStop(stops, 0, 1);
+    int highestStop = stopsLeft == 0 ? -1 : nextStop(stops, stops.length - 1, -1);
+    // the requests whose riders are in the elevator, and those that got off.
+    boolean[] aboard = new boolean[requests.size()];
+    boolean[] off = new boolean[requests.size()];
+
+    // two runs of the shaft, every stop and two waits at the ends are always enough.
+    int limit = 4 * this.passUp.length + stopsLeft * (doorOpenTime + 1)
+        + 2 * (endWaitTime + 1) + doorLeft + waitLeft + 4;
+    for (long t = this.tick; t < this.tick + limit; t++) {
+      if (taking) {
+        if (look) {
+          this.upFreeTick = this.downFreeTick = t;
+          this.upFreeFloor = this.downFreeFloor = floor;
+          return;
+        }
+        if (floor == low && this.upFreeTick < 0) {
+          this.upFreeTick = t;
+          this.upFreeFloor = floor;
+        }
+        if (floor == high && this.downFreeTick < 0) {
+          this.downFreeTick = t;
+          this.downFreeFloor = floor;
+        }
+        if (this.upFreeTick >= 0 && this.downFreeTick >= 0) {
+          return;
+        }
+      }
+
+      if (!doorClosed) {
+        doorClosed = --doorLeft == 0;
+      } else if (waitLeft > 0) {
+        if (--waitLeft == 0) {
+          taking = false;
+          if (floor == high) {
+            direction = Direction.DOWN;
+          } else if (floor <= low) {
+            direction = Direction.UP;
+          }
+        }
+      } else if (stopsLeft > 0 && stops[floor]) {
+        doorClosed = false;
+        doorLeft = doorOpenTime;
+        stops[floor] = false;
+        for (int i = 0; i < aboard.length; i++) {
+          Request request = requests.get(i);
+          off[i] |= aboard[i] && request.getEndFloor() == floor;
+          aboard[i] |= request.getStartFloor() == floor;
+        }
+        if (this.stopCount == this.stopFloors.length) {
+          this.stopFloors = Arrays.copyOf(this.stopFloors, this.stopCount + 1);
+          this.stopTicks = Arrays.copyOf(this.stopTicks, this.stopCount + 1);
+        }
+        this.stopFloors[this.stopCount] = floor;
+        this.stopTicks[this.stopCount++] = t;
+        if (--stopsLeft > 0 && (floor == lowestStop || floor == highestStop)) {
+          lowestStop = nextStop(stops, 0, 1);
+          highestStop = nextStop(stops, stops.length - 1, -1);
+        }
+      } else if (parking >= 0) {
+        // a parking elevator takes requests, so this is only reached in a copy of one.
+        return;
+      } else if (look && direction != Direction.STOPPED
+          && (stopsLeft == 0 || (direction == Direction.UP ? highestStop < floor
+          : lowestStop > floor))) {
+        int first = stopsLeft == 0 ? riding(aboard, off) : -1;
+        if (first >= 0) {
+          // the building hands the riders again, so the door opens here once more.
+          int end = requests.get(first).getEndFloor();
+          direction = end > floor ? Direction.UP : Direction.DOWN;
+          stops[floor] = true;
+          stopsLeft = 1;
+          for (int i = 0; i < aboard.length; i++) {
+            int stop = requests.get(i).getEndFloor();
+            if (aboard[i] && !off[i] && !stops[stop]) {
+              stops[stop] = true;
+              stopsLeft++;
+            }
+          }
+          lowestStop = nextStop(stops, 0, 1);
+          highestStop = nextStop(stops, stops.length - 1, -1);
+        } else if (stopsLeft == 0) {
+          direction = Direction.STOPPED;
+          taking = true;
+        } else {
+          direction = direction == Direction.UP ? Direction.DOWN : Direction.UP;
+        }
+      } else if (floor == low && direction == Direction.DOWN
+          || floor == high && direction == Direction.UP) {
+        direction = Direction.STOPPED;
+        waitLeft = endWaitTime;
+        taking = true;
+      } else if (direction == Direction.UP) {
+        floor++;
+        if (this.passUp[floor] < 0) {
+          this.passUp[floor] = t + 1;
+        }
+      } else if (direction == Direction.DOWN) {
+        floor--;
+        if (this.passDown[floor] < 0) {
+          this.passDown[floor] = t + 1;
+        }
+      } else {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Find the first request whose riders are still in the elevator.
+   *
+   * @param aboard the requests whose riders got on.
+   * @param off    the requests whose riders got off.
+   * @return the index of the request, -1 if none.
+   */
+  private static int riding(boolean[] aboard, boolean[] off) {
+    for (int i = 0; i < aboard.length; i++) {
+      if (aboard[i] && !off[i]) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Find the first stop left going one way from a floor.
+   *
+   * @param stops the stops.
+   * @param from  the floor to start at.
+   * @param step  1 to go up, -1 to go down.
+   * @return the floor of the stop.
+   */
+  private static int nextStop(boolean[] stops, int from, int step) {
+    int floor = from;
+    while (!stops[floor]) {
+      floor += step;
+    }
+    return floor;
+  }
+
+  /**
+   * Build the table of the elevator handed requests once it can next take them going one way.
+   * The elevator takes the requests where getFreeArrivalTick expects it and heads for the start
+   * floor of the first one, so the table tells when the door opens for each of them and when
+   * the elevator can be handed requests after that trip.
+   *
+   * @param direction the direction of the requests.
+   * @param requests  the requests, the first one first.
+   * @param after     the earliest tick the requests can be handed.
+   * @return the table, null if the elevator cannot be handed requests going that way.
+   */
+  public ArrivalTable afterHanding(Direction direction, List<Request> requests, long after) {
+    boolean up = direction == Direction.UP;
+    long free = up ? this.upFreeTick : this.downFreeTick;
+    if (free < 0 || requests.isEmpty()) {
+      return null;
+    }
+    int floor = up ? this.upFreeFloor : this.downFreeFloor;
+    boolean[] stops = new boolean[this.passUp.length];
+    for (Request request : requests) {
+      stops[request.getStartFloor()] = true;
+      stops[request.getEndFloor()] = true;
+    }
+    Direction heading = direction;
+    if (this.look) {
+      Request first = requests.get(0);
+      int target = first.getStartFloor() != floor ? first.getStartFloor() : first.getEndFloor();
+      heading = target > floor ? Direction.UP : Direction.DOWN;
+    }
+    return new ArrivalTable(this, Math.max(free, after), floor, heading, stops, requests);
+  }
+
+  /**
+   * Get the tick the table was built for.
+   *
+   * @return the tick.
+   */
+  public long getTick() {
+    return this.tick;
+  }
+
+  /**
+   * Check if the table is still right for an elevator.
+   * Between two events an elevator only moves on or counts a timer down, so the table holds
+   * until the next event as long as the elevator is where it would be then. Stops handed to
+   * the elevator beyond its next event are only noticed at that event.
+   *
+   * @param elevator the elevator the table was built for.
+   * @param tick     the tick the building is stepping.
+   * @return true if the table can be used at the tick, false if it should be built again.
+   */
+  public boolean isCurrent(ElevatorState elevator, long tick) {
+    if (tick < this.tick || tick > this.nextEvent) {
+      return false;
+    }
+    // an idle or parking elevator can be handed requests where it is now, not where it was.
+    if (tick != this.tick && !this.waiting && elevator.isTakingRequests()) {
+      return false;
+    }
+    // with the door closed and no wait, the only quiet step is moving on.
+    int floor = this.floor;
+    if (this.doorClosed && !this.waiting && this.direction == Direction.UP) {
+      floor += (int) (tick - this.tick);
+    } else if (this.doorClosed && !this.waiting && this.direction == Direction.DOWN) {
+      floor -= (int) (tick - this.tick);
+    }
+    int steps = elevator.getStepsToNextEvent();
+    long expected = this.nextEvent == Long.MAX_VALUE ? Integer.MAX_VALUE : this.nextEvent - tick;
+    return elevator.getCurrentFloor() == floor && elevator.getDirection() == this.direction
+        && elevator.isDoorClosed() == this.doorClosed && steps == expected;
+  }
+
+  /**
+   * Get the tick the door could open on a floor the elevator passes going one way.
+   * The elevator can pick up a rider there if it has room.
+   *
+   * @param floor     the floor.
+   * @param direction UP or DOWN.
+   * @return the tick, -1 if the elevator does not pass the floor going that way.
+   */
+  public long getPassTick(int floor, Direction direction) {
+    long[] pass = direction == Direction.UP ? this.passUp : this.passDown;
+    return floor >= 0 && floor < pass.length ? pass[floor] : -1;
+  }
+
+  /**
+   * Get the tick the elevator can next be handed requests going one way.
+   *
+   * @param direction UP or DOWN.
+   * @return the tick, -1 if the elevator is out of service.
+   */
+  public long getFreeTick(Direction direction) {
+    return direction == Direction.UP ? this.upFreeTick : this.downFreeTick;
+  }
+
+  /**
+   * Get the tick the door would open on a floor for a rider handed to the elevator once it
+   * can next take requests going that way, with no other rider handed to it.
+   *
+   * @param floor     the floor the rider waits on.
+   * @param direction the direction of the rider.
+   * @param after     the earliest tick the rider can be handed to the elevator.
+   * @return the tick, -1 if the elevator is out of service.
+   */
+  public long getFreeArrivalTick(int floor, Direction direction, long after) {
+    boolean up = direction == Direction.UP;
+    long free = up ? this.upFreeTick : this.downFreeTick;
+    if (free < 0) {
+      return -1;
+    }
+    // handed requests, the elevator stops waiting and heads for the floor at once.
+    return Math.max(free, after) + Math.abs(floor - (up ? this.upFreeFloor : this.downFreeFloor));
+  }
+
+  /**
+   * Get the tick the door would open on the end floor for a rider picked up at a tick.
+   * The elevator opens on the stops it has on the way, each of them a door cycle later if
+   * the pickup is a stop of its own.
+   *
+   * @param start  the start floor of the rider.
+   * @param end    the end floor of the rider.
+   * @param pickup the tick the door opens for the rider on the start floor.
+   * @return the tick.
+   */
+  public long getRideArrivalTick(int start, int end, long pickup) {
+    int step = start < end ? 1 : -1;
+    long delay = this.getStopTick(start, pickup) == pickup ? 0 : this.doorOpenTime + 1;
+    long tick = pickup;
+    int floor = start;
+    for (int i = 0; i < this.stopCount; i++) {
+      int stop = this.stopFloors[i];
+      if (this.stopTicks[i] <= pickup) {
+        continue;
+      } else if ((stop - floor) * step <= 0 || (stop - end) * step > 0) {
+        break;
+      }
+      tick = this.stopTicks[i] + delay;
+      floor = stop;
+      if (stop == end) {
+        return tick;
+      }
+    }
+    // the door closes, then the elevator moves a floor a step and opens.
+    return tick + this.doorOpenTime + Math.abs(end - floor) + 1;
+  }
+
+  /**
+   * Get the tick the door next opens on one of the stops of the elevator.
+   *
+   * @param floor the floor of the stop.
+   * @param after the earliest tick to look at.
+   * @return the tick, -1 if the elevator does not stop on the floor from that tick on.
+   */
+  public long getStopTick(int floor, long after) {
+    for (int i = 0; i < this.stopCount; i++) {
+      if (this.stopFloors[i] == floor && this.stopTicks[i] >= after) {
+        return this.stopTicks[i];
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Get the tick the door opens on the last stop of the elevator.
+   *
+   * @return the tick, -1 if the elevator has no stops.
+   */
+  public long getLastStopTick() {
+    return this.stopCount == 0 ? -1 : this.stopTicks[this.stopCount - 1];
+  }
+}
@@ -0,0 +1,51 @@
+package building.dispatch;
+
+import java.util.List;
+import java.util.Objects;
+import scanerzus.Request;
+
+/**
+ * This class represents the requests a dispatch strategy hands to one elevator.
+ */
+public final class Assignment {
+  private final int elevator;
+  private final List<Request> requests;
+
+  /**
+   * The constructor for the assignment.
+   *
+   * @param elevator the index of the elevator among the elevators of the context.
+   * @param requests the requests for the elevator, in the order they were taken.
+   * @throws IllegalArgumentException if the index is negative.
+   */
+  public Assignment(int elevator, List<Request> requests) throws IllegalArgumentException {
+    if (elevator < 0) {
+      throw new IllegalArgumentException("Elevator index should not be negative.");
+    }
+    this.elevator = elevator;
+    this.requests = List.copyOf(Objects.requireNonNull(requests, "Requests could not be null."));
+  }
+
+  /**
+   * Get the index of the elevator among the elevators of the context.
+   *
+   * @return the index of the elevator.
+   */
+  public int getElevator() {
+    return this.elevator;
+  }
+
+  /**
+   * Get the requests for the elevator.
+   *
+   * @return the requests, which cannot be changed.
+   */
+  public List<Request> getRequests() {
+    return this.requests;
+  }
+
+  @Override
+  public String toString() {
+    return this.elevator + ": " + this.requests;
+  }
+}
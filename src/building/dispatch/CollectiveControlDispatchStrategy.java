@@ -0,0 +1,50 @@
+package building.dispatch;
+
+import building.enums.Direction;
+import elevator.ElevatorState;
+import java.util.ArrayList;
+import java.util.List;
+import scanerzus.Request;
+
+/**
+ * The dispatch strategy that answers whole landings at once.
+ * Every elevator that takes requests goes to the landing of the oldest call in its direction
+ * and collects every call waiting there that fits, then does the same for the next oldest
+ * call, until the oldest party left does not fit in it. Passengers that wait on the same landing share one stop, so a car stops less
+ * often than with the arrival order while the oldest call is still served first.
+ */
+public class CollectiveControlDispatchStrategy implements DispatchStrategy {
+
+  @Override
+  public List<Assignment> assign(DispatchContext context) {
+    List<Assignment> assignments = new ArrayList<>();
+    List<ElevatorState> elevators = context.getElevators();
+    for (int i = 0; i < elevators.size(); i++) {
+      Direction direction = DispatchStrategies.loadingDirection(context, elevators.get(i));
+      if (direction == null) {
+        continue;
+      }
+      List<Request> requests = new ArrayList<>();
+      int room = context.getElevatorCapacity();
+      Request oldest;
+      while ((oldest = context.peek(direction)) != null && oldest.getPartySize() <= room) {
+        int floor = oldest.getStartFloor();
+        Request request;
+        while ((request = context.peek(floor, direction)) != null
+            && request.getPartySize() <= room) {
+          requests.add(context.take(floor, direction));
+          room -= request.getPartySize();
+        }
+      }
+      if (!requests.isEmpty()) {
+        assignments.add(new Assignment(i, requests));
+      }
+    }
+    return assignments;
+  }
+
+  @Override
+  public String toString() {
+    return "Collective control";
+  }
+}
@@ -0,0 +1,369 @@
+package building.dispatch;
+
+import building.enums.Direction;
+import elevator.ElevatorState;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import scanerzus.Request;
+
+/**
+ * The dispatch strategy that puts the calls that have waited long first, earliest deadline
+ * first. Every call should be picked up by the tick it arrived at plus the max wait. A call is
+ * due once it has waited half of that, and the due calls are handed out first, earliest
+ * deadline first, each to the nearest elevator that can take it now: one waiting for requests,
+ * or one on its way that passes the floor if the other strategy picks riders up on the way.
+ * Such an elevator then fills up with the oldest calls it can take going the same way. A due
+ * call that no elevator can take now keeps the elevator on its way that can be handed it first,
+ * and the other strategy hands nothing to that elevator. The other strategy hands out the rest of the
+ * calls to the other elevators as it likes, so while no call is due the building runs as
+ * efficiently as that strategy does.
+ *
+ * <p>The calls of a direction wait in the order they arrived and all have the same max wait,
+ * so they are already in the order of their deadlines and the due calls are the oldest ones.
+ * The max wait is a best effort and not a bound: a due call still waits for the elevator kept
+ * for it to finish the trip it is on, and for a car with room when more calls are due than the
+ * elevators take.
+ */
+public class DeadlineDispatchStrategy implements DispatchStrategy {
+  /**
+   * The max wait of a call when none is given, in ticks.
+   */
+  public static final long DEFAULT_MAX_WAIT = 60;
+
+  private final DispatchStrategy efficient;
+  private final long maxWait;
+
+  /**
+   * The constructor for the strategy with the default max wait.
+   *
+   * @param efficient the strategy for the calls that are not due.
+   */
+  public DeadlineDispatchStrategy(DispatchStrategy efficient) {
+    this(efficient, DEFAULT_MAX_WAIT);
+  }
+
+  /**
+   * The constructor for the strategy.
+   *
+   * @param efficient the strategy for the calls that are not due.
+   * @param maxWait   the number of ticks a call should wait at most.
+   * @throws IllegalArgumentException if the max wait is less than 1.
+   */
+  public DeadlineDispatchStrategy(DispatchStrategy efficient, long maxWait)
+      throws IllegalArgumentException {
+    if (maxWait < 1) {
+      throw new IllegalArgumentException("Max wait should be at least 1.");
+    }
+    this.efficient = Objects.requireNonNull(efficient, "Strategy could not be null.");
+    this.maxWait = maxWait;
+  }
+
+  @Override
+  public List<Assignment> assign(DispatchContext context) {
+    List<Request> due = this.getDue(context);
+    if (due.isEmpty()) {
+      return this.efficient.assign(context);
+    }
+    List<ElevatorState> elevators = context.getElevators();
+    int count = elevators.size();
+    List<List<Request>> forced = new ArrayList<>(Collections.nCopies(count, null));
+    List<Request> late = new ArrayList<>();
+    for (Request call : due) {
+      int best = -1;
+      int bestDistance = Integer.MAX_VALUE;
+      for (int i = 0; i < count; i++) {
+        int distance = Math.abs(elevators.get(i).getCurrentFloor() - call.getStartFloor());
+        if (distance < bestDistance && this.canTake(context, elevators.get(i), forced.get(i),
+            call)) {
+          best = i;
+          bestDistance = distance;
+        }
+      }
+      if (best < 0) {
+        late.add(call);
+        continue;
+      }
+      context.take(call);
+      if (forced.get(best) == null) {
+        forced.set(best, new ArrayList<>());
+      }
+      forced.get(best).add(call);
+    }
+    // an elevator goes the way of its due calls anyway, so it fills up with the oldest calls.
+    for (int i = 0; i < count; i++) {
+      List<Request> requests = forced.get(i);
+      if (requests == null || people(requests) >= this.room(context, elevators.get(i))) {
+        continue;
+      }
+      for (Request call : new ArrayList<>(context.getWaiting(direction(requests.get(0))))) {
+        if (people(requests) >= this.room(context, elevators.get(i))) {
+          break;
+        }
+        if (this.canTake(context, elevators.get(i), requests, call)) {
+          context.take(call);
+          requests.add(call);
+        }
+      }
+    }
+
+    boolean[] kept = this.keep(context, forced, late);
+
+    List<Assignment> assignments = new ArrayList<>();
+    int[] free = new int[count];
+    int freeCount = 0;
+    for (int i = 0; i < count; i++) {
+      if (forced.get(i) != null) {
+        assignments.add(new Assignment(i, forced.get(i)));
+      } else if (!kept[i]) {
+        free[freeCount++] = i;
+      }
+    }
+    if (freeCount > 0 && context.getWaitingCount(Direction.UP)
+        + context.getWaitingCount(Direction.DOWN) > 0) {
+      for (Assignment assignment : this.efficient.assign(new Remaining(context, free,
+          freeCount))) {
+        assignments.add(new Assignment(free[assignment.getElevator()],
+            assignment.getRequests()));
+      }
+    }
+    return assignments;
+  }
+
+  /**
+   * Keep an elevator for every due call that no elevator can take now, the one on its way that
+   * can be handed the call first among those not handed due calls. The other strategy hands
+   * nothing to a kept elevator, so it picks up no one on its way that would make the call wait
+   * longer. An elevator that waits for requests is not kept: it could not take the call now,
+   * and leaving with other calls gets it to the other end of the shaft no later.
+   *
+   * @param context the context of the building.
+   * @param forced  the due calls handed to every elevator, null for an elevator with none.
+   * @param late    the due calls no elevator can take now, earliest deadline first.
+   * @return the elevators kept, one flag per elevator.
+   */
+  private boolean[] keep(DispatchContext context, List<List<Request>> forced,
+                         List<Request> late) {
+    List<ElevatorState> elevators = context.getElevators();
+    boolean[] kept = new boolean[elevators.size()];
+    ArrivalTable[] tables = new ArrivalTable[elevators.size()];
+    long tick = context.getCurrentTick();
+    for (Request call : late) {
+      int best = -1;
+      long bestTick = Long.MAX_VALUE;
+      for (int i = 0; i < elevators.size(); i++) {
+        if (forced.get(i) != null || elevators.get(i).isTakingRequests()) {
+          continue;
+        }
+        if (tables[i] == null) {
+          tables[i] = new ArrivalTable(elevators.get(i), tick);
+        }
+        long arrival = tables[i].getFreeArrivalTick(call.getStartFloor(), direction(call), tick);
+        if (arrival >= 0 && arrival < bestTick) {
+          best = i;
+          bestTick = arrival;
+        }
+      }
+      if (best >= 0) {
+        kept[best] = true;
+      }
+    }
+    return kept;
+  }
+
+  /**
+   * Get the due calls, earliest deadline first.
+   *
+   * @param context the context of the building.
+   * @return the calls that have waited half of the max wait or more.
+   */
+  private List<Request> getDue(DispatchContext context) {
+    long dueBy = context.getCurrentTick() - (this.maxWait + 1) / 2;
+    List<Request> due = new ArrayList<>();
+    List<Long> ticks = new ArrayList<>();
+    for (Direction direction : new Direction[] {Direction.UP, Direction.DOWN}) {
+      // the oldest calls come first, so the due ones end at the first call that is not.
+      int merged = 0;
+      for (Request call : context.getWaiting(direction)) {
+        long tick = context.getArrivalTick(call);
+        if (tick > dueBy) {
+          break;
+        }
+        while (merged < ticks.size() && ticks.get(merged) <= tick) {
+          merged++;
+        }
+        due.add(merged, call);
+        ticks.add(merged, tick);
+        merged++;
+      }
+    }
+    return due;
+  }
+
+  /**
+   * Check if an elevator can be handed one more call in this tick.
+   *
+   * @param context  the context of the building.
+   * @param elevator the elevator.
+   * @param requests the calls the elevator was handed in this tick, null if none.
+   * @param call     the call.
+   * @return true if the elevator can take the call, false otherwise.
+   */
+  private boolean canTake(DispatchContext context, ElevatorState elevator,
+                          List<Request> requests, Request call) {
+    Direction direction = direction(call);
+    if (people(requests) + call.getPartySize() > this.room(context, elevator)
+        || requests != null && direction(requests.get(0)) != direction) {
+      return false;
+    }
+    if (elevator.isTakingRequests()) {
+      return elevator.canTakeRequests(direction);
+    }
+    return this.efficient.picksUpOnTheWay() && elevator.canPickUp(call);
+  }
+
+  /**
+   * Get the number of people an elevator can be handed in this tick.
+   *
+   * @param context  the context of the building.
+   * @param elevator the elevator.
+   * @return the number of people.
+   */
+  private int room(DispatchContext context, ElevatorState elevator) {
+    return elevator.isTakingRequests() ? context.getElevatorCapacity()
+        : Math.min(elevator.getPickUpCapacity(), context.getElevatorCapacity());
+  }
+
+  /**
+   * Get the number of people in some calls.
+   *
+   * @param calls the calls, null for none.
+   * @return the number of people.
+   */
+  private static int people(List<Request> calls) {
+    int people = 0;
+    if (calls != null) {
+      for (Request call : calls) {
+        people += call.getPartySize();
+      }
+    }
+    return people;
+  }
+
+  /**
+   * Get the direction of a call.
+   *
+   * @param call the call.
+   * @return UP or DOWN.
+   */
+  private static Direction direction(Request call) {
+    return call.getStartFloor() < call.getEndFloor() ? Direction.UP : Direction.DOWN;
+  }
+
+  @Override
+  public boolean picksUpOnTheWay() {
+    return this.efficient.picksUpOnTheWay();
+  }
+
+  @Override
+  public String toString() {
+    return this.efficient + " with deadlines";
+  }
+
+  /**
+   * The context of the building with only the elevators that were not handed or kept for due
+   * calls.
+   * The elevators are numbered again from 0, the calls are those of the building.
+   */
+  private static final class Remaining implements DispatchContext {
+    private final DispatchContext context;
+    private final List<ElevatorState> elevators;
+
+    /**
+     * The constructor for the context.
+     *
+     * @param context the context of the building.
+     * @param free    the indexes of the elevators that are left.
+     * @param count   the number of elevators that are left.
+     */
+    private Remaining(DispatchContext context, int[] free, int count) {
+      this.context = context;
+      List<ElevatorState> elevators = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        elevators.add(context.getElevators().get(free[i]));
+      }
+      this.elevators = Collections.unmodifiableList(elevators);
+    }
+
+    @Override
+    public int getNumberOfFloors() {
+      return this.context.getNumberOfFloors();
+    }
+
+    @Override
+    public int getElevatorCapacity() {
+      return this.context.getElevatorCapacity();
+    }
+
+    @Override
+    public long getCurrentTick() {
+      return this.context.getCurrentTick();
+    }
+
+    @Override
+    public boolean stopsAt(int floor) {
+      return this.context.stopsAt(floor);
+    }
+
+    @Override
+    public List<ElevatorState> getElevators() {
+      return this.elevators;
+    }
+
+    @Override
+    public int getWaitingCount(Direction direction) {
+      return this.context.getWaitingCount(direction);
+    }
+
+    @Override
+    public int getWaitingCount(int floor, Direction direction) {
+      return this.context.getWaitingCount(floor, direction);
+    }
+
+    @Override
+    public List<Request> getWaiting(Direction direction) {
+      return this.context.getWaiting(direction);
+    }
+
+    @Override
+    public long getArrivalTick(Request request) {
+      return this.context.getArrivalTick(request);
+    }
+
+    @Override
+    public Request peek(Direction direction) {
+      return this.context.peek(direction);
+    }
+
+    @Override
+    public Request peek(int floor, Direction direction) {
+      return this.context.peek(floor, direction);
+    }
+
+    @Override
+    public Request take(Direction direction) {
+      return this.context.take(direction);
+    }
+
+    @Override
+    public Request take(int floor, Direction direction) {
+      return this.context.take(floor, direction);
+    }
+
+    @Override
+    public boolean take(Request request) {
+      return this.context.take(request);
+    }
+  }
+}
@@ -0,0 +1,177 @@
+package building.dispatch;
+
+import elevator.ElevatorState;
+import java.util.Arrays;
+import java.util.List;
+import scanerzus.Request;
+
+/**
+ * The parking policy that sends idle elevators to the floors called from most.
+ * The demand of every floor is a moving average over the requests accepted: every request
+ * adds the smoothing to the demand of its start floor after all demands are scaled down by
+ * one minus the smoothing, so recent requests count more than old ones and a quiet spell
+ * changes nothing. With as many idle or parking elevators as there are, the floors of the
+ * highest demand each get one elevator. An elevator already on or heading to one of these
+ * floors stays, the others go to the nearest floor left, and elevators beyond the floors
+ * that were ever called from are left where they are. The elevators of a zone only park on
+ * the floors the zone stops on.
+ */
+public class DemandParkingPolicy implements ParkingPolicy {
+  /**
+   * The weight of one request in the demand of its floor.
+   */
+  public static final double DEFAULT_SMOOTHING = 0.01;
+
+  private final double smoothing;
+  private double[] demand = new double[0];
+  // the floors ever called from, highest demand first, null when it has to be sorted again.
+  private Integer[] ranking;
+
+  /**
+   * The constructor for the policy with the default smoothing.
+   */
+  public DemandParkingPolicy() {
+    this(DEFAULT_SMOOTHING);
+  }
+
+  /**
+   * The constructor for the policy.
+   *
+   * @param smoothing the weight of one request, larger to follow changes in demand sooner.
+   * @throws IllegalArgumentException if the smoothing is not larger than 0 and at most 1.
+   */
+  public DemandParkingPolicy(double smoothing) throws IllegalArgumentException {
+    if (!(smoothing > 0 && smoothing <= 1)) {
+      throw new IllegalArgumentException("Smoothing should be larger than 0 and at most 1.");
+    }
+    this.smoothing = smoothing;
+  }
+
+  @Override
+  public void requestAccepted(Request request, long tick) {
+    int floor = request.getStartFloor();
+    if (floor >= this.demand.length) {
+      this.demand = Arrays.copyOf(this.demand, floor + 1);
+    }
+    for (int f = 0; f < this.demand.length; f++) {
+      this.demand[f] *= 1 - this.smoothing;
+    }
+    this.demand[floor] += this.smoothing;
+    this.ranking = null;
+  }
+
+  /**
+   * Get the demand of a floor.
+   *
+   * @param floor the floor.
+   * @return the demand, 0 for a floor never called from.
+   */
+  public double getDemand(int floor) {
+    return floor >= 0 && floor < this.demand.length ? this.demand[floor] : 0;
+  }
+
+  @Override
+  public int[] park(DispatchContext context) {
+    List<ElevatorState> elevators = context.getElevators();
+    int[] floors = new int[elevators.size()];
+    Arrays.fill(floors, -1);
+    int available = 0;
+    for (ElevatorState elevator : elevators) {
+      if (elevator.isIdle() || elevator.getParkingFloor() >= 0) {
+        available++;
+      }
+    }
+    if (available == 0) {
+      return floors;
+    }
+
+    int floorCount = context.getNumberOfFloors();
+    boolean[] likely = new boolean[floorCount];
+    int likelyCount = 0;
+    for (int floor : this.ranking()) {
+      if (likelyCount == available) {
+        break;
+      }
+      if (floor < floorCount && context.stopsAt(floor)) {
+        likely[floor] = true;
+        likelyCount++;
+      }
+    }
+
+    // elevators on or heading to a likely floor stay.
+    boolean[] claimed = new boolean[floorCount];
+    boolean[] placed = new boolean[elevators.size()];
+    for (int i = 0; i < elevators.size(); i++) {
+      int floor = waitingFloor(elevators.get(i));
+      if (floor >= 0 && likely[floor] && !claimed[floor]) {
+        claimed[floor] = true;
+        placed[i] = true;
+      }
+    }
+    // the others go to the nearest likely floor left, the lower one first.
+    for (int i = 0; i < elevators.size(); i++) {
+      int from = waitingFloor(elevators.get(i));
+      if (from < 0 || placed[i]) {
+        continue;
+      }
+      for (int distance = 0; distance < floorCount; distance++) {
+        int below = from - distance;
+        int above = from + distance;
+        if (below >= 0 && likely[below] && !claimed[below]) {
+          floors[i] = below;
+          claimed[below] = true;
+          break;
+        }
+        if (above < floorCount && likely[above] && !claimed[above]) {
+          floors[i] = above;
+          claimed[above] = true;
+          break;
+        }
+      }
+    }
+    return floors;
+  }
+
+  /**
+   * Get the floor an elevator waits on once it is parked.
+   *
+   * @param elevator the elevator.
+   * @return the parking floor or the floor of an idle elevator, -1 if the elevator is busy.
+   */
+  private static int waitingFloor(ElevatorState elevator) {
+    if (elevator.getParkingFloor() >= 0) {
+      return elevator.getParkingFloor();
+    }
+    return elevator.isIdle() ? elevator.getCurrentFloor() : -1;
+  }
+
+  /**
+   * Get the floors ever called from, highest demand first and the lower floor first on ties.
+   *
+   * @return the floors.
+   */
+  private Integer[] ranking() {
+    if (this.ranking == null) {
+      int count = 0;
+      for (double d : this.demand) {
+        if (d > 0) {
+          count++;
+        }
+      }
+      Integer[] floors = new Integer[count];
+      for (int f = 0, i = 0; f < this.demand.length; f++) {
+        if (this.demand[f] > 0) {
+          floors[i++] = f;
+        }
+      }
+      Arrays.sort(floors, (a, b) -> Double.compare(this.demand[b], this.demand[a]));
+      this.ranking = floors;
+    }
+    return this.ranking;
+  }
+
+  @Override
+  public String toString() {
+    return "Demand parking";
+  }
+}
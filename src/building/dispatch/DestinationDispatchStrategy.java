@@ -0,0 +1,72 @@
+package building.dispatch;
+
+import building.enums.Direction;
+import elevator.ElevatorState;
+import java.util.ArrayList;
+import java.util.List;
+import scanerzus.Request;
+
+/**
+ * The dispatch strategy that groups riders by where they are going.
+ * Every elevator that takes requests gets the oldest call in its direction, then the other
+ * calls going to the same floor, then the calls going to the floors nearest to it, the lower
+ * one first, until it is full. The calls going to one floor are taken oldest first, each if
+ * its party still fits.
+ * Riders that get out on the same floors share their stops, so a car makes fewer stops on
+ * a trip and is back sooner, which matters most when everybody leaves the lobby at once.
+ */
+public class DestinationDispatchStrategy implements DispatchStrategy {
+
+  @Override
+  public List<Assignment> assign(DispatchContext context) {
+    List<Assignment> assignments = new ArrayList<>();
+    List<ElevatorState> elevators = context.getElevators();
+    // a valid request may end one floor above the top floor.
+    int floors = context.getNumberOfFloors() + 1;
+    for (int i = 0; i < elevators.size(); i++) {
+      Direction direction = DispatchStrategies.loadingDirection(context, elevators.get(i));
+      if (direction == null || context.getWaitingCount(direction) == 0) {
+        continue;
+      }
+      List<Request> waiting = context.getWaiting(direction);
+      int[] quota = new int[floors];
+      for (Request request : waiting) {
+        quota[request.getEndFloor()] += request.getPartySize();
+      }
+      // keep room for as many people to every destination as fit, going away from the oldest
+      // one, and none for the destinations beyond.
+      int anchor = waiting.get(0).getEndFloor();
+      int room = context.getElevatorCapacity();
+      for (int distance = 0; distance < floors; distance++) {
+        int below = anchor - distance;
+        int above = anchor + distance;
+        if (below >= 0) {
+          quota[below] = Math.min(quota[below], room);
+          room -= quota[below];
+        }
+        if (distance > 0 && above < floors) {
+          quota[above] = Math.min(quota[above], room);
+          room -= quota[above];
+        }
+      }
+
+      List<Request> requests = new ArrayList<>();
+      for (Request request : waiting) {
+        if (quota[request.getEndFloor()] >= request.getPartySize()) {
+          quota[request.getEndFloor()] -= request.getPartySize();
+          requests.add(request);
+        }
+      }
+      for (Request request : requests) {
+        context.take(request);
+      }
+      assignments.add(new Assignment(i, requests));
+    }
+    return assignments;
+  }
+
+  @Override
+  public String toString() {
+    return "Destination dispatch";
+  }
+}
@@ -0,0 +1,130 @@
+package building.dispatch;
+
+import building.enums.Direction;
+import elevator.ElevatorState;
+import java.util.List;
+import scanerzus.Request;
+
+/**
+ * This interface is what a dispatch strategy sees of a building for one tick.
+ * The elevators can only be read. Requests are taken oldest first, from the whole building or
+ * from one floor, and a request taken is gone from the building until it is assigned.
+ */
+public interface DispatchContext {
+
+  /**
+   * Get the number of floors in the building.
+   *
+   * @return the number of floors.
+   */
+  int getNumberOfFloors();
+
+  /**
+   * Get the number of people one elevator takes at most, counting every party in full.
+   *
+   * @return the capacity of the elevators.
+   */
+  int getElevatorCapacity();
+
+  /**
+   * Get the tick the building is stepping.
+   *
+   * @return the current tick.
+   */
+  long getCurrentTick();
+
+  /**
+   * Check if the elevators of the context stop on a floor.
+   * In a building with zones a context covers the elevators and requests of one zone.
+   *
+   * @param floor the floor.
+   * @return true if the floor is served, false otherwise.
+   */
+  boolean stopsAt(int floor);
+
+  /**
+   * Get the elevators of the building, in the order of their index.
+   *
+   * @return the elevators.
+   */
+  List<ElevatorState> getElevators();
+
+  /**
+   * Get the number of requests waiting to go in a direction.
+   *
+   * @param direction UP or DOWN.
+   * @return the number of requests.
+   */
+  int getWaitingCount(Direction direction);
+
+  /**
+   * Get the number of requests waiting at a floor to go in a direction.
+   *
+   * @param floor     the start floor.
+   * @param direction UP or DOWN.
+   * @return the number of requests.
+   */
+  int getWaitingCount(int floor, Direction direction);
+
+  /**
+   * Get the requests waiting to go in a direction, oldest first.
+   * The list cannot be changed and follows the requests that are taken, so it should not be
+   * walked while taking requests.
+   *
+   * @param direction UP or DOWN.
+   * @return the requests.
+   */
+  List<Request> getWaiting(Direction direction);
+
+  /**
+   * Get the tick a waiting request arrived at.
+   * The requests of a direction wait in the order they arrived, so the oldest has the
+   * earliest tick.
+   *
+   * @param request the request, as found among the waiting requests.
+   * @return the tick, -1 if the request is not waiting.
+   */
+  long getArrivalTick(Request request);
+
+  /**
+   * Look at the oldest request waiting to go in a direction without taking it.
+   *
+   * @param direction UP or DOWN.
+   * @return the request, null if none is waiting.
+   */
+  Request peek(Direction direction);
+
+  /**
+   * Look at the oldest request waiting at a floor to go in a direction without taking it.
+   *
+   * @param floor     the start floor.
+   * @param direction UP or DOWN.
+   * @return the request, null if none is waiting there.
+   */
+  Request peek(int floor, Direction direction);
+
+  /**
+   * Take the oldest request waiting to go in a direction.
+   *
+   * @param direction UP or DOWN.
+   * @return the request, null if none is waiting.
+   */
+  Request take(Direction direction);
+
+  /**
+   * Take the oldest request waiting at a floor to go in a direction.
+   *
+   * @param floor     the start floor.
+   * @param direction UP or DOWN.
+   * @return the request, null if none is waiting there.
+   */
+  Request take(int floor, Direction direction);
+
+  /**
+   * Take a given waiting request.
+   *
+   * @param request the request, as found among the waiting requests.
+   * @return true if the request was waiting, false otherwise.
+   */
+  boolean take(Request request);
+}
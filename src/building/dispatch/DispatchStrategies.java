@@ -0,0 +1,58 @@
+package building.dispatch;
+
+import building.enums.Direction;
+import elevator.ElevatorState;
+
+/**
+ * This class holds the helpers shared by the dispatch strategies.
+ */
+public final class DispatchStrategies {
+
+  private DispatchStrategies() {
+  }
+
+  /**
+   * Get a dispatch strategy by its name on the command line.
+   *
+   * @param name fifo, nearest, collective, destination or eta.
+   * @return a new strategy.
+   * @throws IllegalArgumentException if no strategy has the name.
+   */
+  public static DispatchStrategy forName(String name) throws IllegalArgumentException {
+    switch (name) {
+      case "fifo":
+        return new FifoDispatchStrategy();
+      case "nearest":
+        return new NearestCarDispatchStrategy();
+      case "collective":
+        return new CollectiveControlDispatchStrategy();
+      case "destination":
+        return new DestinationDispatchStrategy();
+      case "eta":
+        return new EtaDispatchStrategy();
+      default:
+        throw new IllegalArgumentException(
+            "Dispatch should be fifo, nearest, collective, destination or eta.");
+    }
+  }
+
+  /**
+   * Get the direction of the requests an elevator should be handed now.
+   * An elevator that runs to the end of the shaft only takes requests while it waits on the
+   * ground floor, for up requests, or on the top floor, for down requests. An elevator in
+   * LOOK mode takes either, so it gets the direction with more requests waiting.
+   *
+   * @param context  the context of the building.
+   * @param elevator the elevator.
+   * @return UP or DOWN, null if the elevator cannot be handed requests now.
+   */
+  public static Direction loadingDirection(DispatchContext context, ElevatorState elevator) {
+    boolean up = elevator.canTakeRequests(Direction.UP);
+    boolean down = elevator.canTakeRequests(Direction.DOWN);
+    if (up && down) {
+      return context.getWaitingCount(Direction.DOWN) > context.getWaitingCount(Direction.UP)
+          ? Direction.DOWN : Direction.UP;
+    }
+    return up ? Direction.UP : down ? Direction.DOWN : null;
+  }
+}
@@ -0,0 +1,32 @@
+package building.dispatch;
+
+import java.util.List;
+
+/**
+ * This interface is used to decide which waiting requests go to which elevator.
+ * The building asks the strategy every tick once for every zone in which requests are waiting,
+ * takes no requests itself and hands every assignment to its elevator. A strategy may be shared by
+ * buildings that run at once only if it keeps no state of its own.
+ */
+public interface DispatchStrategy {
+
+  /**
+   * Take waiting requests from the context and assign them to elevators.
+   * Every request taken from the context has to be in one of the assignments.
+   *
+   * @param context the waiting requests and the elevators of the building.
+   * @return the assignments, at most one for every elevator.
+   */
+  List<Assignment> assign(DispatchContext context);
+
+  /**
+   * Check if the strategy hands requests to elevators on their way.
+   * The building then asks the strategy every tick in which requests wait and an elevator
+   * has room to pick them up, instead of only when an elevator waits for requests.
+   *
+   * @return true if moving elevators are handed requests, false otherwise.
+   */
+  default boolean picksUpOnTheWay() {
+    return false;
+  }
+}
@@ -0,0 +1,261 @@
+package building.dispatch;
+
+import building.enums.Direction;
+import elevator.ElevatorState;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import scanerzus.Request;
+
+/**
+ * The group dispatch strategy that hands every call to the elevator that gets to it first.
+ * For every waiting call and every elevator the cost is the tick the door would open for the
+ * caller, read from the arrival table of the elevator: on its way if it passes the floor going
+ * the caller's way and has room, or once it can next be handed requests. Every stop an
+ * elevator is handed in the tick delays the callers beyond it by one door cycle, which is
+ * added to their costs. The calls are handed out cheapest first, each to the elevator with the
+ * lowest cost. A call whose cheapest elevator cannot take it now waits for it rather than
+ * going to a worse one if that elevator runs in LOOK mode, and goes to the cheapest elevator
+ * that can take it otherwise.
+ *
+ * <p>An elevator's table is only built again when the elevator is handed requests or leaves
+ * the path it predicts, and an idle one in a single step, so a tick mostly costs one lookup
+ * for every call and elevator. The tables
+ * are kept between ticks, so a strategy should dispatch one building. It picks up riders on
+ * the way itself and needs no MidRunPickupDispatchStrategy around it.
+ */
+public class EtaDispatchStrategy implements DispatchStrategy {
+  // the table of every elevator by its id, null when it has to be built again.
+  private ArrivalTable[] tables = new ArrivalTable[0];
+  private long tablesBuilt = 0;
+
+  @Override
+  public List<Assignment> assign(DispatchContext context) {
+    long tick = context.getCurrentTick();
+    List<ElevatorState> elevators = context.getElevators();
+    int count = elevators.size();
+    Plan[] plans = new Plan[count];
+    for (int i = 0; i < count; i++) {
+      ElevatorState elevator = elevators.get(i);
+      int room = elevator.isTakingRequests() ? context.getElevatorCapacity()
+          : Math.min(elevator.getPickUpCapacity(), context.getElevatorCapacity());
+      plans[i] = new Plan(elevator, this.getTable(elevator, tick), room, tick);
+    }
+
+    List<Request> calls = new ArrayList<>(context.getWaiting(Direction.UP));
+    calls.addAll(context.getWaiting(Direction.DOWN));
+    // the cheapest calls first, on ties in the order they wait in.
+    long[] lowest = new long[calls.size()];
+    Integer[] order = new Integer[calls.size()];
+    for (int c = 0; c < order.length; c++) {
+      lowest[c] = Long.MAX_VALUE;
+      for (Plan plan : plans) {
+        lowest[c] = Math.min(lowest[c], plan.cost(calls.get(c)));
+      }
+      order[c] = c;
+    }
+    Arrays.sort(order, Comparator.comparingLong(c -> lowest[c]));
+
+    for (int c : order) {
+      Request call = calls.get(c);
+      // the cheapest elevator, and the cheapest one that can take the call now.
+      Plan best = null;
+      Plan bestNow = null;
+      long bestCost = Long.MAX_VALUE;
+      long bestNowCost = Long.MAX_VALUE;
+      for (Plan plan : plans) {
+        long cost = plan.cost(call);
+        if (cost < bestCost) {
+          best = plan;
+          bestCost = cost;
+        }
+        if (cost < bestNowCost && plan.canTakeNow(call)) {
+          bestNow = plan;
+          bestNowCost = cost;
+        }
+      }
+      // an elevator that runs to the end of the shaft passes the floor anyway, so a call only
+      // waits for an elevator in LOOK mode.
+      if (best != null && !best.canTakeNow(call) && !best.elevator.isLook()) {
+        best = bestNow;
+      }
+      if (best != null && best.canTakeNow(call)) {
+        context.take(call);
+        best.add(call);
+      }
+    }
+
+    List<Assignment> assignments = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      if (!plans[i].requests.isEmpty()) {
+        assignments.add(new Assignment(i, plans[i].requests));
+        this.tables[elevators.get(i).getElevatorId()] = null;
+      }
+    }
+    return assignments;
+  }
+
+  /**
+   * Get the arrival table of an elevator, building it again if it is not current.
+   *
+   * @param elevator the elevator.
+   * @param tick     the tick the building is stepping.
+   * @return the table.
+   */
+  private ArrivalTable getTable(ElevatorState elevator, long tick) {
+    int id = elevator.getElevatorId();
+    if (id >= this.tables.length) {
+      this.tables = Arrays.copyOf(this.tables, id + 1);
+    }
+    ArrivalTable table = this.tables[id];
+    if (table == null || !table.isCurrent(elevator, tick)) {
+      table = new ArrivalTable(elevator, tick);
+      this.tables[id] = table;
+      this.tablesBuilt++;
+    }
+    return table;
+  }
+
+  /**
+   * Get the number of arrival tables built so far.
+   *
+   * @return the number of tables.
+   */
+  long getTablesBuilt() {
+    return this.tablesBuilt;
+  }
+
+  @Override
+  public boolean picksUpOnTheWay() {
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return "ETA dispatch";
+  }
+
+  /**
+   * What one elevator is handed in a tick.
+   */
+  private static final class Plan {
+    private final ElevatorState elevator;
+    private final ArrivalTable table;
+    private final long tick;
+    private final List<Request> requests = new ArrayList<>();
+    // the direction of the calls handed to the elevator, null before the first one.
+    private Direction direction;
+    private int room;
+    // the floors of the stops handed to the elevator, and which floors they are.
+    private int[] stops = new int[0];
+    private int stopCount = 0;
+    private boolean[] stopping;
+
+    /**
+     * The constructor for the plan of an elevator.
+     *
+     * @param elevator the elevator.
+     * @param table    the arrival table of the elevator.
+     * @param room     the number of people the elevator can take.
+     * @param tick     the tick the building is stepping.
+     */
+    private Plan(ElevatorState elevator, ArrivalTable table, int room, long tick) {
+      this.elevator = elevator;
+      this.table = table;
+      this.room = room;
+      this.tick = tick;
+    }
+
+    /**
+     * Get the cost of handing a call to the elevator.
+     * Every stop the elevator was handed in this tick between where it is and the floor of
+     * the call delays the caller by one door cycle.
+     *
+     * @param call the call.
+     * @return the tick the door would open for the caller, Long.MAX_VALUE if never.
+     */
+    private long cost(Request call) {
+      int floor = call.getStartFloor();
+      Direction direction = direction(call);
+      // where an elevator goes once it took calls the other way is not in its table.
+      if (this.direction != null && this.direction != direction
+          || floor < this.elevator.getLowestFloor() || floor > this.elevator.getHighestFloor()) {
+        return Long.MAX_VALUE;
+      }
+      long cost = Long.MAX_VALUE;
+      if (this.room >= call.getPartySize()) {
+        long pass = this.table.getPassTick(floor, direction);
+        if (pass >= 0) {
+          cost = pass;
+        }
+      }
+      if (this.room >= call.getPartySize() || !this.elevator.isTakingRequests()) {
+        long free = this.table.getFreeArrivalTick(floor, direction, this.tick);
+        if (free >= 0) {
+          cost = Math.min(cost, free);
+        }
+      }
+      if (cost == Long.MAX_VALUE) {
+        return cost;
+      }
+      int from = this.elevator.getCurrentFloor();
+      for (int i = 0; i < this.stopCount; i++) {
+        if (this.stops[i] > Math.min(from, floor) && this.stops[i] < Math.max(from, floor)) {
+          cost += this.elevator.getDoorOpenTime() + 1;
+        }
+      }
+      return cost;
+    }
+
+    /**
+     * Check if the elevator can be handed a call in this tick.
+     *
+     * @param call the call.
+     * @return true if the elevator can take the call now, false otherwise.
+     */
+    private boolean canTakeNow(Request call) {
+      Direction direction = direction(call);
+      if (this.room < call.getPartySize()
+          || this.direction != null && this.direction != direction) {
+        return false;
+      }
+      if (this.elevator.isTakingRequests()) {
+        return this.elevator.canTakeRequests(direction);
+      }
+      return this.elevator.canPickUp(call);
+    }
+
+    /**
+     * Hand a call to the elevator.
+     *
+     * @param call the call.
+     */
+    private void add(Request call) {
+      if (this.requests.isEmpty()) {
+        this.direction = direction(call);
+        // a valid request may end one floor above the top floor.
+        this.stopping = new boolean[this.elevator.getMaxFloor() + 1];
+        this.stops = new int[2 * this.room];
+      }
+      this.requests.add(call);
+      this.room -= call.getPartySize();
+      for (int floor : new int[] {call.getStartFloor(), call.getEndFloor()}) {
+        if (!this.stopping[floor]) {
+          this.stopping[floor] = true;
+          this.stops[this.stopCount++] = floor;
+        }
+      }
+    }
+
+    /**
+     * Get the direction of a call.
+     *
+     * @param call the call.
+     * @return UP or DOWN.
+     */
+    private static Direction direction(Request call) {
+      return call.getStartFloor() < call.getEndFloor() ? Direction.UP : Direction.DOWN;
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package building.dispatch;
+
+import building.enums.Direction;
+import elevator.ElevatorState;
+import java.util.ArrayList;
+import java.util.List;
+import scanerzus.Request;
+
+/**
+ * The default dispatch strategy, in the order requests arrive.
+ * Every elevator that takes requests, in the order of their index, gets the oldest up
+ * requests on the ground floor or the oldest down requests on the top floor until the oldest
+ * party left does not fit in it.
+ */
+public class FifoDispatchStrategy implements DispatchStrategy {
+
+  @Override
+  public List<Assignment> assign(DispatchContext context) {
+    List<Assignment> assignments = new ArrayList<>();
+    List<ElevatorState> elevators = context.getElevators();
+    for (int i = 0; i < elevators.size(); i++) {
+      Direction direction = DispatchStrategies.loadingDirection(context, elevators.get(i));
+      if (direction == null) {
+        continue;
+      }
+      List<Request> requests = new ArrayList<>();
+      int room = context.getElevatorCapacity();
+      Request request;
+      while ((request = context.peek(direction)) != null && request.getPartySize() <= room) {
+        requests.add(context.take(direction));
+        room -= request.getPartySize();
+      }
+      if (!requests.isEmpty()) {
+        assignments.add(new Assignment(i, requests));
+      }
+    }
+    return assignments;
+  }
+
+  @Override
+  public String toString() {
+    return "FIFO";
+  }
+}
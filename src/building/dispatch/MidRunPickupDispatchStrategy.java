@@ -0,0 +1,71 @@
+package building.dispatch;
+
+import building.enums.Direction;
+import elevator.ElevatorState;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import scanerzus.Request;
+
+/**
+ * The dispatch strategy that lets moving elevators pick riders up on their way.
+ * Another strategy first hands requests to the elevators that wait for them. Then every
+ * elevator on its way, in the order of their index, takes the calls ahead of it that go its
+ * way, nearest floor first, for as long as it has room for their parties. Without this a call
+ * from the middle of the building waits until an elevator comes back from the end of the shaft.
+ */
+public class MidRunPickupDispatchStrategy implements DispatchStrategy {
+  private final DispatchStrategy waiting;
+
+  /**
+   * The constructor for the strategy.
+   *
+   * @param waiting the strategy for the elevators that wait for requests.
+   */
+  public MidRunPickupDispatchStrategy(DispatchStrategy waiting) {
+    this.waiting = Objects.requireNonNull(waiting, "Strategy could not be null.");
+  }
+
+  @Override
+  public List<Assignment> assign(DispatchContext context) {
+    List<Assignment> assignments = new ArrayList<>(this.waiting.assign(context));
+    boolean[] assigned = new boolean[context.getElevators().size()];
+    for (Assignment assignment : assignments) {
+      assigned[assignment.getElevator()] = true;
+    }
+    List<ElevatorState> elevators = context.getElevators();
+    for (int i = 0; i < elevators.size(); i++) {
+      ElevatorState elevator = elevators.get(i);
+      int room = Math.min(elevator.getPickUpCapacity(), context.getElevatorCapacity());
+      Direction direction = elevator.getDirection();
+      if (assigned[i] || room == 0 || context.getWaitingCount(direction) == 0) {
+        continue;
+      }
+      List<Request> requests = new ArrayList<>();
+      int increment = direction == Direction.UP ? 1 : -1;
+      for (int floor = elevator.getCurrentFloor() + increment;
+           floor >= 0 && floor < elevator.getMaxFloor() && room > 0; floor += increment) {
+        Request request;
+        while ((request = context.peek(floor, direction)) != null
+            && request.getPartySize() <= room && elevator.canPickUp(request)) {
+          requests.add(context.take(floor, direction));
+          room -= request.getPartySize();
+        }
+      }
+      if (!requests.isEmpty()) {
+        assignments.add(new Assignment(i, requests));
+      }
+    }
+    return assignments;
+  }
+
+  @Override
+  public boolean picksUpOnTheWay() {
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return this.waiting + " with pickups on the way";
+  }
+}
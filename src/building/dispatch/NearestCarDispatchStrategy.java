@@ -0,0 +1,92 @@
+package building.dispatch;
+
+import building.enums.Direction;
+import elevator.ElevatorState;
+import java.util.ArrayList;
+import java.util.List;
+import scanerzus.Request;
+
+/**
+ * The dispatch strategy that hands every call to the nearest car that can take it.
+ * The elevators that take requests look for calls together, floor by floor going away from
+ * the floor each waits on: an elevator on the ground floor takes the up calls going up, one
+ * on the top floor takes the down calls going down. A call is so found first by the closest
+ * of the cars going its way and only goes to a farther one when the closer cars are full.
+ * The calls of one floor are taken oldest first while their parties fit, of two floors as
+ * close the lower one first, and of two cars as close the one with the lower index takes them.
+ * This gets passengers into a car sooner than the arrival order at the cost of leaving far
+ * calls waiting longer under heavy load.
+ */
+public class NearestCarDispatchStrategy implements DispatchStrategy {
+
+  @Override
+  public List<Assignment> assign(DispatchContext context) {
+    List<ElevatorState> elevators = context.getElevators();
+    Direction[] directions = new Direction[elevators.size()];
+    List<List<Request>> requests = new ArrayList<>();
+    int[] room = new int[elevators.size()];
+    int loading = 0;
+    for (int i = 0; i < elevators.size(); i++) {
+      directions[i] = DispatchStrategies.loadingDirection(context, elevators.get(i));
+      requests.add(new ArrayList<>());
+      room[i] = context.getElevatorCapacity();
+      if (directions[i] != null) {
+        loading++;
+      }
+    }
+    // a valid request may start one floor above the top floor.
+    int top = context.getNumberOfFloors();
+    for (int distance = 0; distance <= top && loading > 0; distance++) {
+      for (int i = 0; i < elevators.size(); i++) {
+        if (directions[i] == null) {
+          continue;
+        }
+        int from = elevators.get(i).getCurrentFloor();
+        if (from - distance >= 0) {
+          room[i] = take(context, from - distance, directions[i], requests.get(i), room[i]);
+        }
+        if (distance > 0 && from + distance <= top) {
+          room[i] = take(context, from + distance, directions[i], requests.get(i), room[i]);
+        }
+        if (room[i] == 0) {
+          directions[i] = null;
+          loading--;
+        }
+      }
+    }
+    List<Assignment> assignments = new ArrayList<>();
+    for (int i = 0; i < elevators.size(); i++) {
+      if (!requests.get(i).isEmpty()) {
+        assignments.add(new Assignment(i, requests.get(i)));
+      }
+    }
+    return assignments;
+  }
+
+  /**
+   * Take the calls of a floor while their parties fit in the elevator.
+   *
+   * @param context   the context of the building.
+   * @param floor     the floor.
+   * @param direction the direction of the calls.
+   * @param requests  the requests of the elevator.
+   * @param room      the room left in the elevator.
+   * @return the room left after the calls.
+   */
+  private static int take(DispatchContext context, int floor, Direction direction,
+                          List<Request> requests, int room) {
+    int left = room;
+    Request request;
+    while ((request = context.peek(floor, direction)) != null
+        && request.getPartySize() <= left) {
+      requests.add(context.take(floor, direction));
+      left -= request.getPartySize();
+    }
+    return left;
+  }
+
+  @Override
+  public String toString() {
+    return "Nearest car";
+  }
+}
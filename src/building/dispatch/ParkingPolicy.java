@@ -0,0 +1,30 @@
+package building.dispatch;
+
+import scanerzus.Request;
+
+/**
+ * This interface is used to decide where elevators with nothing to do wait for requests.
+ * The building tells the policy about every request it accepts, and about every later leg of
+ * a trip across zones, and asks it for every zone at the end of every tick in which no
+ * request is left waiting. Asked twice about the same building, the
+ * policy should give the same answer, so that jumping from event to event parks the
+ * elevators like stepping every tick.
+ */
+public interface ParkingPolicy {
+
+  /**
+   * Learn from a request the building accepted.
+   *
+   * @param request the request.
+   * @param tick    the tick at which it was accepted.
+   */
+  void requestAccepted(Request request, long tick);
+
+  /**
+   * Choose the floors that idle or parking elevators wait on.
+   *
+   * @param context the elevators of the building, no request is waiting.
+   * @return the floor for every elevator in the order of their index, -1 to leave it be.
+   */
+  int[] park(DispatchContext context);
+}
@@ -0,0 +1,21 @@
+package building.enums;
+
+/**
+ * This enum is used to choose how the elevators of a building are kept in memory and run.
+ */
+public enum ElevatorEngine {
+  OBJECT("Object"),
+  BANK("Bank"),
+  ACTOR("Actor");
+
+  private final String display;
+
+  ElevatorEngine(String display) {
+    this.display = display;
+  }
+
+  @Override
+  public String toString() {
+    return this.display;
+  }
+}
@@ -7,8 +7,13 @@ import building.enums.ElevatorSystemStatus;
 import elevator.ElevatorReport;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import javax.swing.SwingUtilities;
 import scanerzus.Request;
+import simulation.RequestGenerator;
+import simulation.TickScheduler;
 import view.ConsoleView;
 import view.StartView;
 
@@ -21,6 +26,10 @@ public class BuildingController {
   private BuildingInterface building;
   private final StartView startView;
   private ConsoleView consoleView;
+  private long randomSeed = System.nanoTime();
+  private RequestGenerator requestGenerator;
+  // every change to the building goes through the scheduler, which owns it while running.
+  private TickScheduler scheduler;
 
   /**
    * Constructor for the building controller.
@@ -62,8 +71,13 @@ public class BuildingController {
       numOfElevators = Integer.parseInt(numberOfElevators);
       elevatorCapacity = Integer.parseInt(capacity);
 
+      if (this.scheduler != null) {
+        this.scheduler.stop();
+      }
       this.building = new Building(numOfFloors, numOfElevators, elevatorCapacity);
-      building.startElevatorSystem();
+      this.requestGenerator = new RequestGenerator(numOfFloors, this.randomSeed);
+      this.scheduler = new TickScheduler(this.building);
+      onBuilding(BuildingInterface::startElevatorSystem);
 
       this.consoleView = new ConsoleView(numOfFloors, numOfElevators,
           elevatorCapacity, this, startView);
@@ -76,28 +90,60 @@ public class BuildingController {
   }
 
 
+  /**
+   * Run an action on the building through the scheduler.
+   * While the building runs on its own the action runs before the next tick, so its result
+   * is only known then. Errors are shown once it has run.
+   *
+   * @param action the action to run
+   * @return the result of the action, completed once it has run, false if it failed
+   */
+  private CompletableFuture<Boolean> onBuilding(Predicate<BuildingInterface> action) {
+    CompletableFuture<Boolean> result = new CompletableFuture<>();
+    scheduler.submit(b -> {
+      try {
+        result.complete(action.test(b));
+      } catch (IllegalStateException | IllegalArgumentException e) {
+        result.complete(false);
+        if (consoleView != null) {
+          onSwing(() -> consoleView.displayMessage(e.getMessage()));
+        }
+      }
+    });
+    return result;
+  }
+
+  /**
+   * Run a change of the view on the Swing thread, at once if this is the Swing thread.
+   *
+   * @param change the change to run
+   */
+  private static void onSwing(Runnable change) {
+    if (SwingUtilities.isEventDispatchThread()) {
+      change.run();
+    } else {
+      SwingUtilities.invokeLater(change);
+    }
+  }
+
   /**
    * Step the elevator system.
    */
   public void stepElevatorSystem() {
-    building.stepElevatorSystem();
+    onBuilding(b -> {
+      b.stepElevatorSystem();
+      return true;
+    });
     updateElevatorDisplays();
   }
 
   /**
    * Start the elevator system.
    *
-   * @return true if the system is started, false otherwise
+   * @return true once the system is started, false if it could not be started
    */
-  public boolean startElevatorSystem() {
-    try {
-      return building.startElevatorSystem();
-    } catch (IllegalStateException | IllegalArgumentException e) {
-      if (consoleView != null) {
-        consoleView.displayMessage(e.getMessage());
-      }
-    }
-    return false;
+  public CompletableFuture<Boolean> startElevatorSystem() {
+    return onBuilding(BuildingInterface::startElevatorSystem);
   }
 
 
@@ -105,15 +151,52 @@ public class BuildingController {
    * Stop the elevator system.
    */
   public void stopElevatorSystem() {
-    try {
-      building.stopElevatorSystem();
-    } catch (IllegalStateException | IllegalArgumentException e) {
-      if (consoleView != null) {
-        consoleView.displayMessage(e.getMessage());
-      }
+    onBuilding(b -> {
+      b.stopElevatorSystem();
+      return true;
+    });
+  }
+
+  /**
+   * Step the elevator system on its own thread at the given rate.
+   * The view should sample getBuildingReport at its own frame rate while it runs.
+   *
+   * @param ticksPerSecond the tick rate, TickScheduler.AS_FAST_AS_POSSIBLE for no waiting
+   */
+  public void startAutoRun(double ticksPerSecond) {
+    scheduler.setTicksPerSecond(ticksPerSecond);
+    if (!scheduler.isRunning()) {
+      scheduler.start();
+    }
+  }
+
+  /**
+   * Stop stepping the elevator system on its own thread.
+   */
+  public void pauseAutoRun() {
+    if (scheduler != null) {
+      scheduler.stop();
     }
   }
 
+  /**
+   * Check if the elevator system is stepped on its own thread.
+   *
+   * @return true if the system runs on its own, false otherwise
+   */
+  public boolean isAutoRunning() {
+    return scheduler != null && scheduler.isRunning();
+  }
+
+  /**
+   * Get the scheduler that steps the elevator system on its own thread.
+   *
+   * @return the scheduler, null before the building is initialized
+   */
+  public TickScheduler getScheduler() {
+    return scheduler;
+  }
+
   /**
    * Generate a report of the elevator system.
    *
@@ -168,20 +251,46 @@ public class BuildingController {
 
       // add the request
       Request request = new Request(start, end);
-      boolean requestAdded = building.handleAddRequest(request);
-
-      if (requestAdded) {
-        consoleView.updateText();
-        consoleView.updateIcon();
-      } else {
-        consoleView.displayMessage("Request could not be added.");
-      }
+      onBuilding(b -> b.handleAddRequest(request)).thenAccept(requestAdded -> onSwing(() -> {
+        if (requestAdded) {
+          consoleView.updateText();
+          consoleView.updateIcon();
+        } else {
+          consoleView.displayMessage("Request could not be added.");
+        }
+      }));
     } catch (NumberFormatException e) {
       consoleView.displayMessage("Floor numbers must be integers.");
     }
   }
 
 
+  /**
+   * Set the seed of the random requests.
+   * A building initialized after this gets the same random requests for the same seed.
+   *
+   * @param seed the seed of the random requests
+   */
+  public void setRandomSeed(long seed) {
+    this.randomSeed = seed;
+  }
+
+  /**
+   * Get the seed of the random requests, so a run can be repeated.
+   *
+   * @return the seed of the random requests
+   */
+  public long getRandomSeed() {
+    return this.randomSeed;
+  }
+
+  /**
+   * Generate between 1 and 5 random requests for the elevator system.
+   */
+  public void generateRandomRequests() {
+    generateRandomRequests(requestGenerator.nextCount(5));
+  }
+
   /**
    * Generate random requests for the elevator system.
    *
@@ -189,13 +298,8 @@ public class BuildingController {
    */
   public void generateRandomRequests(int count) {
     for (int i = 0; i < count; i++) {
-      int fromFloor = (int) (Math.random() * building.getNumberOfFloors());
-      int toFloor;
-      do {
-        toFloor = (int) (Math.random() * building.getNumberOfFloors());
-      } while (fromFloor == toFloor);
-
-      building.handleAddRequest(new Request(fromFloor, toFloor));
+      Request request = requestGenerator.nextRequest();
+      onBuilding(b -> b.handleAddRequest(request));
     }
   }
 
@@ -205,12 +309,10 @@ public class BuildingController {
    * @return the current floor of the elevator
    */
   public int getCurrentFloors(int elevatorIndex) {
-    if (building != null && building.getElevatorSystemStatus() != null
-        && building.getElevatorSystemStatus().getElevatorReports() != null
-        && elevatorIndex >= 0 && elevatorIndex < building.getElevatorSystemStatus()
-        .getElevatorReports().length) {
-      return building.getElevatorSystemStatus().getElevatorReports()[elevatorIndex]
-          .getCurrentFloor();
+    BuildingReport report = building == null ? null : getBuildingReport();
+    if (report != null && report.getElevatorReports() != null
+        && elevatorIndex >= 0 && elevatorIndex < report.getElevatorReports().length) {
+      return report.getElevatorReports()[elevatorIndex].getCurrentFloor();
     } else {
       return -1;
     }
@@ -222,14 +324,15 @@ public class BuildingController {
    * @return true if the door is closed, false otherwise
    */
   public boolean isDoorClosed(int elevatorIndex) {
-    return building.getElevatorSystemStatus().getElevatorReports()[elevatorIndex].isDoorClosed();
+    return getBuildingReport().getElevatorReports()[elevatorIndex].isDoorClosed();
   }
 
   /**
    * Generate a report of the elevator system.
+   * While the system runs on its own this is the latest snapshot of the scheduler.
    * @return the report of the elevator system
    */
   public BuildingReport getBuildingReport() {
-    return building.getElevatorSystemStatus();
+    return scheduler.getLatestReport();
   }
 }
@@ -2,7 +2,10 @@ package elevator;
 
 
 import building.enums.Direction;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import scanerzus.Request;
 
 
@@ -11,14 +14,28 @@ import scanerzus.Request;
  */
 public class Elevator implements ElevatorInterface {
   /************************************************************************
-   * static value used to initialize the elevator id.
+   * The largest building and car allowed by the city bylaws and fire code.
    ************************************************************************/
-  private static int newElevatorId = 0;
+  public static final int MAX_FLOORS = 30;
+  public static final int MAX_OCCUPANCY = 20;
+
+  /************************************************************************
+   * The largest building and car allowed in tall-tower mode, for supertall
+   * towers and freight cars.
+   ************************************************************************/
+  public static final int TALL_TOWER_MAX_FLOORS = 500;
+  public static final int TALL_TOWER_MAX_OCCUPANCY = 100;
+
+  /************************************************************************
+   * static value used to initialize the id of elevators created without one.
+   * It is atomic so elevators can be created on several threads at once.
+   ************************************************************************/
+  private static final AtomicInteger newElevatorId = new AtomicInteger();
 
   /************************************************************************
    * The id of the elevator.This is read only.
    ************************************************************************/
-  private final int id = newElevatorId++;
+  private final int id;
 
   /************************************************************************
    * The total number of floors in the building.
@@ -41,6 +58,13 @@ public class Elevator implements ElevatorInterface {
    ************************************************************************/
   private final int stopWaitTimeTotal = 5;
 
+  /************************************************************************
+   * The lowest and highest floor the elevator serves. An elevator of a
+   * zoned tower only runs between these, the ends of its shaft.
+   ************************************************************************/
+  private int lowestFloor;
+  private int highestFloor;
+
   /************************************************************************
    * The class variables that change as the elevator runs.
    ************************************************************************/
@@ -78,11 +102,38 @@ public class Elevator implements ElevatorInterface {
   /************************************************************************
    * The requests for the floors.
    ************************************************************************/
-  private final boolean[] floorRequests; // true if there is a request for the floor.
+  private final FloorRequestSet floorRequests;
 
 
   private boolean outOfService;  // start must be issued on the elevator to start it.
 
+  /************************************************************************
+   * In LOOK mode the elevator turns at its last stop instead of at the end
+   * of the shaft, and waits where it runs out of stops for new requests.
+   ************************************************************************/
+  private boolean look = false;
+
+  /************************************************************************
+   * The floor an idle elevator in LOOK mode is heading to, to wait there
+   * for the next requests. -1 when the elevator is not parking.
+   ************************************************************************/
+  private int parkingFloor = -1;
+
+  /************************************************************************
+   * The people handed to the elevator and not yet let out, and how many
+   * of them get out at every floor. A car picks parties up along the way
+   * only while it has room for them.
+   ************************************************************************/
+  private int riders = 0;
+  private final int[] ridersOut;
+
+  /************************************************************************
+   * The steps a door that opens again on the floor where it last closed
+   * stays open longer, and that floor. -1 once the elevator moved.
+   ************************************************************************/
+  private int reopenExtension = 0;
+  private int closedFloor = -1;
+
 
   /**
    * The constructor for this elevator.
@@ -97,23 +148,74 @@ public class Elevator implements ElevatorInterface {
    * @throws IllegalArgumentException if the maxFloor or maxOccupancy is out of range
    */
   public Elevator(int maxFloor, int maxOccupancy) {
-    if (maxFloor < 3 || maxFloor > 30) {
-      throw new IllegalArgumentException("maxFloor must be between 3 and 30");
-    }
-    if (maxOccupancy < 3 || maxOccupancy > 20) {
-      throw new IllegalArgumentException("maxOccupancy must be between 3 and 20");
+    this(maxFloor, maxOccupancy, false);
+  }
+
+  /**
+   * The constructor for this elevator with a choice of tall-tower mode.
+   * In tall-tower mode the elevator may serve up to TALL_TOWER_MAX_FLOORS floors and carry
+   * up to TALL_TOWER_MAX_OCCUPANCY people. Stop requests are kept as a packed bitset, so a
+   * step costs the same in a 500 floor tower as in a 30 floor building.
+   *
+   * @param maxFloor     the total number of floors in the building, at least 3
+   * @param maxOccupancy the maximum number of people that can fit in the elevator, at least 3
+   * @param tallTower    true to allow the tall-tower limits instead of the standard ones
+   * @throws IllegalArgumentException if the maxFloor or maxOccupancy is out of range
+   */
+  public Elevator(int maxFloor, int maxOccupancy, boolean tallTower) {
+    this(newElevatorId.getAndIncrement(), maxFloor, maxOccupancy, tallTower);
+  }
+
+  /**
+   * The constructor for this elevator with a given id.
+   * A building numbers its own elevators from 0 with this constructor, so the ids of one
+   * building do not depend on how many elevators other buildings have created.
+   *
+   * @param id           the id of the elevator, must not be negative
+   * @param maxFloor     the total number of floors in the building, at least 3
+   * @param maxOccupancy the maximum number of people that can fit in the elevator, at least 3
+   * @param tallTower    true to allow the tall-tower limits instead of the standard ones
+   * @throws IllegalArgumentException if the id, maxFloor or maxOccupancy is out of range
+   */
+  public Elevator(int id, int maxFloor, int maxOccupancy, boolean tallTower) {
+    if (id < 0) {
+      throw new IllegalArgumentException("id must not be negative");
     }
+    checkLimits(maxFloor, maxOccupancy, tallTower);
 
+    this.id = id;
     this.maxFloor = maxFloor;
     this.maxOccupancy = maxOccupancy;
     this.currentFloor = 0;
     this.direction = Direction.STOPPED;
     this.outOfService = true;
-    this.floorRequests = new boolean[maxFloor];
+    this.floorRequests = new FloorRequestSet(maxFloor);
+    this.ridersOut = new int[maxFloor];
+    this.lowestFloor = 0;
+    this.highestFloor = maxFloor - 1;
     this.takingRequests = false;
 
   }
 
+  /**
+   * Check the size of an elevator against the standard or tall-tower limits.
+   *
+   * @param maxFloor     the total number of floors in the building
+   * @param maxOccupancy the maximum number of people that can fit in the elevator
+   * @param tallTower    true to check against the tall-tower limits
+   * @throws IllegalArgumentException if the maxFloor or maxOccupancy is out of range
+   */
+  static void checkLimits(int maxFloor, int maxOccupancy, boolean tallTower) {
+    int floorLimit = tallTower ? TALL_TOWER_MAX_FLOORS : MAX_FLOORS;
+    int occupancyLimit = tallTower ? TALL_TOWER_MAX_OCCUPANCY : MAX_OCCUPANCY;
+    if (maxFloor < 3 || maxFloor > floorLimit) {
+      throw new IllegalArgumentException("maxFloor must be between 3 and " + floorLimit);
+    }
+    if (maxOccupancy < 3 || maxOccupancy > occupancyLimit) {
+      throw new IllegalArgumentException("maxOccupancy must be between 3 and " + occupancyLimit);
+    }
+  }
+
   /* ***********************************************************************
    * The following methods are the getters for the ElevatorStatus interface.
    * **********************************************************************/
@@ -138,6 +240,35 @@ public class Elevator implements ElevatorInterface {
     return this.maxFloor;
   }
 
+  @Override
+  public int getLowestFloor() {
+    return this.lowestFloor;
+  }
+
+  @Override
+  public int getHighestFloor() {
+    return this.highestFloor;
+  }
+
+  /**
+   * Set the floors the elevator serves, the ends of its run.
+   * This should be done before the elevator is started.
+   *
+   * @param lowestFloor  the lowest floor served.
+   * @param highestFloor the highest floor served, above the lowest floor.
+   * @throws IllegalArgumentException if the floors are not in the building.
+   */
+  @Override
+  public void setServedFloors(int lowestFloor, int highestFloor)
+      throws IllegalArgumentException {
+    if (lowestFloor < 0 || highestFloor <= lowestFloor || highestFloor >= this.maxFloor) {
+      throw new IllegalArgumentException("Floors " + lowestFloor + " to " + highestFloor
+          + " are not in the building.");
+    }
+    this.lowestFloor = lowestFloor;
+    this.highestFloor = highestFloor;
+  }
+
   /**
    * maxOccupancy getter.
    *
@@ -179,11 +310,11 @@ public class Elevator implements ElevatorInterface {
   /**
    * Return the current stop requests.
    *
-   * @return the current stop requests.
+   * @return a copy of the current stop requests, one flag per floor.
    */
   @Override
   public boolean[] getFloorRequests() {
-    return this.floorRequests;
+    return this.floorRequests.toArray();
   }
 
   /* ***********************************************************************
@@ -212,6 +343,8 @@ public class Elevator implements ElevatorInterface {
     this.doorOpenTimeLeft = 0;
     this.stopWaitTimeLeft = this.stopWaitTimeTotal;
     this.direction = Direction.UP;
+    this.parkingFloor = -1;
+    this.closedFloor = -1;
   }
 
 
@@ -223,6 +356,17 @@ public class Elevator implements ElevatorInterface {
    * Fourth check to see if there is a request at this floor.
    */
   public void step() {
+    int floor = this.currentFloor;
+    this.stepOnce();
+    if (this.currentFloor != floor) {
+      this.closedFloor = -1;
+    }
+  }
+
+  /**
+   * Move the elevator one step, see step().
+   */
+  private void stepOnce() {
     // If the elevator is out of service then we need to deal with that.
     if (this.outOfService) {
       this.stepOutOfService();
@@ -245,17 +389,44 @@ public class Elevator implements ElevatorInterface {
     // We are not out of service,
     // the door is closed and we are not waiting at the top or bottom.
     // now we check to see if there is a request at this floor
-    // We open the door and set the timer for 3 steps.
-    if (this.floorRequests[this.currentFloor]) {
+    // We open the door and set the timer for 3 steps, longer if it opens again.
+    if (this.floorRequests.contains(this.currentFloor)) {
       this.doorClosed = false;
-      this.doorOpenTimeLeft = this.doorOpenTimeTotal;
-      this.floorRequests[this.currentFloor] = false;
+      this.doorOpenTimeLeft = this.doorOpenTimeTotal
+          + (this.currentFloor == this.closedFloor ? this.reopenExtension : 0);
+      this.floorRequests.remove(this.currentFloor);
+      this.riders -= this.ridersOut[this.currentFloor];
+      this.ridersOut[this.currentFloor] = 0;
       return;
     }
 
     // We are not out of service
     // the door is closed
     // and there is no request at this floor.
+
+    // A parking elevator has no stops, it moves on until it reaches its floor.
+    if (this.parkingFloor >= 0) {
+      if (this.currentFloor == this.parkingFloor) {
+        this.direction = Direction.STOPPED;
+        this.parkingFloor = -1;
+      } else {
+        this.currentFloor += this.direction == Direction.UP ? 1 : -1;
+      }
+      return;
+    }
+
+    // In LOOK mode we turn around when there is no stop ahead of us,
+    // or wait here for requests when there is no stop left at all.
+    if (this.look && this.direction != Direction.STOPPED && !this.hasStopAhead()) {
+      if (this.floorRequests.isEmpty()) {
+        this.direction = Direction.STOPPED;
+        this.takingRequests = true;
+      } else {
+        this.direction = this.direction == Direction.UP ? Direction.DOWN : Direction.UP;
+      }
+      return;
+    }
+
     // We may be at the top or the bottom
 
 
@@ -263,7 +434,7 @@ public class Elevator implements ElevatorInterface {
     // and the direction is down
     // we need to set the direction to up
     // we set the timer to this.stopWaitTimeTotal
-    if (this.currentFloor == 0 && this.direction == Direction.DOWN) {
+    if (this.currentFloor == this.lowestFloor && this.direction == Direction.DOWN) {
       this.direction = Direction.STOPPED;
       this.stopWaitTimeLeft = this.stopWaitTimeTotal;
       this.takingRequests = true;
@@ -274,7 +445,7 @@ public class Elevator implements ElevatorInterface {
     // and the direction is up
     // we need to set the direction to down
     // we set the timer to this.stopWaitTimeTotal
-    if (this.currentFloor == this.maxFloor - 1 && this.direction == Direction.UP) {
+    if (this.currentFloor == this.highestFloor && this.direction == Direction.UP) {
       this.direction = Direction.STOPPED;
       this.stopWaitTimeLeft = this.stopWaitTimeTotal;
       this.takingRequests = true;
@@ -296,6 +467,104 @@ public class Elevator implements ElevatorInterface {
     }
   }
 
+  /**
+   * Get the number of steps until the elevator next changes state.
+   * Counting down the door or wait timer and moving past floors without a
+   * stop are quiet, everything else is an event.
+   *
+   * @return the number of quiet steps, Integer.MAX_VALUE if the elevator is idle.
+   */
+  @Override
+  public int getStepsToNextEvent() {
+    // Out of service the elevator heads down to the ground floor and opens its door.
+    if (this.outOfService) {
+      if (this.currentFloor == 0) {
+        return this.doorClosed ? 0 : Integer.MAX_VALUE;
+      }
+      if (!this.doorClosed) {
+        return Math.max(0, this.doorOpenTimeLeft - 1);
+      }
+      return this.currentFloor;
+    }
+
+    // The last step of a timer closes the door or turns the elevator around.
+    if (!this.doorClosed) {
+      return Math.max(0, this.doorOpenTimeLeft - 1);
+    }
+    if (this.stopWaitTimeLeft > 0) {
+      return this.stopWaitTimeLeft - 1;
+    }
+    if (this.floorRequests.contains(this.currentFloor)) {
+      return 0;
+    }
+
+    // Parking, the next event is stopping on the parking floor.
+    if (this.parkingFloor >= 0) {
+      return Math.abs(this.parkingFloor - this.currentFloor);
+    }
+
+    // Moving, the next event is the next stop or the end of the run.
+    // In LOOK mode the run ends at once when there is no stop ahead.
+    if (this.direction == Direction.UP) {
+      int target = this.floorRequests.nextAbove(this.currentFloor);
+      if (target < 0 && this.look) {
+        return 0;
+      }
+      return (target < 0 ? this.highestFloor : target) - this.currentFloor;
+    }
+    if (this.direction == Direction.DOWN) {
+      int target = this.floorRequests.nextBelow(this.currentFloor);
+      if (target < 0 && this.look) {
+        return 0;
+      }
+      return this.currentFloor - Math.max(target, this.lowestFloor);
+    }
+    return Integer.MAX_VALUE;
+  }
+
+  /**
+   * Apply a number of quiet steps at once.
+   *
+   * @param steps the number of steps to apply, at most getStepsToNextEvent().
+   * @throws IllegalArgumentException if steps is negative or larger than the quiet steps.
+   */
+  @Override
+  public void advance(int steps) throws IllegalArgumentException {
+    if (steps < 0 || steps > this.getStepsToNextEvent()) {
+      throw new IllegalArgumentException("Cannot advance the elevator " + steps + " steps.");
+    }
+    if (steps == 0) {
+      return;
+    }
+
+    if (this.outOfService) {
+      // waiting on the ground floor with the door open does not change anything.
+      if (this.currentFloor == 0) {
+        return;
+      }
+      if (!this.doorClosed) {
+        this.doorOpenTimeLeft -= steps;
+        return;
+      }
+      this.direction = Direction.DOWN;
+      this.currentFloor -= steps;
+      this.closedFloor = -1;
+      return;
+    }
+
+    if (!this.doorClosed) {
+      this.doorOpenTimeLeft -= steps;
+    } else if (this.stopWaitTimeLeft > 0) {
+      this.stopWaitTimeLeft -= steps;
+    } else if (this.direction == Direction.UP) {
+      this.currentFloor += steps;
+      this.closedFloor = -1;
+    } else if (this.direction == Direction.DOWN) {
+      this.currentFloor -= steps;
+      this.closedFloor = -1;
+    }
+  }
+
   /**
    * Step the elevator when out of service.
    * If the elevator is on the ground floor and the door is open return
@@ -314,7 +583,7 @@ public class Elevator implements ElevatorInterface {
     if (this.currentFloor == 0) {
       this.doorClosed = false;
       // we can clear the floor requests now
-      this.floorRequests[this.currentFloor] = false;
+      this.floorRequests.remove(this.currentFloor);
       // we can set the elevator to stopped.
       this.direction = Direction.STOPPED;
       return;
@@ -341,6 +610,7 @@ public class Elevator implements ElevatorInterface {
     this.doorOpenTimeLeft--;
     if (this.doorOpenTimeLeft == 0) {
       this.doorClosed = true;
+      this.closedFloor = this.currentFloor;
     }
   }
 
@@ -351,15 +621,28 @@ public class Elevator implements ElevatorInterface {
     this.stopWaitTimeLeft--;
     if (this.stopWaitTimeLeft == 0) {
       this.takingRequests = false;
-      if (this.currentFloor == 0) {
-        this.direction = Direction.UP;
-      } else if (this.currentFloor == this.maxFloor - 1) {
+      // an elevator started below its floors goes up to them.
+      if (this.currentFloor == this.highestFloor) {
         this.direction = Direction.DOWN;
+      } else if (this.currentFloor <= this.lowestFloor) {
+        this.direction = Direction.UP;
       }
     }
   }
 
 
+  /**
+   * Check if there is a stop ahead in the direction the elevator is moving.
+   *
+   * @return true if there is a stop ahead, false otherwise.
+   */
+  private boolean hasStopAhead() {
+    if (this.direction == Direction.UP) {
+      return this.floorRequests.nextAbove(this.currentFloor) >= 0;
+    }
+    return this.floorRequests.nextBelow(this.currentFloor) >= 0;
+  }
+
   /**
    * Process the requests.  The Building will only give us requests
    * that are on the way to our current direction.  That is,
@@ -367,10 +650,16 @@ public class Elevator implements ElevatorInterface {
    * If a request is received to processRequests and the elevator
    * is not on the first floor or the top floor then and exception
    * will be thrown.
+   * In LOOK mode the requests are taken on any floor and the elevator
+   * heads for the start floor of the first request.
    */
   @Override
   public void processRequests(List<Request> requests) throws IllegalStateException {
-    if (this.currentFloor != 0 && this.currentFloor != this.maxFloor - 1) {
+    if (this.look) {
+      this.processLookRequests(requests);
+      return;
+    }
+    if (this.currentFloor != this.lowestFloor && this.currentFloor != this.highestFloor) {
       throw new IllegalStateException("Elevator cannot process requests "
           + "unless it is at the bottom or top floor.");
     }
@@ -380,21 +669,186 @@ public class Elevator implements ElevatorInterface {
     }
 
     this.processStopRequests(requests);
-    if (this.currentFloor == 0) {
+    if (this.currentFloor == this.lowestFloor) {
       this.direction = Direction.UP;
-    } else if (this.currentFloor == this.maxFloor - 1) {
+    } else if (this.currentFloor == this.highestFloor) {
       this.direction = Direction.DOWN;
     }
     this.takingRequests = false;
 
   }
 
+  /**
+   * Process the requests in LOOK mode.
+   *
+   * @param requests the requests to add to the elevator.
+   */
+  private void processLookRequests(List<Request> requests) {
+    if (requests.isEmpty()) {
+      return;
+    }
+    this.parkingFloor = -1;
+    this.processStopRequests(requests);
+    Request first = requests.get(0);
+    int target = first.getStartFloor() != this.currentFloor
+        ? first.getStartFloor() : first.getEndFloor();
+    this.direction = target > this.currentFloor ? Direction.UP : Direction.DOWN;
+    this.takingRequests = false;
+  }
+
+  /**
+   * Turn LOOK mode on or off.
+   * The change is picked up the next time the elevator looks for its next stop.
+   *
+   * @param look true for LOOK mode, false to run to the end of the shaft.
+   */
+  @Override
+  public void setLook(boolean look) {
+    this.look = look;
+  }
+
+  @Override
+  public boolean canTakeRequests(Direction direction) {
+    if (!this.takingRequests) {
+      return false;
+    }
+    if (this.look) {
+      return direction == Direction.UP || direction == Direction.DOWN;
+    }
+    return direction == Direction.UP ? this.currentFloor == this.lowestFloor
+        : direction == Direction.DOWN && this.currentFloor == this.highestFloor;
+  }
+
+  @Override
+  public boolean isLook() {
+    return this.look;
+  }
+
+  @Override
+  public int getDoorOpenTime() {
+    return this.doorOpenTimeTotal;
+  }
+
+  @Override
+  public int getEndWaitTime() {
+    return this.stopWaitTimeTotal;
+  }
+
+  @Override
+  public boolean isIdle() {
+    return this.look && !this.outOfService && this.takingRequests && this.doorClosed
+        && this.direction == Direction.STOPPED && this.floorRequests.isEmpty();
+  }
+
+  @Override
+  public int getParkingFloor() {
+    return this.parkingFloor;
+  }
+
+  /**
+   * Send an idle elevator to a floor to wait there for requests.
+   * The elevator keeps taking requests on the way, a request ends the parking.
+   *
+   * @param floor the floor to wait on.
+   * @throws IllegalArgumentException if the floor is not served by the elevator.
+   * @throws IllegalStateException    if the elevator is neither idle nor parking.
+   */
+  @Override
+  public void park(int floor) throws IllegalArgumentException, IllegalStateException {
+    if (floor < this.lowestFloor || floor > this.highestFloor) {
+      throw new IllegalArgumentException("Floor " + floor + " is not served.");
+    }
+    if (!this.isIdle() && this.parkingFloor < 0) {
+      throw new IllegalStateException("Only an idle elevator can be parked.");
+    }
+    if (floor == this.currentFloor) {
+      this.parkingFloor = -1;
+      this.direction = Direction.STOPPED;
+      return;
+    }
+    this.parkingFloor = floor;
+    this.direction = floor > this.currentFloor ? Direction.UP : Direction.DOWN;
+  }
+
+  @Override
+  public boolean canPickUp(Request request) {
+    if (this.getPickUpCapacity() < request.getPartySize()) {
+      return false;
+    }
+    int start = request.getStartFloor();
+    int end = request.getEndFloor();
+    if (start < this.lowestFloor || start > this.highestFloor || end < this.lowestFloor
+        || end > this.highestFloor) {
+      return false;
+    }
+    if (this.direction == Direction.UP) {
+      return this.currentFloor < start && start < end;
+    }
+    return this.currentFloor > start && start > end;
+  }
+
+  @Override
+  public int getPickUpCapacity() {
+    if (this.outOfService || this.takingRequests || this.direction == Direction.STOPPED) {
+      return 0;
+    }
+    return Math.max(this.maxOccupancy - this.riders, 0);
+  }
+
+  /**
+   * Pick up riders along the way.
+   * The stops are added to the ones the elevator already has, so it keeps going where it was
+   * going and lets the new riders in and out on the way.
+   *
+   * @param requests the requests to add to the elevator.
+   * @throws IllegalStateException if the elevator cannot pick up one of the requests, or
+   *                               has no room for all of their parties.
+   */
+  @Override
+  public void pickUp(List<Request> requests) throws IllegalStateException {
+    int people = 0;
+    for (Request request : requests) {
+      people += request.getPartySize();
+    }
+    if (people > this.getPickUpCapacity()) {
+      throw new IllegalStateException("Elevator has no room for " + requests + ".");
+    }
+    for (Request request : requests) {
+      if (!this.canPickUp(request)) {
+        throw new IllegalStateException("Elevator cannot pick up " + request + " on the way.");
+      }
+    }
+    for (Request request : requests) {
+      this.addStops(request);
+    }
+  }
+
+  @Override
+  public void holdDoor(int steps) throws IllegalArgumentException, IllegalStateException {
+    if (steps < 0) {
+      throw new IllegalArgumentException("Cannot hold the door " + steps + " steps.");
+    }
+    if (this.doorClosed) {
+      throw new IllegalStateException("Elevator cannot hold a closed door.");
+    }
+    this.doorOpenTimeLeft += steps;
+  }
+
+  @Override
+  public void setReopenExtension(int steps) throws IllegalArgumentException {
+    if (steps < 0) {
+      throw new IllegalArgumentException("Reopen extension should not be negative.");
+    }
+    this.reopenExtension = steps;
+  }
+
   /**
    * Take the elevator out of service.
    */
   @Override
   public void takeOutOfService() {
     this.clearStopRequests();
+    this.parkingFloor = -1;
     this.takingRequests = false;
     this.direction = Direction.DOWN;
 
@@ -418,21 +872,32 @@ public class Elevator implements ElevatorInterface {
     clearStopRequests();
 
     for (Request request : requests) {
-      this.floorRequests[request.getStartFloor()] = true;
-      this.floorRequests[request.getEndFloor()] = true;
+      this.addStops(request);
     }
     // if the elevator was waiting at the top or bottom
     // set the timer to 0 and we are off to the races.
     this.stopWaitTimeLeft = 0;
   }
 
+  /**
+   * Add the stops of a request and count its party.
+   *
+   * @param request the request.
+   */
+  private void addStops(Request request) {
+    this.floorRequests.add(request.getStartFloor());
+    this.floorRequests.add(request.getEndFloor());
+    this.riders += request.getPartySize();
+    this.ridersOut[request.getEndFloor()] += request.getPartySize();
+  }
+
   /**
    * Clear the Floor Requests.
    */
   private void clearStopRequests() {
-    for (int i = 0; i < this.maxFloor; i++) {
-      this.floorRequests[i] = false;
-    }
+    this.floorRequests.clear();
+    this.riders = 0;
+    Arrays.fill(this.ridersOut, 0);
   }
 
   /**
@@ -447,7 +912,8 @@ public class Elevator implements ElevatorInterface {
         this.currentFloor,
         this.direction,
         this.doorClosed,
-        this.floorRequests,
+        this.maxFloor,
+        this.floorRequests.toFloors(),
         this.doorOpenTimeLeft,
         this.stopWaitTimeLeft,
         this.outOfService,
@@ -469,11 +935,74 @@ public class Elevator implements ElevatorInterface {
         this.currentFloor,
         this.direction,
         this.doorClosed,
-        this.floorRequests,
+        this.maxFloor,
+        this.floorRequests.toFloors(),
         this.doorOpenTimeLeft,
         this.stopWaitTimeLeft,
         this.outOfService,
         this.takingRequests);
   }
 
+  @Override
+  public int getStateSize() {
+    return ElevatorBank.stateSize(this.maxFloor);
+  }
+
+  @Override
+  public void writeState(ByteBuffer buffer) {
+    buffer.putInt(this.currentFloor);
+    switch (this.direction) {
+      case UP:
+        buffer.put(ElevatorBank.UP);
+        break;
+      case DOWN:
+        buffer.put(ElevatorBank.DOWN);
+        break;
+      default:
+        buffer.put(ElevatorBank.STOPPED);
+        break;
+    }
+    buffer.put((byte) ((this.doorClosed ? 0 : ElevatorBank.DOOR_OPEN)
+        | (this.outOfService ? ElevatorBank.OUT_OF_SERVICE : 0)
+        | (this.takingRequests ? ElevatorBank.TAKING_REQUESTS : 0)));
+    buffer.putInt(this.doorOpenTimeLeft);
+    buffer.putInt(this.stopWaitTimeLeft);
+    buffer.putInt(this.closedFloor);
+    buffer.putInt(this.parkingFloor);
+    this.floorRequests.writeTo(buffer);
+    for (int out : this.ridersOut) {
+      buffer.putInt(out);
+    }
+  }
+
+  @Override
+  public void readState(ByteBuffer buffer) throws IllegalArgumentException {
+    int floor = buffer.getInt();
+    byte dir = buffer.get();
+    byte flags = buffer.get();
+    int doorTimer = buffer.getInt();
+    int waitTimer = buffer.getInt();
+    int closed = buffer.getInt();
+    int parking = buffer.getInt();
+    ElevatorBank.checkState(this.maxFloor, floor, dir, flags, doorTimer, waitTimer, closed,
+        parking);
+    int people = ElevatorBank.checkRidersOut(this.maxFloor, buffer);
+    this.floorRequests.readFrom(buffer);
+    for (int f = 0; f < this.maxFloor; f++) {
+      this.ridersOut[f] = buffer.getInt();
+    }
+    this.riders = people;
+    this.parkingFloor = parking;
+    this.closedFloor = closed;
+
+    this.currentFloor = floor;
+    this.direction = dir == ElevatorBank.UP ? Direction.UP
+        : dir == ElevatorBank.DOWN ? Direction.DOWN : Direction.STOPPED;
+    this.doorClosed = (flags & ElevatorBank.DOOR_OPEN) == 0;
+    this.outOfService = (flags & ElevatorBank.OUT_OF_SERVICE) != 0;
+    this.takingRequests = (flags & ElevatorBank.TAKING_REQUESTS) != 0;
+    this.doorOpenTimeLeft = doorTimer;
+    this.stopWaitTimeLeft = waitTimer;
+  }
+
 }
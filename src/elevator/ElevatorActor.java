@@ -0,0 +1,274 @@
+package elevator;
+
+import building.enums.Direction;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import scanerzus.Request;
+
+/**
+ * This class runs an elevator as an actor with its own mailbox.
+ * Starting, stepping, advancing, handing out requests and taking the elevator out of service
+ * are sent as messages and return at once; the actor handles its messages in order on the
+ * executor of its group, one message at a time. Everything that reads the elevator first
+ * waits for the group to be idle, so the reads see the state after the last message.
+ * An exception thrown while a message is handled is thrown by the next wait of the group.
+ */
+public class ElevatorActor implements ElevatorInterface {
+  private static final Consumer<Elevator> STEP = Elevator::step;
+  private static final Consumer<Elevator> START = Elevator::start;
+  private static final Consumer<Elevator> OUT_OF_SERVICE = Elevator::takeOutOfService;
+
+  private final Elevator elevator;
+  private final ElevatorActors group;
+  private final Queue<Consumer<Elevator>> mailbox = new ConcurrentLinkedQueue<>();
+  // true while the actor is waiting for or holding a worker.
+  private final AtomicBoolean scheduled = new AtomicBoolean();
+  private final Runnable drain = this::drain;
+
+  /**
+   * The constructor for the actor.
+   *
+   * @param elevator the elevator the actor owns, no one else may use it.
+   * @param group    the group the actor runs in.
+   */
+  public ElevatorActor(Elevator elevator, ElevatorActors group) {
+    this.elevator = elevator;
+    this.group = group;
+  }
+
+  /**
+   * Put a message in the mailbox and make sure the actor runs.
+   *
+   * @param message the message.
+   */
+  private void send(Consumer<Elevator> message) {
+    this.group.sent();
+    this.mailbox.add(message);
+    if (this.scheduled.compareAndSet(false, true)) {
+      this.group.schedule(this.drain);
+    }
+  }
+
+  /**
+   * Handle the messages in the mailbox until it is empty.
+   */
+  private void drain() {
+    do {
+      for (Consumer<Elevator> message = this.mailbox.poll(); message != null;
+           message = this.mailbox.poll()) {
+        try {
+          message.accept(this.elevator);
+        } catch (RuntimeException e) {
+          this.group.failed(e);
+        } finally {
+          this.group.handled();
+        }
+      }
+      this.scheduled.set(false);
+      // a message sent after the last poll but before the flag was cleared is handled here.
+    } while (!this.mailbox.isEmpty() && this.scheduled.compareAndSet(false, true));
+  }
+
+  @Override
+  public int getElevatorId() {
+    return this.elevator.getElevatorId();
+  }
+
+  @Override
+  public int getMaxFloor() {
+    return this.elevator.getMaxFloor();
+  }
+
+  @Override
+  public int getLowestFloor() {
+    this.group.awaitIdle();
+    return this.elevator.getLowestFloor();
+  }
+
+  @Override
+  public int getHighestFloor() {
+    this.group.awaitIdle();
+    return this.elevator.getHighestFloor();
+  }
+
+  @Override
+  public void setServedFloors(int lowestFloor, int highestFloor) {
+    this.send(elevator -> elevator.setServedFloors(lowestFloor, highestFloor));
+  }
+
+  @Override
+  public int getMaxOccupancy() {
+    return this.elevator.getMaxOccupancy();
+  }
+
+  @Override
+  public int getCurrentFloor() {
+    this.group.awaitIdle();
+    return this.elevator.getCurrentFloor();
+  }
+
+  @Override
+  public Direction getDirection() {
+    this.group.awaitIdle();
+    return this.elevator.getDirection();
+  }
+
+  @Override
+  public boolean isDoorClosed() {
+    this.group.awaitIdle();
+    return this.elevator.isDoorClosed();
+  }
+
+  @Override
+  public boolean[] getFloorRequests() {
+    this.group.awaitIdle();
+    return this.elevator.getFloorRequests();
+  }
+
+  @Override
+  public void start() {
+    this.send(START);
+  }
+
+  @Override
+  public void takeOutOfService() {
+    this.send(OUT_OF_SERVICE);
+  }
+
+  @Override
+  public void step() {
+    this.send(STEP);
+  }
+
+  @Override
+  public int getStepsToNextEvent() {
+    this.group.awaitIdle();
+    return this.elevator.getStepsToNextEvent();
+  }
+
+  @Override
+  public void advance(int steps) throws IllegalArgumentException {
+    this.send(elevator -> elevator.advance(steps));
+  }
+
+  @Override
+  public void processRequests(List<Request> requests) throws IllegalStateException {
+    this.send(elevator -> elevator.processRequests(requests));
+  }
+
+  @Override
+  public void setLook(boolean look) {
+    this.send(elevator -> elevator.setLook(look));
+  }
+
+  @Override
+  public boolean canTakeRequests(Direction direction) {
+    this.group.awaitIdle();
+    return this.elevator.canTakeRequests(direction);
+  }
+
+  @Override
+  public void pickUp(List<Request> requests) throws IllegalStateException {
+    this.send(elevator -> elevator.pickUp(requests));
+  }
+
+  @Override
+  public void park(int floor) throws IllegalArgumentException, IllegalStateException {
+    this.send(elevator -> elevator.park(floor));
+  }
+
+  @Override
+  public void holdDoor(int steps) throws IllegalArgumentException, IllegalStateException {
+    if (steps < 0) {
+      throw new IllegalArgumentException("Cannot hold the door " + steps + " steps.");
+    }
+    this.send(elevator -> elevator.holdDoor(steps));
+  }
+
+  @Override
+  public void setReopenExtension(int steps) throws IllegalArgumentException {
+    if (steps < 0) {
+      throw new IllegalArgumentException("Reopen extension should not be negative.");
+    }
+    this.send(elevator -> elevator.setReopenExtension(steps));
+  }
+
+  @Override
+  public boolean isLook() {
+    this.group.awaitIdle();
+    return this.elevator.isLook();
+  }
+
+  @Override
+  public int getDoorOpenTime() {
+    return this.elevator.getDoorOpenTime();
+  }
+
+  @Override
+  public int getEndWaitTime() {
+    return this.elevator.getEndWaitTime();
+  }
+
+  @Override
+  public boolean isIdle() {
+    this.group.awaitIdle();
+    return this.elevator.isIdle();
+  }
+
+  @Override
+  public int getParkingFloor() {
+    this.group.awaitIdle();
+    return this.elevator.getParkingFloor();
+  }
+
+  @Override
+  public boolean canPickUp(Request request) {
+    this.group.awaitIdle();
+    return this.elevator.canPickUp(request);
+  }
+
+  @Override
+  public int getPickUpCapacity() {
+    this.group.awaitIdle();
+    return this.elevator.getPickUpCapacity();
+  }
+
+  @Override
+  public boolean isTakingRequests() {
+    this.group.awaitIdle();
+    return this.elevator.isTakingRequests();
+  }
+
+  @Override
+  public ElevatorReport getElevatorStatus() {
+    this.group.awaitIdle();
+    return this.elevator.getElevatorStatus();
+  }
+
+  @Override
+  public int getStateSize() {
+    return this.elevator.getStateSize();
+  }
+
+  @Override
+  public void writeState(ByteBuffer buffer) {
+    this.group.awaitIdle();
+    this.elevator.writeState(buffer);
+  }
+
+  @Override
+  public void readState(ByteBuffer buffer) throws IllegalArgumentException {
+    this.group.awaitIdle();
+    this.elevator.readState(buffer);
+  }
+
+  @Override
+  public String toString() {
+    this.group.awaitIdle();
+    return this.elevator.toString();
+  }
+}
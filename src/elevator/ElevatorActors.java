@@ -0,0 +1,118 @@
+package elevator;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class runs a group of elevator actors on a shared executor.
+ * An actor only takes a worker while it has messages, so a group can hold far more cars than
+ * there are threads. The group counts the messages that were sent and not yet handled, which
+ * lets the owner of the group wait until every mailbox is empty before it reads the cars.
+ * Only one thread may wait on a group at a time.
+ */
+public class ElevatorActors {
+  private final AtomicLong pending = new AtomicLong();
+  private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+  private volatile Executor executor;
+  private volatile Thread waiter;
+  // parks the waiting thread, letting a fork join pool add a worker if it is one of its own.
+  private final ForkJoinPool.ManagedBlocker idle = new ForkJoinPool.ManagedBlocker() {
+    @Override
+    public boolean block() {
+      LockSupport.park(ElevatorActors.this);
+      return this.isReleasable();
+    }
+
+    @Override
+    public boolean isReleasable() {
+      return ElevatorActors.this.pending.get() == 0;
+    }
+  };
+
+  /**
+   * The constructor for the group.
+   *
+   * @param executor the executor the actors run on.
+   */
+  public ElevatorActors(Executor executor) {
+    this.setExecutor(executor);
+  }
+
+  /**
+   * Set the executor the actors run on from their next message.
+   *
+   * @param executor the executor the actors run on.
+   */
+  public void setExecutor(Executor executor) {
+    this.executor = Objects.requireNonNull(executor, "Executor could not be null.");
+  }
+
+  /**
+   * Wait until every message sent to the actors of the group has been handled.
+   * What the actors did is visible to the calling thread when this returns.
+   *
+   * @throws RuntimeException the first exception an actor threw while handling a message.
+   */
+  public void awaitIdle() {
+    if (this.pending.get() != 0) {
+      this.waiter = Thread.currentThread();
+      boolean interrupted = false;
+      while (this.pending.get() != 0) {
+        try {
+          ForkJoinPool.managedBlock(this.idle);
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      this.waiter = null;
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    RuntimeException thrown = this.failure.getAndSet(null);
+    if (thrown != null) {
+      throw thrown;
+    }
+  }
+
+  /**
+   * Count a message that was sent to an actor.
+   */
+  void sent() {
+    this.pending.incrementAndGet();
+  }
+
+  /**
+   * Count a message that an actor has handled, waking the waiting thread after the last one.
+   */
+  void handled() {
+    if (this.pending.decrementAndGet() == 0) {
+      Thread thread = this.waiter;
+      if (thread != null) {
+        LockSupport.unpark(thread);
+      }
+    }
+  }
+
+  /**
+   * Keep the first exception thrown by an actor, to be thrown to the waiting thread.
+   *
+   * @param thrown the exception.
+   */
+  void failed(RuntimeException thrown) {
+    this.failure.compareAndSet(null, thrown);
+  }
+
+  /**
+   * Run an actor that has messages.
+   *
+   * @param actor the actor.
+   */
+  void schedule(Runnable actor) {
+    this.executor.execute(actor);
+  }
+}
@@ -0,0 +1,801 @@
+package elevator;
+
+import building.enums.Direction;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import scanerzus.Request;
+
+
+/**
+ * A fleet of elevators kept in parallel primitive arrays.
+ * Every car behaves exactly like an {@link Elevator}, but the state of the whole fleet lives
+ * in one array per field and the floor requests of all cars share one packed bitmap, so
+ * stepping the fleet is a tight loop over arrays instead of a virtual call per car.
+ * Existing callers can still get an {@link ElevatorInterface} view of every car.
+ */
+public class ElevatorBank {
+  // the codes of the directions and flags, also used by the checkpoint of Elevator.
+  static final byte STOPPED = 0;
+  static final byte UP = 1;
+  static final byte DOWN = 2;
+
+  static final byte DOOR_OPEN = 1;
+  static final byte OUT_OF_SERVICE = 2;
+  static final byte TAKING_REQUESTS = 4;
+
+  private static final int DOOR_OPEN_TIME_TOTAL = 3;
+  private static final int STOP_WAIT_TIME_TOTAL = 5;
+
+  private final int numberOfCars;
+  private final int maxFloor;
+  private final int maxOccupancy;
+  private final int wordsPerCar;
+
+  private final int[] ids;
+  private final int[] currentFloor;
+  private final byte[] direction;
+  private final int[] doorTimer;
+  private final int[] waitTimer;
+  // the floor the door of a car last closed on, -1 once the car moved.
+  private final int[] closedFloor;
+  private final byte[] flags;
+  // the floor requests of car i are the FloorRequestSet words starting at i * wordsPerCar.
+  private final long[] floorRequests;
+  // the people car i lets out at floor f are at i * maxFloor + f.
+  private final int[] ridersOut;
+  private final ElevatorInterface[] views;
+
+  /**
+   * The constructor for the bank.
+   * All cars are initially at the ground floor, out of service and not moving.
+   *
+   * @param numberOfCars the number of cars in the bank, must be at least 1.
+   * @param firstId      the id of the first car, the others are numbered after it.
+   * @param maxFloor     the total number of floors in the building, between 3 and 30.
+   * @param maxOccupancy the maximum number of people in a car, between 3 and 20.
+   * @throws IllegalArgumentException if any of the sizes is out of range.
+   */
+  public ElevatorBank(int numberOfCars, int firstId, int maxFloor, int maxOccupancy) {
+    this(numberOfCars, firstId, maxFloor, maxOccupancy, false);
+  }
+
+  /**
+   * The constructor for the bank with a choice of tall-tower mode.
+   * In tall-tower mode the limits of the cars are the tall-tower limits of Elevator.
+   *
+   * @param numberOfCars the number of cars in the bank, must be at least 1.
+   * @param firstId      the id of the first car, the others are numbered after it.
+   * @param maxFloor     the total number of floors in the building.
+   * @param maxOccupancy the maximum number of people in a car.
+   * @param tallTower    true to allow the tall-tower limits instead of the standard ones.
+   * @throws IllegalArgumentException if any of the sizes is out of range.
+   */
+  public ElevatorBank(int numberOfCars, int firstId, int maxFloor, int maxOccupancy,
+                      boolean tallTower) {
+    if (numberOfCars < 1) {
+      throw new IllegalArgumentException("At least one elevator is required.");
+    }
+    Elevator.checkLimits(maxFloor, maxOccupancy, tallTower);
+
+    this.numberOfCars = numberOfCars;
+    this.maxFloor = maxFloor;
+    this.maxOccupancy = maxOccupancy;
+    this.wordsPerCar = FloorRequestSet.wordsFor(maxFloor);
+    this.ids = new int[numberOfCars];
+    this.currentFloor = new int[numberOfCars];
+    this.direction = new byte[numberOfCars];
+    this.doorTimer = new int[numberOfCars];
+    this.waitTimer = new int[numberOfCars];
+    this.closedFloor = new int[numberOfCars];
+    Arrays.fill(this.closedFloor, -1);
+    this.flags = new byte[numberOfCars];
+    this.floorRequests = new long[numberOfCars * this.wordsPerCar];
+    this.ridersOut = new int[numberOfCars * maxFloor];
+    this.views = new ElevatorInterface[numberOfCars];
+
+    for (int car = 0; car < numberOfCars; car++) {
+      this.ids[car] = firstId + car;
+      this.flags[car] = OUT_OF_SERVICE;
+      this.views[car] = new CarView(car);
+    }
+  }
+
+  /**
+   * Get the number of cars in the bank.
+   *
+   * @return the number of cars.
+   */
+  public int getNumberOfCars() {
+    return this.numberOfCars;
+  }
+
+  /**
+   * Get a view of one car that behaves like an elevator.
+   * The view reads and changes the arrays of the bank, it holds no state of its own.
+   *
+   * @param car the index of the car.
+   * @return the view of the car.
+   */
+  public ElevatorInterface getElevator(int car) {
+    return this.views[car];
+  }
+
+  /* ***********************************************************************
+   * Fleet wide operations.
+   * **********************************************************************/
+
+  /**
+   * Step a range of cars one step each.
+   *
+   * @param from the first car to step.
+   * @param to   one past the last car to step.
+   */
+  public void step(int from, int to) {
+    for (int car = from; car < to; car++) {
+      this.step(car);
+    }
+  }
+
+  /**
+   * Apply the same number of quiet steps to a range of cars.
+   *
+   * @param from  the first car to advance.
+   * @param to    one past the last car to advance.
+   * @param steps the number of steps, at most the quiet steps of every car in the range.
+   * @throws IllegalArgumentException if steps is negative or larger than the quiet steps.
+   */
+  public void advance(int from, int to, int steps) throws IllegalArgumentException {
+    for (int car = from; car < to; car++) {
+      this.advance(car, steps);
+    }
+  }
+
+  /* ***********************************************************************
+   * Per car operations, these follow Elevator line by line.
+   * **********************************************************************/
+
+  /**
+   * Start a car.
+   *
+   * @param car the index of the car.
+   */
+  void start(int car) {
+    this.flags[car] = TAKING_REQUESTS;
+    this.clearStopRequests(car);
+    this.doorTimer[car] = 0;
+    this.waitTimer[car] = STOP_WAIT_TIME_TOTAL;
+    this.direction[car] = UP;
+    this.closedFloor[car] = -1;
+  }
+
+  /**
+   * Take a car out of service.
+   *
+   * @param car the index of the car.
+   */
+  void takeOutOfService(int car) {
+    this.clearStopRequests(car);
+    this.flags[car] = (byte) ((this.flags[car] & DOOR_OPEN) | OUT_OF_SERVICE);
+    this.direction[car] = DOWN;
+    this.waitTimer[car] = 0;
+  }
+
+  /**
+   * Move a car one step.
+   *
+   * @param car the index of the car.
+   */
+  void step(int car) {
+    int flag = this.flags[car];
+    int floor = this.currentFloor[car];
+
+    if ((flag & OUT_OF_SERVICE) != 0) {
+      if (floor == 0) {
+        if ((flag & DOOR_OPEN) == 0) {
+          this.flags[car] = (byte) (flag | DOOR_OPEN);
+          this.clearRequest(car, 0);
+          this.direction[car] = STOPPED;
+        }
+      } else if ((flag & DOOR_OPEN) != 0) {
+        this.stepDoorOpen(car);
+      } else {
+        this.direction[car] = DOWN;
+        this.currentFloor[car] = floor - 1;
+        this.closedFloor[car] = -1;
+      }
+      return;
+    }
+
+    if ((flag & DOOR_OPEN) != 0) {
+      this.stepDoorOpen(car);
+      return;
+    }
+
+    if (this.waitTimer[car] > 0) {
+      if (--this.waitTimer[car] == 0) {
+        this.flags[car] = (byte) (flag & ~TAKING_REQUESTS);
+        if (floor == 0) {
+          this.direction[car] = UP;
+        } else if (floor == this.maxFloor - 1) {
+          this.direction[car] = DOWN;
+        }
+      }
+      return;
+    }
+
+    if (this.hasRequest(car, floor)) {
+      this.flags[car] = (byte) (flag | DOOR_OPEN);
+      this.doorTimer[car] = DOOR_OPEN_TIME_TOTAL;
+      this.clearRequest(car, floor);
+      this.ridersOut[car * this.maxFloor + floor] = 0;
+      return;
+    }
+
+    byte dir = this.direction[car];
+    if ((floor == 0 && dir == DOWN) || (floor == this.maxFloor - 1 && dir == UP)) {
+      this.direction[car] = STOPPED;
+      this.waitTimer[car] = STOP_WAIT_TIME_TOTAL;
+      this.flags[car] = (byte) (flag | TAKING_REQUESTS);
+      return;
+    }
+
+    if (dir == UP) {
+      this.currentFloor[car] = floor + 1;
+      this.closedFloor[car] = -1;
+    } else if (dir == DOWN) {
+      this.currentFloor[car] = floor - 1;
+      this.closedFloor[car] = -1;
+    }
+  }
+
+  /**
+   * Count down the door timer of a car and close the door when it runs out.
+   *
+   * @param car the index of the car.
+   */
+  private void stepDoorOpen(int car) {
+    if (--this.doorTimer[car] == 0) {
+      this.flags[car] &= ~DOOR_OPEN;
+      this.closedFloor[car] = this.currentFloor[car];
+    }
+  }
+
+  /**
+   * Get the number of steps until a car next changes state.
+   *
+   * @param car the index of the car.
+   * @return the number of quiet steps, Integer.MAX_VALUE if the car is idle.
+   */
+  int getStepsToNextEvent(int car) {
+    int flag = this.flags[car];
+    int floor = this.currentFloor[car];
+    boolean doorOpen = (flag & DOOR_OPEN) != 0;
+
+    if ((flag & OUT_OF_SERVICE) != 0) {
+      if (floor == 0) {
+        return doorOpen ? Integer.MAX_VALUE : 0;
+      }
+      return doorOpen ? Math.max(0, this.doorTimer[car] - 1) : floor;
+    }
+    if (doorOpen) {
+      return Math.max(0, this.doorTimer[car] - 1);
+    }
+    if (this.waitTimer[car] > 0) {
+      return this.waitTimer[car] - 1;
+    }
+    if (this.hasRequest(car, floor)) {
+      return 0;
+    }
+    if (this.direction[car] == UP) {
+      int next = this.nextRequestAbove(car, floor);
+      return (next < 0 ? this.maxFloor - 1 : next) - floor;
+    }
+    if (this.direction[car] == DOWN) {
+      int next = this.nextRequestBelow(car, floor);
+      return floor - Math.max(next, 0);
+    }
+    return Integer.MAX_VALUE;
+  }
+
+  /**
+   * Apply a number of quiet steps to a car at once.
+   *
+   * @param car   the index of the car.
+   * @param steps the number of steps, at most the quiet steps of the car.
+   * @throws IllegalArgumentException if steps is negative or larger than the quiet steps.
+   */
+  void advance(int car, int steps) throws IllegalArgumentException {
+    if (steps < 0 || steps > this.getStepsToNextEvent(car)) {
+      throw new IllegalArgumentException("Cannot advance the elevator " + steps + " steps.");
+    }
+    if (steps == 0) {
+      return;
+    }
+    int flag = this.flags[car];
+    if ((flag & OUT_OF_SERVICE) != 0) {
+      if (this.currentFloor[car] == 0) {
+        return;
+      }
+      if ((flag & DOOR_OPEN) != 0) {
+        this.doorTimer[car] -= steps;
+        return;
+      }
+      this.direction[car] = DOWN;
+      this.currentFloor[car] -= steps;
+      this.closedFloor[car] = -1;
+      return;
+    }
+
+    if ((flag & DOOR_OPEN) != 0) {
+      this.doorTimer[car] -= steps;
+    } else if (this.waitTimer[car] > 0) {
+      this.waitTimer[car] -= steps;
+    } else if (this.direction[car] == UP) {
+      this.currentFloor[car] += steps;
+      this.closedFloor[car] = -1;
+    } else if (this.direction[car] == DOWN) {
+      this.currentFloor[car] -= steps;
+      this.closedFloor[car] = -1;
+    }
+  }
+
+  /**
+   * Give a car the requests to serve on its next run.
+   *
+   * @param car      the index of the car.
+   * @param requests the requests to serve.
+   * @throws IllegalStateException if the car is not on the bottom or top floor.
+   */
+  void processRequests(int car, List<Request> requests) throws IllegalStateException {
+    int floor = this.currentFloor[car];
+    if (floor != 0 && floor != this.maxFloor - 1) {
+      throw new IllegalStateException("Elevator cannot process requests "
+          + "unless it is at the bottom or top floor.");
+    }
+    if (requests.isEmpty()) {
+      return;
+    }
+
+    this.clearStopRequests(car);
+    for (Request request : requests) {
+      this.setRequest(car, request.getStartFloor());
+      this.setRequest(car, request.getEndFloor());
+      this.ridersOut[car * this.maxFloor + request.getEndFloor()] += request.getPartySize();
+    }
+    this.waitTimer[car] = 0;
+    this.direction[car] = floor == 0 ? UP : DOWN;
+    this.flags[car] &= ~TAKING_REQUESTS;
+  }
+
+  /**
+   * Generate a report for a car.
+   *
+   * @param car the index of the car.
+   * @return the report of the car.
+   */
+  ElevatorReport getElevatorStatus(int car) {
+    int flag = this.flags[car];
+    return new ElevatorReport(this.ids[car], this.currentFloor[car], this.getDirection(car),
+        (flag & DOOR_OPEN) == 0, this.maxFloor,
+        FloorRequestSet.toFloors(this.floorRequests, car * this.wordsPerCar, this.wordsPerCar),
+        this.doorTimer[car], this.waitTimer[car], (flag & OUT_OF_SERVICE) != 0,
+        (flag & TAKING_REQUESTS) != 0);
+  }
+
+  /**
+   * Get the direction of a car.
+   *
+   * @param car the index of the car.
+   * @return the direction of the car.
+   */
+  Direction getDirection(int car) {
+    switch (this.direction[car]) {
+      case UP:
+        return Direction.UP;
+      case DOWN:
+        return Direction.DOWN;
+      default:
+        return Direction.STOPPED;
+    }
+  }
+
+  /**
+   * Get the stop requests of a car as one flag per floor.
+   *
+   * @param car the index of the car.
+   * @return true for every floor the car will stop at.
+   */
+  boolean[] getFloorRequests(int car) {
+    boolean[] requests = new boolean[this.maxFloor];
+    for (int floor = this.nextRequestAbove(car, -1); floor >= 0;
+        floor = this.nextRequestAbove(car, floor)) {
+      requests[floor] = true;
+    }
+    return requests;
+  }
+
+  /**
+   * Get the number of bytes the checkpoint state of a car takes.
+   * The state is the floor, the direction and flag codes, the door and wait timers, the floor
+   * the door last closed on, the parking floor, the words of the stop requests and the people
+   * the car lets out at every floor. A car of the bank never parks, it writes -1.
+   *
+   * @param maxFloor the total number of floors in the building.
+   * @return the size of the state in bytes.
+   */
+  static int stateSize(int maxFloor) {
+    return 2 + 5 * Integer.BYTES + FloorRequestSet.wordsFor(maxFloor) * Long.BYTES
+        + maxFloor * Integer.BYTES;
+  }
+
+  /**
+   * Check the scalar part of a checkpoint state read from a buffer.
+   *
+   * @param maxFloor  the total number of floors in the building.
+   * @param floor     the current floor.
+   * @param direction the direction code.
+   * @param flags     the flags.
+   * @param doorTimer the door timer.
+   * @param waitTimer the wait timer.
+   * @param closed    the floor the door last closed on, -1 for none.
+   * @param parking   the floor the car is going to park on, -1 for none.
+   * @throws IllegalArgumentException if a value is out of range.
+   */
+  static void checkState(int maxFloor, int floor, byte direction, byte flags, int doorTimer,
+                         int waitTimer, int closed, int parking)
+      throws IllegalArgumentException {
+    if (floor < 0 || floor >= maxFloor) {
+      throw new IllegalArgumentException("The floor of an elevator is out of range.");
+    }
+    if (direction < STOPPED || direction > DOWN) {
+      throw new IllegalArgumentException("The direction of an elevator is unknown.");
+    }
+    if ((flags & ~(DOOR_OPEN | OUT_OF_SERVICE | TAKING_REQUESTS)) != 0) {
+      throw new IllegalArgumentException("The flags of an elevator are unknown.");
+    }
+    if (doorTimer < 0 || waitTimer < 0) {
+      throw new IllegalArgumentException("The timers of an elevator should not be negative.");
+    }
+    if (closed < -1 || closed >= maxFloor) {
+      throw new IllegalArgumentException("The floor an elevator closed on is out of range.");
+    }
+    if (parking < -1 || parking >= maxFloor) {
+      throw new IllegalArgumentException("The parking floor of an elevator is out of range.");
+    }
+  }
+
+  /**
+   * Check the people a car lets out at every floor in a checkpoint state, after the words of
+   * the stop requests, without reading them.
+   *
+   * @param maxFloor the total number of floors in the building.
+   * @param buffer   the buffer positioned at the words of the stop requests.
+   * @return the number of people in the car.
+   * @throws IllegalArgumentException if a number of people is negative.
+   */
+  static int checkRidersOut(int maxFloor, ByteBuffer buffer) throws IllegalArgumentException {
+    int at = buffer.position() + FloorRequestSet.wordsFor(maxFloor) * Long.BYTES;
+    long people = 0;
+    for (int floor = 0; floor < maxFloor; floor++) {
+      int out = buffer.getInt(at + floor * Integer.BYTES);
+      if (out < 0) {
+        throw new IllegalArgumentException("The riders of an elevator should not be negative.");
+      }
+      people += out;
+    }
+    if (people > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("An elevator has too many riders.");
+    }
+    return (int) people;
+  }
+
+  /**
+   * Write the checkpoint state of a car.
+   *
+   * @param car    the index of the car.
+   * @param buffer the buffer to write to.
+   */
+  void writeState(int car, ByteBuffer buffer) {
+    buffer.putInt(this.currentFloor[car]);
+    buffer.put(this.direction[car]);
+    buffer.put(this.flags[car]);
+    buffer.putInt(this.doorTimer[car]);
+    buffer.putInt(this.waitTimer[car]);
+    buffer.putInt(this.closedFloor[car]);
+    buffer.putInt(-1);
+    FloorRequestSet.write(this.floorRequests, car * this.wordsPerCar, this.wordsPerCar, buffer);
+    for (int floor = 0; floor < this.maxFloor; floor++) {
+      buffer.putInt(this.ridersOut[car * this.maxFloor + floor]);
+    }
+  }
+
+  /**
+   * Replace the state of a car with a checkpoint state.
+   *
+   * @param car    the index of the car.
+   * @param buffer the buffer to read from.
+   * @throws IllegalArgumentException if the state is not valid for the car.
+   */
+  void readState(int car, ByteBuffer buffer) throws IllegalArgumentException {
+    int floor = buffer.getInt();
+    byte dir = buffer.get();
+    byte flag = buffer.get();
+    int door = buffer.getInt();
+    int wait = buffer.getInt();
+    int closed = buffer.getInt();
+    int parking = buffer.getInt();
+    checkState(this.maxFloor, floor, dir, flag, door, wait, closed, parking);
+    if (parking >= 0) {
+      throw new IllegalArgumentException("A car of the bank cannot park.");
+    }
+    checkRidersOut(this.maxFloor, buffer);
+    FloorRequestSet.read(this.floorRequests, car * this.wordsPerCar, this.maxFloor, buffer);
+    for (int f = 0; f < this.maxFloor; f++) {
+      this.ridersOut[car * this.maxFloor + f] = buffer.getInt();
+    }
+    this.currentFloor[car] = floor;
+    this.direction[car] = dir;
+    this.flags[car] = flag;
+    this.doorTimer[car] = door;
+    this.waitTimer[car] = wait;
+    this.closedFloor[car] = closed;
+  }
+
+  /* ***********************************************************************
+   * The packed request bitmap.
+   * **********************************************************************/
+
+  private boolean hasRequest(int car, int floor) {
+    return FloorRequestSet.contains(this.floorRequests, car * this.wordsPerCar, floor);
+  }
+
+  private void setRequest(int car, int floor) {
+    FloorRequestSet.add(this.floorRequests, car * this.wordsPerCar, floor);
+  }
+
+  private void clearRequest(int car, int floor) {
+    FloorRequestSet.remove(this.floorRequests, car * this.wordsPerCar, floor);
+  }
+
+  private void clearStopRequests(int car) {
+    int base = car * this.wordsPerCar;
+    Arrays.fill(this.floorRequests, base, base + this.wordsPerCar, 0L);
+    Arrays.fill(this.ridersOut, car * this.maxFloor, (car + 1) * this.maxFloor, 0);
+  }
+
+  /**
+   * Find the lowest requested floor of a car above the given floor.
+   *
+   * @param car   the index of the car.
+   * @param floor the floor to look above.
+   * @return the requested floor, -1 if there is none.
+   */
+  private int nextRequestAbove(int car, int floor) {
+    return FloorRequestSet.nextAbove(this.floorRequests, car * this.wordsPerCar,
+        this.wordsPerCar, floor);
+  }
+
+  /**
+   * Find the highest requested floor of a car below the given floor.
+   *
+   * @param car   the index of the car.
+   * @param floor the floor to look below.
+   * @return the requested floor, -1 if there is none.
+   */
+  private int nextRequestBelow(int car, int floor) {
+    return FloorRequestSet.nextBelow(this.floorRequests, car * this.wordsPerCar, floor);
+  }
+
+  /**
+   * A view of one car of the bank that behaves like an elevator.
+   */
+  private final class CarView implements ElevatorInterface {
+    private final int car;
+
+    /**
+     * The constructor for the view.
+     *
+     * @param car the index of the car in the bank.
+     */
+    private CarView(int car) {
+      this.car = car;
+    }
+
+    @Override
+    public int getElevatorId() {
+      return ids[this.car];
+    }
+
+    @Override
+    public int getMaxFloor() {
+      return maxFloor;
+    }
+
+    @Override
+    public int getLowestFloor() {
+      return 0;
+    }
+
+    @Override
+    public int getHighestFloor() {
+      return maxFloor - 1;
+    }
+
+    @Override
+    public void setServedFloors(int lowestFloor, int highestFloor)
+        throws IllegalStateException {
+      if (lowestFloor != 0 || highestFloor != maxFloor - 1) {
+        throw new IllegalStateException("The bank engine serves every floor.");
+      }
+    }
+
+    @Override
+    public int getMaxOccupancy() {
+      return maxOccupancy;
+    }
+
+    @Override
+    public int getCurrentFloor() {
+      return currentFloor[this.car];
+    }
+
+    @Override
+    public Direction getDirection() {
+      return ElevatorBank.this.getDirection(this.car);
+    }
+
+    @Override
+    public boolean isDoorClosed() {
+      return (flags[this.car] & DOOR_OPEN) == 0;
+    }
+
+    @Override
+    public boolean[] getFloorRequests() {
+      return ElevatorBank.this.getFloorRequests(this.car);
+    }
+
+    @Override
+    public void start() {
+      ElevatorBank.this.start(this.car);
+    }
+
+    @Override
+    public void takeOutOfService() {
+      ElevatorBank.this.takeOutOfService(this.car);
+    }
+
+    @Override
+    public void step() {
+      ElevatorBank.this.step(this.car);
+    }
+
+    @Override
+    public int getStepsToNextEvent() {
+      return ElevatorBank.this.getStepsToNextEvent(this.car);
+    }
+
+    @Override
+    public void advance(int steps) throws IllegalArgumentException {
+      ElevatorBank.this.advance(this.car, steps);
+    }
+
+    @Override
+    public void processRequests(List<Request> requests) throws IllegalStateException {
+      ElevatorBank.this.processRequests(this.car, requests);
+    }
+
+    @Override
+    public void setLook(boolean look) throws IllegalStateException {
+      if (look) {
+        throw new IllegalStateException("The bank engine only runs to the end of the shaft.");
+      }
+    }
+
+    @Override
+    public boolean canTakeRequests(Direction direction) {
+      if (!this.isTakingRequests()) {
+        return false;
+      }
+      return direction == Direction.UP ? currentFloor[this.car] == 0
+          : direction == Direction.DOWN && currentFloor[this.car] == maxFloor - 1;
+    }
+
+    @Override
+    public boolean isLook() {
+      return false;
+    }
+
+    @Override
+    public int getDoorOpenTime() {
+      return DOOR_OPEN_TIME_TOTAL;
+    }
+
+    @Override
+    public int getEndWaitTime() {
+      return STOP_WAIT_TIME_TOTAL;
+    }
+
+    @Override
+    public boolean isIdle() {
+      return false;
+    }
+
+    @Override
+    public int getParkingFloor() {
+      return -1;
+    }
+
+    @Override
+    public void park(int floor) throws IllegalStateException {
+      throw new IllegalStateException("The bank engine only runs to the end of the shaft.");
+    }
+
+    @Override
+    public void holdDoor(int steps) throws IllegalArgumentException, IllegalStateException {
+      if (steps < 0) {
+        throw new IllegalArgumentException("Cannot hold the door " + steps + " steps.");
+      }
+      if ((flags[this.car] & DOOR_OPEN) == 0) {
+        throw new IllegalStateException("Elevator cannot hold a closed door.");
+      }
+      doorTimer[this.car] += steps;
+    }
+
+    @Override
+    public void setReopenExtension(int steps) throws IllegalArgumentException,
+        IllegalStateException {
+      if (steps < 0) {
+        throw new IllegalArgumentException("Reopen extension should not be negative.");
+      }
+      if (steps > 0) {
+        throw new IllegalStateException("The bank engine opens every door for the same time.");
+      }
+    }
+
+    @Override
+    public boolean canPickUp(Request request) {
+      return false;
+    }
+
+    @Override
+    public int getPickUpCapacity() {
+      return 0;
+    }
+
+    @Override
+    public void pickUp(List<Request> requests) throws IllegalStateException {
+      throw new IllegalStateException("The bank engine only takes requests at the ends.");
+    }
+
+    @Override
+    public int getStateSize() {
+      return stateSize(maxFloor);
+    }
+
+    @Override
+    public void writeState(ByteBuffer buffer) {
+      ElevatorBank.this.writeState(this.car, buffer);
+    }
+
+    @Override
+    public void readState(ByteBuffer buffer) throws IllegalArgumentException {
+      ElevatorBank.this.readState(this.car, buffer);
+    }
+
+    @Override
+    public boolean isTakingRequests() {
+      return (flags[this.car] & TAKING_REQUESTS) != 0;
+    }
+
+    @Override
+    public ElevatorReport getElevatorStatus() {
+      return ElevatorBank.this.getElevatorStatus(this.car);
+    }
+
+    @Override
+    public String toString() {
+      return this.getElevatorStatus().toString();
+    }
+  }
+}
@@ -1,117 +1,143 @@
 package elevator;
 
-import building.enums.Direction;
+import java.nio.ByteBuffer;
 import java.util.List;
 import scanerzus.Request;
 
 
 /**
  * An interface for an elevator.
+ * The methods that only read the elevator are in ElevatorState.
  */
-public interface ElevatorInterface {
+public interface ElevatorInterface extends ElevatorState {
 
   /**
-   * ElevatorStatus ID getter.
-   *
-   * @return the elevator ID as a string.
+   * start elevator.
+   * This will start the elevator if the elevator is on the ground floor.
+   * This means the elevator will accept requests and will start its up and down routine.
    */
-  int getElevatorId();
+  void start();
+
 
   /**
-   * Returns the maximum number of floors the elevator can go to.
-   *
-   * @return the maximum number of floors the elevator can go to.
+   * Take out of service.
    */
-  int getMaxFloor();
-
+  void takeOutOfService();
 
   /**
-   * maxOccupancy getter
-   * Notice that it is not the responsibility of the elevator to
-   * keep track of the people in the elevator.
-   *
-   * @return the maximum number of people that can fit in the elevator.
+   * Moves the elevator by one floor.
+   * The elevator is going to move by one floor in the direction it is currently moving.
+   * If the elevator is stopped, it will not move.
+   * If the elevator arrives at a floor where it is supposed to stop then it will open
+   * its doors and let people out.
+   * The elevator will stop for 3 steps then it will close its doors and move on.
+   * If the elevator arrives at the top floor, it will wait for 5 steps then go down.
+   * If the elevator arrives at the bottom floor, it will wait for 5 steps then go up.
    */
-  int getMaxOccupancy();
+  void step();
 
   /**
-   * Returns the current floor of the elevator.
+   * Apply a number of quiet steps at once.
+   * The elevator ends up in the same state as if step() had been called that many times.
    *
-   * @return the current floor of the elevator.
+   * @param steps the number of steps to apply, at most getStepsToNextEvent().
+   * @throws IllegalArgumentException if steps is negative or larger than the quiet steps.
    */
-
-  int getCurrentFloor();
-
+  void advance(int steps) throws IllegalArgumentException;
 
   /**
-   * Returns the direction the elevator is moving in.
+   * processUpRequests.
+   * This will tell the elevator to process these upRequests on the next run.
+   * These are only accepted when the elevator is at the bottom floor.
    *
-   * @return the direction the elevator is moving in.
+   * @param requests the request to add to the elevator.
    */
-  Direction getDirection();
+  void processRequests(List<Request> requests) throws IllegalArgumentException;
 
   /**
-   * Returns the door status of the elevator.
+   * Turn LOOK mode on or off.
+   * In LOOK mode the elevator turns at its last stop instead of at the end of the shaft,
+   * and waits for requests wherever it runs out of stops.
    *
-   * @return the door status of the elevator.
+   * @param look true for LOOK mode, false to run to the end of the shaft.
+   * @throws IllegalStateException if the elevator cannot run in LOOK mode.
    */
-  boolean isDoorClosed();
+  void setLook(boolean look) throws IllegalStateException;
 
   /**
-   * Return the current stop requests.
+   * Set the floors the elevator serves, the ends of its run.
+   * This should be done before the elevator is started.
    *
-   * @return the current stop requests.
+   * @param lowestFloor  the lowest floor served.
+   * @param highestFloor the highest floor served, above the lowest floor.
+   * @throws IllegalArgumentException if the floors are not in the building.
+   * @throws IllegalStateException    if the elevator can only serve every floor.
    */
-  boolean[] getFloorRequests();
+  void setServedFloors(int lowestFloor, int highestFloor)
+      throws IllegalArgumentException, IllegalStateException;
 
   /**
-   * start elevator.
-   * This will start the elevator if the elevator is on the ground floor.
-   * This means the elevator will accept requests and will start its up and down routine.
+   * Pick up riders on the way, keeping the stops the elevator already has.
+   * Every request must be one the elevator can pick up.
+   *
+   * @param requests the requests to add to the elevator.
+   * @throws IllegalStateException if the elevator cannot pick up the requests.
    */
-  void start();
-
+  void pickUp(List<Request> requests) throws IllegalStateException;
 
   /**
-   * Take out of service.
+   * Send an idle or parking elevator to a floor to wait there for requests.
+   *
+   * @param floor the floor to wait on.
+   * @throws IllegalArgumentException if the floor is not in the building.
+   * @throws IllegalStateException    if the elevator is neither idle nor parking.
    */
-  void takeOutOfService();
+  void park(int floor) throws IllegalArgumentException, IllegalStateException;
 
   /**
-   * Moves the elevator by one floor.
-   * The elevator is going to move by one floor in the direction it is currently moving.
-   * If the elevator is stopped, it will not move.
-   * If the elevator arrives at a floor where it is supposed to stop then it will open
-   * its doors and let people out.
-   * The elevator will stop for 3 steps then it will close its doors and move on.
-   * If the elevator arrives at the top floor, it will wait for 5 steps then go down.
-   * If the elevator arrives at the bottom floor, it will wait for 5 steps then go up.
+   * Keep the door open for more steps while riders get in and out.
+   *
+   * @param steps the number of steps to add to the door timer.
+   * @throws IllegalArgumentException if steps is negative.
+   * @throws IllegalStateException    if the door is closed.
    */
-  void step();
+  void holdDoor(int steps) throws IllegalArgumentException, IllegalStateException;
 
   /**
-   * processUpRequests.
-   * This will tell the elevator to process these upRequests on the next run.
-   * These are only accepted when the elevator is at the bottom floor.
+   * Set how much longer the door stays open when it opens again on the floor where it last
+   * closed, without the elevator moving in between.
    *
-   * @param requests the request to add to the elevator.
+   * @param steps the number of steps added to the door time of a reopened door, 0 for none.
+   * @throws IllegalArgumentException if steps is negative.
+   * @throws IllegalStateException    if the elevator cannot keep a reopened door open longer.
    */
-  void processRequests(List<Request> requests) throws IllegalArgumentException;
+  void setReopenExtension(int steps) throws IllegalArgumentException, IllegalStateException;
 
 
   /**
-   * isTakingRequests.
-   * This will tell the building if the elevator is taking requests.
+   * Get the number of bytes the state of the elevator takes in a checkpoint.
+   * The size only depends on the number of floors.
    *
-   * @return true if the elevator is taking requests, false otherwise.
+   * @return the size of the state in bytes.
    */
-  boolean isTakingRequests();
+  int getStateSize();
 
   /**
-   * This method is used to get the elevator status ElevatorReport.
+   * Write the state of the elevator to a checkpoint.
+   * The state is the current floor, the direction, the door, service and request flags,
+   * the door and wait timers, the floor the door last closed on, the parking floor, the stop
+   * requests and the people it lets out at every floor, in the same layout for every engine.
    *
-   * @return the elevator status.
+   * @param buffer the buffer to write to, with getStateSize() bytes remaining.
    */
-  ElevatorReport getElevatorStatus();
+  void writeState(ByteBuffer buffer);
 
+  /**
+   * Replace the state of the elevator with a state read from a checkpoint.
+   * Nothing is changed if the state is not valid for this elevator.
+   *
+   * @param buffer the buffer to read from, with getStateSize() bytes remaining.
+   * @throws IllegalArgumentException if the state is not valid for this elevator.
+   */
+  void readState(ByteBuffer buffer) throws IllegalArgumentException;
 }
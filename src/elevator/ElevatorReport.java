@@ -1,15 +1,19 @@
 package elevator;
 
 import building.enums.Direction;
+import java.util.Arrays;
 
 /**
  * This class is used to represent the status of the elevators.
+ * Only the floors the elevator will stop at are kept, so a report of a car in a tall
+ * tower is as small as one in a low building.
  */
 public class ElevatorReport {
   private final int elevatorId;
   private final int currentFloor;
   private final boolean doorClosed;
-  private final boolean[] floorRequests;
+  private final int numberOfFloors;
+  private final int[] stops;
   private final Direction direction;
 
   private final int doorOpenTimer;
@@ -39,6 +43,34 @@ public class ElevatorReport {
                         boolean doorClosed,
                         boolean[] floorRequests,
 
+                        int doorOpenTimer,
+                        int endWaitTimer,
+                        boolean outOfService,
+                        boolean isTakingRequests) {
+    this(elevatorId, currentFloor, direction, doorClosed, floorRequests.length,
+        toStops(floorRequests), doorOpenTimer, endWaitTimer, outOfService, isTakingRequests);
+  }
+
+  /**
+   * This constructor is used to create a new ElevatorReport object from the stops only.
+   *
+   * @param elevatorId       The id of the elevator.
+   * @param currentFloor     The current floor of the elevator.
+   * @param direction        The direction of the elevator.
+   * @param doorClosed       The status of the door.
+   * @param numberOfFloors   The number of floors the elevator serves.
+   * @param stops            The floors the elevator will stop at, in increasing order.
+   * @param doorOpenTimer    The timer for the door.
+   * @param endWaitTimer     The timer for the end of the run.
+   * @param outOfService     The status of the elevator.
+   * @param isTakingRequests Is the elevator taking requests.
+   */
+  public ElevatorReport(int elevatorId,
+                        int currentFloor,
+                        Direction direction,
+                        boolean doorClosed,
+                        int numberOfFloors,
+                        int[] stops,
                         int doorOpenTimer,
                         int endWaitTimer,
                         boolean outOfService,
@@ -46,7 +78,8 @@ public class ElevatorReport {
     this.elevatorId = elevatorId;
     this.currentFloor = currentFloor;
     this.doorClosed = doorClosed;
-    this.floorRequests = floorRequests;
+    this.numberOfFloors = numberOfFloors;
+    this.stops = stops;
     this.direction = direction;
     this.doorOpenTimer = doorOpenTimer;
     this.endWaitTimer = endWaitTimer;
@@ -84,15 +117,50 @@ public class ElevatorReport {
     return doorClosed;
   }
 
+  /**
+   * Convert one flag per floor into the floors that are flagged.
+   *
+   * @param floorRequests the requests for the floors.
+   * @return the requested floors in increasing order.
+   */
+  private static int[] toStops(boolean[] floorRequests) {
+    int count = 0;
+    for (boolean floorRequest : floorRequests) {
+      if (floorRequest) {
+        count++;
+      }
+    }
+    int[] stops = new int[count];
+    for (int floor = 0, i = 0; floor < floorRequests.length; floor++) {
+      if (floorRequests[floor]) {
+        stops[i++] = floor;
+      }
+    }
+    return stops;
+  }
+
   /**
    * This method is used to get the requests for the floors.
    *
-   * @return The requests for the floors.
+   * @return The requests for the floors, one flag per floor.
    */
   public boolean[] getFloorRequests() {
+    boolean[] floorRequests = new boolean[this.numberOfFloors];
+    for (int stop : this.stops) {
+      floorRequests[stop] = true;
+    }
     return floorRequests;
   }
 
+  /**
+   * This method is used to get the floors the elevator will stop at.
+   *
+   * @return The requested floors in increasing order.
+   */
+  public int[] getStops() {
+    return stops.clone();
+  }
+
   /**
    * This method is used to get the direction of the elevator.
    *
@@ -169,9 +237,10 @@ public class ElevatorReport {
       sb.append(String.format("O %d]<", this.doorOpenTimer));
     }
 
-    for (int i = 0; i < this.floorRequests.length; i++) {
-      if (this.floorRequests[i]) {
-        sb.append(String.format(" %2d", i));
+    for (int floor = 0, i = 0; floor < this.numberOfFloors; floor++) {
+      if (i < this.stops.length && this.stops[i] == floor) {
+        sb.append(String.format(" %2d", floor));
+        i++;
       } else {
         sb.append(" --");
       }
@@ -220,12 +289,10 @@ public class ElevatorReport {
     if (this.isTakingRequests != that.isTakingRequests) {
       return false;
     }
-    for (int i = 0; i < this.floorRequests.length; i++) {
-      if (this.floorRequests[i] != that.floorRequests[i]) {
-        return false;
-      }
+    if (this.numberOfFloors != that.numberOfFloors) {
+      return false;
     }
-    return true;
+    return Arrays.equals(this.stops, that.stops);
   }
 
   /**
@@ -242,9 +309,8 @@ public class ElevatorReport {
     result = 31 * result + (this.outOfService ? 1 : 0);
     result = 31 * result + (this.isTakingRequests ? 1 : 0);
     result = 31 * result + this.direction.hashCode();
-    for (boolean floorRequest : this.floorRequests) {
-      result = 31 * result + (floorRequest ? 1 : 0);
-    }
+    result = 31 * result + this.numberOfFloors;
+    result = 31 * result + Arrays.hashCode(this.stops);
     return result;
   }
 }
@@ -0,0 +1,171 @@
+package elevator;
+
+import building.enums.Direction;
+import scanerzus.Request;
+
+
+/**
+ * The read-only view of an elevator.
+ * A dispatch strategy only gets to see elevators through this interface.
+ */
+public interface ElevatorState {
+
+  /**
+   * ElevatorStatus ID getter.
+   *
+   * @return the elevator ID as a string.
+   */
+  int getElevatorId();
+
+  /**
+   * Returns the maximum number of floors the elevator can go to.
+   *
+   * @return the maximum number of floors the elevator can go to.
+   */
+  int getMaxFloor();
+
+  /**
+   * Returns the lowest floor the elevator serves.
+   *
+   * @return the lowest floor, 0 unless the elevator belongs to a zone.
+   */
+  int getLowestFloor();
+
+  /**
+   * Returns the highest floor the elevator serves.
+   *
+   * @return the highest floor, the top floor unless the elevator belongs to a zone.
+   */
+  int getHighestFloor();
+
+
+  /**
+   * maxOccupancy getter
+   * Notice that it is not the responsibility of the elevator to
+   * keep track of the people in the elevator.
+   *
+   * @return the maximum number of people that can fit in the elevator.
+   */
+  int getMaxOccupancy();
+
+  /**
+   * Returns the current floor of the elevator.
+   *
+   * @return the current floor of the elevator.
+   */
+
+  int getCurrentFloor();
+
+
+  /**
+   * Returns the direction the elevator is moving in.
+   *
+   * @return the direction the elevator is moving in.
+   */
+  Direction getDirection();
+
+  /**
+   * Returns the door status of the elevator.
+   *
+   * @return the door status of the elevator.
+   */
+  boolean isDoorClosed();
+
+  /**
+   * Return the current stop requests.
+   *
+   * @return the current stop requests.
+   */
+  boolean[] getFloorRequests();
+
+  /**
+   * Get the number of steps until the elevator next changes state.
+   * During these steps a call to step() only counts a door or wait timer down
+   * or moves the elevator past floors where it does not stop, so they can be
+   * skipped with advance().
+   *
+   * @return the number of quiet steps, Integer.MAX_VALUE if the elevator is idle.
+   */
+  int getStepsToNextEvent();
+
+
+  /**
+   * isTakingRequests.
+   * This will tell the building if the elevator is taking requests.
+   *
+   * @return true if the elevator is taking requests, false otherwise.
+   */
+  boolean isTakingRequests();
+
+  /**
+   * Check if the elevator can be handed requests that go in a direction now.
+   * An elevator that runs to the end of the shaft takes up requests on the ground floor and
+   * down requests on the top floor, one in LOOK mode takes both wherever it waits.
+   *
+   * @param direction the direction of the requests.
+   * @return true if the elevator takes the requests, false otherwise.
+   */
+  boolean canTakeRequests(Direction direction);
+
+  /**
+   * Check if the elevator turns at its last stop instead of at the end of the shaft.
+   *
+   * @return true in LOOK mode, false otherwise.
+   */
+  boolean isLook();
+
+  /**
+   * Get the number of steps the door stays open at a stop.
+   *
+   * @return the number of steps.
+   */
+  int getDoorOpenTime();
+
+  /**
+   * Get the number of steps the elevator waits at the end of the shaft.
+   *
+   * @return the number of steps.
+   */
+  int getEndWaitTime();
+
+  /**
+   * Check if the elevator waits for requests with nothing to do.
+   * Only an elevator in LOOK mode waits away from the ends of the shaft, so only such an
+   * elevator is ever idle; one that runs to the end of the shaft keeps going round.
+   *
+   * @return true if the elevator is idle, false otherwise.
+   */
+  boolean isIdle();
+
+  /**
+   * Get the floor the elevator is parking on.
+   *
+   * @return the floor, -1 if the elevator is not parking.
+   */
+  int getParkingFloor();
+
+  /**
+   * Check if the elevator can pick a rider up on its way.
+   * A moving elevator picks up riders that start ahead of it and go the way it is going,
+   * as long as it has room for their whole party.
+   *
+   * @param request the request of the rider.
+   * @return true if the elevator can pick the rider up, false otherwise.
+   */
+  boolean canPickUp(Request request);
+
+  /**
+   * Get the number of people the elevator can still pick up on its way.
+   * Every party handed to the elevator counts until it gets out, whether it got on or not.
+   *
+   * @return the number of people, 0 if the elevator is not on its way or is full.
+   */
+  int getPickUpCapacity();
+
+  /**
+   * This method is used to get the elevator status ElevatorReport.
+   *
+   * @return the elevator status.
+   */
+  ElevatorReport getElevatorStatus();
+}
@@ -0,0 +1,331 @@
+package elevator;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A set of requested floors packed 64 floors to a word.
+ * Finding the next stop above or below a floor looks at one word at a time with
+ * Long.numberOfTrailingZeros and Long.numberOfLeadingZeros, and clearing the set is one
+ * store per word, so none of the operations walk the floors one by one.
+ */
+public class FloorRequestSet {
+  private final int numberOfFloors;
+  private final long[] words;
+
+  /**
+   * The constructor for an empty set.
+   *
+   * @param numberOfFloors the number of floors the set can hold, must be at least 1.
+   * @throws IllegalArgumentException if the number of floors is less than 1.
+   */
+  public FloorRequestSet(int numberOfFloors) {
+    if (numberOfFloors < 1) {
+      throw new IllegalArgumentException("Number of floors should be larger or equals to 1");
+    }
+    this.numberOfFloors = numberOfFloors;
+    this.words = new long[wordsFor(numberOfFloors)];
+  }
+
+  /**
+   * Get the number of floors the set can hold.
+   *
+   * @return the number of floors.
+   */
+  public int getNumberOfFloors() {
+    return this.numberOfFloors;
+  }
+
+  /**
+   * Check if a floor is requested.
+   *
+   * @param floor the floor to check.
+   * @return true if the floor is requested, false otherwise.
+   */
+  public boolean contains(int floor) {
+    return contains(this.words, 0, floor);
+  }
+
+  /**
+   * Request a floor.
+   *
+   * @param floor the floor to request.
+   */
+  public void add(int floor) {
+    add(this.words, 0, floor);
+  }
+
+  /**
+   * Remove the request for a floor.
+   *
+   * @param floor the floor to remove.
+   */
+  public void remove(int floor) {
+    remove(this.words, 0, floor);
+  }
+
+  /**
+   * Remove all requests.
+   */
+  public void clear() {
+    Arrays.fill(this.words, 0L);
+  }
+
+  /**
+   * Check if there are no requested floors.
+   *
+   * @return true if no floor is requested, false otherwise.
+   */
+  public boolean isEmpty() {
+    return isEmpty(this.words, 0, this.words.length);
+  }
+
+  /**
+   * Count the requested floors.
+   *
+   * @return the number of requested floors.
+   */
+  public int size() {
+    int size = 0;
+    for (long word : this.words) {
+      size += Long.bitCount(word);
+    }
+    return size;
+  }
+
+  /**
+   * Find the lowest requested floor above a floor.
+   *
+   * @param floor the floor to look above.
+   * @return the requested floor, -1 if there is none.
+   */
+  public int nextAbove(int floor) {
+    return nextAbove(this.words, 0, this.words.length, floor);
+  }
+
+  /**
+   * Find the highest requested floor below a floor.
+   *
+   * @param floor the floor to look below.
+   * @return the requested floor, -1 if there is none.
+   */
+  public int nextBelow(int floor) {
+    return nextBelow(this.words, 0, floor);
+  }
+
+  /**
+   * Get the requests as one flag per floor.
+   *
+   * @return a new array with true for every requested floor.
+   */
+  public boolean[] toArray() {
+    boolean[] floors = new boolean[this.numberOfFloors];
+    for (int floor = this.nextAbove(-1); floor >= 0; floor = this.nextAbove(floor)) {
+      floors[floor] = true;
+    }
+    return floors;
+  }
+
+  /**
+   * Get the requested floors.
+   *
+   * @return a new array with the requested floors in increasing order.
+   */
+  public int[] toFloors() {
+    return toFloors(this.words, 0, this.words.length);
+  }
+
+  /**
+   * Write the set to a buffer as its words.
+   *
+   * @param buffer the buffer to write to.
+   */
+  void writeTo(ByteBuffer buffer) {
+    write(this.words, 0, this.words.length, buffer);
+  }
+
+  /**
+   * Replace the set with words read from a buffer.
+   *
+   * @param buffer the buffer to read from.
+   * @throws IllegalArgumentException if a floor outside the set is requested.
+   */
+  void readFrom(ByteBuffer buffer) throws IllegalArgumentException {
+    read(this.words, 0, this.numberOfFloors, buffer);
+  }
+
+  /* ***********************************************************************
+   * The word operations, shared with the packed bitmap of ElevatorBank.
+   * A set starts at word offset of the array and floor f is bit f % 64 of
+   * word offset + f / 64.
+   * **********************************************************************/
+
+  /**
+   * Get the number of words needed for a number of floors.
+   *
+   * @param numberOfFloors the number of floors.
+   * @return the number of words.
+   */
+  static int wordsFor(int numberOfFloors) {
+    return (numberOfFloors + 63) >>> 6;
+  }
+
+  /**
+   * Check if a bit is set.
+   *
+   * @param words  the words of the set.
+   * @param offset the first word of the set.
+   * @param floor  the floor to check.
+   * @return true if the floor is set, false otherwise.
+   */
+  static boolean contains(long[] words, int offset, int floor) {
+    return (words[offset + (floor >>> 6)] & (1L << floor)) != 0;
+  }
+
+  /**
+   * Set a bit.
+   *
+   * @param words  the words of the set.
+   * @param offset the first word of the set.
+   * @param floor  the floor to set.
+   */
+  static void add(long[] words, int offset, int floor) {
+    words[offset + (floor >>> 6)] |= 1L << floor;
+  }
+
+  /**
+   * Clear a bit.
+   *
+   * @param words  the words of the set.
+   * @param offset the first word of the set.
+   * @param floor  the floor to clear.
+   */
+  static void remove(long[] words, int offset, int floor) {
+    words[offset + (floor >>> 6)] &= ~(1L << floor);
+  }
+
+  /**
+   * Check if no bit is set.
+   *
+   * @param words  the words of the set.
+   * @param offset the first word of the set.
+   * @param length the number of words of the set.
+   * @return true if no floor is set, false otherwise.
+   */
+  static boolean isEmpty(long[] words, int offset, int length) {
+    for (int word = offset; word < offset + length; word++) {
+      if (words[word] != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Get the set bits as floors.
+   *
+   * @param words  the words of the set.
+   * @param offset the first word of the set.
+   * @param length the number of words of the set.
+   * @return the floors in increasing order.
+   */
+  static int[] toFloors(long[] words, int offset, int length) {
+    int count = 0;
+    for (int word = offset; word < offset + length; word++) {
+      count += Long.bitCount(words[word]);
+    }
+    int[] floors = new int[count];
+    int i = 0;
+    for (int floor = nextAbove(words, offset, length, -1); floor >= 0;
+         floor = nextAbove(words, offset, length, floor)) {
+      floors[i++] = floor;
+    }
+    return floors;
+  }
+
+  /**
+   * Write the words of a set to a buffer.
+   *
+   * @param words  the words of the set.
+   * @param offset the first word of the set.
+   * @param length the number of words of the set.
+   * @param buffer the buffer to write to.
+   */
+  static void write(long[] words, int offset, int length, ByteBuffer buffer) {
+    for (int word = offset; word < offset + length; word++) {
+      buffer.putLong(words[word]);
+    }
+  }
+
+  /**
+   * Read the words of a set from a buffer.
+   * Nothing is changed if the words request a floor the set cannot hold.
+   *
+   * @param words          the words of the set.
+   * @param offset         the first word of the set.
+   * @param numberOfFloors the number of floors the set can hold.
+   * @param buffer         the buffer to read from.
+   * @throws IllegalArgumentException if a floor outside the set is requested.
+   */
+  static void read(long[] words, int offset, int numberOfFloors, ByteBuffer buffer)
+      throws IllegalArgumentException {
+    int length = wordsFor(numberOfFloors);
+    int unused = (length << 6) - numberOfFloors;
+    long last = buffer.getLong(buffer.position() + (length - 1) * Long.BYTES);
+    if (unused > 0 && (last >>> (64 - unused)) != 0) {
+      throw new IllegalArgumentException("A floor request is above the top floor.");
+    }
+    for (int word = offset; word < offset + length; word++) {
+      words[word] = buffer.getLong();
+    }
+  }
+
+  /**
+   * Find the lowest set bit above a floor.
+   *
+   * @param words  the words of the set.
+   * @param offset the first word of the set.
+   * @param length the number of words of the set.
+   * @param floor  the floor to look above, -1 to look from the ground floor.
+   * @return the floor, -1 if there is none.
+   */
+  static int nextAbove(long[] words, int offset, int length, int floor) {
+    int from = floor + 1;
+    int word = from >>> 6;
+    if (word >= length) {
+      return -1;
+    }
+    long bits = words[offset + word] & (-1L << from);
+    while (bits == 0) {
+      if (++word == length) {
+        return -1;
+      }
+      bits = words[offset + word];
+    }
+    return (word << 6) + Long.numberOfTrailingZeros(bits);
+  }
+
+  /**
+   * Find the highest set bit below a floor.
+   *
+   * @param words  the words of the set.
+   * @param offset the first word of the set.
+   * @param floor  the floor to look below.
+   * @return the floor, -1 if there is none.
+   */
+  static int nextBelow(long[] words, int offset, int floor) {
+    if (floor <= 0) {
+      return -1;
+    }
+    int from = floor - 1;
+    int word = from >>> 6;
+    long bits = words[offset + word] & (-1L >>> (63 - (from & 63)));
+    while (bits == 0) {
+      if (--word < 0) {
+        return -1;
+      }
+      bits = words[offset + word];
+    }
+    return (word << 6) + 63 - Long.numberOfLeadingZeros(bits);
+  }
+}
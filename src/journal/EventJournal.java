@@ -0,0 +1,198 @@
+package journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * An append-only journal of fixed-size event records in a memory-mapped file.
+ * Every record is the tick, the event code, the elevator and two floors, 24 bytes in all.
+ * A writer reserves a slot with one atomic increment and stores the fields straight into
+ * the mapped file, so recording an event allocates nothing and never blocks on other
+ * writers. The file is mapped in segments as it grows. On close the file is cut to the
+ * records written; after a crash the records that were never written read as code 0.
+ */
+public class EventJournal implements AutoCloseable {
+  /**
+   * The size of one record in bytes.
+   */
+  public static final int RECORD_SIZE = 24;
+
+  private static final int SEGMENT_SHIFT = 20;
+  private static final int SEGMENT_RECORDS = 1 << SEGMENT_SHIFT;
+  private static final long SEGMENT_BYTES = (long) SEGMENT_RECORDS * RECORD_SIZE;
+
+  private final FileChannel channel;
+  private final long maxRecords;
+  private final AtomicLong nextSlot = new AtomicLong();
+  private final AtomicReferenceArray<MappedByteBuffer> segments;
+  private volatile boolean closed = false;
+
+  /**
+   * The constructor for a new journal, replacing the file if it exists.
+   *
+   * @param file       the file to write the journal to.
+   * @param maxRecords the largest number of records the journal may hold, at least 1.
+   * @throws IOException              if the file could not be opened.
+   * @throws IllegalArgumentException if maxRecords is less than 1.
+   */
+  public EventJournal(Path file, long maxRecords) throws IOException {
+    if (maxRecords < 1) {
+      throw new IllegalArgumentException("A journal should hold at least one record.");
+    }
+    long segmentCount = (maxRecords + SEGMENT_RECORDS - 1) >>> SEGMENT_SHIFT;
+    if (segmentCount > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("A journal cannot hold " + maxRecords + " records.");
+    }
+    this.maxRecords = maxRecords;
+    this.segments = new AtomicReferenceArray<>((int) segmentCount);
+    this.channel = FileChannel.open(Objects.requireNonNull(file, "File could not be null."),
+        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+        StandardOpenOption.READ, StandardOpenOption.WRITE);
+  }
+
+  /**
+   * Append an event to the journal.
+   * This may be called from several threads at once.
+   *
+   * @param tick     the tick at which the event happened.
+   * @param event    the kind of event.
+   * @param elevator the id of the elevator, -1 if no elevator is involved.
+   * @param first    the floor of the event, or the start floor of a request.
+   * @param second   the end floor of a request, -1 if there is none.
+   * @throws IllegalStateException if the journal is closed, full or could not grow.
+   */
+  public void record(long tick, JournalEvent event, int elevator, int first, int second) {
+    if (this.closed) {
+      throw new IllegalStateException("The journal is closed.");
+    }
+    long slot = this.nextSlot.getAndIncrement();
+    if (slot >= this.maxRecords) {
+      throw new IllegalStateException("The journal is full after " + this.maxRecords
+          + " records.");
+    }
+    MappedByteBuffer segment = this.segment((int) (slot >>> SEGMENT_SHIFT));
+    int offset = (int) (slot & (SEGMENT_RECORDS - 1)) * RECORD_SIZE;
+    segment.putLong(offset, tick);
+    segment.putInt(offset + 12, elevator);
+    segment.putInt(offset + 16, first);
+    segment.putInt(offset + 20, second);
+    // the code goes last so a record is either complete or reads as never written.
+    segment.putInt(offset + 8, event.getCode());
+  }
+
+  /**
+   * Get the number of records in the journal.
+   *
+   * @return the number of records.
+   */
+  public long size() {
+    return Math.min(this.nextSlot.get(), this.maxRecords);
+  }
+
+  /**
+   * Get a mapped segment, mapping it the first time it is needed.
+   *
+   * @param index the index of the segment.
+   * @return the segment.
+   * @throws IllegalStateException if the segment could not be mapped.
+   */
+  private MappedByteBuffer segment(int index) {
+    MappedByteBuffer segment = this.segments.get(index);
+    if (segment != null) {
+      return segment;
+    }
+    synchronized (this.segments) {
+      segment = this.segments.get(index);
+      if (segment == null) {
+        try {
+          segment = this.channel.map(FileChannel.MapMode.READ_WRITE, index * SEGMENT_BYTES,
+              SEGMENT_BYTES);
+        } catch (IOException e) {
+          throw new IllegalStateException("The journal could not grow: " + e.getMessage(), e);
+        }
+        this.segments.set(index, segment);
+      }
+      return segment;
+    }
+  }
+
+  /**
+   * Write the records to the disk and cut the file to the records written.
+   * No records may be added while or after the journal is closed.
+   *
+   * @throws IOException if the file could not be written.
+   */
+  @Override
+  public void close() throws IOException {
+    synchronized (this.segments) {
+      if (this.closed) {
+        return;
+      }
+      this.closed = true;
+      for (int i = 0; i < this.segments.length(); i++) {
+        MappedByteBuffer segment = this.segments.get(i);
+        if (segment != null) {
+          segment.force();
+        }
+      }
+      this.channel.truncate(this.size() * RECORD_SIZE);
+      this.channel.close();
+    }
+  }
+
+  /**
+   * Read the records of a journal file in order.
+   * Reading stops at the first record that was never written.
+   *
+   * @param file    the journal file.
+   * @param visitor told about every record.
+   * @return the number of records read.
+   * @throws IOException              if the file could not be read.
+   * @throws IllegalArgumentException if a record has an unknown event code.
+   */
+  public static long read(Path file, Visitor visitor) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long records = channel.size() / RECORD_SIZE;
+      long count = 0;
+      for (long start = 0; start < records; start += SEGMENT_RECORDS) {
+        long length = Math.min(SEGMENT_RECORDS, records - start);
+        ByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, start * RECORD_SIZE,
+            length * RECORD_SIZE);
+        for (int offset = 0; offset < segment.limit(); offset += RECORD_SIZE) {
+          int code = segment.getInt(offset + 8);
+          if (code == 0) {
+            return count;
+          }
+          visitor.event(segment.getLong(offset), JournalEvent.fromCode(code),
+              segment.getInt(offset + 12), segment.getInt(offset + 16),
+              segment.getInt(offset + 20));
+          count++;
+        }
+      }
+      return count;
+    }
+  }
+
+  /**
+   * Told about the records of a journal as they are read.
+   */
+  public interface Visitor {
+    /**
+     * Called for every record.
+     *
+     * @param tick     the tick at which the event happened.
+     * @param event    the kind of event.
+     * @param elevator the id of the elevator, -1 if no elevator is involved.
+     * @param first    the floor of the event, or the start floor of a request.
+     * @param second   the end floor of a request, -1 if there is none.
+     */
+    void event(long tick, JournalEvent event, int elevator, int first, int second);
+  }
+}
@@ -0,0 +1,59 @@
+package journal;
+
+/**
+ * This enum is used to represent the kinds of events kept in an event journal.
+ * The code of an event is what is stored in a record, 0 marks a record never written.
+ */
+public enum JournalEvent {
+  REQUEST_ACCEPTED(1, "Request accepted"),
+  REQUEST_REJECTED(2, "Request rejected"),
+  REQUEST_ASSIGNED(3, "Request assigned"),
+  DOOR_OPENED(4, "Door opened"),
+  FLOOR_REACHED(5, "Floor reached"),
+  DIRECTION_REVERSED(6, "Direction reversed"),
+  RIDER_LEFT_BEHIND(7, "Rider left behind");
+
+  private static final JournalEvent[] BY_CODE = new JournalEvent[values().length + 1];
+
+  static {
+    for (JournalEvent event : values()) {
+      BY_CODE[event.code] = event;
+    }
+  }
+
+  private final int code;
+  private final String display;
+
+  JournalEvent(int code, String display) {
+    this.code = code;
+    this.display = display;
+  }
+
+  /**
+   * Get the code of the event stored in a record.
+   *
+   * @return the code of the event.
+   */
+  public int getCode() {
+    return this.code;
+  }
+
+  /**
+   * Get the event stored under a code.
+   *
+   * @param code the code of the event.
+   * @return the event.
+   * @throws IllegalArgumentException if no event has the code.
+   */
+  public static JournalEvent fromCode(int code) throws IllegalArgumentException {
+    if (code < 1 || code >= BY_CODE.length) {
+      throw new IllegalArgumentException("Unknown journal event " + code + ".");
+    }
+    return BY_CODE[code];
+  }
+
+  @Override
+  public String toString() {
+    return this.display;
+  }
+}
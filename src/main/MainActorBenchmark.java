@@ -0,0 +1,81 @@
+package main;
+
+import building.Building;
+import building.enums.ElevatorEngine;
+import java.util.List;
+import java.util.Map;
+import simulation.RandomRequestStream;
+import simulation.SimulationResult;
+import simulation.SimulationRunner;
+
+/**
+ * The benchmark of the actor engine against the lock-step object engine.
+ * This class runs the same load on fleets from a thousand to tens of thousands of cars with
+ * both engines and prints the time per elevator step of each.
+ *
+ * <p>Usage: {@code MainActorBenchmark [--floors N] [--capacity N] [--ticks N] [--rate R]}
+ */
+public class MainActorBenchmark {
+  private static final int[] FLEETS = {1_000, 10_000, 50_000};
+  private static final String USAGE = "Usage: MainActorBenchmark [--floors N] [--capacity N]"
+      + " [--ticks N] [--rate R]";
+
+  /**
+   * The main method for the benchmark.
+   *
+   * @param args the command line arguments
+   */
+  public static void main(String[] args) {
+    try {
+      Map<String, String> options = MainConsole.parseOptions(args);
+      for (String name : options.keySet()) {
+        if (!List.of("floors", "capacity", "ticks", "rate").contains(name)) {
+          throw new IllegalArgumentException("Unexpected argument: --" + name);
+        }
+      }
+      int floors = Integer.parseInt(options.getOrDefault("floors", "30"));
+      int capacity = Integer.parseInt(options.getOrDefault("capacity", "20"));
+      long ticks = Long.parseLong(options.getOrDefault("ticks", "500"));
+      double rate = Double.parseDouble(options.getOrDefault("rate", "10.0"));
+
+      // warm up the compiler on both engines before measuring.
+      for (ElevatorEngine engine : new ElevatorEngine[] {ElevatorEngine.OBJECT,
+          ElevatorEngine.ACTOR}) {
+        run(floors, FLEETS[0], capacity, ticks, rate, engine);
+      }
+
+      System.out.printf("%8s %8s %14s %14s%n", "cars", "engine", "ticks/s", "ns/car-step");
+      for (int elevators : FLEETS) {
+        for (ElevatorEngine engine : new ElevatorEngine[] {ElevatorEngine.OBJECT,
+            ElevatorEngine.ACTOR}) {
+          SimulationResult result = run(floors, elevators, capacity, ticks, rate, engine);
+          double nanosPerStep = (double) result.getElapsedNanos() / result.getTicks()
+              / elevators;
+          System.out.printf("%8d %8s %14.0f %14.1f%n", elevators, engine,
+              result.getTicksPerSecond(), nanosPerStep);
+        }
+      }
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.println(USAGE);
+      System.exit(2);
+    }
+  }
+
+  /**
+   * Run one building for a number of ticks, one tick at a time.
+   *
+   * @param floors    the number of floors of the building.
+   * @param elevators the number of elevators of the building.
+   * @param capacity  the capacity of the elevators.
+   * @param ticks     the number of ticks to run.
+   * @param rate      the mean number of requests per tick.
+   * @param engine    how the elevators are run.
+   * @return the result of the run.
+   */
+  private static SimulationResult run(int floors, int elevators, int capacity, long ticks,
+                                      double rate, ElevatorEngine engine) {
+    Building building = new Building(floors, elevators, capacity, engine);
+    return new SimulationRunner(building, new RandomRequestStream(floors, rate, 0)).run(ticks);
+  }
+}
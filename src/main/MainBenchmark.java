@@ -0,0 +1,77 @@
+package main;
+
+import building.Building;
+import building.enums.ElevatorEngine;
+import java.util.List;
+import java.util.Map;
+import simulation.RandomRequestStream;
+import simulation.SimulationResult;
+import simulation.SimulationRunner;
+
+/**
+ * The step cost benchmark for tall towers.
+ * This class runs the same load in towers from 30 to 500 floors and prints the time per
+ * elevator step, which should stay flat as the number of floors grows.
+ *
+ * <p>Usage: {@code MainBenchmark [--elevators N] [--capacity N] [--ticks N] [--rate R]
+ * [--engine object|bank]}
+ */
+public class MainBenchmark {
+  private static final int[] FLOORS = {30, 60, 125, 250, 500};
+  private static final String USAGE = "Usage: MainBenchmark [--elevators N] [--capacity N]"
+      + " [--ticks N] [--rate R] [--engine object|bank]";
+
+  /**
+   * The main method for the benchmark.
+   *
+   * @param args the command line arguments
+   */
+  public static void main(String[] args) {
+    try {
+      Map<String, String> options = MainConsole.parseOptions(args);
+      for (String name : options.keySet()) {
+        if (!List.of("elevators", "capacity", "ticks", "rate", "engine").contains(name)) {
+          throw new IllegalArgumentException("Unexpected argument: --" + name);
+        }
+      }
+      int elevators = Integer.parseInt(options.getOrDefault("elevators", "256"));
+      int capacity = Integer.parseInt(options.getOrDefault("capacity", "20"));
+      long ticks = Long.parseLong(options.getOrDefault("ticks", "20000"));
+      double rate = Double.parseDouble(options.getOrDefault("rate", "1.0"));
+      ElevatorEngine engine = options.getOrDefault("engine", "object").equals("bank")
+          ? ElevatorEngine.BANK : ElevatorEngine.OBJECT;
+
+      // warm up the compiler on the largest tower before measuring.
+      run(FLOORS[FLOORS.length - 1], elevators, capacity, ticks, rate, engine);
+
+      System.out.printf("%8s %14s %14s%n", "floors", "ticks/s", "ns/car-step");
+      for (int floors : FLOORS) {
+        SimulationResult result = run(floors, elevators, capacity, ticks, rate, engine);
+        double nanosPerStep = (double) result.getElapsedNanos() / result.getTicks() / elevators;
+        System.out.printf("%8d %14.0f %14.1f%n", floors, result.getTicksPerSecond(),
+            nanosPerStep);
+      }
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.println(USAGE);
+      System.exit(2);
+    }
+  }
+
+  /**
+   * Run one tower for a number of ticks.
+   *
+   * @param floors    the number of floors of the tower.
+   * @param elevators the number of elevators of the tower.
+   * @param capacity  the capacity of the elevators.
+   * @param ticks     the number of ticks to run.
+   * @param rate      the mean number of requests per tick.
+   * @param engine    how the elevators are kept in memory.
+   * @return the result of the run.
+   */
+  private static SimulationResult run(int floors, int elevators, int capacity, long ticks,
+                                      double rate, ElevatorEngine engine) {
+    Building building = new Building(floors, elevators, capacity, engine, true);
+    return new SimulationRunner(building, new RandomRequestStream(floors, rate, 0)).run(ticks);
+  }
+}
@@ -0,0 +1,351 @@
+package main;
+
+import building.Building;
+import building.Zone;
+import building.dispatch.DeadlineDispatchStrategy;
+import building.dispatch.DemandParkingPolicy;
+import building.dispatch.DispatchStrategies;
+import building.dispatch.DispatchStrategy;
+import building.dispatch.MidRunPickupDispatchStrategy;
+import building.enums.ElevatorEngine;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import journal.EventJournal;
+import simulation.PortfolioResult;
+import simulation.RandomRequestStream;
+import simulation.RecordedRequestStream;
+import simulation.RequestGenerator;
+import simulation.RequestStream;
+import simulation.SimulationHost;
+import simulation.SimulationResult;
+import simulation.SimulationRunner;
+
+/**
+ * The headless driver class for the elevator system.
+ * This class builds a building from the command line, runs it without loading any
+ * Swing classes and prints the throughput and service numbers of the run.
+ *
+ * <p>Usage: {@code MainConsole [--floors N] [--elevators N] [--capacity N] [--ticks N]
+ * [--rate R] [--seed S] [--replay FILE] [--mode tick|event]
+ * [--parallel-threshold N] [--engine object|bank|actor] [--tall-tower true|false]
+ * [--buildings N] [--resume FILE] [--checkpoint FILE] [--journal FILE]
+ * [--dispatch fifo|nearest|collective|destination|eta] [--look true|false]
+ * [--pickup true|false] [--parking true|false] [--zones ZONES] [--max-wait N]
+ * [--party-size N] [--transfer-time N] [--reopen-extension N]}
+ *
+ * <p>The zones are a comma separated list of {@code LOW-HIGH:N} for N elevators serving the
+ * floors from LOW to HIGH, with an {@code e} in front for an express zone that only stops on
+ * LOW and HIGH, for example {@code e0-15:1,0-15:2,15-29:2}. They replace the elevators option.
+ * With a max wait the calls that have waited too long are handed out before the others.
+ * With a party size every random request is a party of up to that many people, who only get
+ * on an elevator if all of them fit. A door stays open longer by the transfer time for every
+ * person who gets in or out, and by the reopen extension when it opens again where it closed.
+ * LOOK, picking up on the way, parking, zones and a reopen extension need the object or actor
+ * engine.
+ *
+ * <p>With more than one building every building gets its own request stream, split from
+ * the seed in building order, and the buildings run at once on a work-stealing pool.
+ * The same seed and options always give the same requests to every building.
+ *
+ * <p>A single building can be resumed from a checkpoint, which replaces the building options,
+ * and saved to a checkpoint when the run ends. New requests keep coming from the seed.
+ * The requests and elevator events of a single building can be recorded in a journal.
+ */
+public class MainConsole {
+  private static final String USAGE = "Usage: MainConsole [--floors N] [--elevators N]"
+      + " [--capacity N] [--ticks N] [--rate R] [--seed S] [--replay FILE] [--mode tick|event]"
+      + " [--parallel-threshold N] [--engine object|bank|actor] [--tall-tower true|false]"
+      + " [--buildings N] [--resume FILE] [--checkpoint FILE] [--journal FILE]"
+      + " [--dispatch fifo|nearest|collective|destination|eta] [--look true|false]"
+      + " [--pickup true|false] [--parking true|false] [--zones ZONES] [--max-wait N]"
+      + " [--party-size N] [--transfer-time N] [--reopen-extension N]";
+  private static final List<String> OPTIONS =
+      List.of("floors", "elevators", "capacity", "ticks", "rate", "seed", "replay", "mode",
+          "parallel-threshold", "engine", "tall-tower", "buildings", "resume", "checkpoint",
+          "journal", "dispatch", "look", "pickup", "parking", "zones", "max-wait",
+          "party-size", "transfer-time", "reopen-extension");
+  // the journal is a sparse file, so a generous limit costs nothing until it is used.
+  private static final long JOURNAL_MAX_RECORDS = 1L << 32;
+
+  /**
+   * The main method for the headless elevator system.
+   *
+   * @param args the command line arguments
+   */
+  public static void main(String[] args) {
+    Map<String, String> options;
+    try {
+      options = parseOptions(args);
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.println(USAGE);
+      System.exit(2);
+      return;
+    }
+
+    try {
+      int floors = Integer.parseInt(options.getOrDefault("floors", "10"));
+      int elevators = Integer.parseInt(options.getOrDefault("elevators", "3"));
+      int capacity = Integer.parseInt(options.getOrDefault("capacity", "10"));
+      long ticks = Long.parseLong(options.getOrDefault("ticks", "1000000"));
+      double rate = Double.parseDouble(options.getOrDefault("rate", "0.1"));
+      long seed = Long.parseLong(options.getOrDefault("seed", "0"));
+      String mode = options.getOrDefault("mode", "tick");
+      if (!mode.equals("tick") && !mode.equals("event")) {
+        throw new IllegalArgumentException("Mode should be tick or event.");
+      }
+      ElevatorEngine engine;
+      switch (options.getOrDefault("engine", "object")) {
+        case "object":
+          engine = ElevatorEngine.OBJECT;
+          break;
+        case "bank":
+          engine = ElevatorEngine.BANK;
+          break;
+        case "actor":
+          engine = ElevatorEngine.ACTOR;
+          break;
+        default:
+          throw new IllegalArgumentException("Engine should be object, bank or actor.");
+      }
+
+      String dispatch = options.getOrDefault("dispatch", "fifo");
+      // fail on a bad name before anything runs.
+      DispatchStrategies.forName(dispatch);
+
+      String tallTower = options.getOrDefault("tall-tower", "false");
+      if (!tallTower.equals("true") && !tallTower.equals("false")) {
+        throw new IllegalArgumentException("Tall tower should be true or false.");
+      }
+      String look = options.getOrDefault("look", "false");
+      if (!look.equals("true") && !look.equals("false")) {
+        throw new IllegalArgumentException("Look should be true or false.");
+      }
+      String pickUp = options.getOrDefault("pickup", "false");
+      if (!pickUp.equals("true") && !pickUp.equals("false")) {
+        throw new IllegalArgumentException("Pickup should be true or false.");
+      }
+      String parking = options.getOrDefault("parking", "false");
+      if (!parking.equals("true") && !parking.equals("false")) {
+        throw new IllegalArgumentException("Parking should be true or false.");
+      }
+      if (parking.equals("true") && !look.equals("true")) {
+        throw new IllegalArgumentException("Parking needs --look true.");
+      }
+
+      List<Zone> zones = options.containsKey("zones") ? parseZones(options.get("zones")) : null;
+      long maxWait = Long.parseLong(options.getOrDefault("max-wait", "0"));
+      if (maxWait < 0) {
+        throw new IllegalArgumentException("Max wait should not be negative.");
+      }
+      int partySize = Integer.parseInt(options.getOrDefault("party-size", "1"));
+      if (partySize < 1) {
+        throw new IllegalArgumentException("Party size should be at least 1.");
+      }
+      int transferTime = Integer.parseInt(options.getOrDefault("transfer-time", "0"));
+      int reopenExtension = Integer.parseInt(options.getOrDefault("reopen-extension", "0"));
+      if (transferTime < 0 || reopenExtension < 0) {
+        throw new IllegalArgumentException("Door times should not be negative.");
+      }
+      if (reopenExtension > 0 && engine == ElevatorEngine.BANK) {
+        throw new IllegalArgumentException("A reopen extension needs the object or actor engine.");
+      }
+      if (pickUp.equals("true") && engine == ElevatorEngine.BANK) {
+        throw new IllegalArgumentException("Picking up on the way needs the object or actor"
+            + " engine.");
+      }
+
+      int parallelThreshold = Integer.parseInt(options.getOrDefault("parallel-threshold",
+          String.valueOf(Building.DEFAULT_PARALLEL_THRESHOLD)));
+      int buildings = Integer.parseInt(options.getOrDefault("buildings", "1"));
+      if (buildings < 1) {
+        throw new IllegalArgumentException("At least one building is required.");
+      }
+
+      if (buildings == 1) {
+        Building building;
+        if (options.containsKey("resume")) {
+          building = Building.load(Paths.get(options.get("resume")));
+        } else {
+          building = newBuilding(floors, elevators, zones, capacity, engine,
+              tallTower.equals("true"));
+        }
+        RequestStream requests;
+        if (options.containsKey("replay")) {
+          requests = RecordedRequestStream.load(Paths.get(options.get("replay")));
+        } else {
+          requests = new RandomRequestStream(
+              new RequestGenerator(building.getNumberOfFloors(), seed), rate, partySize);
+        }
+        building.setLookMode(look.equals("true"));
+        building.setDoorDwell(transferTime, reopenExtension);
+        if (parking.equals("true")) {
+          building.setParkingPolicy(new DemandParkingPolicy());
+        }
+        SimulationRunner runner = newRunner(building, parallelThreshold, mode.equals("event"),
+            dispatch, pickUp.equals("true"), maxWait, requests);
+        SimulationResult result;
+        if (options.containsKey("journal")) {
+          try (EventJournal journal = new EventJournal(Paths.get(options.get("journal")),
+              JOURNAL_MAX_RECORDS)) {
+            building.setJournal(journal);
+            result = runner.run(ticks);
+            building.setJournal(null);
+          }
+        } else {
+          result = runner.run(ticks);
+        }
+        if (options.containsKey("checkpoint")) {
+          building.save(Paths.get(options.get("checkpoint")));
+        }
+
+        System.out.printf("Building: %d floors, %d elevators, capacity %d%n",
+            building.getNumberOfFloors(), building.getNumberOfElevators(),
+            building.getElevatorCapacity());
+        System.out.print(result);
+        return;
+      }
+
+      if (options.containsKey("replay") || options.containsKey("resume")
+          || options.containsKey("checkpoint") || options.containsKey("journal")) {
+        throw new IllegalArgumentException(
+            "Replays, checkpoints and journals run one building only.");
+      }
+      // split in building order here, not on the workers, so the streams follow the seed.
+      RequestGenerator root = new RequestGenerator(floors, seed);
+      RequestGenerator[] generators = new RequestGenerator[buildings];
+      for (int i = 0; i < buildings; i++) {
+        generators[i] = root.split();
+      }
+      PortfolioResult result;
+      try (SimulationHost host = new SimulationHost()) {
+        result = host.run(buildings, index -> {
+          Building building = newBuilding(floors, elevators, zones, capacity, engine,
+              tallTower.equals("true"));
+          building.setLookMode(look.equals("true"));
+          building.setDoorDwell(transferTime, reopenExtension);
+          if (parking.equals("true")) {
+            building.setParkingPolicy(new DemandParkingPolicy());
+          }
+          return newRunner(building, parallelThreshold, mode.equals("event"), dispatch,
+              pickUp.equals("true"), maxWait,
+              new RandomRequestStream(generators[index], rate, partySize));
+        }, ticks);
+      }
+      System.out.printf("Buildings: %d of %d floors, %d elevators, capacity %d%n",
+          buildings, floors, zones == null ? elevators
+              : zones.stream().mapToInt(Zone::getNumberOfElevators).sum(), capacity);
+      System.out.print(result.getTotal());
+    } catch (NumberFormatException e) {
+      System.err.println("Invalid number: " + e.getMessage());
+      System.err.println(USAGE);
+      System.exit(2);
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.exit(2);
+    } catch (IOException e) {
+      System.err.println("Could not read or write a file: " + e.getMessage());
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Make a building with all elevators serving every floor, or with zones.
+   *
+   * @param floors    the number of floors.
+   * @param elevators the number of elevators without zones.
+   * @param zones     the zones, null for none.
+   * @param capacity  the capacity of the elevators.
+   * @param engine    how the elevators are kept in memory.
+   * @param tallTower true to allow the tall-tower limits of the elevators.
+   * @return the building.
+   * @throws IllegalArgumentException if the building is not valid.
+   */
+  private static Building newBuilding(int floors, int elevators, List<Zone> zones, int capacity,
+                                      ElevatorEngine engine, boolean tallTower)
+      throws IllegalArgumentException {
+    if (zones == null) {
+      return new Building(floors, elevators, capacity, engine, tallTower);
+    }
+    return new Building(floors, zones, capacity, engine, tallTower);
+  }
+
+  /**
+   * Parse the zones of a building.
+   *
+   * @param spec the zones as {@code [e]LOW-HIGH:N} separated by commas.
+   * @return the zones.
+   * @throws IllegalArgumentException if a zone is not valid.
+   */
+  static List<Zone> parseZones(String spec) throws IllegalArgumentException {
+    List<Zone> zones = new ArrayList<>();
+    for (String part : spec.split(",")) {
+      boolean express = part.startsWith("e");
+      String range = express ? part.substring(1) : part;
+      int dash = range.indexOf('-');
+      int colon = range.indexOf(':');
+      if (dash < 0 || colon < dash) {
+        throw new IllegalArgumentException("Zones should look like e0-15:1,0-15:2,15-29:2.");
+      }
+      zones.add(new Zone(Integer.parseInt(range.substring(0, dash)),
+          Integer.parseInt(range.substring(dash + 1, colon)),
+          Integer.parseInt(range.substring(colon + 1)), express));
+    }
+    return zones;
+  }
+
+  /**
+   * Make the runner that drives a building.
+   *
+   * @param building          the building to drive.
+   * @param parallelThreshold the number of elevators from which they are stepped in parallel.
+   * @param eventDriven       true to jump from event to event.
+   * @param dispatch          the name of the dispatch strategy.
+   * @param pickUp            true to let moving elevators pick up riders on their way, which
+   *                          a strategy that does so itself always does.
+   * @param maxWait           the number of ticks a call should wait at most, 0 for no limit.
+   * @param requests          the requests that arrive at the building.
+   * @return the runner of the building.
+   */
+  private static SimulationRunner newRunner(Building building, int parallelThreshold,
+                                            boolean eventDriven, String dispatch,
+                                            boolean pickUp, long maxWait,
+                                            RequestStream requests) {
+    building.setParallelThreshold(parallelThreshold);
+    DispatchStrategy strategy = DispatchStrategies.forName(dispatch);
+    if (pickUp && !strategy.picksUpOnTheWay()) {
+      strategy = new MidRunPickupDispatchStrategy(strategy);
+    }
+    building.setDispatchStrategy(maxWait > 0
+        ? new DeadlineDispatchStrategy(strategy, maxWait) : strategy);
+    SimulationRunner runner = new SimulationRunner(building, requests);
+    runner.setEventDriven(eventDriven);
+    return runner;
+  }
+
+  /**
+   * Parse the command line into option names and values.
+   *
+   * @param args the command line arguments
+   * @return the options keyed by name without the leading dashes.
+   * @throws IllegalArgumentException if an option is unknown or has no value.
+   */
+  static Map<String, String> parseOptions(String[] args) {
+    Map<String, String> options = new HashMap<>();
+    for (int i = 0; i < args.length; i++) {
+      String name = args[i];
+      if (!name.startsWith("--") || !OPTIONS.contains(name.substring(2))) {
+        throw new IllegalArgumentException("Unexpected argument: " + name);
+      }
+      if (i + 1 >= args.length) {
+        throw new IllegalArgumentException("Missing value for " + name);
+      }
+      options.put(name.substring(2), args[++i]);
+    }
+    return options;
+  }
+}
@@ -8,6 +8,7 @@ package scanerzus;
 public class Request implements RequestInterface {
   private final int startFloor;
   private final int endFloor;
+  private final int partySize;
 
   /**
    * The constructor for the request.
@@ -23,8 +24,21 @@ public class Request implements RequestInterface {
    * @param endFloor   the end floor.
    */
   public Request(int startFloor, int endFloor) {
+    this(startFloor, endFloor, 1);
+  }
+
+  /**
+   * The constructor for the request of a party riding together.
+   * The party boards and leaves the elevator as one, so it only gets on if all of it fits.
+   *
+   * @param startFloor the start floor.
+   * @param endFloor   the end floor.
+   * @param partySize  the number of people in the party.
+   */
+  public Request(int startFloor, int endFloor, int partySize) {
     this.startFloor = startFloor;
     this.endFloor = endFloor;
+    this.partySize = partySize;
   }
 
   /**
@@ -45,15 +59,25 @@ public class Request implements RequestInterface {
     return endFloor;
   }
 
+  /**
+   * Gets the number of people riding on the request.
+   *
+   * @return the size of the party.
+   */
+  public int getPartySize() {
+    return partySize;
+  }
+
   /**
    * Returns a string representation of the request.
    * This is a string of the form:
-   * "startFloor->endFloor"
+   * "startFloor->endFloor", followed by " xPartySize" for a party of more than one.
    *
    * @return a string representation of the request.
    */
   public String toString() {
-    return startFloor + "->" + endFloor;
+    return partySize == 1 ? startFloor + "->" + endFloor
+        : startFloor + "->" + endFloor + " x" + partySize;
   }
 }
 
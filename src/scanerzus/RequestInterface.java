@@ -19,4 +19,11 @@ public interface RequestInterface {
    */
   int getEndFloor();
 
+  /**
+   * This is the number of people who ride together on the request.
+   *
+   * @return the size of the party.
+   */
+  int getPartySize();
+
 }
@@ -0,0 +1,63 @@
+package simulation;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class holds the results of a portfolio of buildings simulated together.
+ * The results of the buildings are kept in the order the buildings were given, the
+ * totals add up the counts of every building over the wall clock time of the whole run.
+ */
+public class PortfolioResult {
+  private final List<SimulationResult> buildingResults;
+  private final SimulationResult total;
+
+  /**
+   * This constructor is used to create a new PortfolioResult object.
+   *
+   * @param buildingResults the results of the buildings in the order they were given.
+   * @param total           the summed results over the wall clock time of the run.
+   */
+  public PortfolioResult(List<SimulationResult> buildingResults, SimulationResult total) {
+    this.buildingResults = Collections.unmodifiableList(buildingResults);
+    this.total = total;
+  }
+
+  /**
+   * Get the number of buildings that were simulated.
+   *
+   * @return the number of buildings.
+   */
+  public int getNumberOfBuildings() {
+    return this.buildingResults.size();
+  }
+
+  /**
+   * Get the results of the buildings.
+   *
+   * @return the results in the order the buildings were given.
+   */
+  public List<SimulationResult> getBuildingResults() {
+    return this.buildingResults;
+  }
+
+  /**
+   * Get the results summed over every building.
+   * The ticks are building ticks, so the throughput is the throughput of the portfolio.
+   *
+   * @return the summed results.
+   */
+  public SimulationResult getTotal() {
+    return this.total;
+  }
+
+  /**
+   * This method is used to get the string representation of the PortfolioResult object.
+   *
+   * @return the string representation of the PortfolioResult object.
+   */
+  @Override
+  public String toString() {
+    return String.format("Buildings: %d%n", this.buildingResults.size()) + this.total;
+  }
+}
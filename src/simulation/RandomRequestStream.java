@@ -0,0 +1,90 @@
+package simulation;
+
+import java.util.List;
+import java.util.Objects;
+import scanerzus.Request;
+
+/**
+ * A request stream that generates requests as a Poisson process.
+ * The start and end floors of every request are picked uniformly and are never the same,
+ * and so is the size of its party up to a maximum.
+ * The same seed always gives the same requests at the same ticks.
+ */
+public class RandomRequestStream implements RequestStream {
+  private final double requestsPerTick;
+  private final RequestGenerator generator;
+  private final int maxPartySize;
+  private double nextArrivalTime;
+
+  /**
+   * The constructor for the random request stream.
+   *
+   * @param numberOfFloors  the number of floors in the building.
+   * @param requestsPerTick the average number of requests that arrive every tick.
+   * @param seed            the seed for the random number generator.
+   * @throws IllegalArgumentException if there are less than 2 floors or the rate is not positive.
+   */
+  public RandomRequestStream(int numberOfFloors, double requestsPerTick, long seed) {
+    this(new RequestGenerator(numberOfFloors, seed), requestsPerTick);
+  }
+
+  /**
+   * The constructor for a random request stream drawing from a generator.
+   *
+   * @param generator       the generator of the requests, used by this stream only.
+   * @param requestsPerTick the average number of requests that arrive every tick.
+   * @throws IllegalArgumentException if the rate is not positive.
+   */
+  public RandomRequestStream(RequestGenerator generator, double requestsPerTick) {
+    this(generator, requestsPerTick, 1);
+  }
+
+  /**
+   * The constructor for a random request stream of parties drawing from a generator.
+   *
+   * @param generator       the generator of the requests, used by this stream only.
+   * @param requestsPerTick the average number of requests that arrive every tick.
+   * @param maxPartySize    the largest number of people in a request.
+   * @throws IllegalArgumentException if the rate is not positive or the party is less than 1.
+   */
+  public RandomRequestStream(RequestGenerator generator, double requestsPerTick,
+                             int maxPartySize) {
+    if (!(requestsPerTick > 0)) {
+      throw new IllegalArgumentException("Request rate should be larger than 0.");
+    }
+    if (maxPartySize < 1) {
+      throw new IllegalArgumentException("Party size should be larger or equals to 1.");
+    }
+    this.generator = Objects.requireNonNull(generator, "Generator could not be null.");
+    this.requestsPerTick = requestsPerTick;
+    this.maxPartySize = maxPartySize;
+    this.nextArrivalTime = this.nextInterArrivalTime();
+  }
+
+  @Override
+  public void arrivalsAt(long tick, List<Request> arrivals) {
+    // skip any arrivals that belong to ticks that were never asked for, the arrivals have
+    // no memory so the next one after a gap is drawn from the start of the tick.
+    if (this.nextArrivalTime < tick) {
+      this.nextArrivalTime = tick + this.nextInterArrivalTime();
+    }
+    while (this.nextArrivalTime < tick + 1) {
+      arrivals.add(this.generator.nextRequest(this.maxPartySize));
+      this.nextArrivalTime += this.nextInterArrivalTime();
+    }
+  }
+
+  @Override
+  public long nextArrivalTick(long fromTick) {
+    return Math.max(fromTick, (long) this.nextArrivalTime);
+  }
+
+  /**
+   * Draw the time until the next request.
+   *
+   * @return the time until the next request in ticks.
+   */
+  private double nextInterArrivalTime() {
+    return this.generator.nextInterArrivalTime(this.requestsPerTick);
+  }
+}
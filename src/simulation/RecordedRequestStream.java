@@ -0,0 +1,107 @@
+package simulation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import scanerzus.Request;
+
+/**
+ * A request stream that replays requests recorded in a text file.
+ * Every line of the file holds "tick startFloor endFloor", separated by spaces or commas,
+ * and may end with the number of people in the party, 1 if it is left out.
+ * Blank lines and lines starting with '#' are ignored. Ticks must not decrease.
+ */
+public class RecordedRequestStream implements RequestStream {
+  private final long[] ticks;
+  private final Request[] requests;
+  private int next = 0;
+
+  /**
+   * The constructor for the recorded request stream.
+   *
+   * @param ticks    the arrival tick of every request, in increasing order.
+   * @param requests the recorded requests.
+   * @throws IllegalArgumentException if the lengths differ or the ticks decrease.
+   */
+  public RecordedRequestStream(long[] ticks, Request[] requests) {
+    if (ticks.length != requests.length) {
+      throw new IllegalArgumentException("Every recorded request needs an arrival tick.");
+    }
+    for (int i = 1; i < ticks.length; i++) {
+      if (ticks[i] < ticks[i - 1]) {
+        throw new IllegalArgumentException("Recorded ticks must not decrease.");
+      }
+    }
+    this.ticks = ticks.clone();
+    this.requests = requests.clone();
+  }
+
+  /**
+   * Load a recorded request stream from a file.
+   *
+   * @param file the file to read.
+   * @return the recorded request stream.
+   * @throws IOException              if the file cannot be read.
+   * @throws IllegalArgumentException if a line cannot be parsed.
+   */
+  public static RecordedRequestStream load(Path file) throws IOException {
+    List<long[]> records = new ArrayList<>();
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      String line;
+      int lineNumber = 0;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        line = line.trim();
+        if (line.isEmpty() || line.startsWith("#")) {
+          continue;
+        }
+        String[] fields = line.split("[\\s,]+");
+        if (fields.length != 3 && fields.length != 4) {
+          throw new IllegalArgumentException("Line " + lineNumber
+              + " should be \"tick startFloor endFloor [partySize]\".");
+        }
+        try {
+          records.add(new long[] {Long.parseLong(fields[0]),
+              Integer.parseInt(fields[1]), Integer.parseInt(fields[2]),
+              fields.length == 4 ? Integer.parseInt(fields[3]) : 1});
+        } catch (NumberFormatException e) {
+          throw new IllegalArgumentException("Line " + lineNumber + " is not numeric.", e);
+        }
+      }
+    }
+
+    long[] ticks = new long[records.size()];
+    Request[] requests = new Request[records.size()];
+    for (int i = 0; i < records.size(); i++) {
+      long[] record = records.get(i);
+      ticks[i] = record[0];
+      requests[i] = new Request((int) record[1], (int) record[2], (int) record[3]);
+    }
+    return new RecordedRequestStream(ticks, requests);
+  }
+
+  @Override
+  public void arrivalsAt(long tick, List<Request> arrivals) {
+    while (this.next < this.ticks.length && this.ticks[this.next] < tick) {
+      this.next++;
+    }
+    while (this.next < this.ticks.length && this.ticks[this.next] == tick) {
+      arrivals.add(this.requests[this.next]);
+      this.next++;
+    }
+  }
+
+  @Override
+  public long nextArrivalTick(long fromTick) {
+    for (int i = this.next; i < this.ticks.length; i++) {
+      if (this.ticks[i] >= fromTick) {
+        return this.ticks[i];
+      }
+    }
+    return Long.MAX_VALUE;
+  }
+}
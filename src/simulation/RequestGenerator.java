@@ -0,0 +1,130 @@
+package simulation;
+
+import java.util.SplittableRandom;
+import scanerzus.Request;
+
+/**
+ * A seeded source of random requests.
+ * The same seed and number of floors always give the same requests in the same order.
+ * A generator is not thread safe; every thread or building should use its own
+ * generator made with split, which gives an independent stream without any locking.
+ */
+public class RequestGenerator {
+  private final int numberOfFloors;
+  private final SplittableRandom random;
+
+  /**
+   * The constructor for the request generator.
+   *
+   * @param numberOfFloors the number of floors in the building.
+   * @param seed           the seed of the generator.
+   * @throws IllegalArgumentException if there are less than 2 floors.
+   */
+  public RequestGenerator(int numberOfFloors, long seed) {
+    this(numberOfFloors, new SplittableRandom(seed));
+  }
+
+  /**
+   * The constructor for a generator drawing from a given random stream.
+   *
+   * @param numberOfFloors the number of floors in the building.
+   * @param random         the random stream to draw from.
+   * @throws IllegalArgumentException if there are less than 2 floors.
+   */
+  private RequestGenerator(int numberOfFloors, SplittableRandom random) {
+    if (numberOfFloors < 2) {
+      throw new IllegalArgumentException("Number of floors should be larger or equals to 2");
+    }
+    this.numberOfFloors = numberOfFloors;
+    this.random = random;
+  }
+
+  /**
+   * Get the number of floors the requests are drawn from.
+   *
+   * @return the number of floors.
+   */
+  public int getNumberOfFloors() {
+    return this.numberOfFloors;
+  }
+
+  /**
+   * Make a new generator with an independent stream.
+   * Splitting in the same order always gives the same generators, so a seed decides the
+   * requests of every split generator too.
+   *
+   * @return the new generator.
+   */
+  public RequestGenerator split() {
+    return new RequestGenerator(this.numberOfFloors, this.random.split());
+  }
+
+  /**
+   * Make a new generator with an independent stream for a building of another size.
+   *
+   * @param numberOfFloors the number of floors in the other building.
+   * @return the new generator.
+   * @throws IllegalArgumentException if there are less than 2 floors.
+   */
+  public RequestGenerator split(int numberOfFloors) {
+    return new RequestGenerator(numberOfFloors, this.random.split());
+  }
+
+  /**
+   * Draw a request with start and end floors picked uniformly and never the same.
+   *
+   * @return the request.
+   */
+  public Request nextRequest() {
+    int startFloor = this.random.nextInt(this.numberOfFloors);
+    int endFloor = this.random.nextInt(this.numberOfFloors - 1);
+    if (endFloor >= startFloor) {
+      endFloor++;
+    }
+    return new Request(startFloor, endFloor);
+  }
+
+  /**
+   * Draw a request of a party with a size picked uniformly between 1 and a maximum.
+   * With a maximum of 1 the same requests are drawn as by nextRequest().
+   *
+   * @param maxPartySize the largest party, must be at least 1.
+   * @return the request.
+   * @throws IllegalArgumentException if the largest party is less than 1.
+   */
+  public Request nextRequest(int maxPartySize) {
+    if (maxPartySize < 1) {
+      throw new IllegalArgumentException("Party size should be larger or equals to 1.");
+    }
+    Request request = this.nextRequest();
+    if (maxPartySize == 1) {
+      return request;
+    }
+    return new Request(request.getStartFloor(), request.getEndFloor(),
+        this.random.nextInt(maxPartySize) + 1);
+  }
+
+  /**
+   * Draw a number of requests between 1 and a maximum.
+   *
+   * @param max the largest number of requests, must be at least 1.
+   * @return the number of requests.
+   * @throws IllegalArgumentException if max is less than 1.
+   */
+  public int nextCount(int max) {
+    if (max < 1) {
+      throw new IllegalArgumentException("Maximum count should be larger or equals to 1.");
+    }
+    return this.random.nextInt(max) + 1;
+  }
+
+  /**
+   * Draw the time until the next request from an exponential distribution.
+   *
+   * @param requestsPerTick the average number of requests that arrive every tick.
+   * @return the time until the next request in ticks.
+   */
+  public double nextInterArrivalTime(double requestsPerTick) {
+    return -Math.log(1.0 - this.random.nextDouble()) / requestsPerTick;
+  }
+}
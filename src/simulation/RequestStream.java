@@ -0,0 +1,27 @@
+package simulation;
+
+import java.util.List;
+import scanerzus.Request;
+
+/**
+ * This interface represents a stream of requests that arrive at a building over time.
+ * Ticks are asked for in increasing order.
+ */
+public interface RequestStream {
+
+  /**
+   * Add all of the requests that arrive at the given tick to the list.
+   *
+   * @param tick     the tick to get the arrivals for.
+   * @param arrivals the list that the arriving requests are added to.
+   */
+  void arrivalsAt(long tick, List<Request> arrivals);
+
+  /**
+   * Get the first tick at or after the given tick at which a request arrives.
+   *
+   * @param fromTick the tick to start looking from.
+   * @return the tick of the next arrival, or Long.MAX_VALUE if no more requests will arrive.
+   */
+  long nextArrivalTick(long fromTick);
+}
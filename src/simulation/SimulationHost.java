@@ -0,0 +1,174 @@
+package simulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+/**
+ * This class runs many independent buildings at once on a work-stealing pool.
+ * Every building is built, run and measured by one task, so buildings never share
+ * state and idle workers steal the buildings that are still waiting. The results are
+ * gathered in the order the buildings finish.
+ */
+public class SimulationHost implements AutoCloseable {
+  private final ForkJoinPool pool;
+
+  /**
+   * The constructor for a host with one worker per processor.
+   */
+  public SimulationHost() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * The constructor for a host with a number of workers.
+   *
+   * @param parallelism the number of workers, must be at least 1.
+   * @throws IllegalArgumentException if parallelism is less than 1.
+   */
+  public SimulationHost(int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism should be larger or equals to 1.");
+    }
+    this.pool = new ForkJoinPool(parallelism);
+  }
+
+  /**
+   * Get the number of workers of the host.
+   *
+   * @return the number of workers.
+   */
+  public int getParallelism() {
+    return this.pool.getParallelism();
+  }
+
+  /**
+   * Run a portfolio of buildings for a number of ticks each.
+   * The runner of each building is made on the worker that runs it, so a building and
+   * its elevators are only ever touched by one thread.
+   *
+   * @param buildings the number of buildings, must be at least 1.
+   * @param runners   makes the runner of the building with the given index.
+   * @param ticks     the number of ticks to run every building.
+   * @return the results of the buildings and their totals.
+   * @throws IllegalArgumentException if there are no buildings or ticks is negative.
+   * @throws IllegalStateException    if the run of a building fails or is interrupted.
+   */
+  public PortfolioResult run(int buildings, IntFunction<SimulationRunner> runners,
+                             long ticks) {
+    return this.run(buildings, runners, ticks, (index, result) -> { });
+  }
+
+  /**
+   * Run a portfolio of buildings and report every building as soon as it finishes.
+   * The listener is called on the calling thread in the order the buildings finish.
+   *
+   * @param buildings the number of buildings, must be at least 1.
+   * @param runners   makes the runner of the building with the given index.
+   * @param ticks     the number of ticks to run every building.
+   * @param listener  told the index and result of every finished building.
+   * @return the results of the buildings and their totals.
+   * @throws IllegalArgumentException if there are no buildings or ticks is negative.
+   * @throws IllegalStateException    if the run of a building fails or is interrupted.
+   */
+  public PortfolioResult run(int buildings, IntFunction<SimulationRunner> runners, long ticks,
+                             Listener listener) {
+    if (buildings < 1) {
+      throw new IllegalArgumentException("At least one building is required.");
+    }
+    if (ticks < 0) {
+      throw new IllegalArgumentException("Number of ticks should not be negative.");
+    }
+    Objects.requireNonNull(runners, "Runners could not be null.");
+    Objects.requireNonNull(listener, "Listener could not be null.");
+
+    CompletionService<Finished> finished = new ExecutorCompletionService<>(this.pool);
+    List<Future<Finished>> futures = new ArrayList<>(buildings);
+    long start = System.nanoTime();
+    for (int i = 0; i < buildings; i++) {
+      final int index = i;
+      futures.add(finished.submit(() -> new Finished(index, runners.apply(index).run(ticks))));
+    }
+
+    SimulationResult[] results = new SimulationResult[buildings];
+    long buildingTicks = 0;
+    long submitted = 0;
+    long accepted = 0;
+    long dispatched = 0;
+    long pendingTotal = 0;
+    int pendingMax = 0;
+    int pendingAtEnd = 0;
+    long delivered = 0;
+    long leftBehind = 0;
+    try {
+      for (int i = 0; i < buildings; i++) {
+        Finished done = finished.take().get();
+        SimulationResult result = done.result;
+        results[done.index] = result;
+        buildingTicks += result.getTicks();
+        submitted += result.getRequestsSubmitted();
+        accepted += result.getRequestsAccepted();
+        dispatched += result.getRequestsDispatched();
+        pendingTotal += result.getPendingTotal();
+        pendingMax = Math.max(pendingMax, result.getPendingMax());
+        pendingAtEnd += result.getPendingAtEnd();
+        delivered += result.getRidersDelivered();
+        leftBehind += result.getRidersLeftBehind();
+        listener.finished(done.index, result);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      futures.forEach(future -> future.cancel(true));
+      throw new IllegalStateException("Interrupted while waiting for the buildings.", e);
+    } catch (ExecutionException e) {
+      futures.forEach(future -> future.cancel(true));
+      throw new IllegalStateException("A building failed: " + e.getCause(), e.getCause());
+    }
+    long elapsed = System.nanoTime() - start;
+
+    return new PortfolioResult(new ArrayList<>(Arrays.asList(results)),
+        new SimulationResult(buildingTicks, elapsed, submitted, accepted, dispatched,
+            pendingTotal, pendingMax, pendingAtEnd, delivered, leftBehind));
+  }
+
+  /**
+   * Stop the workers of the host once the running buildings are done.
+   */
+  @Override
+  public void close() {
+    this.pool.shutdown();
+  }
+
+  /**
+   * Told about every building as it finishes.
+   */
+  public interface Listener {
+    /**
+     * Called when a building finished its run.
+     *
+     * @param index  the index of the building.
+     * @param result the result of the building.
+     */
+    void finished(int index, SimulationResult result);
+  }
+
+  /**
+   * The result of one building together with its index.
+   */
+  private static final class Finished {
+    private final int index;
+    private final SimulationResult result;
+
+    private Finished(int index, SimulationResult result) {
+      this.index = index;
+      this.result = result;
+    }
+  }
+}
@@ -0,0 +1,209 @@
+package simulation;
+
+/**
+ * This class holds the throughput and service numbers of a simulation run.
+ */
+public class SimulationResult {
+  private final long ticks;
+  private final long elapsedNanos;
+  private final long requestsSubmitted;
+  private final long requestsAccepted;
+  private final long requestsDispatched;
+  private final long pendingTotal;
+  private final int pendingMax;
+  private final int pendingAtEnd;
+  private final long ridersDelivered;
+  private final long ridersLeftBehind;
+
+  /**
+   * This constructor is used to create a new SimulationResult object.
+   *
+   * @param ticks              the number of ticks that were simulated.
+   * @param elapsedNanos       the wall clock time the run took in nanoseconds.
+   * @param requestsSubmitted  the number of requests given to the building.
+   * @param requestsAccepted   the number of requests the building accepted.
+   * @param requestsDispatched the number of requests handed to an elevator.
+   * @param pendingTotal       the sum of the pending requests over every tick.
+   * @param pendingMax         the largest number of pending requests seen.
+   * @param pendingAtEnd       the number of pending requests when the run ended.
+   * @param ridersDelivered    the number of people who got off on their end floor.
+   * @param ridersLeftBehind   the number of people left behind by a full elevator.
+   */
+  public SimulationResult(long ticks, long elapsedNanos, long requestsSubmitted,
+                          long requestsAccepted, long requestsDispatched, long pendingTotal,
+                          int pendingMax, int pendingAtEnd, long ridersDelivered,
+                          long ridersLeftBehind) {
+    this.ticks = ticks;
+    this.elapsedNanos = elapsedNanos;
+    this.requestsSubmitted = requestsSubmitted;
+    this.requestsAccepted = requestsAccepted;
+    this.requestsDispatched = requestsDispatched;
+    this.pendingTotal = pendingTotal;
+    this.pendingMax = pendingMax;
+    this.pendingAtEnd = pendingAtEnd;
+    this.ridersDelivered = ridersDelivered;
+    this.ridersLeftBehind = ridersLeftBehind;
+  }
+
+  /**
+   * Get the number of ticks that were simulated.
+   *
+   * @return the number of ticks.
+   */
+  public long getTicks() {
+    return this.ticks;
+  }
+
+  /**
+   * Get the wall clock time of the run.
+   *
+   * @return the elapsed time in nanoseconds.
+   */
+  public long getElapsedNanos() {
+    return this.elapsedNanos;
+  }
+
+  /**
+   * Get the number of requests given to the building.
+   *
+   * @return the number of submitted requests.
+   */
+  public long getRequestsSubmitted() {
+    return this.requestsSubmitted;
+  }
+
+  /**
+   * Get the number of requests the building accepted.
+   *
+   * @return the number of accepted requests.
+   */
+  public long getRequestsAccepted() {
+    return this.requestsAccepted;
+  }
+
+  /**
+   * Get the number of requests handed to an elevator.
+   *
+   * @return the number of dispatched requests.
+   */
+  public long getRequestsDispatched() {
+    return this.requestsDispatched;
+  }
+
+  /**
+   * Get the sum of the pending requests over every tick.
+   *
+   * @return the number of pending request ticks.
+   */
+  public long getPendingTotal() {
+    return this.pendingTotal;
+  }
+
+  /**
+   * Get the largest number of pending requests seen during the run.
+   *
+   * @return the largest number of pending requests.
+   */
+  public int getPendingMax() {
+    return this.pendingMax;
+  }
+
+  /**
+   * Get the number of pending requests when the run ended.
+   *
+   * @return the number of pending requests at the end of the run.
+   */
+  public int getPendingAtEnd() {
+    return this.pendingAtEnd;
+  }
+
+  /**
+   * Get the number of people who got off on their end floor.
+   *
+   * @return the number of delivered riders.
+   */
+  public long getRidersDelivered() {
+    return this.ridersDelivered;
+  }
+
+  /**
+   * Get the number of people left behind because their party did not fit in the elevator.
+   * A party is counted every time it is left behind.
+   *
+   * @return the number of riders left behind.
+   */
+  public long getRidersLeftBehind() {
+    return this.ridersLeftBehind;
+  }
+
+  /**
+   * Get the number of simulated ticks per second of wall clock time.
+   *
+   * @return the ticks per second.
+   */
+  public double getTicksPerSecond() {
+    return perSecond(this.ticks);
+  }
+
+  /**
+   * Get the number of dispatched requests per second of wall clock time.
+   *
+   * @return the dispatched requests per second.
+   */
+  public double getRequestsDispatchedPerSecond() {
+    return perSecond(this.requestsDispatched);
+  }
+
+  /**
+   * Get the average number of pending requests over the run.
+   *
+   * @return the mean length of the request queues.
+   */
+  public double getMeanPending() {
+    return this.ticks == 0 ? 0 : (double) this.pendingTotal / this.ticks;
+  }
+
+  /**
+   * Get the average number of ticks a request waits before it is handed to an elevator.
+   * This is worked out from Little's law, the mean queue length over the arrival rate. The
+   * queues also hold the later legs of trips across zones, so the rate is that of the legs
+   * handed to an elevator rather than of the accepted requests.
+   *
+   * @return the mean wait in ticks.
+   */
+  public double getMeanWaitTicks() {
+    return this.requestsDispatched == 0 ? 0
+        : (double) this.pendingTotal / this.requestsDispatched;
+  }
+
+  /**
+   * Convert a count into a rate per second of wall clock time.
+   *
+   * @param count the count to convert.
+   * @return the count per second.
+   */
+  private double perSecond(long count) {
+    return this.elapsedNanos == 0 ? 0 : count * 1_000_000_000.0 / this.elapsedNanos;
+  }
+
+  /**
+   * This method is used to get the string representation of the SimulationResult object.
+   *
+   * @return the string representation of the SimulationResult object.
+   */
+  @Override
+  public String toString() {
+    return String.format("Simulated ticks: %d in %.3f s%n"
+            + "Throughput: %.0f ticks/s, %.0f requests dispatched/s%n"
+            + "Requests: %d submitted, %d accepted, %d dispatched, %d pending at end%n"
+            + "Riders: %d delivered, %d left behind%n"
+            + "Queue: mean %.2f, max %d pending%n"
+            + "Mean wait before dispatch: %.2f ticks%n",
+        this.ticks, this.elapsedNanos / 1_000_000_000.0,
+        this.getTicksPerSecond(), this.getRequestsDispatchedPerSecond(),
+        this.requestsSubmitted, this.requestsAccepted, this.requestsDispatched, this.pendingAtEnd,
+        this.ridersDelivered, this.ridersLeftBehind,
+        this.getMeanPending(), this.pendingMax,
+        this.getMeanWaitTicks());
+  }
+}
@@ -0,0 +1,123 @@
+package simulation;
+
+import building.Building;
+import building.enums.ElevatorSystemStatus;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import scanerzus.Request;
+
+/**
+ * This class drives a building without any user interface.
+ * Every tick the arriving requests are handed to the building and then the building is stepped.
+ */
+public class SimulationRunner {
+  private final Building building;
+  private final RequestStream requests;
+  private boolean eventDriven = false;
+
+  /**
+   * The constructor for the simulation runner.
+   *
+   * @param building the building to simulate.
+   * @param requests the stream of requests that arrive at the building.
+   */
+  public SimulationRunner(Building building, RequestStream requests) {
+    this.building = Objects.requireNonNull(building, "Building could not be null.");
+    this.requests = Objects.requireNonNull(requests, "RequestStream could not be null.");
+  }
+
+  /**
+   * Get the building that is simulated.
+   *
+   * @return the building.
+   */
+  public Building getBuilding() {
+    return this.building;
+  }
+
+  /**
+   * Choose between stepping every tick and jumping from event to event.
+   * Both produce the same final state, event driven runs skip the ticks in which
+   * only timers count down or elevators move between stops.
+   *
+   * @param eventDriven true to jump from event to event, false to step every tick.
+   */
+  public void setEventDriven(boolean eventDriven) {
+    this.eventDriven = eventDriven;
+  }
+
+  /**
+   * Run the building for a number of ticks.
+   * The building is started first if it is out of service.
+   *
+   * @param ticks the number of ticks to run.
+   * @return the throughput and service numbers of the run.
+   * @throws IllegalArgumentException if ticks is negative.
+   */
+  public SimulationResult run(long ticks) {
+    if (ticks < 0) {
+      throw new IllegalArgumentException("Number of ticks should not be negative.");
+    }
+    if (this.building.getElevatorSystemStatus().getSystemStatus()
+        == ElevatorSystemStatus.outOfService) {
+      this.building.startElevatorSystem();
+    }
+
+    final long acceptedBefore = this.building.getRequestsAccepted();
+    final long dispatchedBefore = this.building.getRequestsDispatched();
+    final long deliveredBefore = this.building.getRidersDelivered();
+    final long leftBehindBefore = this.building.getRidersLeftBehind();
+    List<Request> arrivals = new ArrayList<>();
+    long submitted = 0;
+    long pendingTotal = 0;
+    int pendingMax = 0;
+
+    long start = System.nanoTime();
+    long end = this.building.getCurrentTick() + ticks;
+    while (this.building.getCurrentTick() < end) {
+      long tick = this.building.getCurrentTick();
+      arrivals.clear();
+      this.requests.arrivalsAt(tick, arrivals);
+      for (Request request : arrivals) {
+        this.building.handleAddRequest(request);
+      }
+      submitted += arrivals.size();
+
+      long advanced = 1;
+      int pendingBefore = this.pendingRequests();
+      if (this.eventDriven) {
+        long nextArrival = Math.min(this.requests.nextArrivalTick(tick + 1), end);
+        advanced = this.building.advanceElevatorSystem(nextArrival - tick);
+      } else {
+        this.building.stepElevatorSystem();
+      }
+
+      // The queues do not change during the skipped ticks.
+      int pending = this.pendingRequests();
+      if (advanced > 1) {
+        pendingTotal += pendingBefore * (advanced - 1);
+        pendingMax = Math.max(pendingMax, pendingBefore);
+      }
+      pendingTotal += pending;
+      pendingMax = Math.max(pendingMax, pending);
+    }
+    long elapsed = System.nanoTime() - start;
+
+    return new SimulationResult(ticks, elapsed, submitted,
+        this.building.getRequestsAccepted() - acceptedBefore,
+        this.building.getRequestsDispatched() - dispatchedBefore,
+        pendingTotal, pendingMax, this.pendingRequests(),
+        this.building.getRidersDelivered() - deliveredBefore,
+        this.building.getRidersLeftBehind() - leftBehindBefore);
+  }
+
+  /**
+   * Get the number of requests waiting for an elevator.
+   *
+   * @return the number of pending requests.
+   */
+  private int pendingRequests() {
+    return this.building.getUpRequests().size() + this.building.getDownRequests().size();
+  }
+}
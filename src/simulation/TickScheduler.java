@@ -0,0 +1,301 @@
+package simulation;
+
+import building.BuildingInterface;
+import building.BuildingReport;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * This class steps a building on its own thread at a steady tick rate.
+ * While the scheduler runs, the building belongs to the simulation thread: other threads
+ * hand it commands with submit, which run between two ticks, and read the state from the
+ * snapshot the scheduler publishes at most once per publish interval. A tick whose step takes
+ * longer than the time between two ticks is counted as an overrun, and the schedule starts
+ * again from the end of that step instead of trying to catch up.
+ */
+public class TickScheduler {
+  /**
+   * The tick rate that steps the building as fast as possible.
+   */
+  public static final double AS_FAST_AS_POSSIBLE = Double.POSITIVE_INFINITY;
+
+  private static final long DEFAULT_PUBLISH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(16);
+
+  private final BuildingInterface building;
+  private final Queue<Consumer<BuildingInterface>> commands = new ConcurrentLinkedQueue<>();
+  private final Object lock = new Object();
+  private volatile double ticksPerSecond = 1.0;
+  private volatile long publishIntervalNanos = DEFAULT_PUBLISH_INTERVAL_NANOS;
+  private volatile BuildingReport latestReport;
+  private volatile boolean running = false;
+  private volatile long ticks = 0;
+  private volatile long overruns = 0;
+  private volatile long maxOverrunNanos = 0;
+  private volatile RuntimeException failure;
+  private Thread thread;
+
+  /**
+   * The constructor for the scheduler, stepping one tick per second until told otherwise.
+   *
+   * @param building the building to step.
+   */
+  public TickScheduler(BuildingInterface building) {
+    this.building = Objects.requireNonNull(building, "Building could not be null.");
+    this.latestReport = snapshot(building);
+  }
+
+  /**
+   * Set the number of ticks stepped every second, the change is picked up on the next tick.
+   *
+   * @param ticksPerSecond the tick rate, AS_FAST_AS_POSSIBLE to step without waiting.
+   * @throws IllegalArgumentException if the tick rate is not positive.
+   */
+  public void setTicksPerSecond(double ticksPerSecond) throws IllegalArgumentException {
+    if (!(ticksPerSecond > 0)) {
+      throw new IllegalArgumentException("Tick rate should be larger than 0.");
+    }
+    this.ticksPerSecond = ticksPerSecond;
+  }
+
+  /**
+   * Get the number of ticks stepped every second.
+   *
+   * @return the tick rate, AS_FAST_AS_POSSIBLE if the building is stepped without waiting.
+   */
+  public double getTicksPerSecond() {
+    return this.ticksPerSecond;
+  }
+
+  /**
+   * Set the shortest time between two published snapshots.
+   * A user interface should use about its frame time.
+   *
+   * @param publishIntervalNanos the time between two snapshots in nanoseconds.
+   * @throws IllegalArgumentException if the interval is negative.
+   */
+  public void setPublishIntervalNanos(long publishIntervalNanos)
+      throws IllegalArgumentException {
+    if (publishIntervalNanos < 0) {
+      throw new IllegalArgumentException("Publish interval should not be negative.");
+    }
+    this.publishIntervalNanos = publishIntervalNanos;
+  }
+
+  /**
+   * Start stepping the building on the simulation thread.
+   *
+   * @throws IllegalStateException if the scheduler is already running.
+   */
+  public void start() throws IllegalStateException {
+    synchronized (this.lock) {
+      if (this.running) {
+        throw new IllegalStateException("The scheduler is already running.");
+      }
+      this.running = true;
+      this.thread = new Thread(this::run, "tick-scheduler");
+      this.thread.setDaemon(true);
+      this.thread.start();
+    }
+  }
+
+  /**
+   * Stop stepping the building and wait for the simulation thread to finish its tick.
+   * Commands that were not run yet are run on the calling thread.
+   */
+  public void stop() {
+    Thread stopped;
+    synchronized (this.lock) {
+      if (!this.running) {
+        return;
+      }
+      this.running = false;
+      stopped = this.thread;
+      this.thread = null;
+      LockSupport.unpark(stopped);
+    }
+    boolean interrupted = false;
+    while (stopped.isAlive()) {
+      try {
+        stopped.join();
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    synchronized (this.lock) {
+      this.runCommands();
+      this.latestReport = snapshot(this.building);
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Check if the scheduler is stepping the building.
+   *
+   * @return true if the scheduler is running, false otherwise.
+   */
+  public boolean isRunning() {
+    return this.running;
+  }
+
+  /**
+   * Run a command on the building.
+   * While the scheduler runs the command is run on the simulation thread before the next
+   * tick, otherwise it is run at once on the calling thread.
+   *
+   * @param command the command to run.
+   */
+  public void submit(Consumer<BuildingInterface> command) {
+    Objects.requireNonNull(command, "Command could not be null.");
+    synchronized (this.lock) {
+      if (this.running) {
+        this.commands.add(command);
+        return;
+      }
+      command.accept(this.building);
+      this.latestReport = snapshot(this.building);
+    }
+  }
+
+  /**
+   * Get the latest snapshot of the building.
+   * The snapshot never changes, so it can be read on any thread.
+   *
+   * @return the latest report of the building.
+   */
+  public BuildingReport getLatestReport() {
+    return this.latestReport;
+  }
+
+  /**
+   * Get the number of ticks stepped by the scheduler.
+   *
+   * @return the number of ticks.
+   */
+  public long getTicks() {
+    return this.ticks;
+  }
+
+  /**
+   * Get the number of ticks whose step took longer than the time between two ticks.
+   *
+   * @return the number of overruns.
+   */
+  public long getOverruns() {
+    return this.overruns;
+  }
+
+  /**
+   * Get the longest time a step took beyond the time between two ticks.
+   *
+   * @return the longest overrun in nanoseconds.
+   */
+  public long getMaxOverrunNanos() {
+    return this.maxOverrunNanos;
+  }
+
+  /**
+   * Get the exception that stopped the simulation thread.
+   *
+   * @return the exception, null if the thread never failed.
+   */
+  public RuntimeException getFailure() {
+    return this.failure;
+  }
+
+  /**
+   * The loop of the simulation thread.
+   * A command or step that throws stops the scheduler, the exception is kept as the failure.
+   * The commands still waiting are then run as if the scheduler was stopped, and whatever
+   * they throw is added to the failure.
+   */
+  private void run() {
+    try {
+      this.loop();
+    } catch (RuntimeException e) {
+      this.failure = e;
+      synchronized (this.lock) {
+        this.running = false;
+        this.thread = null;
+        for (Consumer<BuildingInterface> command = this.commands.poll(); command != null;
+             command = this.commands.poll()) {
+          try {
+            command.accept(this.building);
+          } catch (RuntimeException later) {
+            e.addSuppressed(later);
+          }
+        }
+        this.latestReport = snapshot(this.building);
+      }
+    }
+  }
+
+  /**
+   * Step the building until the scheduler is stopped.
+   */
+  private void loop() {
+    long nextTick = System.nanoTime();
+    long lastPublish = nextTick;
+    while (this.running) {
+      this.runCommands();
+
+      long start = System.nanoTime();
+      this.building.stepElevatorSystem();
+      long end = System.nanoTime();
+      this.ticks++;
+
+      double rate = this.ticksPerSecond;
+      if (rate != AS_FAST_AS_POSSIBLE) {
+        long budget = (long) (1_000_000_000L / rate);
+        long overrun = end - start - budget;
+        if (overrun > 0) {
+          this.overruns++;
+          this.maxOverrunNanos = Math.max(this.maxOverrunNanos, overrun);
+        }
+        nextTick = Math.max(nextTick + budget, end);
+      }
+
+      if (end - lastPublish >= this.publishIntervalNanos) {
+        this.latestReport = snapshot(this.building);
+        lastPublish = end;
+      }
+
+      if (rate != AS_FAST_AS_POSSIBLE) {
+        for (long wait = nextTick - System.nanoTime(); wait > 0 && this.running;
+             wait = nextTick - System.nanoTime()) {
+          LockSupport.parkNanos(this, wait);
+        }
+      }
+    }
+  }
+
+  /**
+   * Run the commands that are waiting.
+   */
+  private void runCommands() {
+    for (Consumer<BuildingInterface> command = this.commands.poll(); command != null;
+         command = this.commands.poll()) {
+      command.accept(this.building);
+    }
+  }
+
+  /**
+   * Make a report of the building that does not change with the building.
+   *
+   * @param building the building.
+   * @return the report.
+   */
+  private static BuildingReport snapshot(BuildingInterface building) {
+    BuildingReport report = building.getElevatorSystemStatus();
+    return new BuildingReport(report.getNumFloors(), report.getNumElevators(),
+        report.getElevatorCapacity(), report.getElevatorReports(),
+        new ArrayList<>(report.getUpRequests()), new ArrayList<>(report.getDownRequests()),
+        report.getSystemStatus());
+  }
+}
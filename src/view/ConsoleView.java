@@ -21,6 +21,8 @@ import javax.swing.JPanel;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import simulation.TickScheduler;
 
 /**
  * The ConsoleView class is the view for the building simulation.
@@ -38,6 +40,9 @@ public class ConsoleView extends JFrame {
   private JTextField upLabel;
   private JTextField downLabel;
   private JTextField systemStatus;
+  // redraws the latest snapshot at the frame rate while the building runs on its own.
+  private final Timer refreshTimer = new Timer(33, e -> refresh());
+  private JButton runButton;
 
   /**
    * Constructor for the ConsoleView class.
@@ -79,6 +84,7 @@ public class ConsoleView extends JFrame {
    * Switch to the start view.
    */
   public void toStartView() {
+    pauseAutoRun();
     this.setVisible(false);
     startView.setVisible(true);
   }
@@ -313,6 +319,31 @@ public class ConsoleView extends JFrame {
     consolePanel.add(stepButton);
     consolePanel.add(Box.createVerticalStrut(verticalGap));
 
+    // run button and speed of the automatic steps
+    JComboBox<String> speedField = new JComboBox<>(new String[] {"1x", "10x", "100x", "1000x",
+        "Max"});
+    speedField.setMaximumSize(new Dimension(Integer.MAX_VALUE, buttonHeight));
+    speedField.addActionListener(e -> {
+      if (controller.isAutoRunning()) {
+        controller.startAutoRun(toTicksPerSecond((String) speedField.getSelectedItem()));
+      }
+    });
+    runButton = createButton("Run", e -> {
+      if (controller.isAutoRunning()) {
+        pauseAutoRun();
+      } else {
+        controller.startAutoRun(toTicksPerSecond((String) speedField.getSelectedItem()));
+        runButton.setText("Pause");
+        refreshTimer.start();
+      }
+    }, buttonHeight);
+    JPanel runPanel = new JPanel();
+    runPanel.setLayout(new BoxLayout(runPanel, BoxLayout.X_AXIS));
+    runPanel.add(runButton);
+    runPanel.add(speedField);
+    consolePanel.add(runPanel);
+    consolePanel.add(Box.createVerticalStrut(verticalGap));
+
     // halt button
     JButton haltButton = createButton("Halt", e -> {
       controller.stopElevatorSystem();
@@ -359,6 +390,45 @@ public class ConsoleView extends JFrame {
     consolePanel.add(Box.createVerticalStrut(verticalGap));
   }
 
+  /**
+   * Get the tick rate of a speed in the speed box.
+   *
+   * @param speed the speed, a multiple of one tick per second or Max
+   * @return the tick rate
+   */
+  private static double toTicksPerSecond(String speed) {
+    if ("Max".equals(speed)) {
+      return TickScheduler.AS_FAST_AS_POSSIBLE;
+    }
+    return Double.parseDouble(speed.replace("x", ""));
+  }
+
+  /**
+   * Stop the automatic steps and show the state they stopped in.
+   */
+  private void pauseAutoRun() {
+    controller.pauseAutoRun();
+    refreshTimer.stop();
+    if (runButton != null) {
+      runButton.setText("Run");
+    }
+    refresh();
+  }
+
+  /**
+   * Redraw the console from the latest report of the building.
+   */
+  private void refresh() {
+    if (refreshTimer.isRunning() && !controller.isAutoRunning()) {
+      // the building stopped on its own after a failure
+      pauseAutoRun();
+      return;
+    }
+    updateText();
+    updateIcon();
+    controller.updateElevatorDisplays();
+  }
+
   /**
    * Handle the continue operation.
    */
@@ -366,13 +436,15 @@ public class ConsoleView extends JFrame {
     SwingUtilities.invokeLater(() -> {
       ElevatorSystemStatus status = controller.getBuildingReport().getSystemStatus();
       if (status == ElevatorSystemStatus.outOfService) {
-        if (controller.startElevatorSystem()) {
-          systemStatus.setText("STATUS: Running");
-        } else {
-          systemStatus.setText("STATUS: Out of Service");
-          JOptionPane.showMessageDialog(null, "Failed to start the elevator system.", "Start Error",
-              JOptionPane.ERROR_MESSAGE);
-        }
+        controller.startElevatorSystem().thenAccept(started -> SwingUtilities.invokeLater(() -> {
+          if (started) {
+            systemStatus.setText("STATUS: Running");
+          } else {
+            systemStatus.setText("STATUS: Out of Service");
+            JOptionPane.showMessageDialog(null, "Failed to start the elevator system.",
+                "Start Error", JOptionPane.ERROR_MESSAGE);
+          }
+        }));
       } else if (status == ElevatorSystemStatus.running) {
         JOptionPane.showMessageDialog(null, "Elevator system is already running.",
             "No Action Needed", JOptionPane.INFORMATION_MESSAGE);
@@ -396,8 +468,7 @@ public class ConsoleView extends JFrame {
   private void handleRandomRequests() {
     SwingUtilities.invokeLater(() -> {
       if (controller.getBuildingReport().getSystemStatus() == ElevatorSystemStatus.running) {
-        int requestCount = (int) (Math.random() * 5) + 1; // 生成1到5之间的随机请求数量
-        controller.generateRandomRequests(requestCount);
+        controller.generateRandomRequests(); // 生成1到5之间的随机请求数量
         updateText();
         updateIcon();
       } else {
@@ -414,7 +485,12 @@ public class ConsoleView extends JFrame {
     BuildingReport report = controller.getBuildingReport();
     updateLabel(upLabel, "UP: ", controller.formatRequestList(report.getUpRequests()));
     updateLabel(downLabel, "DOWN: ", controller.formatRequestList(report.getDownRequests()));
-    updateLabel(systemStatus, "STATUS: ", report.getSystemStatus().toString());
+    String status = report.getSystemStatus().toString();
+    TickScheduler scheduler = controller.getScheduler();
+    if (scheduler != null && scheduler.getTicks() > 0) {
+      status += " (ticks " + scheduler.getTicks() + ", overruns " + scheduler.getOverruns() + ")";
+    }
+    updateLabel(systemStatus, "STATUS: ", status);
   }
 
 
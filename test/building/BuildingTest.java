@@ -1,11 +1,34 @@
 package building;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import building.dispatch.Assignment;
+import building.dispatch.DeadlineDispatchStrategy;
+import building.dispatch.DemandParkingPolicy;
+import building.dispatch.DispatchContext;
+import building.dispatch.EtaDispatchStrategy;
+import building.dispatch.FifoDispatchStrategy;
+import building.dispatch.MidRunPickupDispatchStrategy;
+import building.dispatch.NearestCarDispatchStrategy;
+import building.dispatch.ParkingPolicy;
+import building.enums.Direction;
+import building.enums.ElevatorEngine;
 import building.enums.ElevatorSystemStatus;
+import elevator.ElevatorReport;
+import elevator.ElevatorState;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -703,4 +726,1016 @@ public class BuildingTest {
         + "Waiting[Floor 10, Time 4], Waiting[Floor 10, Time 4]]",
         Arrays.toString(buildingTest.getElevatorSystemStatus().elevatorReports));
   }
+
+  /**
+   * Test that advancing from event to event gives the same state as stepping every tick.
+   */
+  @Test
+  public void testAdvanceMatchesStep() {
+    Building stepped = new Building(12, 3, 5);
+    Building advanced = new Building(12, 3, 5);
+    stepped.startElevatorSystem();
+    advanced.startElevatorSystem();
+    long[] arrivalTicks = {0, 3, 40, 41, 200, 650};
+    Request[] requests = {new Request(0, 7), new Request(11, 2), new Request(4, 9),
+        new Request(0, 11), new Request(8, 1), new Request(0, 3)};
+
+    for (int i = 0; i <= arrivalTicks.length; i++) {
+      long until = i < arrivalTicks.length ? arrivalTicks[i] : 2000;
+      while (stepped.getCurrentTick() < until) {
+        stepped.stepElevatorSystem();
+      }
+      while (advanced.getCurrentTick() < until) {
+        long advancedTicks = advanced.advanceElevatorSystem(until - advanced.getCurrentTick());
+        assertTrue(advancedTicks >= 1);
+      }
+      assertSameState(stepped, advanced);
+
+      if (i < arrivalTicks.length) {
+        stepped.handleAddRequest(requests[i]);
+        advanced.handleAddRequest(requests[i]);
+      }
+      if (until == 650) {
+        stepped.stopElevatorSystem();
+        advanced.stopElevatorSystem();
+      }
+    }
+    assertEquals(ElevatorSystemStatus.outOfService, advanced.getElevatorSystemStatus()
+        .getSystemStatus());
+  }
+
+  /**
+   * Test that stepping a large fleet in parallel gives the same state as stepping it in order.
+   */
+  @Test
+  public void testParallelStepMatchesSerial() {
+    Building serial = new Building(20, 300, 10);
+    Building parallel = new Building(20, 300, 10);
+    parallel.setParallelThreshold(8);
+    parallel.setStepPool(new ForkJoinPool(4));
+    serial.startElevatorSystem();
+    parallel.startElevatorSystem();
+
+    for (int tick = 0; tick < 400; tick++) {
+      if (tick % 3 == 0) {
+        Request request = new Request(tick % 20, (tick * 7 + 1) % 20);
+        serial.handleAddRequest(request);
+        parallel.handleAddRequest(request);
+      }
+      if (tick % 50 == 0) {
+        serial.advanceElevatorSystem(20);
+        parallel.advanceElevatorSystem(20);
+      } else {
+        serial.stepElevatorSystem();
+        parallel.stepElevatorSystem();
+      }
+      assertEquals(serial.getCurrentTick(), parallel.getCurrentTick());
+    }
+    assertSameState(serial, parallel);
+  }
+
+  /**
+   * Test that a building on the bank engine behaves like one on the object engine.
+   */
+  @Test
+  public void testBankEngineMatchesObjectEngine() {
+    Building objects = new Building(15, 6, 4);
+    Building bank = new Building(15, 6, 4, ElevatorEngine.BANK);
+    bank.setParallelThreshold(2);
+    bank.setStepPool(new ForkJoinPool(2));
+    assertEquals(ElevatorEngine.BANK, bank.getEngine());
+    objects.startElevatorSystem();
+    bank.startElevatorSystem();
+
+    for (int tick = 0; tick < 600; tick++) {
+      if (tick % 4 == 0 && tick < 500) {
+        Request request = new Request((tick * 3) % 15, (tick * 5 + 2) % 15);
+        objects.handleAddRequest(request);
+        bank.handleAddRequest(request);
+      }
+      if (tick == 520) {
+        objects.stopElevatorSystem();
+        bank.stopElevatorSystem();
+      }
+      if (tick % 7 == 0) {
+        objects.advanceElevatorSystem(10);
+        bank.advanceElevatorSystem(10);
+      } else {
+        objects.stepElevatorSystem();
+        bank.stepElevatorSystem();
+      }
+      assertSameState(objects, bank);
+    }
+  }
+
+  /**
+   * Test that the waiting requests are counted per floor and direction.
+   */
+  @Test
+  public void testWaitingCount() {
+    Building building = new Building(10, 1, 5);
+    building.startElevatorSystem();
+    building.handleAddRequest(new Request(3, 7));
+    building.handleAddRequest(new Request(3, 8));
+    building.handleAddRequest(new Request(3, 1));
+    building.handleAddRequest(new Request(6, 2));
+    assertEquals(2, building.getWaitingCount(3, Direction.UP));
+    assertEquals(1, building.getWaitingCount(3, Direction.DOWN));
+    assertEquals(1, building.getWaitingCount(6, Direction.DOWN));
+    assertEquals(0, building.getWaitingCount(6, Direction.UP));
+  }
+
+  /**
+   * Test that the bank engine refuses LOOK mode.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testLookModeNeedsObjects() {
+    new Building(10, 2, 5, ElevatorEngine.BANK).setLookMode(true);
+  }
+
+  /**
+   * Test that in LOOK mode a building ends up the same jumping from event to event as
+   * stepping every tick, and that its elevators do not run to the top without a stop there.
+   */
+  @Test
+  public void testLookModeEventMatchesTick() {
+    Building ticked = new Building(30, 3, 5);
+    Building evented = new Building(30, 3, 5);
+    for (Building building : new Building[] {ticked, evented}) {
+      building.setLookMode(true);
+      building.startElevatorSystem();
+    }
+    assertTrue(ticked.isLookMode());
+    for (int tick = 0; tick < 400; ) {
+      if (tick % 25 == 0) {
+        Request request = new Request((tick / 25) % 6, (tick / 25) % 6 + 3);
+        ticked.handleAddRequest(request);
+        evented.handleAddRequest(request);
+      }
+      long advanced = evented.advanceElevatorSystem(25 - tick % 25);
+      for (long i = 0; i < advanced; i++) {
+        ticked.stepElevatorSystem();
+      }
+      tick += advanced;
+      assertSameState(ticked, evented);
+      for (ElevatorReport report : ticked.getElevatorSystemStatus().getElevatorReports()) {
+        assertTrue(report.getCurrentFloor() <= 8);
+      }
+    }
+    assertEquals(16, ticked.getRequestsDispatched());
+  }
+
+  /**
+   * Test that jumping from event to event with pickups on the way ends like stepping every
+   * tick, and that the pickups cut the wait.
+   */
+  @Test
+  public void testPickUpEventMatchesTick() {
+    Building ticked = new Building(30, 3, 5);
+    Building evented = new Building(30, 3, 5);
+    Building plain = new Building(30, 3, 5);
+    for (Building building : new Building[] {ticked, evented}) {
+      building.setDispatchStrategy(
+          new MidRunPickupDispatchStrategy(new FifoDispatchStrategy()));
+    }
+    for (Building building : new Building[] {ticked, evented, plain}) {
+      building.startElevatorSystem();
+    }
+    for (int tick = 0; tick < 600; ) {
+      if (tick % 20 == 0) {
+        int start = (tick / 20) * 7 % 25 + 2;
+        Request request = tick % 40 == 0 ? new Request(start, start + 3)
+            : new Request(start, start - 2);
+        ticked.handleAddRequest(request);
+        evented.handleAddRequest(request);
+        plain.handleAddRequest(request);
+      }
+      long advanced = evented.advanceElevatorSystem(20 - tick % 20);
+      for (long i = 0; i < advanced; i++) {
+        ticked.stepElevatorSystem();
+        plain.stepElevatorSystem();
+      }
+      tick += advanced;
+      assertSameState(ticked, evented);
+    }
+    assertTrue(ticked.getRequestsDispatched() > plain.getRequestsDispatched());
+  }
+
+  /**
+   * Test that jumping from event to event with the ETA strategy ends like stepping every
+   * tick, in both modes.
+   */
+  @Test
+  public void testEtaEventMatchesTick() {
+    for (boolean look : new boolean[] {false, true}) {
+      Building ticked = new Building(30, 3, 5);
+      Building evented = new Building(30, 3, 5);
+      for (Building building : new Building[] {ticked, evented}) {
+        building.setDispatchStrategy(new EtaDispatchStrategy());
+        building.setLookMode(look);
+        building.startElevatorSystem();
+      }
+      for (int tick = 0; tick < 600; ) {
+        if (tick % 15 == 0) {
+          int start = (tick / 15) * 7 % 25 + 2;
+          Request request = tick % 30 == 0 ? new Request(start, start + 3)
+              : new Request(start, start - 2);
+          ticked.handleAddRequest(request);
+          evented.handleAddRequest(request);
+        }
+        long advanced = evented.advanceElevatorSystem(15 - tick % 15);
+        for (long i = 0; i < advanced; i++) {
+          ticked.stepElevatorSystem();
+        }
+        tick += advanced;
+        assertSameState(ticked, evented);
+      }
+      assertTrue(ticked.getRequestsDispatched() > 30);
+    }
+  }
+
+  /**
+   * Test that jumping from event to event hands out due calls like stepping every tick.
+   */
+  @Test
+  public void testDeadlineEventMatchesTick() {
+    Building ticked = new Building(30, 3, 5);
+    Building evented = new Building(30, 3, 5);
+    for (Building building : new Building[] {ticked, evented}) {
+      building.setDispatchStrategy(new DeadlineDispatchStrategy(
+          new MidRunPickupDispatchStrategy(new NearestCarDispatchStrategy()), 20));
+      building.setLookMode(true);
+      building.startElevatorSystem();
+    }
+    for (int tick = 0; tick < 600; ) {
+      if (tick % 5 == 0) {
+        int start = (tick / 5) * 11 % 25 + 2;
+        Request request = tick % 10 == 0 ? new Request(start, start + 3)
+            : new Request(start, start - 2);
+        ticked.handleAddRequest(request);
+        evented.handleAddRequest(request);
+      }
+      long advanced = evented.advanceElevatorSystem(5 - tick % 5);
+      for (long i = 0; i < advanced; i++) {
+        ticked.stepElevatorSystem();
+      }
+      tick += advanced;
+      assertSameState(ticked, evented);
+    }
+    assertTrue(ticked.getRequestsDispatched() > 100);
+  }
+
+  /**
+   * Test that jumping from event to event parks the elevators like stepping every tick.
+   */
+  @Test
+  public void testParkingEventMatchesTick() {
+    Building ticked = new Building(30, 3, 5);
+    Building evented = new Building(30, 3, 5);
+    for (Building building : new Building[] {ticked, evented}) {
+      building.setLookMode(true);
+      building.setParkingPolicy(new DemandParkingPolicy(0.2));
+      building.startElevatorSystem();
+    }
+    for (int tick = 0; tick < 2000; ) {
+      if (tick % 50 == 0) {
+        int start = tick % 150 == 0 ? 4 : (tick / 50) * 11 % 27;
+        Request request = new Request(start, start < 14 ? start + 9 : start - 9);
+        ticked.handleAddRequest(request);
+        evented.handleAddRequest(request);
+      }
+      long advanced = evented.advanceElevatorSystem(50 - tick % 50);
+      for (long i = 0; i < advanced; i++) {
+        ticked.stepElevatorSystem();
+      }
+      tick += advanced;
+      assertSameState(ticked, evented);
+    }
+    assertTrue(Arrays.stream(ticked.getElevatorSystemStatus().getElevatorReports())
+        .anyMatch(report -> report.getCurrentFloor() == 4));
+  }
+
+  /**
+   * Make a 30 floor building with a low and a high zone that meet at the sky lobby on floor
+   * 15, and an express shuttle from the ground floor to the sky lobby.
+   *
+   * @return the building.
+   */
+  private static Building skyLobby() {
+    return new Building(30, List.of(new Zone(0, 15, 1, true), new Zone(0, 15, 2, false),
+        new Zone(15, 29, 2, false)), 5, ElevatorEngine.OBJECT, false);
+  }
+
+  /**
+   * Test that a trip across zones changes elevators and every car serves its zone only.
+   */
+  @Test
+  public void testZonedTripChangesElevators() {
+    Building building = skyLobby();
+    assertEquals(5, building.getNumberOfElevators());
+    building.startElevatorSystem();
+    assertFalse(building.handleAddRequest(new Request(0, 30)));
+    assertTrue(building.handleAddRequest(new Request(5, 20)));
+    boolean arrived = false;
+    for (int tick = 0; tick < 500 && !arrived; tick++) {
+      building.stepElevatorSystem();
+      ElevatorReport[] reports = building.getElevatorSystemStatus().getElevatorReports();
+      // the shuttle only opens its door at the ground floor and the sky lobby.
+      int shuttle = reports[0].getCurrentFloor();
+      assertTrue(reports[0].isDoorClosed() || shuttle == 0 || shuttle == 15);
+      assertTrue(reports[1].getCurrentFloor() <= 15 && reports[2].getCurrentFloor() <= 15);
+      // the high cars come up from the ground floor, but never open below their zone.
+      for (int i = 3; i < 5; i++) {
+        assertTrue(reports[i].isDoorClosed() || reports[i].getCurrentFloor() >= 15);
+      }
+      arrived = building.getRequestsDispatched() == 2
+          && (reports[3].getCurrentFloor() == 20 && !reports[3].isDoorClosed()
+          || reports[4].getCurrentFloor() == 20 && !reports[4].isDoorClosed());
+    }
+    assertTrue(arrived);
+    assertEquals(1, building.getRequestsAccepted());
+  }
+
+  /**
+   * Step a building until an elevator opens its door on a floor.
+   *
+   * @param building the building.
+   * @param floor    the floor.
+   * @return the tick the door opened.
+   */
+  private static long stepUntilOpen(Building building, int floor) {
+    for (int tick = 0; tick < 500; tick++) {
+      building.stepElevatorSystem();
+      for (ElevatorReport report : building.getElevatorSystemStatus().getElevatorReports()) {
+        if (report.getCurrentFloor() == floor && report.getDoorOpenTimer() == 3) {
+          return building.getCurrentTick();
+        }
+      }
+    }
+    throw new AssertionError("No door opened on floor " + floor + ".");
+  }
+
+  /**
+   * Test that a request is estimated the same before and after it is added, and that an
+   * elevator handed no other request keeps to the estimate.
+   */
+  @Test
+  public void testEstimateRequest() {
+    for (boolean look : new boolean[] {false, true}) {
+      Building building = new Building(20, 2, 5);
+      building.setLookMode(look);
+      building.setDispatchStrategy(new EtaDispatchStrategy());
+      Request request = new Request(3, 12);
+      assertNull(building.estimateRequest(request));
+      building.startElevatorSystem();
+      for (int tick = 0; tick < 10; tick++) {
+        building.stepElevatorSystem();
+      }
+      assertNull(building.estimateRequest(new Request(3, 3)));
+      RequestEstimate estimate = building.estimateRequest(request);
+      assertTrue(building.handleAddRequest(request));
+      assertEquals(estimate, building.estimateRequest(request));
+      // the cars went up empty, so in the default mode they first come back down.
+      assertEquals(look ? 14 : 54, estimate.getPickupTick());
+      assertEquals(estimate.getPickupTick(), stepUntilOpen(building, 3));
+      assertEquals(estimate.getArrivalTick(), stepUntilOpen(building, 12));
+    }
+  }
+
+  /**
+   * Test that riders wait behind the calls ahead of them for a car with room.
+   */
+  @Test
+  public void testEstimateFullCar() {
+    for (boolean look : new boolean[] {false, true}) {
+      estimateFullCar(look);
+    }
+  }
+
+  /**
+   * Check the estimates of more riders than a car takes against the car.
+   *
+   * @param look true to run the car in LOOK mode.
+   */
+  private static void estimateFullCar(boolean look) {
+    Building building = new Building(20, 1, 5);
+    building.setLookMode(look);
+    building.startElevatorSystem();
+    List<Request> requests = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      Request request = new Request(0, 10);
+      requests.add(request);
+      building.handleAddRequest(request);
+    }
+    List<Long> pickups = new ArrayList<>();
+    List<Long> arrivals = new ArrayList<>();
+    for (int i = 0; i < 20; i += 5) {
+      RequestEstimate estimate = building.estimateRequest(requests.get(i));
+      for (int j = i + 1; j < i + 5; j++) {
+        assertEquals(estimate, building.estimateRequest(requests.get(j)));
+      }
+      pickups.add(estimate.getPickupTick());
+      arrivals.add(estimate.getArrivalTick());
+    }
+    // one more waits for a fifth trip.
+    assertTrue(building.estimateRequest(new Request(0, 10)).getPickupTick() > pickups.get(3));
+    for (int i = 0; i < 4; i++) {
+      assertEquals(pickups.get(i).longValue(), stepUntilOpen(building, 0));
+      assertEquals(arrivals.get(i).longValue(), stepUntilOpen(building, 10));
+    }
+  }
+
+  /**
+   * Test that a trip across zones is estimated leg by leg.
+   */
+  @Test
+  public void testEstimateZonedTrip() {
+    Building building = skyLobby();
+    building.setLookMode(true);
+    building.startElevatorSystem();
+    for (int tick = 0; tick < 10; tick++) {
+      building.stepElevatorSystem();
+    }
+    Request request = new Request(5, 20);
+    RequestEstimate estimate = building.estimateRequest(request);
+    building.handleAddRequest(request);
+    assertEquals(estimate.getPickupTick(), stepUntilOpen(building, 5));
+    assertEquals(estimate.getArrivalTick(), stepUntilOpen(building, 20));
+  }
+
+  /**
+   * Test that jumping from event to event moves riders across zones like stepping every tick,
+   * and that a checkpoint taken while riders change zones carries on the same.
+   */
+  @Test
+  public void testZonesEventMatchesTick() throws IOException {
+    Building ticked = skyLobby();
+    Building evented = skyLobby();
+    ticked.startElevatorSystem();
+    evented.startElevatorSystem();
+    for (int tick = 0; tick < 2000; ) {
+      if (tick % 20 == 0) {
+        int start = (tick / 20) * 7 % 30;
+        Request request = new Request(start, (start + 13) % 30);
+        ticked.handleAddRequest(request);
+        evented.handleAddRequest(request);
+      }
+      long advanced = evented.advanceElevatorSystem(20 - tick % 20);
+      for (long i = 0; i < advanced; i++) {
+        ticked.stepElevatorSystem();
+      }
+      tick += advanced;
+      assertSameState(ticked, evented);
+      if (tick == 1000) {
+        evented = saveAndLoad(evented);
+      }
+    }
+    assertEquals(ticked.getRequestsDispatched(), evented.getRequestsDispatched());
+    assertTrue(ticked.getRequestsDispatched() > ticked.getRequestsAccepted());
+  }
+
+  /**
+   * Test that requests submitted from several threads are all handed in on the next step.
+   */
+  @Test
+  public void testSubmitRequestFromManyThreads() throws InterruptedException {
+    Building building = new Building(20, 4, 5);
+    building.startElevatorSystem();
+    Thread[] producers = new Thread[4];
+    for (int p = 0; p < producers.length; p++) {
+      producers[p] = new Thread(() -> {
+        for (int i = 0; i < 5000; i++) {
+          assertTrue(building.submitRequest(new Request(i % 19, 19 - i % 19)));
+        }
+      });
+      producers[p].start();
+    }
+    for (Thread producer : producers) {
+      producer.join();
+    }
+    assertEquals(0, building.getRequestsAccepted());
+
+    building.stepElevatorSystem();
+    // i % 19 == 19 - i % 19 never holds, so every request is valid.
+    assertEquals(20_000, building.getRequestsAccepted());
+  }
+
+  /**
+   * Test that advancing does not skip over submitted requests.
+   */
+  @Test
+  public void testAdvanceStopsForSubmittedRequest() {
+    Building building = new Building(20, 1, 5);
+    building.startElevatorSystem();
+    building.handleAddRequest(new Request(0, 19));
+    building.stepElevatorSystem();
+    building.stepElevatorSystem();
+    building.submitRequest(new Request(0, 5));
+    assertEquals(1, building.advanceElevatorSystem(100));
+    assertEquals(2, building.getRequestsAccepted());
+  }
+
+  /**
+   * Test that a building on the actor engine behaves like one on the object engine.
+   */
+  @Test
+  public void testActorEngineMatchesObjectEngine() {
+    Building objects = new Building(15, 6, 4);
+    Building actors = new Building(15, 6, 4, ElevatorEngine.ACTOR);
+    actors.setStepPool(new ForkJoinPool(2));
+    assertEquals(ElevatorEngine.ACTOR, actors.getEngine());
+    objects.startElevatorSystem();
+    actors.startElevatorSystem();
+
+    for (int tick = 0; tick < 600; tick++) {
+      if (tick % 4 == 0 && tick < 500) {
+        Request request = new Request((tick * 3) % 15, (tick * 5 + 2) % 15);
+        objects.handleAddRequest(request);
+        actors.handleAddRequest(request);
+      }
+      if (tick == 520) {
+        objects.stopElevatorSystem();
+        actors.stopElevatorSystem();
+      }
+      if (tick % 7 == 0) {
+        objects.advanceElevatorSystem(10);
+        actors.advanceElevatorSystem(10);
+      } else {
+        objects.stepElevatorSystem();
+        actors.stepElevatorSystem();
+      }
+      assertSameState(objects, actors);
+    }
+  }
+
+  /**
+   * Save a building to memory and load it again.
+   *
+   * @param building the building to save.
+   * @return the loaded building.
+   * @throws IOException if the checkpoint could not be written or read.
+   */
+  private static Building saveAndLoad(Building building) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    building.save(Channels.newChannel(out));
+    return Building.load(Channels.newChannel(new ByteArrayInputStream(out.toByteArray())));
+  }
+
+  /**
+   * Test that a loaded checkpoint carries on exactly like the saved building.
+   */
+  @Test
+  public void testCheckpointResumesRun() throws IOException {
+    for (ElevatorEngine engine : ElevatorEngine.values()) {
+      Building original = new Building(20, 5, 4, engine);
+      original.startElevatorSystem();
+      for (int tick = 0; tick < 137; tick++) {
+        original.handleAddRequest(new Request((tick * 7) % 20, (tick * 11 + 3) % 20));
+        original.stepElevatorSystem();
+      }
+
+      Building loaded = saveAndLoad(original);
+      assertEquals(engine, loaded.getEngine());
+      assertEquals(original.getCurrentTick(), loaded.getCurrentTick());
+      assertEquals(original.getRequestsAccepted(), loaded.getRequestsAccepted());
+      assertEquals(original.getRequestsDispatched(), loaded.getRequestsDispatched());
+      for (int tick = 0; tick < 300; tick++) {
+        assertArrayEquals(original.getElevatorSystemStatus().getElevatorReports(),
+            loaded.getElevatorSystemStatus().getElevatorReports());
+        assertSameState(original, loaded);
+        if (tick == 200) {
+          original.stopElevatorSystem();
+          loaded.stopElevatorSystem();
+        }
+        original.stepElevatorSystem();
+        loaded.stepElevatorSystem();
+      }
+    }
+  }
+
+  /**
+   * Test that a building picking up riders on the way carries on the same after a checkpoint
+   * taken at any tick.
+   */
+  @Test
+  public void testCheckpointResumesPickUp() throws IOException {
+    assertResumesFromEveryTick(ElevatorEngine.OBJECT, 3, building -> building.setDispatchStrategy(
+        new MidRunPickupDispatchStrategy(new FifoDispatchStrategy())));
+    assertResumesFromEveryTick(ElevatorEngine.OBJECT, 3, building -> {
+      building.setLookMode(true);
+      building.setDispatchStrategy(
+          new MidRunPickupDispatchStrategy(new FifoDispatchStrategy()));
+    });
+  }
+
+  /**
+   * Test that a building whose doors stay open longer for riders and reopened doors carries
+   * on the same after a checkpoint taken at any tick.
+   */
+  @Test
+  public void testCheckpointResumesDoorDwell() throws IOException {
+    assertResumesFromEveryTick(ElevatorEngine.OBJECT, 3, building -> building.setDoorDwell(1, 3));
+    assertResumesFromEveryTick(ElevatorEngine.OBJECT, 3, building -> {
+      building.setLookMode(true);
+      building.setDoorDwell(1, 3);
+    });
+  }
+
+  /**
+   * Test that a building that parks its idle elevators carries on the same after a checkpoint
+   * taken at any tick.
+   */
+  @Test
+  public void testCheckpointResumesParking() throws IOException {
+    ParkingPolicy ends = new ParkingPolicy() {
+      @Override
+      public void requestAccepted(Request request, long tick) {
+      }
+
+      @Override
+      public int[] park(DispatchContext context) {
+        int[] floors = {19, 0, 10};
+        for (int i = 0; i < floors.length; i++) {
+          ElevatorState elevator = context.getElevators().get(i);
+          if (!elevator.isIdle() && elevator.getParkingFloor() < 0) {
+            floors[i] = -1;
+          }
+        }
+        return floors;
+      }
+    };
+    assertResumesFromEveryTick(ElevatorEngine.OBJECT, 15, building -> {
+      building.setLookMode(true);
+      building.setParkingPolicy(ends);
+    });
+  }
+
+  /**
+   * Test that a building running with every mode at once carries on the same after a
+   * checkpoint taken at any tick, on the object and the actor engine.
+   */
+  @Test
+  public void testCheckpointResumesEveryMode() throws IOException {
+    ParkingPolicy middle = new ParkingPolicy() {
+      @Override
+      public void requestAccepted(Request request, long tick) {
+      }
+
+      @Override
+      public int[] park(DispatchContext context) {
+        int[] floors = new int[context.getElevators().size()];
+        for (int i = 0; i < floors.length; i++) {
+          ElevatorState elevator = context.getElevators().get(i);
+          floors[i] = elevator.isIdle() || elevator.getParkingFloor() >= 0 ? 10 : -1;
+        }
+        return floors;
+      }
+    };
+    for (ElevatorEngine engine : List.of(ElevatorEngine.OBJECT, ElevatorEngine.ACTOR)) {
+      for (int period : new int[] {3, 15}) {
+        assertResumesFromEveryTick(engine, period, building -> {
+          building.setLookMode(true);
+          building.setDoorDwell(1, 2);
+          building.setParkingPolicy(middle);
+          building.setDispatchStrategy(
+              new MidRunPickupDispatchStrategy(new NearestCarDispatchStrategy()));
+        });
+      }
+    }
+  }
+
+  /**
+   * Check that a building saved and loaded every few ticks of a run carries on exactly like
+   * the building that ran without a break.
+   *
+   * @param engine the engine of the building.
+   * @param period the number of ticks between two requests.
+   * @param setup  sets the run settings, which are not saved, on a new or loaded building.
+   * @throws IOException if a checkpoint could not be written or read.
+   */
+  private static void assertResumesFromEveryTick(ElevatorEngine engine, int period,
+                                                 Consumer<Building> setup) throws IOException {
+    for (int cut = 0; cut <= 300; cut += 6) {
+      Building original = new Building(20, 3, 5, engine);
+      setup.accept(original);
+      original.startElevatorSystem();
+      Building loaded = null;
+      for (int tick = 0; tick < 400; tick++) {
+        if (tick == cut) {
+          loaded = saveAndLoad(original);
+          setup.accept(loaded);
+        }
+        if (tick % period == 0 && tick < 300) {
+          Request request = new Request((tick * 7) % 20, (tick * 11 + 3) % 20, tick % 4 + 1);
+          original.handleAddRequest(request);
+          if (loaded != null) {
+            loaded.handleAddRequest(request);
+          }
+        }
+        original.stepElevatorSystem();
+        if (loaded != null) {
+          loaded.stepElevatorSystem();
+          assertSameState(original, loaded);
+          assertEquals(original.getRidersDelivered(), loaded.getRidersDelivered());
+          assertEquals(original.getRidersLeftBehind(), loaded.getRidersLeftBehind());
+          for (int i = 0; i < 3; i++) {
+            assertEquals(original.getLoad(i), loaded.getLoad(i));
+          }
+        }
+      }
+      assertTrue(original.getRidersDelivered() > 0);
+    }
+  }
+
+  /**
+   * Test that a loaded checkpoint keeps how long every request has waited.
+   */
+  @Test
+  public void testCheckpointKeepsArrivalTicks() throws IOException {
+    Building original = new Building(20, 2, 4);
+    original.setDispatchStrategy(new DeadlineDispatchStrategy(new NearestCarDispatchStrategy(),
+        30));
+    original.startElevatorSystem();
+    for (int tick = 0; tick < 100; tick++) {
+      if (tick % 4 == 0) {
+        original.handleAddRequest(new Request((tick * 7) % 20, (tick * 11 + 3) % 20));
+      }
+      original.stepElevatorSystem();
+    }
+
+    Building loaded = saveAndLoad(original);
+    loaded.setDispatchStrategy(new DeadlineDispatchStrategy(new NearestCarDispatchStrategy(),
+        30));
+    assertEquals(original.getUpRequests().toString(), loaded.getUpRequests().toString());
+    for (int tick = 0; tick < 200; tick++) {
+      if (tick % 4 == 0) {
+        Request request = new Request((tick * 3) % 20, (tick * 13 + 5) % 20);
+        original.handleAddRequest(request);
+        loaded.handleAddRequest(request);
+      }
+      original.stepElevatorSystem();
+      loaded.stepElevatorSystem();
+      assertSameState(original, loaded);
+    }
+  }
+
+  /**
+   * Test that a loaded checkpoint keeps the parties and who is on board.
+   */
+  @Test
+  public void testCheckpointKeepsParties() throws IOException {
+    Building original = new Building(20, 2, 4);
+    original.setLookMode(true);
+    original.startElevatorSystem();
+    for (int tick = 0; tick < 100; tick++) {
+      if (tick % 3 == 0) {
+        original.handleAddRequest(new Request((tick * 7) % 20, (tick * 11 + 3) % 20,
+            tick % 4 + 1));
+      }
+      original.stepElevatorSystem();
+    }
+
+    Building loaded = saveAndLoad(original);
+    loaded.setLookMode(true);
+    assertEquals(original.getUpRequests().toString(), loaded.getUpRequests().toString());
+    assertEquals(original.getRidersDelivered(), loaded.getRidersDelivered());
+    assertEquals(original.getRidersLeftBehind(), loaded.getRidersLeftBehind());
+    for (int tick = 0; tick < 200; tick++) {
+      for (int i = 0; i < 2; i++) {
+        assertEquals(original.getLoad(i), loaded.getLoad(i));
+      }
+      original.stepElevatorSystem();
+      loaded.stepElevatorSystem();
+      assertSameState(original, loaded);
+    }
+    assertEquals(original.getRidersDelivered(), loaded.getRidersDelivered());
+    assertTrue(original.getRidersDelivered() > 0);
+  }
+
+  /**
+   * Test that a party that does not fit waits for the next trip.
+   */
+  @Test
+  public void testPartyWaitsForRoom() {
+    Building building = new Building(10, 1, 3);
+    building.startElevatorSystem();
+    assertFalse(building.handleAddRequest(new Request(0, 5, 4)));
+    assertFalse(building.handleAddRequest(new Request(0, 5, 0)));
+    assertTrue(building.handleAddRequest(new Request(0, 5, 2)));
+    assertTrue(building.handleAddRequest(new Request(0, 6, 2)));
+    assertEquals("[0->5 x2, 0->6 x2]", building.getUpRequests().toString());
+
+    // only the first party is handed to the elevator.
+    building.stepElevatorSystem();
+    assertEquals(1, building.getRequestsDispatched());
+    assertEquals("[0->6 x2]", building.getUpRequests().toString());
+    while (building.getLoad(0) == 0) {
+      building.stepElevatorSystem();
+    }
+    assertEquals(2, building.getLoad(0));
+    for (int tick = 0; tick < 200; tick++) {
+      building.stepElevatorSystem();
+    }
+    assertEquals(0, building.getLoad(0));
+    assertEquals(4, building.getRidersDelivered());
+    assertEquals(0, building.getRidersLeftBehind());
+  }
+
+  /**
+   * Test that a party left behind waits again as old as it was, and that the parking policy
+   * learns of its call once.
+   */
+  @Test
+  public void testLeftBehindKeepsItsCall() {
+    Building building = new Building(10, 1, 3);
+    building.setLookMode(true);
+    building.setDispatchStrategy(new MidRunPickupDispatchStrategy(new FifoDispatchStrategy()));
+    List<Long> calls = new ArrayList<>();
+    building.setParkingPolicy(new ParkingPolicy() {
+      @Override
+      public void requestAccepted(Request request, long tick) {
+        if (request.getStartFloor() == 2) {
+          calls.add(tick);
+        }
+      }
+
+      @Override
+      public int[] park(DispatchContext context) {
+        int[] floors = new int[context.getElevators().size()];
+        Arrays.fill(floors, -1);
+        return floors;
+      }
+    });
+    building.startElevatorSystem();
+    building.handleAddRequest(new Request(0, 7));
+    while (building.getRidersDelivered() == 0 || !building.getElevatorSystemStatus()
+        .getElevatorReports()[0].isTakingRequests()) {
+      building.stepElevatorSystem();
+    }
+    // the car waits on 7 and opens on 5 on its way down to the party, which does not count
+    // the party any more, so it picks up a party that leaves no room for it.
+    long called = building.getCurrentTick();
+    building.handleAddRequest(new Request(2, 5, 2));
+    while (building.getElevatorSystemStatus().getElevatorReports()[0].getCurrentFloor() > 5) {
+      building.stepElevatorSystem();
+    }
+    building.handleAddRequest(new Request(4, 1, 2));
+    while (building.getRidersLeftBehind() == 0) {
+      building.stepElevatorSystem();
+    }
+    assertEquals("[2->5 x2]", building.getUpRequests().toString());
+    long[] arrival = {-1};
+    building.setDispatchStrategy(context -> {
+      arrival[0] = context.getArrivalTick(context.peek(Direction.UP));
+      return List.of();
+    });
+    building.stepElevatorSystem();
+    assertEquals(called, arrival[0]);
+    assertEquals(List.of(called), calls);
+  }
+
+  /**
+   * Test that a strategy cannot hand an elevator more people than it takes.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testTooManyPeople() {
+    Building building = new Building(10, 1, 3);
+    building.setDispatchStrategy(context -> List.of(new Assignment(0,
+        List.of(context.take(Direction.UP), context.take(Direction.UP)))));
+    building.startElevatorSystem();
+    building.handleAddRequest(new Request(0, 5, 2));
+    building.handleAddRequest(new Request(0, 6, 2));
+    building.stepElevatorSystem();
+  }
+
+  /**
+   * Test that a door stays open longer the more people get in and out.
+   */
+  @Test
+  public void testDoorDwell() {
+    Building building = new Building(10, 1, 6);
+    building.setDoorDwell(1, 0);
+    building.startElevatorSystem();
+    building.handleAddRequest(new Request(0, 5, 4));
+    building.handleAddRequest(new Request(0, 5));
+    while (building.getLoad(0) == 0) {
+      building.stepElevatorSystem();
+    }
+    ElevatorReport report = building.getElevatorSystemStatus().getElevatorReports()[0];
+    assertEquals(0, report.getCurrentFloor());
+    assertEquals(8, report.getDoorOpenTimer());
+    while (building.getLoad(0) > 0) {
+      building.stepElevatorSystem();
+    }
+    report = building.getElevatorSystemStatus().getElevatorReports()[0];
+    assertEquals(5, report.getCurrentFloor());
+    assertEquals(8, report.getDoorOpenTimer());
+  }
+
+  /**
+   * Test that jumping from event to event with longer doors ends like stepping every tick.
+   */
+  @Test
+  public void testDoorDwellEventMatchesTick() {
+    Building ticked = new Building(20, 2, 6);
+    Building evented = new Building(20, 2, 6);
+    for (Building building : new Building[] {ticked, evented}) {
+      building.setLookMode(true);
+      building.setDoorDwell(2, 3);
+      building.startElevatorSystem();
+    }
+    for (int tick = 0; tick < 400; ) {
+      if (tick % 10 == 0) {
+        Request request = new Request((tick * 7) % 20, (tick * 11 + 3) % 20, tick % 3 + 1);
+        ticked.handleAddRequest(request);
+        evented.handleAddRequest(request);
+      }
+      long advanced = evented.advanceElevatorSystem(10 - tick % 10);
+      for (long i = 0; i < advanced; i++) {
+        ticked.stepElevatorSystem();
+      }
+      tick += advanced;
+      assertSameState(ticked, evented);
+    }
+    assertEquals(ticked.getRidersDelivered(), evented.getRidersDelivered());
+    assertTrue(ticked.getRidersDelivered() > 0);
+  }
+
+  /**
+   * Test that the bank engine cannot keep a reopened door open longer.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testBankReopenExtension() {
+    new Building(10, 2, 5, ElevatorEngine.BANK).setDoorDwell(1, 2);
+  }
+
+  /**
+   * Test that a checkpoint of the bank engine is the same as one of the object engine.
+   */
+  @Test
+  public void testCheckpointSameForBothEngines() throws IOException {
+    Building objects = new Building(40, 3, 10, ElevatorEngine.OBJECT, true);
+    Building bank = new Building(40, 3, 10, ElevatorEngine.BANK, true);
+    objects.startElevatorSystem();
+    bank.startElevatorSystem();
+    for (int tick = 0; tick < 50; tick++) {
+      objects.handleAddRequest(new Request(0, 35));
+      bank.handleAddRequest(new Request(0, 35));
+      objects.stepElevatorSystem();
+      bank.stepElevatorSystem();
+    }
+    ByteArrayOutputStream fromObjects = new ByteArrayOutputStream();
+    ByteArrayOutputStream fromBank = new ByteArrayOutputStream();
+    objects.save(Channels.newChannel(fromObjects));
+    bank.save(Channels.newChannel(fromBank));
+
+    byte[] expected = fromObjects.toByteArray();
+    byte[] actual = fromBank.toByteArray();
+    // the bodies only differ in the engine byte after the counts.
+    assertEquals(expected.length, actual.length);
+    expected[28] = actual[28];
+    assertArrayEquals(expected, actual);
+    assertTrue(saveAndLoad(bank).isTallTower());
+  }
+
+  /**
+   * Test that a request past the top floor is refused, so every saved request loads again.
+   */
+  @Test
+  public void testRequestPastTopFloor() throws IOException {
+    Building building = new Building(10, 1, 3);
+    building.startElevatorSystem();
+    assertFalse(building.handleAddRequest(new Request(0, 10)));
+    assertFalse(building.handleAddRequest(new Request(10, 0)));
+    assertTrue(building.handleAddRequest(new Request(9, 0)));
+    assertEquals("[9->0]", saveAndLoad(building).getDownRequests().toString());
+  }
+
+  /**
+   * Test that something that is not a checkpoint is refused.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testCheckpointRejectsGarbage() throws IOException {
+    byte[] garbage = new byte[64];
+    Arrays.fill(garbage, (byte) 7);
+    Building.load(Channels.newChannel(new ByteArrayInputStream(garbage)));
+  }
+
+  /**
+   * Check that two buildings are in the same state, ignoring the elevator ids.
+   *
+   * @param expected the expected building.
+   * @param actual   the actual building.
+   */
+  private static void assertSameState(Building expected, Building actual) {
+    BuildingReport expectedReport = expected.getElevatorSystemStatus();
+    BuildingReport actualReport = actual.getElevatorSystemStatus();
+    assertEquals(expectedReport.toString(), actualReport.toString());
+    for (int i = 0; i < expectedReport.getElevatorReports().length; i++) {
+      assertEquals(expectedReport.getElevatorReports()[i].isTakingRequests(),
+          actualReport.getElevatorReports()[i].isTakingRequests());
+      assertEquals(expectedReport.getElevatorReports()[i].getDoorOpenTimer(),
+          actualReport.getElevatorReports()[i].getDoorOpenTimer());
+    }
+  }
 }
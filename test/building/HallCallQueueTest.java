@@ -0,0 +1,130 @@
+package building;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import org.junit.Test;
+import scanerzus.Request;
+
+
+/**
+ * Unit tests for the HallCallQueue class.
+ */
+public class HallCallQueueTest {
+
+  /**
+   * Make a queue holding 0->5, 2->6, 0->3, 4->7, 2->9 in that order, arrived at ticks 0
+   * to 4.
+   *
+   * @return the queue.
+   */
+  private static HallCallQueue queue() {
+    HallCallQueue queue = new HallCallQueue(10);
+    queue.add(new Request(0, 5), 0);
+    queue.add(new Request(2, 6), 1);
+    queue.add(new Request(0, 3), 2);
+    queue.add(new Request(4, 7), 3);
+    queue.add(new Request(2, 9), 4);
+    return queue;
+  }
+
+  /**
+   * Test that requests are taken oldest first.
+   */
+  @Test
+  public void testPollInArrivalOrder() {
+    HallCallQueue queue = queue();
+    assertEquals("[0->5, 2->6, 0->3, 4->7, 2->9]", queue.asList().toString());
+    assertEquals("0->5", queue.poll().toString());
+    assertEquals("2->6", queue.poll().toString());
+    assertEquals(3, queue.size());
+    assertEquals(1, queue.size(0));
+    assertEquals(1, queue.size(2));
+  }
+
+  /**
+   * Test that taking the requests of a floor leaves the others in order.
+   */
+  @Test
+  public void testPollFloor() {
+    HallCallQueue queue = queue();
+    assertEquals("2->6", queue.poll(2).toString());
+    assertEquals("2->9", queue.poll(2).toString());
+    assertNull(queue.poll(2));
+    assertEquals(0, queue.size(2));
+    assertEquals("[0->5, 0->3, 4->7]", queue.asList().toString());
+    assertEquals("4->7", queue.poll(4).toString());
+    assertEquals("0->5", queue.poll().toString());
+    assertEquals("0->3", queue.poll().toString());
+    assertTrue(queue.isEmpty());
+    assertNull(queue.poll());
+
+    // the queue works again once it was emptied.
+    queue.add(new Request(4, 1), 5);
+    assertEquals("[4->1]", queue.asList().toString());
+    assertEquals(1, queue.size(4));
+  }
+
+  /**
+   * Test that only the waiting requests themselves are found, with the tick they arrived at.
+   */
+  @Test
+  public void testContains() {
+    HallCallQueue queue = queue();
+    Request request = queue.asList().get(3);
+    assertTrue(queue.contains(request));
+    assertEquals(3, queue.getArrivalTick(request));
+    assertFalse(queue.contains(new Request(4, 7)));
+    queue.poll(4);
+    assertFalse(queue.contains(request));
+    assertEquals(-1, queue.getArrivalTick(request));
+  }
+
+  /**
+   * Test that the list follows the queue and that clearing drops everything.
+   */
+  @Test
+  public void testListViewAndClear() {
+    HallCallQueue queue = queue();
+    List<Request> view = queue.asList();
+    assertEquals("0->3", view.get(2).toString());
+    queue.poll(0);
+    assertEquals(4, view.size());
+    assertEquals("2->6", view.get(0).toString());
+
+    queue.clear();
+    assertTrue(view.isEmpty());
+    assertEquals(0, queue.size(0));
+    assertNull(queue.poll(2));
+  }
+
+  /**
+   * Test that the list cannot be changed.
+   */
+  @Test(expected = UnsupportedOperationException.class)
+  public void testListCannotBeChanged() {
+    queue().asList().remove(0);
+  }
+
+  /**
+   * Test that a request put back takes its place by the tick it arrived at.
+   */
+  @Test
+  public void testAddInArrivalOrder() {
+    HallCallQueue queue = queue();
+    queue.add(new Request(2, 4), 1);
+    queue.add(new Request(5, 6), 9);
+    assertEquals("[0->5, 2->6, 2->4, 0->3, 4->7, 2->9, 5->6]", queue.asList().toString());
+    assertEquals("2->6", queue.poll(2).toString());
+    assertEquals("2->4", queue.poll(2).toString());
+    assertEquals(1, queue.getTakenTick());
+    queue.add(new Request(0, 1), -1);
+    assertEquals("0->1", queue.poll().toString());
+    assertEquals(-1, queue.getTakenTick());
+    assertEquals("0->5", queue.poll(0).toString());
+    assertEquals(0, queue.getTakenTick());
+  }
+}
@@ -0,0 +1,92 @@
+package building;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import scanerzus.Request;
+
+
+/**
+ * Unit tests for the RequestRing class.
+ */
+public class RequestRingTest {
+
+  /**
+   * Test that requests come out in order and a full ring refuses more.
+   */
+  @Test
+  public void testOfferAndDrain() {
+    RequestRing ring = new RequestRing(4);
+    assertTrue(ring.isEmpty());
+    for (int i = 0; i < 4; i++) {
+      assertTrue(ring.offer(new Request(i, i + 1)));
+    }
+    assertFalse(ring.offer(new Request(5, 6)));
+
+    List<Request> taken = new ArrayList<>();
+    assertEquals(4, ring.drain(taken::add));
+    assertEquals("[0->1, 1->2, 2->3, 3->4]", taken.toString());
+    assertTrue(ring.isEmpty());
+
+    // the slots can be used again on the next lap.
+    assertTrue(ring.offer(new Request(7, 2)));
+    assertFalse(ring.isEmpty());
+    taken.clear();
+    assertEquals(1, ring.drain(taken::add));
+    assertEquals("[7->2]", taken.toString());
+  }
+
+  /**
+   * Test that the capacity must be a power of two.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testCapacityPowerOfTwo() {
+    new RequestRing(12);
+  }
+
+  /**
+   * Test that no request is lost or taken twice while producers and the consumer race.
+   */
+  @Test
+  public void testConcurrentProducers() throws InterruptedException {
+    RequestRing ring = new RequestRing(64);
+    int producers = 4;
+    int perProducer = 50_000;
+    Thread[] threads = new Thread[producers];
+    for (int p = 0; p < producers; p++) {
+      final int producer = p;
+      threads[p] = new Thread(() -> {
+        for (int i = 0; i < perProducer; i++) {
+          // the start floor names the producer, the end floor counts its requests.
+          Request request = new Request(producer, producers + i);
+          while (!ring.offer(request)) {
+            Thread.yield();
+          }
+        }
+      });
+      threads[p].start();
+    }
+
+    int[] next = new int[producers];
+    int taken = 0;
+    while (taken < producers * perProducer) {
+      taken += ring.drain(request -> {
+        int producer = request.getStartFloor();
+        // the requests of one producer come out in the order it offered them.
+        assertEquals(producers + next[producer], request.getEndFloor());
+        next[producer]++;
+      });
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertTrue(ring.isEmpty());
+    for (int count : next) {
+      assertEquals(perProducer, count);
+    }
+  }
+}
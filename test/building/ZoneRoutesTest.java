@@ -0,0 +1,61 @@
+package building;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+
+/**
+ * Unit tests for the ZoneRoutes class.
+ */
+public class ZoneRoutesTest {
+
+  /**
+   * Make the routes of a 30 floor building with a low and a high zone that meet at the sky
+   * lobby on floor 15, and an express shuttle from the ground floor to the sky lobby.
+   *
+   * @return the routes.
+   */
+  private static ZoneRoutes skyLobby() {
+    return new ZoneRoutes(30, new Zone[] {
+        new Zone(0, 15, 2, true), new Zone(0, 15, 2, false), new Zone(15, 29, 2, false)});
+  }
+
+  /**
+   * Test that a trip served by one zone is a single leg.
+   */
+  @Test
+  public void testSingleLeg() {
+    ZoneRoutes routes = skyLobby();
+    assertFalse(routes.isSingle());
+    assertArrayEquals(new int[] {0, 15}, routes.firstLeg(0, 15));
+    assertArrayEquals(new int[] {1, 3}, routes.firstLeg(7, 3));
+    assertArrayEquals(new int[] {2, 29}, routes.firstLeg(16, 29));
+    assertTrue(new ZoneRoutes(10, new Zone[] {new Zone(0, 9, 3, false)}).isSingle());
+  }
+
+  /**
+   * Test that a trip across zones changes elevators where the zones meet.
+   */
+  @Test
+  public void testLegsAcrossZones() {
+    ZoneRoutes routes = skyLobby();
+    // the ground floor takes the shuttle, the low floors the low zone, to the sky lobby.
+    assertArrayEquals(new int[] {0, 15}, routes.firstLeg(0, 20));
+    assertArrayEquals(new int[] {1, 15}, routes.firstLeg(5, 20));
+    assertArrayEquals(new int[] {2, 20}, routes.firstLeg(15, 20));
+    // and back down.
+    assertArrayEquals(new int[] {2, 15}, routes.firstLeg(20, 5));
+    assertArrayEquals(new int[] {1, 5}, routes.firstLeg(15, 5));
+  }
+
+  /**
+   * Test that a building with floors no zone reaches is refused.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnreachableFloor() {
+    new ZoneRoutes(30, new Zone[] {new Zone(0, 15, 2, true), new Zone(0, 15, 2, false)});
+  }
+}
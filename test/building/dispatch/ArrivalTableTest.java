@@ -0,0 +1,144 @@
+package building.dispatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import building.enums.Direction;
+import elevator.Elevator;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import scanerzus.Request;
+
+/**
+ * Unit tests for the arrival table.
+ */
+public class ArrivalTableTest {
+
+  /**
+   * Check a table against the elevator it was built for as the elevator steps on.
+   *
+   * @param look true to run the elevator in LOOK mode.
+   */
+  private static void checkAgainstSteps(boolean look) {
+    Elevator elevator = new Elevator(0, 20, 10, false);
+    elevator.setLook(look);
+    elevator.start();
+    long tick = 0;
+    for (; tick < 3; tick++) {
+      elevator.step();
+    }
+    elevator.processRequests(List.of(new Request(0, 7), new Request(3, 12)));
+    ArrivalTable table = new ArrivalTable(elevator, tick);
+    assertTrue(table.isCurrent(elevator, tick));
+
+    List<Long> opened = new ArrayList<>();
+    long passed = -1;
+    Direction free = look ? Direction.UP : Direction.DOWN;
+    while (!elevator.isTakingRequests()) {
+      boolean closed = elevator.isDoorClosed();
+      elevator.step();
+      if (closed && !elevator.isDoorClosed()) {
+        opened.add(tick);
+        assertEquals(tick, table.getStopTick(elevator.getCurrentFloor(), tick));
+      }
+      if (elevator.getCurrentFloor() == 10 && passed < 0) {
+        passed = tick;
+      }
+      tick++;
+    }
+    assertEquals(List.of(3L, 10L, 18L, 27L), opened);
+    assertEquals(27L, table.getLastStopTick());
+    assertEquals(passed + 1, table.getPassTick(10, Direction.UP));
+    assertEquals(tick, table.getFreeTick(free));
+    assertEquals(18L, table.getRideArrivalTick(0, 7, 3));
+    assertEquals(27L, table.getRideArrivalTick(3, 12, 10));
+    // a new stop on floor 10 delays the stop on floor 12 by a door cycle.
+    assertEquals(38L, table.getRideArrivalTick(10, 15, passed + 1));
+    if (look) {
+      assertEquals(-1, table.getPassTick(10, Direction.DOWN));
+    }
+  }
+
+  /**
+   * Test that a table follows an elevator that waits at the ends of the shaft.
+   */
+  @Test
+  public void testFollowsElevator() {
+    checkAgainstSteps(false);
+  }
+
+  /**
+   * Test that a table follows an elevator in LOOK mode.
+   */
+  @Test
+  public void testFollowsLookElevator() {
+    checkAgainstSteps(true);
+  }
+
+  /**
+   * Test that a table is built again once the elevator is handed requests.
+   */
+  @Test
+  public void testHandedRequests() {
+    Elevator elevator = new Elevator(0, 20, 10, false);
+    elevator.setLook(true);
+    elevator.start();
+    elevator.processRequests(List.of(new Request(0, 9)));
+    for (long tick = 0; tick < 5; tick++) {
+      elevator.step();
+    }
+    ArrivalTable table = new ArrivalTable(elevator, 5);
+    elevator.step();
+    assertTrue(table.isCurrent(elevator, 6));
+    assertEquals(-1, table.getStopTick(7, 0));
+    elevator.pickUp(List.of(new Request(5, 7)));
+    assertFalse(table.isCurrent(elevator, 6));
+    // an idle elevator is free where it is now, so its table only holds for one tick.
+    Elevator idle = new Elevator(1, 20, 10, false);
+    idle.setLook(true);
+    idle.start();
+    long tick = 0;
+    while (!idle.isTakingRequests() || idle.getElevatorStatus().getEndWaitTimer() > 0) {
+      tick++;
+      idle.step();
+    }
+    table = new ArrivalTable(idle, tick);
+    assertEquals(tick, table.getFreeTick(Direction.DOWN));
+    assertEquals(tick + 5, table.getFreeArrivalTick(5, Direction.DOWN, tick));
+    assertEquals(tick + 15, table.getFreeArrivalTick(5, Direction.DOWN, tick + 10));
+    assertFalse(table.isCurrent(idle, tick + 1));
+  }
+
+  /**
+   * Test that a table of requests not handed yet follows the elevator once they are handed.
+   */
+  @Test
+  public void testAfterHanding() {
+    Elevator elevator = new Elevator(0, 20, 10, false);
+    elevator.start();
+    elevator.step();
+    ArrivalTable table = new ArrivalTable(elevator, 1);
+    List<Request> requests = List.of(new Request(0, 6), new Request(2, 9));
+    ArrivalTable handed = table.afterHanding(Direction.UP, requests, 3);
+    assertFalse(handed.isCurrent(elevator, 3));
+    long tick = 1;
+    for (; tick < 3; tick++) {
+      elevator.step();
+    }
+    elevator.processRequests(requests);
+    List<Long> opened = new ArrayList<>();
+    while (!elevator.isTakingRequests()) {
+      boolean closed = elevator.isDoorClosed();
+      elevator.step();
+      if (closed && !elevator.isDoorClosed()) {
+        opened.add(tick);
+        assertEquals(tick, handed.getStopTick(elevator.getCurrentFloor(), tick));
+      }
+      tick++;
+    }
+    assertEquals(List.of(3L, 9L, 17L, 24L), opened);
+    assertEquals(tick, handed.getFreeTick(Direction.DOWN));
+  }
+}
@@ -0,0 +1,65 @@
+package building.dispatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import building.Building;
+import elevator.ElevatorReport;
+import java.util.Arrays;
+import org.junit.Test;
+import scanerzus.Request;
+
+
+/**
+ * Unit tests for the DemandParkingPolicy class.
+ */
+public class DemandParkingPolicyTest {
+
+  /**
+   * Test that recent requests weigh more than old ones.
+   */
+  @Test
+  public void testDemand() {
+    DemandParkingPolicy policy = new DemandParkingPolicy(0.5);
+    policy.requestAccepted(new Request(3, 7), 0);
+    policy.requestAccepted(new Request(8, 1), 1);
+    assertEquals(0.25, policy.getDemand(3), 1e-9);
+    assertEquals(0.5, policy.getDemand(8), 1e-9);
+    assertEquals(0, policy.getDemand(20), 1e-9);
+  }
+
+  /**
+   * Test that idle elevators end up on the floors called from most.
+   */
+  @Test
+  public void testParksOnBusiestFloors() {
+    Building building = new Building(20, 2, 5);
+    building.setLookMode(true);
+    building.setParkingPolicy(new DemandParkingPolicy());
+    building.startElevatorSystem();
+    for (int i = 0; i < 12; i++) {
+      building.handleAddRequest(i % 3 == 0 ? new Request(6, 2) : new Request(15, 18));
+      for (int tick = 0; tick < 40; tick++) {
+        building.stepElevatorSystem();
+      }
+    }
+    for (int tick = 0; tick < 100; tick++) {
+      building.stepElevatorSystem();
+    }
+
+    int[] floors = Arrays.stream(building.getElevatorSystemStatus().getElevatorReports())
+        .mapToInt(ElevatorReport::getCurrentFloor).sorted().toArray();
+    assertEquals("[6, 15]", Arrays.toString(floors));
+    for (ElevatorReport report : building.getElevatorSystemStatus().getElevatorReports()) {
+      assertTrue(report.isTakingRequests());
+    }
+  }
+
+  /**
+   * Test that parking is refused without LOOK mode.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testParkingNeedsLook() {
+    new Building(20, 2, 5).setParkingPolicy(new DemandParkingPolicy());
+  }
+}
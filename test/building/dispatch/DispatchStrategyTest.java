@@ -0,0 +1,274 @@
+package building.dispatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import building.Building;
+import building.enums.Direction;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import scanerzus.Request;
+
+
+/**
+ * Unit tests for the dispatch strategies.
+ */
+public class DispatchStrategyTest {
+
+  /**
+   * Make a building with one elevator of capacity 3 waiting on the ground floor, give it
+   * five up requests and step it once with a strategy.
+   *
+   * @param strategy the dispatch strategy.
+   * @return the building after the step.
+   */
+  private static Building dispatchOnce(DispatchStrategy strategy) {
+    Building building = new Building(10, 1, 3);
+    building.setDispatchStrategy(strategy);
+    building.startElevatorSystem();
+    for (Request request : List.of(new Request(5, 8), new Request(1, 4), new Request(5, 9),
+        new Request(2, 6), new Request(1, 7))) {
+      building.handleAddRequest(request);
+    }
+    building.stepElevatorSystem();
+    return building;
+  }
+
+  /**
+   * Test that the default strategy hands out requests in the order they arrived.
+   */
+  @Test
+  public void testFifo() {
+    Building building = dispatchOnce(new FifoDispatchStrategy());
+    assertEquals(3, building.getRequestsDispatched());
+    assertEquals("[2->6, 1->7]", building.getUpRequests().toString());
+    assertTrue(new Building(10, 1, 3).getDispatchStrategy() instanceof FifoDispatchStrategy);
+  }
+
+  /**
+   * Test that the nearest car strategy takes the lowest floors first.
+   */
+  @Test
+  public void testNearestCar() {
+    Building building = dispatchOnce(new NearestCarDispatchStrategy());
+    assertEquals(3, building.getRequestsDispatched());
+    assertEquals("[5->8, 5->9]", building.getUpRequests().toString());
+  }
+
+  /**
+   * Test that every call goes to the nearest car, not to the car with the lowest index.
+   */
+  @Test
+  public void testNearestCarPerCall() {
+    Building building = new Building(20, 2, 3);
+    building.setDispatchStrategy(new NearestCarDispatchStrategy());
+    building.setLookMode(true);
+    building.startElevatorSystem();
+    building.handleAddRequest(new Request(0, 15));
+    do {
+      building.stepElevatorSystem();
+    } while (building.getElevatorSystemStatus().getElevatorReports()[0].getCurrentFloor() < 15
+        || !building.getElevatorSystemStatus().getElevatorReports()[0].isTakingRequests());
+    assertEquals(15,
+        building.getElevatorSystemStatus().getElevatorReports()[0].getCurrentFloor());
+    building.handleAddRequest(new Request(14, 18));
+    building.handleAddRequest(new Request(1, 5));
+    building.stepElevatorSystem();
+    // car 0 waits on floor 15 and car 1 on the ground floor, one floor from each call.
+    assertEquals(3, building.getRequestsDispatched());
+    boolean[] stops = building.getElevatorSystemStatus().getElevatorReports()[0]
+        .getFloorRequests();
+    assertTrue(stops[14] && stops[18] && !stops[1]);
+    stops = building.getElevatorSystemStatus().getElevatorReports()[1].getFloorRequests();
+    assertTrue(stops[1] && stops[5]);
+  }
+
+  /**
+   * Test that the collective control strategy takes whole landings, oldest call first.
+   */
+  @Test
+  public void testCollectiveControl() {
+    Building building = dispatchOnce(new CollectiveControlDispatchStrategy());
+    assertEquals(3, building.getRequestsDispatched());
+    assertEquals("[2->6, 1->7]", building.getUpRequests().toString());
+    assertEquals(1, building.getWaitingCount(1, Direction.UP));
+    assertEquals(0, building.getWaitingCount(5, Direction.UP));
+  }
+
+  /**
+   * Test that the destination strategy groups the riders going near the oldest call's floor.
+   */
+  @Test
+  public void testDestinationDispatch() {
+    Building building = dispatchOnce(new DestinationDispatchStrategy());
+    assertEquals(3, building.getRequestsDispatched());
+    // 5->8 is the oldest, then 1->7 and 5->9 are one floor away, the lower one first.
+    assertEquals("[1->4, 2->6]", building.getUpRequests().toString());
+  }
+
+  /**
+   * Test that calls that have waited too long are handed out first, oldest first.
+   */
+  @Test
+  public void testDeadlines() {
+    // the calls are due after waiting one tick, so the car takes the oldest ones.
+    Building building = dispatchOnce(new DeadlineDispatchStrategy(
+        new NearestCarDispatchStrategy(), 2));
+    assertEquals(3, building.getRequestsDispatched());
+    assertEquals("[2->6, 1->7]", building.getUpRequests().toString());
+    // none is due yet, so the other strategy has its way.
+    DeadlineDispatchStrategy strategy = new DeadlineDispatchStrategy(
+        new NearestCarDispatchStrategy());
+    building = dispatchOnce(strategy);
+    assertEquals("[5->8, 5->9]", building.getUpRequests().toString());
+    assertEquals("Nearest car with deadlines", strategy.toString());
+  }
+
+  /**
+   * Test that a due call no elevator can take keeps the elevator that gets to it first away
+   * from the other strategy.
+   */
+  @Test
+  public void testDeadlineKeepsElevator() {
+    Building building = new Building(10, 2, 3);
+    List<Integer> seen = new ArrayList<>();
+    DispatchStrategy fifo = new FifoDispatchStrategy();
+    building.setDispatchStrategy(new DeadlineDispatchStrategy(context -> {
+      seen.add(context.getElevators().size());
+      return fifo.assign(context);
+    }, 4));
+    building.startElevatorSystem();
+    for (int i = 0; i < 6; i++) {
+      building.handleAddRequest(new Request(0, 9 - i / 3));
+    }
+    building.stepElevatorSystem();
+    assertEquals(List.of(2), seen);
+    building.handleAddRequest(new Request(5, 1));
+    building.stepElevatorSystem();
+    // both elevators are on their way up when the down call is due.
+    building.stepElevatorSystem();
+    assertEquals(Integer.valueOf(1), seen.get(seen.size() - 1));
+    assertEquals(1, building.getWaitingCount(5, Direction.DOWN));
+  }
+
+  /**
+   * Test that the strategies fill the elevators by people, so no party is left behind.
+   */
+  @Test
+  public void testPartiesFit() {
+    for (DispatchStrategy strategy : List.of(new FifoDispatchStrategy(),
+        new NearestCarDispatchStrategy(), new CollectiveControlDispatchStrategy(),
+        new DestinationDispatchStrategy())) {
+      Building building = new Building(10, 2, 6);
+      building.setDispatchStrategy(strategy);
+      building.startElevatorSystem();
+      int people = 0;
+      for (int i = 0; i < 40; i++) {
+        int start = i % 3 == 0 ? 9 : 0;
+        Request request = new Request(start, start == 0 ? 1 + i % 9 : i % 9, 1 + i % 4);
+        building.handleAddRequest(request);
+        people += request.getPartySize();
+      }
+      for (int tick = 0; tick < 2000; tick++) {
+        building.stepElevatorSystem();
+      }
+      assertEquals(strategy.toString(), 0, building.getRidersLeftBehind());
+      assertEquals(strategy.toString(), people, building.getRidersDelivered());
+    }
+  }
+
+  /**
+   * Test that a strategy that drops a request it took is caught.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testDroppedRequest() {
+    dispatchOnce(context -> {
+      context.take(Direction.UP);
+      return List.of();
+    });
+  }
+
+  /**
+   * Test that a strategy cannot hand down requests to an elevator on the ground floor.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testWrongDirection() {
+    Building building = new Building(10, 1, 3);
+    building.setDispatchStrategy(context -> List.of(new Assignment(0,
+        List.of(context.take(Direction.DOWN)))));
+    building.startElevatorSystem();
+    building.handleAddRequest(new Request(6, 2));
+    building.stepElevatorSystem();
+  }
+
+  /**
+   * Test that the strategies are found by their names.
+   */
+  @Test
+  public void testForName() {
+    assertTrue(DispatchStrategies.forName("nearest") instanceof NearestCarDispatchStrategy);
+    assertTrue(DispatchStrategies.forName("collective")
+        instanceof CollectiveControlDispatchStrategy);
+    assertTrue(DispatchStrategies.forName("eta") instanceof EtaDispatchStrategy);
+  }
+
+  /**
+   * Test that a moving elevator picks up the calls ahead of it that go its way.
+   */
+  @Test
+  public void testMidRunPickup() {
+    Building building = new Building(20, 1, 3);
+    building.setDispatchStrategy(new MidRunPickupDispatchStrategy(new FifoDispatchStrategy()));
+    building.startElevatorSystem();
+    building.handleAddRequest(new Request(0, 15));
+    while (building.getElevatorSystemStatus().getElevatorReports()[0].getCurrentFloor() < 5) {
+      building.stepElevatorSystem();
+    }
+    for (Request request : List.of(new Request(2, 7), new Request(12, 17),
+        new Request(9, 4), new Request(12, 18), new Request(14, 16))) {
+      building.handleAddRequest(request);
+    }
+    building.stepElevatorSystem();
+    // the car is on floor 5: the call below it, the down call and the call that does not
+    // fit are left waiting.
+    assertEquals(3, building.getRequestsDispatched());
+    assertEquals("[2->7, 14->16]", building.getUpRequests().toString());
+    assertEquals(1, building.getWaitingCount(9, Direction.DOWN));
+  }
+
+  /**
+   * Test that the ETA strategy hands every call to the elevator that gets to it first.
+   */
+  @Test
+  public void testEtaDispatch() {
+    Building building = new Building(20, 2, 3);
+    EtaDispatchStrategy strategy = new EtaDispatchStrategy();
+    building.setDispatchStrategy(strategy);
+    building.setLookMode(true);
+    building.startElevatorSystem();
+    building.handleAddRequest(new Request(0, 15));
+    while (building.getElevatorSystemStatus().getElevatorReports()[0].getCurrentFloor() < 5) {
+      building.stepElevatorSystem();
+    }
+    long built = strategy.getTablesBuilt();
+    building.stepElevatorSystem();
+    // the moving car and the idle one keep their tables.
+    assertEquals(built, strategy.getTablesBuilt());
+
+    for (Request request : List.of(new Request(8, 12), new Request(3, 1),
+        new Request(2, 6))) {
+      building.handleAddRequest(request);
+    }
+    building.stepElevatorSystem();
+    // car 0 picks up 8->12 on its way and idle car 1 takes 2->6, the nearest call. Car 1
+    // goes up then, so 3->1 waits for a car that can take it.
+    assertEquals(3, building.getRequestsDispatched());
+    boolean[] stops = building.getElevatorSystemStatus().getElevatorReports()[0]
+        .getFloorRequests();
+    assertTrue(stops[8] && stops[12]);
+    stops = building.getElevatorSystemStatus().getElevatorReports()[1].getFloorRequests();
+    assertTrue(stops[2] && stops[6]);
+    assertEquals(1, building.getWaitingCount(3, Direction.DOWN));
+  }
+}
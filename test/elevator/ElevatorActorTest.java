@@ -0,0 +1,87 @@
+package elevator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import building.enums.Direction;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+import scanerzus.Request;
+
+
+/**
+ * Unit tests for the ElevatorActor class.
+ */
+public class ElevatorActorTest {
+
+  /**
+   * Test that the messages of an actor are handled in the order they were sent.
+   */
+  @Test
+  public void testMessagesInOrder() {
+    ElevatorActors group = new ElevatorActors(new ForkJoinPool(2));
+    ElevatorActor actor = new ElevatorActor(new Elevator(0, 10, 5, false), group);
+    Elevator plain = new Elevator(1, 10, 5, false);
+
+    actor.start();
+    plain.start();
+    List<Request> requests = List.of(new Request(2, 6));
+    actor.processRequests(requests);
+    plain.processRequests(requests);
+    for (int i = 0; i < 25; i++) {
+      actor.step();
+      plain.step();
+    }
+
+    assertEquals(plain.getCurrentFloor(), actor.getCurrentFloor());
+    assertEquals(plain.getDirection(), actor.getDirection());
+    assertEquals(plain.isDoorClosed(), actor.isDoorClosed());
+    assertEquals(plain.toString(), actor.toString());
+  }
+
+  /**
+   * Test that many actors share a small pool.
+   */
+  @Test
+  public void testManyActorsOnSmallPool() {
+    ElevatorActors group = new ElevatorActors(new ForkJoinPool(2));
+    ElevatorActor[] actors = new ElevatorActor[20_000];
+    for (int i = 0; i < actors.length; i++) {
+      actors[i] = new ElevatorActor(new Elevator(i, 10, 5, false), group);
+      actors[i].start();
+      actors[i].processRequests(List.of(new Request(0, 9)));
+    }
+    for (int step = 0; step < 5; step++) {
+      for (ElevatorActor actor : actors) {
+        actor.step();
+      }
+    }
+    group.awaitIdle();
+    for (ElevatorActor actor : actors) {
+      assertEquals(Direction.UP, actor.getDirection());
+      assertFalse(actor.isTakingRequests());
+    }
+  }
+
+  /**
+   * Test that an exception thrown by an actor is thrown by the next wait of its group.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testFailureSurfaces() {
+    ElevatorActors group = new ElevatorActors(new ForkJoinPool(1));
+    ElevatorActor actor = new ElevatorActor(new Elevator(0, 10, 5, false), group);
+    Elevator plain = new Elevator(1, 10, 5, false);
+    actor.start();
+    plain.start();
+    actor.processRequests(List.of(new Request(0, 5)));
+    plain.processRequests(List.of(new Request(0, 5)));
+    while (plain.getCurrentFloor() == 0) {
+      actor.step();
+      plain.step();
+    }
+    // the elevator is between the bottom and the top floor.
+    actor.processRequests(List.of(new Request(0, 5)));
+    group.awaitIdle();
+  }
+}
@@ -0,0 +1,133 @@
+package elevator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import building.enums.Direction;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import scanerzus.Request;
+
+
+/**
+ * A JUnit test class for the ElevatorBank class.
+ */
+public class ElevatorBankTest {
+  private ElevatorBank bank;
+
+  /**
+   * Set up the test.
+   */
+  @Before
+  public void setUp() {
+    bank = new ElevatorBank(3, 10, 10, 5);
+  }
+
+  /**
+   * Test that the cars start out of service on the ground floor with dense ids.
+   */
+  @Test
+  public void bankStartsOutOfService() {
+    assertEquals(3, bank.getNumberOfCars());
+    for (int car = 0; car < 3; car++) {
+      ElevatorInterface elevator = bank.getElevator(car);
+      assertEquals(10 + car, elevator.getElevatorId());
+      assertEquals(0, elevator.getCurrentFloor());
+      assertEquals(Direction.STOPPED, elevator.getDirection());
+      assertTrue(elevator.getElevatorStatus().isOutOfService());
+      assertFalse(elevator.isTakingRequests());
+    }
+  }
+
+  /**
+   * Test that the bank rejects the same sizes as an elevator.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void bankRejectsTooManyFloors() {
+    new ElevatorBank(2, 0, 31, 5);
+  }
+
+  /**
+   * Test that a car serves its requests like an elevator does.
+   */
+  @Test
+  public void bankServesRequests() {
+    ElevatorInterface car = bank.getElevator(1);
+    car.start();
+    car.processRequests(List.of(new Request(0, 4), new Request(2, 9)));
+    assertArrayEquals(new boolean[] {true, false, true, false, true,
+        false, false, false, false, true}, car.getFloorRequests());
+    assertFalse(car.isTakingRequests());
+
+    // the door opens on the ground floor for 3 steps
+    bank.step(0, 3);
+    assertFalse(car.isDoorClosed());
+    assertEquals(2, car.getStepsToNextEvent());
+    car.advance(2);
+    car.step();
+    assertTrue(car.isDoorClosed());
+
+    // then the car moves up to floor 2 and opens the door there
+    assertEquals(2, car.getStepsToNextEvent());
+    car.advance(2);
+    car.step();
+    assertEquals(2, car.getCurrentFloor());
+    assertFalse(car.isDoorClosed());
+    assertEquals("[2|^|O 3]< -- -- -- --  4 -- -- -- --  9>", car.toString());
+  }
+
+  /**
+   * Test that advancing a car gives the same state as stepping another car of the bank.
+   */
+  @Test
+  public void bankAdvanceMatchesStep() {
+    ElevatorInterface stepped = bank.getElevator(0);
+    ElevatorInterface advanced = bank.getElevator(2);
+    List<Request> requests = List.of(new Request(0, 3), new Request(1, 7));
+    stepped.start();
+    advanced.start();
+    stepped.processRequests(requests);
+    advanced.processRequests(requests);
+
+    for (int tick = 0; tick < 150; ) {
+      if (tick == 100) {
+        stepped.takeOutOfService();
+        advanced.takeOutOfService();
+      }
+      int quiet = advanced.getStepsToNextEvent();
+      int steps = quiet == Integer.MAX_VALUE ? 5 : Math.min(quiet, Math.max(1, 100 - tick));
+      if (quiet > 0) {
+        advanced.advance(Math.min(steps, quiet));
+        steps = Math.min(steps, quiet);
+      } else {
+        advanced.step();
+        steps = 1;
+      }
+      for (int i = 0; i < steps; i++) {
+        stepped.step();
+      }
+      tick += steps;
+      assertEquals(stepped.toString(), advanced.toString());
+      assertEquals(stepped.isTakingRequests(), advanced.isTakingRequests());
+      assertEquals(stepped.getDirection(), advanced.getDirection());
+    }
+    assertEquals(0, advanced.getCurrentFloor());
+    assertFalse(advanced.isDoorClosed());
+  }
+
+  /**
+   * Test that the bank only accepts requests on the bottom or top floor.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void bankThrowsWhenProcessCalledMidRun() {
+    ElevatorInterface car = bank.getElevator(0);
+    car.start();
+    for (int i = 0; i < 7; i++) {
+      car.step();
+    }
+    car.processRequests(List.of(new Request(3, 5)));
+  }
+}
@@ -254,6 +254,38 @@ public class ElevatorReportTest {
 
   }
 
+  @Test
+  public void testStopsMatchFloorRequests() {
+    ElevatorReport fromStops = new ElevatorReport(
+        1,  // elevatorId
+        1,  // currentFloor
+        Direction.STOPPED, // direction
+        true,  // doorClosed
+        3,  // numberOfFloors
+        new int[]{1, 2},  // stops
+        0,  // doorOpenTimer
+        0,  // endWaitTimer
+        false,  // outOfService
+        false  // isTakingRequests
+    );
+
+    assertEquals(report, fromStops);
+    assertEquals(report.hashCode(), fromStops.hashCode());
+    assertEquals(report.toString(), fromStops.toString());
+    assertArrayEquals(new int[]{1, 2}, report.getStops());
+    assertArrayEquals(report.getFloorRequests(), fromStops.getFloorRequests());
+  }
+
+  @Test
+  public void testTallTowerStops() {
+    ElevatorReport tall = new ElevatorReport(1, 0, Direction.UP, true, 500,
+        new int[]{120, 499}, 0, 0, false, true);
+
+    assertArrayEquals(new int[]{120, 499}, tall.getStops());
+    assertEquals(500, tall.getFloorRequests().length);
+    assertTrue(tall.getFloorRequests()[499]);
+  }
+
   @Test
   public void testOtherClassesNotEqual() {
     assertNotEquals(report, new Object());
@@ -1,11 +1,13 @@
 package elevator;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import building.enums.Direction;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -129,6 +131,40 @@ public class ElevatorTest {
   }
 
 
+  /**
+   * Test the tall-tower constructor accepts supertall towers and freight cars.
+   */
+  @Test
+  public void elevatorTallTower() {
+    System.out.println("Testing: elevatorTallTower");
+    Elevator elevator = new Elevator(500, 100, true);
+    assertEquals(500, elevator.getMaxFloor());
+    assertEquals(100, elevator.getMaxOccupancy());
+
+    List<Request> requests = new ArrayList<>();
+    requests.add(new Request(0, 150));
+    requests.add(new Request(0, 499));
+    elevator.start();
+    elevator.processRequests(requests);
+    assertArrayEquals(new int[]{0, 150, 499}, elevator.getElevatorStatus().getStops());
+    for (int i = 0; i < 200 && elevator.getCurrentFloor() < 150; i++) {
+      elevator.step();
+    }
+    assertEquals(150, elevator.getCurrentFloor());
+    elevator.step();
+    assertFalse(elevator.getElevatorStatus().isDoorClosed());
+    assertArrayEquals(new int[]{499}, elevator.getElevatorStatus().getStops());
+  }
+
+  /**
+   * Test the tall-tower constructor still has limits.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void elevatorTallTowerThrowsExceptionForMoreThan500Floors() {
+    System.out.println("Testing: elevatorTallTowerThrowsExceptionForMoreThan500Floors");
+    new Elevator(501, 20, true);
+  }
+
   /**
    * Test the constructor.
    */
@@ -1048,4 +1084,291 @@ public class ElevatorTest {
 
   }
 
-}
\ No newline at end of file
+
+  /**
+   * Test that advancing over the quiet steps gives the same state as stepping.
+   */
+  @Test
+  public void elevatorAdvanceMatchesStep() {
+    System.out.println("Testing: elevatorAdvanceMatchesStep");
+    Elevator stepped = new Elevator(10, 10);
+    Elevator advanced = new Elevator(10, 10);
+    stepped.start();
+    advanced.start();
+    stepped.processRequests(upTenRequests);
+    advanced.processRequests(upTenRequests);
+
+    for (int tick = 0; tick < 120; ) {
+      if (tick == 60) {
+        stepped.takeOutOfService();
+        advanced.takeOutOfService();
+      }
+      int quiet = advanced.getStepsToNextEvent();
+      int steps = quiet == Integer.MAX_VALUE ? 7 : Math.min(quiet, 60 - tick % 60);
+      if (steps > 0) {
+        advanced.advance(steps);
+      } else {
+        advanced.step();
+        steps = 1;
+      }
+      for (int i = 0; i < steps; i++) {
+        stepped.step();
+      }
+      tick += steps;
+      assertSameState(stepped.getElevatorStatus(), advanced.getElevatorStatus());
+    }
+    assertEquals(0, advanced.getCurrentFloor());
+    assertFalse(advanced.isDoorClosed());
+  }
+
+  /**
+   * Test that the elevator cannot be advanced past its next event.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void elevatorAdvancePastEventThrows() {
+    System.out.println("Testing: elevatorAdvancePastEventThrows");
+    Elevator elevator = new Elevator(10, 5);
+    elevator.start();
+    assertEquals(4, elevator.getStepsToNextEvent());
+    elevator.advance(5);
+  }
+
+  /**
+   * Step an elevator until it waits for requests again.
+   *
+   * @param elevator the elevator.
+   */
+  private static void stepUntilTakingRequests(Elevator elevator) {
+    for (int i = 0; i < 200 && !elevator.isTakingRequests(); i++) {
+      elevator.step();
+    }
+    assertTrue(elevator.isTakingRequests());
+  }
+
+  /**
+   * Test that in LOOK mode the elevator turns at its last stop and takes requests there.
+   */
+  @Test
+  public void elevatorLookTurnsAtLastStop() {
+    System.out.println("Testing: elevatorLookTurnsAtLastStop");
+    Elevator elevator = new Elevator(0, 30, 10, false);
+    elevator.setLook(true);
+    elevator.start();
+    elevator.processRequests(List.of(new Request(2, 6)));
+    assertFalse(elevator.canTakeRequests(Direction.DOWN));
+
+    stepUntilTakingRequests(elevator);
+    assertEquals(6, elevator.getCurrentFloor());
+    assertEquals(Direction.STOPPED, elevator.getDirection());
+    assertTrue(elevator.canTakeRequests(Direction.UP));
+    assertTrue(elevator.canTakeRequests(Direction.DOWN));
+    assertEquals(Integer.MAX_VALUE, elevator.getStepsToNextEvent());
+
+    // a down request below and an up request above: down first, then turn and go up.
+    elevator.processRequests(List.of(new Request(4, 1), new Request(3, 9)));
+    assertEquals(Direction.DOWN, elevator.getDirection());
+    stepUntilTakingRequests(elevator);
+    assertEquals(9, elevator.getCurrentFloor());
+  }
+
+  /**
+   * Test that an elevator that is not in LOOK mode only takes requests at the ends.
+   */
+  @Test
+  public void elevatorCanTakeRequestsAtEnds() {
+    System.out.println("Testing: elevatorCanTakeRequestsAtEnds");
+    Elevator elevator = new Elevator(0, 10, 5, false);
+    elevator.start();
+    assertTrue(elevator.canTakeRequests(Direction.UP));
+    assertFalse(elevator.canTakeRequests(Direction.DOWN));
+    // wait on the ground floor, run up nine floors and turn at the top.
+    for (int i = 0; i < 5 + 9 + 1; i++) {
+      elevator.step();
+    }
+    assertEquals(9, elevator.getCurrentFloor());
+    assertFalse(elevator.canTakeRequests(Direction.UP));
+    assertTrue(elevator.canTakeRequests(Direction.DOWN));
+  }
+
+  /**
+   * Test that advancing over the quiet steps in LOOK mode ends like stepping.
+   */
+  @Test
+  public void elevatorLookAdvanceMatchesStep() {
+    System.out.println("Testing: elevatorLookAdvanceMatchesStep");
+    Elevator stepped = new Elevator(0, 30, 10, false);
+    Elevator advanced = new Elevator(1, 30, 10, false);
+    for (Elevator elevator : new Elevator[] {stepped, advanced}) {
+      elevator.setLook(true);
+      elevator.start();
+      elevator.processRequests(List.of(new Request(3, 12), new Request(5, 20)));
+    }
+    for (int tick = 0; tick < 60; ) {
+      int quiet = advanced.getStepsToNextEvent();
+      if (quiet > 0 && quiet != Integer.MAX_VALUE) {
+        advanced.advance(quiet);
+      } else {
+        advanced.step();
+        quiet = 1;
+      }
+      for (int i = 0; i < quiet; i++) {
+        stepped.step();
+      }
+      tick += quiet;
+      assertSameState(stepped.getElevatorStatus(), advanced.getElevatorStatus());
+    }
+    assertEquals(20, stepped.getCurrentFloor());
+  }
+
+  /**
+   * Step an elevator until its door opens on a floor.
+   *
+   * @param elevator the elevator.
+   * @param floor    the floor.
+   */
+  private static void stepUntilDoorOpens(Elevator elevator, int floor) {
+    for (int i = 0; i < 200 && (elevator.isDoorClosed() || elevator.getCurrentFloor() != floor);
+         i++) {
+      elevator.step();
+    }
+    assertFalse(elevator.isDoorClosed());
+    assertEquals(floor, elevator.getCurrentFloor());
+  }
+
+  /**
+   * Test that a moving elevator picks up riders ahead of it that go its way.
+   */
+  @Test
+  public void elevatorPicksUpOnTheWay() {
+    System.out.println("Testing: elevatorPicksUpOnTheWay");
+    Elevator elevator = new Elevator(0, 20, 3, false);
+    elevator.start();
+    assertEquals(0, elevator.getPickUpCapacity());
+    elevator.processRequests(List.of(new Request(1, 3), new Request(2, 4)));
+    stepUntilDoorOpens(elevator, 1);
+    assertEquals(1, elevator.getPickUpCapacity());
+
+    assertFalse(elevator.canPickUp(new Request(0, 5)));
+    assertFalse(elevator.canPickUp(new Request(8, 4)));
+    assertTrue(elevator.canPickUp(new Request(6, 9)));
+    elevator.pickUp(List.of(new Request(6, 9)));
+    assertEquals(0, elevator.getPickUpCapacity());
+    assertFalse(elevator.canPickUp(new Request(7, 8)));
+
+    // the first riders get out and make room again.
+    stepUntilDoorOpens(elevator, 3);
+    assertEquals(1, elevator.getPickUpCapacity());
+    stepUntilDoorOpens(elevator, 4);
+    stepUntilDoorOpens(elevator, 6);
+    stepUntilDoorOpens(elevator, 9);
+    assertEquals(3, elevator.getPickUpCapacity());
+    assertEquals(Direction.UP, elevator.getDirection());
+  }
+
+  /**
+   * Test that an elevator refuses riders it cannot pick up on the way.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void elevatorPickUpBehindFails() {
+    System.out.println("Testing: elevatorPickUpBehindFails");
+    Elevator elevator = new Elevator(0, 20, 5, false);
+    elevator.start();
+    elevator.processRequests(List.of(new Request(4, 8)));
+    stepUntilDoorOpens(elevator, 4);
+    elevator.pickUp(List.of(new Request(2, 6)));
+  }
+
+  /**
+   * Test that an idle elevator in LOOK mode parks on a floor and still takes requests.
+   */
+  @Test
+  public void elevatorParks() {
+    System.out.println("Testing: elevatorParks");
+    Elevator elevator = new Elevator(0, 20, 5, false);
+    elevator.setLook(true);
+    elevator.start();
+    stepUntilTakingRequests(elevator);
+    for (int i = 0; i < 10 && !elevator.isIdle(); i++) {
+      elevator.step();
+    }
+    assertTrue(elevator.isIdle());
+
+    elevator.park(8);
+    assertEquals(8, elevator.getParkingFloor());
+    assertEquals(8, elevator.getStepsToNextEvent());
+    elevator.advance(8);
+    elevator.step();
+    assertEquals(8, elevator.getCurrentFloor());
+    assertTrue(elevator.isIdle());
+    assertEquals(-1, elevator.getParkingFloor());
+
+    // a request on the way ends the parking.
+    elevator.park(2);
+    elevator.step();
+    assertTrue(elevator.canTakeRequests(Direction.UP));
+    elevator.processRequests(List.of(new Request(10, 12)));
+    assertEquals(-1, elevator.getParkingFloor());
+    stepUntilTakingRequests(elevator);
+    assertEquals(12, elevator.getCurrentFloor());
+  }
+
+  /**
+   * Test that a door is held open longer, and longer again when it reopens where it closed.
+   */
+  @Test
+  public void elevatorHoldsAndReopensDoor() {
+    System.out.println("Testing: elevatorHoldsAndReopensDoor");
+    Elevator elevator = new Elevator(0, 20, 5, false);
+    elevator.setLook(true);
+    elevator.setReopenExtension(4);
+    elevator.start();
+    elevator.processRequests(List.of(new Request(5, 8)));
+    stepUntilDoorOpens(elevator, 5);
+    assertEquals(3, elevator.getElevatorStatus().getDoorOpenTimer());
+    elevator.holdDoor(2);
+    assertEquals(5, elevator.getElevatorStatus().getDoorOpenTimer());
+    assertEquals(4, elevator.getStepsToNextEvent());
+
+    // the door closes on floor 8 and opens there again for a new request.
+    stepUntilTakingRequests(elevator);
+    assertEquals(8, elevator.getCurrentFloor());
+    elevator.processRequests(List.of(new Request(8, 2)));
+    stepUntilDoorOpens(elevator, 8);
+    assertEquals(7, elevator.getElevatorStatus().getDoorOpenTimer());
+    // on floor 2 the door opens for the usual time.
+    for (int i = 0; i < 7; i++) {
+      elevator.step();
+    }
+    stepUntilDoorOpens(elevator, 2);
+    assertEquals(3, elevator.getElevatorStatus().getDoorOpenTimer());
+  }
+
+  /**
+   * Test that a closed door cannot be held open.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void elevatorHoldClosedDoorFails() {
+    System.out.println("Testing: elevatorHoldClosedDoorFails");
+    Elevator elevator = new Elevator(0, 20, 5, false);
+    elevator.start();
+    elevator.holdDoor(1);
+  }
+
+  /**
+   * Check that two reports describe the same state, ignoring the elevator id.
+   *
+   * @param expected the expected report.
+   * @param actual   the actual report.
+   */
+  private static void assertSameState(ElevatorReport expected, ElevatorReport actual) {
+    assertEquals(expected.getCurrentFloor(), actual.getCurrentFloor());
+    assertEquals(expected.getDirection(), actual.getDirection());
+    assertEquals(expected.isDoorClosed(), actual.isDoorClosed());
+    assertEquals(expected.getDoorOpenTimer(), actual.getDoorOpenTimer());
+    assertEquals(expected.getEndWaitTimer(), actual.getEndWaitTimer());
+    assertEquals(expected.isOutOfService(), actual.isOutOfService());
+    assertEquals(expected.isTakingRequests(), actual.isTakingRequests());
+    assertEquals(Arrays.toString(expected.getFloorRequests()),
+        Arrays.toString(actual.getFloorRequests()));
+  }
+}
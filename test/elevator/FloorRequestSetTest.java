@@ -0,0 +1,94 @@
+package elevator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ * A JUnit test class for the FloorRequestSet class.
+ */
+public class FloorRequestSetTest {
+  private FloorRequestSet requests;
+
+  /**
+   * Set up a set that spans three words.
+   */
+  @Before
+  public void setUp() {
+    requests = new FloorRequestSet(150);
+    requests.add(0);
+    requests.add(5);
+    requests.add(63);
+    requests.add(64);
+    requests.add(149);
+  }
+
+  /**
+   * Test adding, checking and removing floors.
+   */
+  @Test
+  public void testAddRemove() {
+    assertTrue(requests.contains(63));
+    assertTrue(requests.contains(64));
+    assertFalse(requests.contains(65));
+    assertEquals(5, requests.size());
+
+    requests.remove(63);
+    assertFalse(requests.contains(63));
+    assertTrue(requests.contains(64));
+    assertEquals(4, requests.size());
+  }
+
+  /**
+   * Test finding the next stop above a floor, across words.
+   */
+  @Test
+  public void testNextAbove() {
+    assertEquals(0, requests.nextAbove(-1));
+    assertEquals(5, requests.nextAbove(0));
+    assertEquals(63, requests.nextAbove(5));
+    assertEquals(64, requests.nextAbove(63));
+    assertEquals(149, requests.nextAbove(64));
+    assertEquals(-1, requests.nextAbove(149));
+  }
+
+  /**
+   * Test finding the next stop below a floor, across words.
+   */
+  @Test
+  public void testNextBelow() {
+    assertEquals(64, requests.nextBelow(149));
+    assertEquals(63, requests.nextBelow(64));
+    assertEquals(5, requests.nextBelow(63));
+    assertEquals(0, requests.nextBelow(5));
+    assertEquals(-1, requests.nextBelow(0));
+  }
+
+  /**
+   * Test clearing the set.
+   */
+  @Test
+  public void testClear() {
+    assertFalse(requests.isEmpty());
+    requests.clear();
+    assertTrue(requests.isEmpty());
+    assertEquals(-1, requests.nextAbove(-1));
+    assertEquals(-1, requests.nextBelow(150));
+  }
+
+  /**
+   * Test converting the set to one flag per floor.
+   */
+  @Test
+  public void testToArray() {
+    FloorRequestSet small = new FloorRequestSet(4);
+    small.add(1);
+    small.add(3);
+    assertArrayEquals(new boolean[] {false, true, false, true}, small.toArray());
+  }
+}
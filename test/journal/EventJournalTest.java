@@ -0,0 +1,153 @@
+package journal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import building.Building;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import simulation.RandomRequestStream;
+import simulation.SimulationRunner;
+
+
+/**
+ * Unit tests for the EventJournal class.
+ */
+public class EventJournalTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * Read a journal into one line per record.
+   *
+   * @param file the journal file.
+   * @return the records.
+   * @throws IOException if the journal could not be read.
+   */
+  private static List<String> readAll(Path file) throws IOException {
+    List<String> records = new ArrayList<>();
+    EventJournal.read(file, (tick, event, elevator, first, second) ->
+        records.add(tick + " " + event + " " + elevator + " " + first + " " + second));
+    return records;
+  }
+
+  /**
+   * Test that records are read back as they were written and the file is cut on close.
+   */
+  @Test
+  public void testRecordAndRead() throws IOException {
+    Path file = folder.getRoot().toPath().resolve("events.journal");
+    try (EventJournal journal = new EventJournal(file, 10)) {
+      journal.record(3, JournalEvent.REQUEST_ACCEPTED, -1, 0, 7);
+      journal.record(4, JournalEvent.REQUEST_ASSIGNED, 2, 0, 7);
+      journal.record(9, JournalEvent.DOOR_OPENED, 2, 7, -1);
+      assertEquals(3, journal.size());
+    }
+
+    assertEquals(3 * EventJournal.RECORD_SIZE, Files.size(file));
+    assertEquals(List.of("3 Request accepted -1 0 7", "4 Request assigned 2 0 7",
+        "9 Door opened 2 7 -1"), readAll(file));
+  }
+
+  /**
+   * Test that a full journal refuses more records.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testFullJournal() throws IOException {
+    try (EventJournal journal = new EventJournal(folder.newFile().toPath(), 2)) {
+      for (int i = 0; i < 3; i++) {
+        journal.record(i, JournalEvent.FLOOR_REACHED, 0, i, -1);
+      }
+    }
+  }
+
+  /**
+   * Test that nothing can be recorded once the journal is closed.
+   */
+  @Test
+  public void testRecordAfterClose() throws IOException {
+    Path file = folder.getRoot().toPath().resolve("closed.journal");
+    EventJournal journal = new EventJournal(file, 10);
+    journal.record(1, JournalEvent.DOOR_OPENED, 0, 3, -1);
+    journal.close();
+    try {
+      journal.record(2, JournalEvent.FLOOR_REACHED, 0, 4, -1);
+      fail("A closed journal took a record.");
+    } catch (IllegalStateException e) {
+      assertEquals(1, journal.size());
+    }
+    assertEquals(EventJournal.RECORD_SIZE, Files.size(file));
+  }
+
+  /**
+   * Test that writers on several threads never lose or mix up a record.
+   */
+  @Test
+  public void testConcurrentWriters() throws Exception {
+    Path file = folder.getRoot().toPath().resolve("concurrent.journal");
+    Thread[] writers = new Thread[4];
+    try (EventJournal journal = new EventJournal(file, 1 << 21)) {
+      for (int w = 0; w < writers.length; w++) {
+        final int writer = w;
+        writers[w] = new Thread(() -> {
+          for (int i = 0; i < 300_000; i++) {
+            journal.record(i, JournalEvent.FLOOR_REACHED, writer, i % 30, -1);
+          }
+        });
+        writers[w].start();
+      }
+      for (Thread thread : writers) {
+        thread.join();
+      }
+    }
+
+    long[] counts = new long[writers.length];
+    long read = EventJournal.read(file, (tick, event, elevator, first, second) -> {
+      assertEquals(tick % 30, first);
+      counts[elevator]++;
+    });
+    assertEquals(1_200_000, read);
+    for (long count : counts) {
+      assertEquals(300_000, count);
+    }
+  }
+
+  /**
+   * Test that a building records every request and that jumping from event to event
+   * records the same elevator events as stepping every tick.
+   */
+  @Test
+  public void testBuildingJournal() throws IOException {
+    List<List<String>> runs = new ArrayList<>();
+    for (boolean eventDriven : new boolean[] {false, true}) {
+      Path file = folder.getRoot().toPath().resolve("building-" + eventDriven + ".journal");
+      Building building = new Building(12, 3, 5);
+      SimulationRunner runner = new SimulationRunner(building,
+          new RandomRequestStream(12, 0.05, 5));
+      runner.setEventDriven(eventDriven);
+      try (EventJournal journal = new EventJournal(file, 1 << 20)) {
+        building.setJournal(journal);
+        runner.run(3000);
+      }
+
+      List<String> records = readAll(file);
+      long accepted = records.stream().filter(r -> r.contains("accepted")).count();
+      long assigned = records.stream().filter(r -> r.contains("assigned")).count();
+      assertEquals(building.getRequestsAccepted(), accepted);
+      assertEquals(building.getRequestsDispatched(), assigned);
+      assertTrue(records.stream().anyMatch(r -> r.contains("Door opened")));
+      assertTrue(records.stream().anyMatch(r -> r.contains("Direction reversed")));
+      Collections.sort(records);
+      runs.add(records);
+    }
+    assertEquals(runs.get(0), runs.get(1));
+  }
+}
@@ -0,0 +1,83 @@
+package simulation;
+
+import static org.junit.Assert.assertEquals;
+
+import building.Building;
+import elevator.ElevatorReport;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+
+/**
+ * Unit tests for the SimulationHost class.
+ */
+public class SimulationHostTest {
+
+  /**
+   * Make the runner of a small building with its own seed.
+   *
+   * @param index the index of the building.
+   * @return the runner of the building.
+   */
+  private static SimulationRunner runner(int index) {
+    return new SimulationRunner(new Building(8, 3, 5),
+        new RandomRequestStream(8, 0.2, 100 + index));
+  }
+
+  /**
+   * Test that every building gives the same result as when it runs alone.
+   */
+  @Test
+  public void testPortfolioMatchesSerialRuns() {
+    PortfolioResult portfolio;
+    List<Integer> finished = new ArrayList<>();
+    try (SimulationHost host = new SimulationHost(4)) {
+      portfolio = host.run(24, SimulationHostTest::runner, 2000,
+          (index, result) -> finished.add(index));
+    }
+
+    assertEquals(24, portfolio.getNumberOfBuildings());
+    assertEquals(24, finished.size());
+    long dispatched = 0;
+    for (int i = 0; i < 24; i++) {
+      SimulationResult alone = runner(i).run(2000);
+      SimulationResult hosted = portfolio.getBuildingResults().get(i);
+      assertEquals(alone.getRequestsSubmitted(), hosted.getRequestsSubmitted());
+      assertEquals(alone.getRequestsDispatched(), hosted.getRequestsDispatched());
+      assertEquals(alone.getPendingTotal(), hosted.getPendingTotal());
+      dispatched += hosted.getRequestsDispatched();
+    }
+    assertEquals(24 * 2000, portfolio.getTotal().getTicks());
+    assertEquals(dispatched, portfolio.getTotal().getRequestsDispatched());
+  }
+
+  /**
+   * Test that every building numbers its elevators from 0.
+   */
+  @Test
+  public void testDenseElevatorIds() {
+    for (int b = 0; b < 3; b++) {
+      ElevatorReport[] reports = new Building(5, 4, 5).getElevatorSystemStatus()
+          .getElevatorReports();
+      for (int i = 0; i < reports.length; i++) {
+        assertEquals(i, reports[i].getElevatorId());
+      }
+    }
+  }
+
+  /**
+   * Test that a failing building is reported to the caller.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testFailingBuilding() {
+    try (SimulationHost host = new SimulationHost(2)) {
+      host.run(4, index -> {
+        if (index == 2) {
+          throw new IllegalArgumentException("bad building");
+        }
+        return runner(index);
+      }, 10);
+    }
+  }
+}
@@ -0,0 +1,183 @@
+package simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import building.Building;
+import building.Zone;
+import building.enums.ElevatorEngine;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import scanerzus.Request;
+
+
+/**
+ * Unit tests for the SimulationRunner class and the request streams.
+ */
+public class SimulationRunnerTest {
+
+  /**
+   * Test that a recorded stream hands out its requests at the recorded ticks.
+   */
+  @Test
+  public void testRecordedStreamArrivals() {
+    RecordedRequestStream stream = new RecordedRequestStream(new long[] {0, 0, 4},
+        new Request[] {new Request(0, 3), new Request(5, 1), new Request(2, 4)});
+    List<Request> arrivals = new ArrayList<>();
+
+    stream.arrivalsAt(0, arrivals);
+    assertEquals("[0->3, 5->1]", arrivals.toString());
+    assertEquals(4, stream.nextArrivalTick(1));
+
+    arrivals.clear();
+    stream.arrivalsAt(4, arrivals);
+    assertEquals("[2->4]", arrivals.toString());
+    assertEquals(Long.MAX_VALUE, stream.nextArrivalTick(5));
+  }
+
+  /**
+   * Test that recorded ticks must not go backwards.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testRecordedStreamDecreasingTicks() {
+    new RecordedRequestStream(new long[] {3, 1},
+        new Request[] {new Request(0, 3), new Request(5, 1)});
+  }
+
+  /**
+   * Test that a random stream never generates a request to the same floor.
+   */
+  @Test
+  public void testRandomStreamValidRequests() {
+    RandomRequestStream stream = new RandomRequestStream(5, 2.0, 11);
+    List<Request> arrivals = new ArrayList<>();
+    for (long tick = 0; tick < 100; tick++) {
+      stream.arrivalsAt(tick, arrivals);
+    }
+    assertTrue(arrivals.size() > 100);
+    for (Request request : arrivals) {
+      assertTrue(request.getStartFloor() >= 0 && request.getStartFloor() < 5);
+      assertTrue(request.getEndFloor() >= 0 && request.getEndFloor() < 5);
+      assertTrue(request.getStartFloor() != request.getEndFloor());
+    }
+  }
+
+  /**
+   * Test that a random stream of parties draws every size up to the largest.
+   */
+  @Test
+  public void testRandomStreamParties() {
+    RandomRequestStream stream = new RandomRequestStream(new RequestGenerator(5, 11), 2.0, 3);
+    List<Request> arrivals = new ArrayList<>();
+    for (long tick = 0; tick < 100; tick++) {
+      stream.arrivalsAt(tick, arrivals);
+    }
+    int[] sizes = new int[4];
+    for (Request request : arrivals) {
+      assertTrue(request.getStartFloor() != request.getEndFloor());
+      sizes[request.getPartySize()]++;
+    }
+    assertTrue(sizes[1] > 0 && sizes[2] > 0 && sizes[3] > 0);
+    // parties of one draw the same requests as before.
+    RequestGenerator plain = new RequestGenerator(20, 7);
+    RequestGenerator single = new RequestGenerator(20, 7);
+    for (int i = 0; i < 10; i++) {
+      assertEquals(plain.nextRequest().toString(), single.nextRequest(1).toString());
+    }
+  }
+
+  /**
+   * Test that the runner starts the building, steps it and counts the requests.
+   */
+  @Test
+  public void testRunCountsRequests() {
+    Building building = new Building(10, 2, 5);
+    RecordedRequestStream stream = new RecordedRequestStream(new long[] {0, 1, 2},
+        new Request[] {new Request(0, 3), new Request(0, 5), new Request(9, 1)});
+    SimulationResult result = new SimulationRunner(building, stream).run(100);
+
+    assertEquals(100, result.getTicks());
+    assertEquals(100, building.getCurrentTick());
+    assertEquals(3, result.getRequestsSubmitted());
+    assertEquals(3, result.getRequestsAccepted());
+    assertEquals(3, result.getRequestsDispatched());
+    assertEquals(0, result.getPendingAtEnd());
+    assertEquals(3, result.getRidersDelivered());
+    assertEquals(0, result.getRidersLeftBehind());
+  }
+
+  /**
+   * Record the report of a building after every tick of a seeded run.
+   *
+   * @param seed the seed of the requests.
+   * @return the reports of every tick.
+   */
+  private static List<String> reportsOfRun(long seed) {
+    Building building = new Building(12, 3, 5);
+    building.startElevatorSystem();
+    RandomRequestStream stream = new RandomRequestStream(12, 0.5, seed);
+    List<Request> arrivals = new ArrayList<>();
+    List<String> reports = new ArrayList<>();
+    for (long tick = 0; tick < 500; tick++) {
+      arrivals.clear();
+      stream.arrivalsAt(tick, arrivals);
+      for (Request request : arrivals) {
+        building.handleAddRequest(request);
+      }
+      building.stepElevatorSystem();
+      reports.add(building.getElevatorSystemStatus().toString()
+          + Arrays.toString(building.getElevatorSystemStatus().getElevatorReports()));
+    }
+    return reports;
+  }
+
+  /**
+   * Test that the mean wait of a zoned run counts every leg that waited, not only the calls.
+   */
+  @Test
+  public void testMeanWaitCountsLegs() {
+    Building building = new Building(30, List.of(new Zone(0, 15, 2, false),
+        new Zone(15, 29, 2, false)), 5, ElevatorEngine.OBJECT, false);
+    RecordedRequestStream stream = new RecordedRequestStream(new long[] {0, 3, 6},
+        new Request[] {new Request(2, 25), new Request(28, 4), new Request(10, 20)});
+    SimulationResult result = new SimulationRunner(building, stream).run(300);
+
+    assertEquals(3, result.getRequestsAccepted());
+    assertEquals(6, result.getRequestsDispatched());
+    assertEquals(3, result.getRidersDelivered());
+    assertEquals((double) result.getPendingTotal() / 6, result.getMeanWaitTicks(), 1e-9);
+  }
+
+  /**
+   * Test that a seed always gives the same report tick by tick.
+   */
+  @Test
+  public void testSameSeedSameReports() {
+    assertEquals(reportsOfRun(42), reportsOfRun(42));
+    assertNotEquals(reportsOfRun(42), reportsOfRun(43));
+  }
+
+  /**
+   * Test that split generators follow the seed and differ from each other.
+   */
+  @Test
+  public void testSplitGeneratorsRepeat() {
+    RequestGenerator first = new RequestGenerator(20, 7);
+    RequestGenerator second = new RequestGenerator(20, 7);
+    RequestGenerator firstSplit = first.split();
+    RequestGenerator secondSplit = second.split();
+    List<String> fromFirst = new ArrayList<>();
+    List<String> fromSecond = new ArrayList<>();
+    List<String> fromParent = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      fromFirst.add(firstSplit.nextRequest().toString());
+      fromSecond.add(secondSplit.nextRequest().toString());
+      fromParent.add(first.nextRequest().toString());
+    }
+    assertEquals(fromFirst, fromSecond);
+    assertNotEquals(fromFirst, fromParent);
+  }
+}
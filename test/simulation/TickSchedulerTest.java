@@ -0,0 +1,151 @@
+package simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import building.Building;
+import building.BuildingReport;
+import building.enums.ElevatorSystemStatus;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+import scanerzus.Request;
+
+
+/**
+ * Unit tests for the TickScheduler class.
+ */
+public class TickSchedulerTest {
+
+  /**
+   * Test that commands run on the simulation thread while the scheduler runs.
+   */
+  @Test
+  public void testCommandsRunOnSimulationThread() throws InterruptedException {
+    Building building = new Building(10, 2, 5);
+    TickScheduler scheduler = new TickScheduler(building);
+    scheduler.submit(b -> b.startElevatorSystem());
+    scheduler.setTicksPerSecond(TickScheduler.AS_FAST_AS_POSSIBLE);
+    scheduler.start();
+    try {
+      AtomicReference<String> thread = new AtomicReference<>();
+      CountDownLatch ran = new CountDownLatch(1);
+      scheduler.submit(b -> {
+        thread.set(Thread.currentThread().getName());
+        ran.countDown();
+      });
+      assertTrue(ran.await(5, TimeUnit.SECONDS));
+      assertEquals("tick-scheduler", thread.get());
+    } finally {
+      scheduler.stop();
+    }
+    assertFalse(scheduler.isRunning());
+    assertTrue(scheduler.getTicks() > 0);
+  }
+
+  /**
+   * Test that stopping runs the commands left and publishes the state they leave.
+   */
+  @Test
+  public void testStopDrainsCommands() {
+    Building building = new Building(10, 2, 5);
+    TickScheduler scheduler = new TickScheduler(building);
+    scheduler.submit(b -> b.startElevatorSystem());
+    // a slow rate, so the request is most likely still waiting when the scheduler stops.
+    scheduler.setTicksPerSecond(0.01);
+    scheduler.start();
+    scheduler.submit(b -> b.handleAddRequest(new Request(3, 7)));
+    scheduler.stop();
+
+    assertEquals(1, building.getRequestsAccepted());
+    BuildingReport report = scheduler.getLatestReport();
+    assertEquals(ElevatorSystemStatus.running, report.getSystemStatus());
+    assertEquals(building.getElevatorSystemStatus().toString(), report.toString());
+  }
+
+  /**
+   * Test that the commands waiting when a command fails still run.
+   */
+  @Test
+  public void testFailureDrainsCommands() throws InterruptedException {
+    Building building = new Building(10, 2, 5);
+    TickScheduler scheduler = new TickScheduler(building);
+    scheduler.submit(b -> b.startElevatorSystem());
+    scheduler.setTicksPerSecond(TickScheduler.AS_FAST_AS_POSSIBLE);
+    scheduler.start();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    scheduler.submit(b -> {
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      throw new IllegalStateException("broken");
+    });
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    // queued behind the failing command.
+    scheduler.submit(b -> b.handleAddRequest(new Request(3, 7)));
+    release.countDown();
+    for (int i = 0; i < 500 && scheduler.isRunning(); i++) {
+      Thread.sleep(10);
+    }
+
+    assertFalse(scheduler.isRunning());
+    assertEquals("broken", scheduler.getFailure().getMessage());
+    assertEquals(1, building.getRequestsAccepted());
+  }
+
+  /**
+   * Test that a published snapshot does not change as the building goes on.
+   */
+  @Test
+  public void testSnapshotDoesNotChange() {
+    Building building = new Building(10, 2, 5);
+    TickScheduler scheduler = new TickScheduler(building);
+    scheduler.submit(b -> b.startElevatorSystem());
+    scheduler.submit(b -> b.handleAddRequest(new Request(3, 7)));
+    BuildingReport report = scheduler.getLatestReport();
+    String before = report.toString();
+
+    scheduler.submit(b -> {
+      for (int i = 0; i < 20; i++) {
+        b.stepElevatorSystem();
+      }
+    });
+    assertEquals(before, report.toString());
+    assertNotSame(report, scheduler.getLatestReport());
+  }
+
+  /**
+   * Test that steps slower than the tick rate are counted as overruns.
+   */
+  @Test
+  public void testOverruns() throws InterruptedException {
+    TickScheduler scheduler = new TickScheduler(new Building(10, 2, 5));
+    // a billion ticks a second leaves a nanosecond for every step.
+    scheduler.setTicksPerSecond(1e9);
+    scheduler.start();
+    try {
+      while (scheduler.getTicks() < 100) {
+        Thread.sleep(1);
+      }
+    } finally {
+      scheduler.stop();
+    }
+    assertTrue(scheduler.getOverruns() > 0);
+    assertTrue(scheduler.getMaxOverrunNanos() > 0);
+  }
+
+  /**
+   * Test that the tick rate must be positive.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testRateMustBePositive() {
+    new TickScheduler(new Building(10, 2, 5)).setTicksPerSecond(0);
+  }
+}